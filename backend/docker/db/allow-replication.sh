@@ -0,0 +1,3 @@
+#!/bin/sh
+# ローカル検証用: db-replica からのストリーミングレプリケーション接続を許可する（初回起動時のみ実行される）
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
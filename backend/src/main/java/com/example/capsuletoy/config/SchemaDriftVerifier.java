@@ -0,0 +1,101 @@
+package com.example.capsuletoy.config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+
+/**
+ * 起動時のスキーマ整合性チェック
+ * 未適用のマイグレーションや、マイグレーションで作成したインデックスの欠落があれば起動を中止する。
+ * 列・型の差異は spring.jpa.hibernate.ddl-auto=validate で検出される。
+ * 全シングルトンの生成後（flywayInitializer によるマイグレーションの後）、コンテキストのリフレッシュ完了前に実行する。
+ * @Scheduled のタスクはリフレッシュ完了時に、設定別スケジュールや ApplicationRunner はその後に始まるため、
+ * チェックに失敗した場合はどのジョブも動き出す前に起動が中止される。
+ */
+@Component
+public class SchemaDriftVerifier implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaDriftVerifier.class);
+
+    // マイグレーションで作成し、クエリが前提としているインデックス
+    static final List<String> REQUIRED_INDEXES = List.of(
+            "uk_products_manufacturer_product_key",
+            "idx_products_created_at",
+            "idx_products_release_date",
+            "idx_products_manufacturer_created_at",
+            "idx_products_manufacturer_release_date",
+            "idx_products_first_seen_at",
+            "idx_products_manufacturer_first_seen_at",
+            "idx_products_product_name_trgm",
+            "idx_scrape_logs_executed_at",
+            "idx_scrape_logs_target_site_executed_at",
+            "uk_scrape_tasks_detail_url",
+            "idx_scrape_tasks_status_available_at",
+            "idx_product_changes_product_id_observed_at",
+            "pk_scrape_logs",
+            "uk_products_archive_manufacturer_product_key",
+            "idx_products_archive_manufacturer_release_date",
+            "idx_products_archive_product_name_trgm",
+            "idx_products_archive_manufacturer_normalized_name",
+            "idx_products_manufacturer_normalized_name",
+            "idx_products_normalized_name_trgm",
+            "idx_products_search_text_trgm",
+            "idx_products_updated_at",
+            "idx_product_name_signatures_bands",
+            "uk_product_duplicate_candidates_pair",
+            "idx_product_duplicate_candidates_status_detected_at");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabasePlatform databasePlatform;
+
+    private final ObjectProvider<Flyway> flywayProvider;
+
+    public SchemaDriftVerifier(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform,
+            ObjectProvider<Flyway> flywayProvider) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+        this.flywayProvider = flywayProvider;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Flyway flyway = flywayProvider.getIfAvailable();
+        if (flyway == null || !databasePlatform.isPostgreSql()) {
+            // テスト（H2 + create-drop）ではマイグレーションを使わない
+            return;
+        }
+
+        MigrationInfo[] pending = flyway.info().pending();
+        if (pending.length > 0) {
+            throw new IllegalStateException("未適用のマイグレーションがあります: " + pending[0].getVersion()
+                    + " ほか" + pending.length + "件");
+        }
+
+        Set<String> existingIndexes = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class));
+        List<String> missingIndexes = new ArrayList<>();
+        for (String index : REQUIRED_INDEXES) {
+            if (!existingIndexes.contains(index)) {
+                missingIndexes.add(index);
+            }
+        }
+        if (!missingIndexes.isEmpty()) {
+            throw new IllegalStateException("スキーマがマイグレーションと一致しません。インデックスがありません: " + missingIndexes);
+        }
+
+        logger.info("スキーマ整合性チェック完了（バージョン: {}）", flyway.info().current().getVersion());
+    }
+}
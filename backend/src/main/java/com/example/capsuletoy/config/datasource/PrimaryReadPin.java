@@ -0,0 +1,86 @@
+package com.example.capsuletoy.config.datasource;
+
+import java.util.function.Supplier;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * 読み取り専用トランザクションをレプリカではなくプライマリで実行させる（read-your-writes）
+ * スレッド単位で有効。書き込みトランザクションのコミット後は自動で一定時間ピン留めし、
+ * HTTPリクエストの終了時に PrimaryReadPinFilter が解除する。
+ */
+public class PrimaryReadPin implements TransactionExecutionListener {
+
+    private static final ThreadLocal<Long> pinnedUntil = new ThreadLocal<>();
+
+    private static final ThreadLocal<Integer> explicitDepth = ThreadLocal.withInitial(() -> 0);
+
+    private final long pinAfterWriteMillis;
+
+    public PrimaryReadPin(long pinAfterWriteMillis) {
+        this.pinAfterWriteMillis = pinAfterWriteMillis;
+    }
+
+    /**
+     * 処理中の読み取りをプライマリで実行する
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        explicitDepth.set(explicitDepth.get() + 1);
+        try {
+            return action.get();
+        } finally {
+            int depth = explicitDepth.get() - 1;
+            if (depth == 0) {
+                explicitDepth.remove();
+            } else {
+                explicitDepth.set(depth);
+            }
+        }
+    }
+
+    /**
+     * 現在のスレッドの読み取りを指定ミリ秒の間プライマリに固定する（既に長く固定されている場合はそのまま）
+     */
+    public static void pinFor(long millis) {
+        long until = System.currentTimeMillis() + millis;
+        Long current = pinnedUntil.get();
+        if (current == null || current < until) {
+            pinnedUntil.set(until);
+        }
+    }
+
+    /**
+     * 現在のスレッドの読み取りを clear() までプライマリに固定する
+     */
+    public static void pinUntilCleared() {
+        pinnedUntil.set(Long.MAX_VALUE);
+    }
+
+    public static boolean isPinned() {
+        if (explicitDepth.get() > 0) {
+            return true;
+        }
+        Long until = pinnedUntil.get();
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            pinnedUntil.remove();
+            return false;
+        }
+        return true;
+    }
+
+    public static void clear() {
+        pinnedUntil.remove();
+    }
+
+    // 書き込みをコミットしたスレッドは、レプリカへの反映遅延の間プライマリから読む
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && !transaction.isReadOnly()) {
+            pinFor(pinAfterWriteMillis);
+        }
+    }
+}
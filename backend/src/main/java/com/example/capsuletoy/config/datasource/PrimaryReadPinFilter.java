@@ -0,0 +1,33 @@
+package com.example.capsuletoy.config.datasource;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * リクエスト単位のプライマリ読み取り指定
+ * X-Read-Primary: true ヘッダー付きのリクエスト（更新直後の再読み込みなど）はすべての読み取りをプライマリで行う。
+ * リクエスト終了時にスレッドのピン留めを解除する。
+ */
+public class PrimaryReadPinFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Read-Primary";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            if ("true".equalsIgnoreCase(request.getHeader(HEADER))) {
+                PrimaryReadPin.pinUntilCleared();
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            PrimaryReadPin.clear();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.capsuletoy.config.datasource;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 読み取りレプリカへの振り分け設定（spring.datasource.replica.url を指定した場合のみ有効）
+ * 読み取り専用トランザクション（@Transactional(readOnly = true)）はレプリカ、それ以外はプライマリの接続を使う。
+ * 接続は実際にSQLを発行するまで取得しないため、トランザクションの読み取り専用指定を見てから接続先を決められる。
+ * レプリカは別の接続プール（spring.datasource.replica.hikari.*）を持つ。
+ */
+@Configuration
+@ConditionalOnExpression("!'${spring.datasource.replica.url:}'.isEmpty()")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+            @Value("${spring.datasource.replica.url}") String url,
+            @Value("${spring.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${spring.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        // 起動時にレプリカが停止していてもプライマリで動作できるよう、接続確認は最初の利用時に行う
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaFallbackDataSource replicaFallbackDataSource(
+            @Qualifier("replicaDataSource") HikariDataSource replica,
+            @Qualifier("primaryDataSource") HikariDataSource primary,
+            @Value("${spring.datasource.replica.retry-after-seconds:30}") long retryAfterSeconds) {
+        return new ReplicaFallbackDataSource(replica, primary, retryAfterSeconds * 1000);
+    }
+
+    /**
+     * アプリケーションが使うDataSource（JPA・JdbcTemplate・Flyway共通）
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primary,
+            ReplicaFallbackDataSource replicaFallbackDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(replicaFallbackDataSource);
+        return proxy;
+    }
+
+    @Bean
+    public PrimaryReadPin primaryReadPin(
+            @Value("${spring.datasource.replica.pin-after-write-ms:5000}") long pinAfterWriteMillis) {
+        return new PrimaryReadPin(pinAfterWriteMillis);
+    }
+
+    @Bean
+    public FilterRegistrationBean<PrimaryReadPinFilter> primaryReadPinFilter() {
+        FilterRegistrationBean<PrimaryReadPinFilter> registration =
+                new FilterRegistrationBean<>(new PrimaryReadPinFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
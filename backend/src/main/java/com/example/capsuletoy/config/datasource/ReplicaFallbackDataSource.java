@@ -0,0 +1,52 @@
+package com.example.capsuletoy.config.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 読み取り専用トランザクション用の接続先
+ * 通常はレプリカの接続を返し、プライマリへのピン留め中やレプリカに接続できない場合はプライマリの接続を返す。
+ * 接続に失敗したレプリカは retryAfterMillis の間使わない。
+ */
+public class ReplicaFallbackDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaFallbackDataSource.class);
+
+    private final DataSource primary;
+
+    private final long retryAfterMillis;
+
+    private volatile long replicaDownUntil;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, long retryAfterMillis) {
+        super(replica);
+        this.primary = primary;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PrimaryReadPin.isPinned() || System.currentTimeMillis() < replicaDownUntil) {
+            return primary.getConnection();
+        }
+        try {
+            return obtainTargetDataSource().getConnection();
+        } catch (SQLException e) {
+            replicaDownUntil = System.currentTimeMillis() + retryAfterMillis;
+            logger.warn("Read replica unavailable, falling back to primary for {} ms: {}",
+                    retryAfterMillis, e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.capsuletoy.controller.product;
+
+import com.example.capsuletoy.model.DuplicateCandidate;
+import com.example.capsuletoy.model.DuplicateCandidateStatus;
+import com.example.capsuletoy.record.DuplicateCandidateEntry;
+import com.example.capsuletoy.response.ErrorResponse;
+import com.example.capsuletoy.response.product.ProductResponse;
+import com.example.capsuletoy.service.product.DuplicateReviewService;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 近似重複商品の確認キュー（管理者専用）
+ */
+@RestController
+@RequestMapping("/api/admin/products/duplicates")
+public class DuplicateCandidateController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final DuplicateReviewService duplicateReviewService;
+
+    public DuplicateCandidateController(DuplicateReviewService duplicateReviewService) {
+        this.duplicateReviewService = duplicateReviewService;
+    }
+
+    /**
+     * 近似重複の候補一覧
+     * GET /api/admin/products/duplicates?status=PENDING&page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<?> getCandidates(
+            @RequestParam(defaultValue = "PENDING") String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Page<DuplicateCandidateEntry> candidates = duplicateReviewService.getCandidates(
+                    DuplicateCandidateStatus.valueOf(status.toUpperCase()),
+                    PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE)));
+            return ResponseEntity.ok(ProductResponse.buildDuplicateCandidatePageResponse(candidates));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ErrorResponse.errorResponse("statusが不正です: " + status));
+        }
+    }
+
+    /**
+     * 重複していると確認
+     * PATCH /api/admin/products/duplicates/{id}/confirm
+     */
+    @PatchMapping("/{id}/confirm")
+    public ResponseEntity<?> confirm(@PathVariable Long id) {
+        return review(id, DuplicateCandidateStatus.CONFIRMED);
+    }
+
+    /**
+     * 別の商品と確認
+     * PATCH /api/admin/products/duplicates/{id}/dismiss
+     */
+    @PatchMapping("/{id}/dismiss")
+    public ResponseEntity<?> dismiss(@PathVariable Long id) {
+        return review(id, DuplicateCandidateStatus.DISMISSED);
+    }
+
+    private ResponseEntity<?> review(Long id, DuplicateCandidateStatus status) {
+        try {
+            DuplicateCandidate reviewed = duplicateReviewService.review(id, status);
+            return ResponseEntity.ok(reviewed);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponse.errorResponse(e.getMessage()));
+        }
+    }
+}
@@ -1,81 +1,264 @@
 package com.example.capsuletoy.controller.product;
 
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
+import com.example.capsuletoy.domain.product.ProductFieldSet;
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
 import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.CatalogVersion;
+import com.example.capsuletoy.record.ProductQueryKey;
+import com.example.capsuletoy.record.ProductSlice;
+import com.example.capsuletoy.record.ProductSuggestion;
+import com.example.capsuletoy.record.ProductTimelineEntry;
+import com.example.capsuletoy.response.ErrorResponse;
 import com.example.capsuletoy.response.product.ProductResponse;
+import com.example.capsuletoy.service.product.ProductAutocompleteService;
+import com.example.capsuletoy.service.product.ProductHistoryService;
 import com.example.capsuletoy.service.product.ProductPagenationService;
 import com.example.capsuletoy.service.product.ProductService;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * 商品情報のREST APIコントローラー
+ * 商品一覧・詳細はカタログのバージョンから ETag / Last-Modified を返し、
+ * If-None-Match / If-Modified-Since が一致すれば商品を検索せずに 304 を返す。
  */
 @RestController
 @RequestMapping("/api/products")
 @CrossOrigin(origins = "http://localhost:3000")
 public class ProductController {
 
+    private static final int MAX_SUGGESTIONS = 20;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // 商品一覧キャッシュに置くカタログのバージョンのキー
+    private static final String CATALOG_VERSION_KEY = "catalogVersion";
+
     private final ProductService productService;
 
     private final ProductPagenationService productPagenationService;
 
-    public ProductController(ProductService productService, ProductPagenationService productPagenationService) {
+    private final ProductHistoryService productHistoryService;
+
+    private final ProductAutocompleteService productAutocompleteService;
+
+    private final ProductQueryCache productQueryCache;
+
+    private final ProductNameNormalizer productNameNormalizer;
+
+    public ProductController(ProductService productService, ProductPagenationService productPagenationService,
+            ProductHistoryService productHistoryService, ProductAutocompleteService productAutocompleteService,
+            ProductQueryCache productQueryCache, ProductNameNormalizer productNameNormalizer) {
         this.productService = productService;
         this.productPagenationService = productPagenationService;
+        this.productHistoryService = productHistoryService;
+        this.productAutocompleteService = productAutocompleteService;
+        this.productQueryCache = productQueryCache;
+        this.productNameNormalizer = productNameNormalizer;
     }
 
     /**
      * 商品一覧取得（ページネーション・フィルタ・ソート対応）
      * GET /api/products?page=0&size=20&sort=createdAt,desc&manufacturer=BANDAI
+     * keyword指定時に sort を省略した場合は関連度順（sort=relevance）、それ以外は新着順
+     * archived=true の場合はアーカイブ済み（発売から一定期間が過ぎた）商品を検索する
+     * fields=summary,sourceUrl のように項目を指定した場合は、その列だけを読んで返す（archived=true では無視する）
+     * 結果は条件ごとにキャッシュし、商品が更新されるまで（または有効期限まで）DBに問い合わせない
+     * カタログが変わっていなければ（If-None-Match / If-Modified-Since）304 を返す
      */
     @GetMapping
     public ResponseEntity<?> getProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(required = false) String sort,
             @RequestParam(defaultValue = "desc") String direction,
             @RequestParam(required = false) String manufacturer,
-            @RequestParam(required = false) String keyword) {
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "false") boolean archived,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+
+        ProductFieldSet fieldSet;
+        try {
+            fieldSet = ProductFieldSet.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponse.errorResponse(e.getMessage()));
+        }
 
+        if (sort == null || (archived && ProductPagenationService.RELEVANCE_SORT.equalsIgnoreCase(sort))) {
+            // アーカイブ済み商品の検索は関連度順に対応しない
+            sort = keyword != null && !archived ? ProductPagenationService.RELEVANCE_SORT : "createdAt";
+        }
         Pageable pageable = productPagenationService.buildPageable(page, size, sort, direction);
+        CatalogVersion version = currentCatalogVersion();
+        if (webRequest.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        ProductQueryKey key = new ProductQueryKey(version, "products", manufacturer,
+                archived ? keyword : normalizeKeyword(keyword), pageable.getSort().toString(), page, size, archived,
+                archived || fieldSet == null ? null : fieldSet.fields());
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productQueryCache.getOrLoad(key,
+                () -> loadProducts(manufacturer, keyword, archived, pageable, fieldSet)));
+    }
+
+    private Map<String, Object> loadProducts(String manufacturer, String keyword, boolean archived,
+            Pageable pageable, ProductFieldSet fieldSet) {
+        if (archived) {
+            return ProductResponse.buildPageResponse(
+                    productPagenationService.getArchivedProducts(manufacturer, keyword, pageable));
+        }
+        if (fieldSet != null) {
+            Page<Map<String, Object>> fieldPage = productPagenationService.getProductFields(manufacturer, keyword,
+                    pageable, fieldSet);
+            return ProductResponse.buildPageResponse(fieldPage);
+        }
         Page<Product> productPage = productPagenationService.getProducts(manufacturer, keyword, pageable);
-        return ResponseEntity.ok(ProductResponse.buildPageResponse(productPage));
+        return ProductResponse.buildPageResponse(productPage);
+    }
+
+    // キャッシュのキー用（検索時と同じ正規化。記号だけのキーワードは指定なしとして扱う）
+    private String normalizeKeyword(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String normalized = productNameNormalizer.normalize(keyword);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    // カタログのバージョン（商品一覧キャッシュと一緒に、商品の更新のコミット後に破棄される）
+    private CatalogVersion currentCatalogVersion() {
+        return productQueryCache.getOrLoad(CATALOG_VERSION_KEY, productPagenationService::getCatalogVersion);
+    }
+
+    /**
+     * 商品一覧取得（カーソル方式。件数を数えず、前ページの nextCursor から続きを取得する）
+     * GET /api/products/cursor?sort=createdAt&direction=desc&manufacturer=BANDAI&keyword=&cursor=&size=20&withTotal=false
+     * 関連度順・アーカイブ済み商品には対応しない。withTotal=true の場合だけ件数（キャッシュ値）を返す
+     * fields を指定した場合は、その項目と並び替えキーの列だけを読んで返す
+     * カタログが変わっていなければ 304 を返す
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<?> getProductsByCursor(
+            @RequestParam(defaultValue = "createdAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(required = false) String manufacturer,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
+
+        try {
+            ProductFieldSet fieldSet = ProductFieldSet.parse(fields);
+            CatalogVersion version = currentCatalogVersion();
+            if (webRequest.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+                return null;
+            }
+            ProductSlice slice = productPagenationService.getProductsAfter(manufacturer, keyword, sort, direction,
+                    cursor, Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE), withTotal, fieldSet);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ProductResponse.buildSliceResponse(slice));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponse.errorResponse(e.getMessage()));
+        }
+    }
+
+    /**
+     * 商品名の入力補完（メモリ上の索引から前方一致する商品名を新しい順に返す。DBには問い合わせない）
+     * GET /api/products/suggest?q=がちゃ&limit=10&manufacturer=BANDAI
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String manufacturer) {
+
+        List<ProductSuggestion> suggestions = productAutocompleteService.suggest(q, manufacturer,
+                Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+        return ResponseEntity.ok(ProductResponse.buildSuggestionResponse(q, suggestions));
     }
 
     /**
      * 商品詳細取得
      * GET /api/products/{id}
+     * カタログが変わっていなければ 304 を返す
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProduct(@PathVariable Long id) {
+    public ResponseEntity<?> getProduct(@PathVariable Long id, WebRequest webRequest) {
+        CatalogVersion version = currentCatalogVersion();
+        if (webRequest.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null;
+        }
+
         Optional<Product> product = productService.getProductById(id);
 
         if(product.isEmpty()){
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(product.get());
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(product.get());
+    }
+
+    /**
+     * 商品の変更履歴（価格・発売日・画像URLなどの推移）
+     * GET /api/products/{id}/history
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<?> getProductHistory(@PathVariable Long id) {
+        Optional<List<ProductTimelineEntry>> timeline = productHistoryService.getTimeline(id);
+
+        if(timeline.isEmpty()){
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(ProductResponse.buildTimelineResponse(id, timeline.get()));
     }
 
     /**
      * 新着商品一覧取得
-     * GET /api/products/new?page=0&size=10
+     * GET /api/products/new?page=0&size=10&fields=summary
+     * 結果は商品一覧と同じくキャッシュし、カタログが変わっていなければ 304 を返す
      */
     @GetMapping("/new")
     public ResponseEntity<?> getNewProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            WebRequest webRequest) {
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<Product> productPage = productPagenationService.getNewProducts(pageable);
+        ProductFieldSet fieldSet;
+        try {
+            fieldSet = ProductFieldSet.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponse.errorResponse(e.getMessage()));
+        }
 
-        return ResponseEntity.ok(ProductResponse.buildPageResponse(productPage));
+        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        CatalogVersion version = currentCatalogVersion();
+        if (webRequest.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        ProductQueryKey key = new ProductQueryKey(version, "new", null, null, pageable.getSort().toString(), page,
+                size, false, fieldSet == null ? null : fieldSet.fields());
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productQueryCache.getOrLoad(key, () -> {
+            if (fieldSet != null) {
+                return ProductResponse.buildPageResponse(productPagenationService.getNewProductFields(pageable, fieldSet));
+            }
+            Page<Product> productPage = productPagenationService.getNewProducts(pageable);
+            return ProductResponse.buildPageResponse(productPage);
+        }));
     }
 }
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.capsuletoy.domain.product.ProductNewnessPolicy;
 import com.example.capsuletoy.model.Product;
 import com.example.capsuletoy.record.ScrapeResult;
 import com.example.capsuletoy.repository.ProductRepository;
@@ -32,12 +33,16 @@ public class BandaiScrapeController {
 
     private final NotificationService notificationService;
 
+    private final ProductNewnessPolicy productNewnessPolicy;
+
     public BandaiScrapeController(ProductRepository productRepository, BandaiScraper bandaiScraper,
-            ScrapeService scrapeService, NotificationService notificationService) {
+            ScrapeService scrapeService, NotificationService notificationService,
+            ProductNewnessPolicy productNewnessPolicy) {
         this.productRepository = productRepository;
         this.bandaiScraper = bandaiScraper;
         this.scrapeService = scrapeService;
         this.notificationService = notificationService;
+        this.productNewnessPolicy = productNewnessPolicy;
     }
 
     /**
@@ -52,7 +57,8 @@ public class BandaiScrapeController {
             ScrapeResult result = scrapeService.executeScraping(bandaiScraper, "BANDAI_GASHAPON");
 
             // スクレイピング完了後に通知を送信（新着0件でも送信）
-            List<Product> newProducts = productRepository.findByIsNewTrueAndManufacturer("BANDAI");
+            List<Product> newProducts = productRepository.findByManufacturerAndFirstSeenAtGreaterThanEqual("BANDAI",
+                    productNewnessPolicy.newSince());
             notificationService.sendFinishedEmail(newProducts);
 
             Map<String, Object> response = new HashMap<>();
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.capsuletoy.domain.product.ProductNewnessPolicy;
 import com.example.capsuletoy.model.Product;
 import com.example.capsuletoy.record.ScrapeResult;
 import com.example.capsuletoy.repository.ProductRepository;
@@ -34,12 +35,16 @@ public class TakaratomyScrapeController {
 
     private final TakaraTomyScraper takaraTomyScraper;
 
+    private final ProductNewnessPolicy productNewnessPolicy;
+
     public TakaratomyScrapeController(ScrapeService scrapeService, NotificationService notificationService,
-            ProductRepository productRepository, TakaraTomyScraper takaraTomyScraper) {
+            ProductRepository productRepository, TakaraTomyScraper takaraTomyScraper,
+            ProductNewnessPolicy productNewnessPolicy) {
         this.scrapeService = scrapeService;
         this.notificationService = notificationService;
         this.productRepository = productRepository;
         this.takaraTomyScraper = takaraTomyScraper;
+        this.productNewnessPolicy = productNewnessPolicy;
     }
 
     /**
@@ -54,7 +59,8 @@ public class TakaratomyScrapeController {
             ScrapeResult result = scrapeService.executeScraping(takaraTomyScraper, "TAKARA_TOMY_ARTS");
 
             // スクレイピング完了後に通知を送信（新着0件でも送信）
-            List<Product> newProducts = productRepository.findByIsNewTrueAndManufacturer("TAKARA_TOMY");
+            List<Product> newProducts = productRepository.findByManufacturerAndFirstSeenAtGreaterThanEqual("TAKARA_TOMY",
+                    productNewnessPolicy.newSince());
             notificationService.sendFinishedEmail(newProducts);
 
             Map<String, Object> response = new HashMap<>();
@@ -1,9 +1,14 @@
 package com.example.capsuletoy.controller.scrape.log;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,12 +19,18 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.example.capsuletoy.domain.log.ScrapeLogAdministrater;
 import com.example.capsuletoy.model.ScrapeLog;
+import com.example.capsuletoy.record.ScrapeLogSlice;
+import com.example.capsuletoy.response.ErrorResponse;
+import com.example.capsuletoy.response.product.ProductResponse;
 
 @RestController
 @RequestMapping("/api/scrape")
 public class ScrapeLogController {
     private static final Logger logger = LoggerFactory.getLogger(ScrapeLogController.class);
 
+    // 1回のリクエストで返すログの上限
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final ScrapeLogAdministrater scrapeLogAdministrater;
 
     public ScrapeLogController(ScrapeLogAdministrater scrapeLogAdministrater) {
@@ -35,7 +46,7 @@ public class ScrapeLogController {
         logger.info("Fetching scrape logs, limit: {}", limit);
 
         try {
-            List<ScrapeLog> logs = scrapeLogAdministrater.getRecentScrapeLogs(limit);
+            List<ScrapeLog> logs = scrapeLogAdministrater.getRecentScrapeLogs(pageSize(limit));
             return ResponseEntity.ok(logs);
 
         } catch (Exception e) {
@@ -44,16 +55,78 @@ public class ScrapeLogController {
         }
     }
 
+    /**
+     * スクレイピングログの検索（ページ番号方式）
+     * GET /api/scrape/logs/search?site=&status=&from=&to=&page=0&size=20
+     */
+    @GetMapping("/logs/search")
+    public ResponseEntity<?> searchScrapeLogs(
+            @RequestParam(required = false) String site,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        logger.info("Searching scrape logs - site: {}, status: {}, from: {}, to: {}, page: {}, size: {}",
+                site, status, from, to, page, size);
+
+        try {
+            Page<ScrapeLog> logPage = scrapeLogAdministrater.searchScrapeLogs(site, status, from, to,
+                    Math.max(page, 0), pageSize(size));
+            return ResponseEntity.ok(ProductResponse.buildPageResponse(logPage));
+
+        } catch (Exception e) {
+            logger.error("Failed to search scrape logs: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ErrorResponse.errorResponse("スクレイピングログの検索に失敗しました"));
+        }
+    }
+
+    /**
+     * スクレイピングログの取得（カーソル方式）
+     * GET /api/scrape/logs/cursor?site=&status=&from=&to=&cursor=&size=20
+     */
+    @GetMapping("/logs/cursor")
+    public ResponseEntity<?> getScrapeLogsByCursor(
+            @RequestParam(required = false) String site,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        logger.info("Fetching scrape logs by cursor - site: {}, status: {}, cursor: {}, size: {}",
+                site, status, cursor, size);
+
+        try {
+            ScrapeLogSlice slice = scrapeLogAdministrater.getScrapeLogsAfter(site, status, from, to, cursor,
+                    pageSize(size));
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", slice.content());
+            response.put("nextCursor", slice.nextCursor());
+            response.put("hasNext", slice.nextCursor() != null);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponse.errorResponse(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to fetch scrape logs by cursor: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ErrorResponse.errorResponse("スクレイピングログの取得に失敗しました"));
+        }
+    }
+
     /**
      * 特定サイトのスクレイピングログ取得
      * GET /api/scrape/logs/{site}
      */
     @GetMapping("/logs/{site}")
-    public ResponseEntity<List<ScrapeLog>> getScrapeLogsBySite(@PathVariable String site) {
-        logger.info("Fetching scrape logs for site: {}", site);
+    public ResponseEntity<List<ScrapeLog>> getScrapeLogsBySite(@PathVariable String site,
+            @RequestParam(defaultValue = "50") int limit) {
+        logger.info("Fetching scrape logs for site: {}, limit: {}", site, limit);
 
         try {
-            List<ScrapeLog> logs = scrapeLogAdministrater.getScrapeLogsByTargetSite(site);
+            List<ScrapeLog> logs = scrapeLogAdministrater.getScrapeLogsByTargetSite(site, pageSize(limit));
             return ResponseEntity.ok(logs);
 
         } catch (Exception e) {
@@ -61,4 +134,8 @@ public class ScrapeLogController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    private int pageSize(int requested) {
+        return Math.min(Math.max(requested, 1), MAX_PAGE_SIZE);
+    }
 }
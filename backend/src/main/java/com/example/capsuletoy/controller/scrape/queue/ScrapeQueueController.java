@@ -0,0 +1,45 @@
+package com.example.capsuletoy.controller.scrape.queue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.capsuletoy.domain.queue.ScrapeTaskQueue;
+
+@RestController
+@RequestMapping("/api/scrape/queue")
+public class ScrapeQueueController {
+    private final ScrapeTaskQueue scrapeTaskQueue;
+
+    public ScrapeQueueController(ScrapeTaskQueue scrapeTaskQueue) {
+        this.scrapeTaskQueue = scrapeTaskQueue;
+    }
+
+    /**
+     * スクレイピングキューのステータス別件数
+     * GET /api/scrape/queue
+     */
+    @GetMapping
+    public ResponseEntity<?> getQueueStats() {
+        return ResponseEntity.ok(scrapeTaskQueue.getQueueStats());
+    }
+
+    /**
+     * デッドレターのタスクを再投入
+     * POST /api/scrape/queue/dead/retry
+     */
+    @PostMapping("/dead/retry")
+    public ResponseEntity<?> retryDeadTasks() {
+        int requeued = scrapeTaskQueue.requeueDeadTasks();
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("requeued", requeued);
+        response.put("message", "デッドレターのタスクを再投入しました: " + requeued + "件");
+        return ResponseEntity.ok(response);
+    }
+}
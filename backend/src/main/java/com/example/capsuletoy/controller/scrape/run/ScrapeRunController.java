@@ -0,0 +1,63 @@
+package com.example.capsuletoy.controller.scrape.run;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.capsuletoy.domain.scraping.ScrapeRunRegistry;
+import com.example.capsuletoy.response.ErrorResponse;
+
+@RestController
+@RequestMapping("/api/scrape/runs")
+public class ScrapeRunController {
+    private final ScrapeRunRegistry scrapeRunRegistry;
+
+    public ScrapeRunController(ScrapeRunRegistry scrapeRunRegistry) {
+        this.scrapeRunRegistry = scrapeRunRegistry;
+    }
+
+    /**
+     * 実行中のスクレイピング一覧
+     * GET /api/scrape/runs
+     */
+    @GetMapping
+    public ResponseEntity<?> getActiveRuns() {
+        List<Map<String, Object>> runs = scrapeRunRegistry.getActiveRuns().stream()
+                .map(handle -> {
+                    Map<String, Object> run = new HashMap<>();
+                    run.put("runId", handle.getRunId());
+                    run.put("siteName", handle.getSiteName());
+                    run.put("startedAt", handle.getStartedAt());
+                    run.put("cancelled", handle.isCancelled());
+                    return run;
+                })
+                .toList();
+        return ResponseEntity.ok(runs);
+    }
+
+    /**
+     * 実行中のスクレイピングをキャンセル
+     * POST /api/scrape/runs/{runId}/cancel
+     */
+    @PostMapping("/{runId}/cancel")
+    public ResponseEntity<?> cancelRun(@PathVariable Long runId) {
+        if (!scrapeRunRegistry.cancel(runId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ErrorResponse.errorResponse("実行中のスクレイピングが見つかりません: ID=" + runId));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("runId", runId);
+        response.put("message", "スクレイピングをキャンセルしました: ID=" + runId);
+        return ResponseEntity.ok(response);
+    }
+}
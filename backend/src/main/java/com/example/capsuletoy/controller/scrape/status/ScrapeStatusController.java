@@ -7,7 +7,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,12 +30,27 @@ public class ScrapeStatusController {
     public ResponseEntity<?> getScrapeStatus() {
         Map<String, Object> status = new HashMap<>();
         status.put("available", true);
-        status.put("supportedSites", List.of("BANDAI_GASHAPON", "TAKARA_TOMY_ARTS"));
+        status.put("supportedSites", ScrapeLogAdministrater.MANUAL_SCRAPE_SITES);
+
+        // サイト別の最新ログ（キャッシュ済み）から全体の最新実行を求める
+        Map<String, ScrapeLog> latestRuns = scrapeLogAdministrater.getLatestRunPerSite();
+        Map<String, Object> sites = new HashMap<>();
+        ScrapeLog latestLog = null;
+        for (Map.Entry<String, ScrapeLog> entry : latestRuns.entrySet()) {
+            ScrapeLog log = entry.getValue();
+            Map<String, Object> site = new HashMap<>();
+            site.put("lastExecution", log.getExecutedAt());
+            site.put("lastStatus", log.getStatus());
+            site.put("productsFound", log.getProductsFound());
+            sites.put(entry.getKey(), site);
+
+            if (latestLog == null || log.getExecutedAt().isAfter(latestLog.getExecutedAt())) {
+                latestLog = log;
+            }
+        }
+        status.put("sites", sites);
 
-        // 最新のログを取得
-        List<ScrapeLog> recentLogs = scrapeLogAdministrater.getRecentScrapeLogs(1);
-        if (!recentLogs.isEmpty()) {
-            ScrapeLog latestLog = recentLogs.get(0);
+        if (latestLog != null) {
             status.put("lastExecution", latestLog.getExecutedAt());
             status.put("lastStatus", latestLog.getStatus());
         }
@@ -1,5 +1,6 @@
 package com.example.capsuletoy.controller.scrapeConfig;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,6 +17,8 @@ import com.example.capsuletoy.service.scrapeConfig.ScrapeConfigUpdateService;
 @RestController
 @RequestMapping("/api/scrape/configs")
 public class ScrapeConfigEditController {
+    private static final String CONFLICT_MESSAGE = "他の管理者が先に更新しました。再読み込みしてから編集してください";
+
     private final ScrapeConfigUpdateService scrapeConfigUpdateService;
 
     public ScrapeConfigEditController(ScrapeConfigUpdateService scrapeConfigUpdateService) {
@@ -31,6 +34,8 @@ public class ScrapeConfigEditController {
         try {
             ScrapeConfig updated = scrapeConfigUpdateService.updateConfig(id, config);
             return ResponseEntity.ok(updated);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ErrorResponse.errorResponse(CONFLICT_MESSAGE));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponse.errorResponse(e.getMessage()));
         } catch (RuntimeException e) {
@@ -47,6 +52,8 @@ public class ScrapeConfigEditController {
         try {
             ScrapeConfig toggled = scrapeConfigUpdateService.toggleEnabled(id);
             return ResponseEntity.ok(toggled);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ErrorResponse.errorResponse(CONFLICT_MESSAGE));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponse.errorResponse(e.getMessage()));
         }
@@ -0,0 +1,102 @@
+package com.example.capsuletoy.controller.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.capsuletoy.record.CatalogSnapshotSummary;
+import com.example.capsuletoy.response.ErrorResponse;
+import com.example.capsuletoy.service.snapshot.CatalogSnapshotService;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * カタログスナップショットの書き出し・取り込み（管理者専用、PostgreSQLのみ）
+ */
+@RestController
+@RequestMapping("/api/admin/snapshot")
+public class CatalogSnapshotController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotController.class);
+
+    private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    // 取り込みは既存のカタログを置き換えるため、明示的に有効にした環境（ステージング・開発）でのみ受け付ける
+    @Value("${snapshot.import.enabled:false}")
+    private boolean importEnabled;
+
+    public CatalogSnapshotController(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    /**
+     * スナップショットをダウンロード
+     * GET /api/admin/snapshot
+     */
+    @GetMapping
+    public ResponseEntity<?> exportSnapshot() {
+        if (!catalogSnapshotService.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ErrorResponse.errorResponse("カタログスナップショットはPostgreSQLでのみ利用できます"));
+        }
+
+        StreamingResponseBody body = outputStream -> catalogSnapshotService.exportSnapshot(outputStream);
+        String fileName = "gachahub-catalog-" + LocalDateTime.now().format(FILE_NAME_FORMAT) + ".snap";
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    /**
+     * スナップショットを取り込み、既存のカタログを置き換える
+     * POST /api/admin/snapshot （Content-Type: application/octet-stream、本文はスナップショットファイル）
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> importSnapshot(HttpServletRequest request) {
+        if (!importEnabled) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ErrorResponse.errorResponse("この環境ではスナップショットの取り込みは無効です"));
+        }
+        if (!catalogSnapshotService.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ErrorResponse.errorResponse("カタログスナップショットはPostgreSQLでのみ利用できます"));
+        }
+
+        try (InputStream body = request.getInputStream()) {
+            CatalogSnapshotSummary summary = catalogSnapshotService.importSnapshot(body);
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("formatVersion", summary.formatVersion());
+            response.put("schemaVersion", summary.schemaVersion());
+            response.put("createdAt", summary.createdAt());
+            response.put("rowCounts", summary.rowCounts());
+            response.put("message", "スナップショットを取り込みました");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(ErrorResponse.errorResponse(e.getMessage()));
+        } catch (IOException | RuntimeException e) {
+            logger.error("スナップショットの取り込みに失敗: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ErrorResponse.errorResponse("スナップショットの取り込みに失敗しました: " + e.getMessage()));
+        }
+    }
+}
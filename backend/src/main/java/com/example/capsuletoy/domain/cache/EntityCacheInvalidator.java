@@ -0,0 +1,44 @@
+package com.example.capsuletoy.domain.cache;
+
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.capsuletoy.model.ScrapeConfig;
+import com.example.capsuletoy.model.User;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 二次キャッシュ（ScrapeConfig・User）の明示的な破棄
+ * JPA経由の更新はHibernateがキャッシュに反映するが、作成・更新・削除・切り替えの直後は
+ * エンティティとクエリ結果のキャッシュを破棄して、次の参照を必ずDBから読み直す。
+ * クエリ結果はエンティティごとのリージョンに分けてあり、破棄は対象エンティティのリージョンに限る。
+ */
+@Component
+public class EntityCacheInvalidator {
+
+    // ScrapeConfigを返すクエリのキャッシュリージョン（ehcache.xmlに同名のキャッシュを定義）
+    public static final String SCRAPE_CONFIG_QUERY_REGION = "scrape-config-query-results";
+
+    // Userを返すクエリのキャッシュリージョン（ehcache.xmlに同名のキャッシュを定義）
+    public static final String USER_QUERY_REGION = "user-query-results";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public EntityCacheInvalidator(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictScrapeConfigs() {
+        evict(ScrapeConfig.class, SCRAPE_CONFIG_QUERY_REGION);
+    }
+
+    public void evictUsers() {
+        evict(User.class, USER_QUERY_REGION);
+    }
+
+    private void evict(Class<?> entityClass, String queryRegion) {
+        entityManagerFactory.getCache().evict(entityClass);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(queryRegion);
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.capsuletoy.domain.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.capsuletoy.config.datasource.PrimaryReadPin;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 商品一覧の検索結果キャッシュ（読み込み時にキャッシュが無ければ検索して保存する）
+ * 件数の上限（古く使われていないものから破棄）と有効期限を持つ。
+ * 同じ条件の検索が同時に来た場合は1回だけ検索し、他は結果を待つ。
+ * 商品の保存・削除・アーカイブ・スナップショット取り込みのコミット後に全て破棄する。
+ * 破棄の直後はレプリカに更新が届いていない可能性があるため、しばらくは検索結果を保存しない。
+ * プライマリから読むよう指定されたリクエスト（PrimaryReadPin）はキャッシュを使わない。
+ * キャッシュはノードごとのため、他のプロセス（scrapeプロファイルのバッチなど）の更新は有効期限で反映される。
+ */
+@Component
+public class ProductQueryCache {
+
+    private final boolean enabled;
+
+    private final int maxEntries;
+
+    private final long ttlMillis;
+
+    private final long storeDelayMillis;
+
+    // アクセス順（先頭が最も古く使われたもの）。this で排他する
+    private final LinkedHashMap<Object, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 検索中の条件（同時に来た同じ条件の検索はこの結果を待つ）
+    private final Map<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // 破棄のたびに進める。破棄より前に始まった検索の結果は保存しない
+    private long generation;
+
+    // この時刻までは検索結果を保存しない（破棄の直後）
+    private long storeAfter;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter sizeEvictions;
+    private final Counter expirations;
+    private final Counter invalidations;
+
+    public ProductQueryCache(MeterRegistry meterRegistry,
+            @Value("${product.query-cache.enabled:true}") boolean enabled,
+            @Value("${product.query-cache.max-entries:1000}") int maxEntries,
+            @Value("${product.query-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${product.query-cache.store-delay-ms:${spring.datasource.replica.pin-after-write-ms:5000}}")
+            long storeDelayMillis) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.storeDelayMillis = storeDelayMillis;
+
+        this.hits = requestCounter(meterRegistry, "hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+        this.coalesced = requestCounter(meterRegistry, "coalesced");
+        this.sizeEvictions = evictionCounter(meterRegistry, "size");
+        this.expirations = evictionCounter(meterRegistry, "expired");
+        this.invalidations = evictionCounter(meterRegistry, "invalidated");
+        Gauge.builder("product.query.cache.size", this, ProductQueryCache::size)
+                .description("商品一覧キャッシュの件数")
+                .register(meterRegistry);
+        Gauge.builder("product.query.cache.hit.ratio", this, ProductQueryCache::hitRatio)
+                .description("商品一覧キャッシュのヒット率（起動からの累計）")
+                .register(meterRegistry);
+    }
+
+    /**
+     * キャッシュがあれば返し、無ければ loader で検索して保存する
+     * 返した値は他のリクエストと共有するため、呼び出し側で変更しないこと
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrLoad(Object key, Supplier<T> loader) {
+        if (!enabled || PrimaryReadPin.isPinned()) {
+            return loader.get();
+        }
+
+        long loadGeneration;
+        synchronized (this) {
+            CachedResult cached = entries.get(key);
+            if (cached != null) {
+                if (cached.expiresAt() > System.currentTimeMillis()) {
+                    hits.increment();
+                    return (T) cached.value();
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            loadGeneration = generation;
+        }
+
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.increment();
+            return (T) await(running);
+        }
+
+        misses.increment();
+        try {
+            T value = loader.get();
+            store(key, value, loadGeneration);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * 全て破棄する（検索中の結果も保存しない）
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            generation++;
+            storeAfter = System.currentTimeMillis() + storeDelayMillis;
+            invalidations.increment(entries.size());
+            entries.clear();
+        }
+        // 以降の検索は破棄前に始まった検索を待たずに検索し直す
+        inFlight.clear();
+    }
+
+    /**
+     * 実行中のトランザクションのコミット後に全て破棄する（トランザクション外では即時に破棄する）
+     * コミット前に他のリクエストが古い結果を保存しても、コミット後の破棄で消える
+     */
+    public void invalidateAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateAll();
+            }
+        });
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        double requests = hits.count() + misses.count() + coalesced.count();
+        return requests == 0 ? 0 : hits.count() / requests;
+    }
+
+    private synchronized void store(Object key, Object value, long loadGeneration) {
+        long now = System.currentTimeMillis();
+        if (generation != loadGeneration || now < storeAfter) {
+            return;
+        }
+        entries.put(key, new CachedResult(value, now + ttlMillis));
+        Iterator<Object> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("product.query.cache.requests")
+                .description("商品一覧キャッシュの参照回数（hit: キャッシュから返した、miss: 検索した、coalesced: 同じ条件の検索を待った）")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("product.query.cache.evictions")
+                .description("商品一覧キャッシュから破棄した件数（size: 上限超過、expired: 期限切れ、invalidated: 商品の更新）")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    private record CachedResult(Object value, long expiresAt) {}
+}
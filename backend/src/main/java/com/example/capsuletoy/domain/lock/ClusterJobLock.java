@@ -0,0 +1,220 @@
+package com.example.capsuletoy.domain.lock;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capsuletoy.model.SchedulerLock;
+import com.example.capsuletoy.repository.SchedulerLockRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * scheduler_locksテーブルを使ったクラスタ単位のジョブロック
+ * 複数ノードで同じ@Scheduledが発火しても、ロックを取得できた1ノードだけがジョブを実行する。
+ * - 実行中はリース期限を定期的に延長し、保持ノードが落ちた場合は期限切れ後に他ノードが奪取する
+ * - 取得のたびにフェンシングトークンが増え、奪取されたノードは checkFencing() で書き込み前に停止する
+ *   （書き込みのトランザクション内で呼ぶと、トークンを条件にしたロック行の更新がコミットまで奪取を待たせる）
+ * リース期限は各ノードの時刻で判定するため、ノード間の時刻ずれはリース時間より十分小さいこと（NTP同期前提）
+ */
+@Component
+public class ClusterJobLock {
+    private static final Logger logger = LoggerFactory.getLogger(ClusterJobLock.class);
+
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String nodeId;
+
+    private final ScheduledExecutorService renewalExecutor;
+
+    // 実行中スレッドが保持しているロック（フェンシング確認用）
+    private final ThreadLocal<HeldLock> currentLock = new ThreadLocal<>();
+
+    @Value("${scraping.lock.lease-seconds:120}")
+    private long leaseSeconds;
+
+    // 他ノードのトリガーが数秒遅れて発火しても再実行されないよう、解放後もこの時間はロックを残す
+    @Value("${scraping.lock.min-hold-seconds:30}")
+    private long minHoldSeconds;
+
+    public ClusterJobLock(SchedulerLockRepository schedulerLockRepository, PlatformTransactionManager transactionManager,
+            @Value("${scraping.lock.node-id:}") String nodeId) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        // 呼び出し元のトランザクションとは独立してすぐにコミットする
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId.isEmpty()
+                ? ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8)
+                : nodeId;
+        this.renewalExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-lock-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * ロックを取得できた場合のみジョブを実行
+     *
+     * @param lockName ロック名（ジョブごとに一意）
+     * @param job 実行するジョブ
+     * @return 実行した場合true、他ノードが保持中でスキップした場合false
+     */
+    public boolean runExclusive(String lockName, Runnable job) {
+        Optional<HeldLock> acquired = tryAcquire(lockName);
+        if (acquired.isEmpty()) {
+            logger.info("他ノードが実行中のためスキップ: {}", lockName);
+            return false;
+        }
+
+        HeldLock lock = acquired.get();
+        logger.info("ロック取得: {} (ノード={}, トークン={})", lockName, nodeId, lock.token);
+
+        long renewIntervalSeconds = Math.max(1, leaseSeconds / 3);
+        ScheduledFuture<?> renewal = renewalExecutor.scheduleAtFixedRate(
+                () -> renew(lock), renewIntervalSeconds, renewIntervalSeconds, TimeUnit.SECONDS);
+        currentLock.set(lock);
+        try {
+            job.run();
+            return true;
+        } finally {
+            currentLock.remove();
+            renewal.cancel(false);
+            release(lock);
+        }
+    }
+
+    /**
+     * 現在のスレッドが保持するロックがまだ有効か確認（フェンシング）
+     * トランザクション内で呼ばれた場合はそのトランザクションでロック行を更新し、コミットまで他ノードの奪取を待たせる。
+     * ロック外で呼ばれた場合（手動実行など）は何もしない
+     *
+     * @throws IllegalStateException ロックが他ノードに奪取されている場合
+     */
+    public void checkFencing() {
+        HeldLock lock = currentLock.get();
+        if (lock == null) {
+            return;
+        }
+
+        boolean held = !lock.lost && (TransactionSynchronizationManager.isActualTransactionActive()
+                ? fence(lock)
+                : Boolean.TRUE.equals(transactionTemplate.execute(status -> fence(lock))));
+        if (!held) {
+            lock.lost = true;
+            throw new IllegalStateException("ロックを失ったため処理を中止: " + lock.name + " (トークン=" + lock.token + ")");
+        }
+    }
+
+    /**
+     * 名前が指定の接頭辞で始まるロックを、いずれかのノードが保持しているか
+     * 解放後も min-hold-seconds の間は保持中とみなす
+     */
+    public boolean isAnyHeld(String lockNamePrefix) {
+        return schedulerLockRepository.existsByLockNameStartingWithAndLockedUntilAfter(lockNamePrefix,
+                LocalDateTime.now());
+    }
+
+    private boolean fence(HeldLock lock) {
+        return schedulerLockRepository.fence(lock.name, nodeId, lock.token, LocalDateTime.now()) == 1;
+    }
+
+    private Optional<HeldLock> tryAcquire(String lockName) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plusSeconds(leaseSeconds);
+
+        try {
+            Long token = transactionTemplate.execute(status -> {
+                if (schedulerLockRepository.acquireExpired(lockName, nodeId, lockedUntil, now) == 0) {
+                    if (schedulerLockRepository.existsById(lockName)) {
+                        return null;
+                    }
+                    // 初回はロック行を作成（同時に作成したノードは一意制約違反で取得失敗）
+                    SchedulerLock newLock = new SchedulerLock();
+                    newLock.setLockName(lockName);
+                    newLock.setOwner(nodeId);
+                    newLock.setFencingToken(1L);
+                    newLock.setLockedUntil(lockedUntil);
+                    newLock.setLockedAt(now);
+                    schedulerLockRepository.saveAndFlush(newLock);
+                }
+                return schedulerLockRepository.findById(lockName).map(SchedulerLock::getFencingToken).orElse(null);
+            });
+            return Optional.ofNullable(token).map(value -> new HeldLock(lockName, value, now, lockedUntil));
+        } catch (DataIntegrityViolationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void renew(HeldLock lock) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plusSeconds(leaseSeconds);
+        try {
+            Integer renewed = transactionTemplate.execute(status ->
+                    schedulerLockRepository.renew(lock.name, nodeId, lock.token, lockedUntil, now));
+            if (renewed != null && renewed == 1) {
+                lock.lockedUntil = lockedUntil;
+            } else {
+                lock.lost = true;
+                logger.error("ロックの延長に失敗（他ノードに奪取された可能性）: {} (トークン={})", lock.name, lock.token);
+            }
+        } catch (Exception e) {
+            // DBに一時的に接続できない場合は、期限が切れるまで保持しているものとみなす
+            logger.warn("ロックの延長でエラー: {} - {}", lock.name, e.getMessage());
+            if (now.isAfter(lock.lockedUntil)) {
+                lock.lost = true;
+            }
+        }
+    }
+
+    private void release(HeldLock lock) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime minHoldUntil = lock.acquiredAt.plusSeconds(minHoldSeconds);
+        LocalDateTime releaseAt = minHoldUntil.isAfter(now) ? minHoldUntil : now;
+        try {
+            transactionTemplate.execute(status ->
+                    schedulerLockRepository.release(lock.name, nodeId, lock.token, releaseAt));
+            logger.info("ロック解放: {} (トークン={})", lock.name, lock.token);
+        } catch (Exception e) {
+            // 解放できなくてもリース期限切れで他ノードが取得できる
+            logger.warn("ロックの解放に失敗: {} - {}", lock.name, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewalExecutor.shutdownNow();
+    }
+
+    private static final class HeldLock {
+        private final String name;
+        private final Long token;
+        private final LocalDateTime acquiredAt;
+        private volatile LocalDateTime lockedUntil;
+        private volatile boolean lost;
+
+        private HeldLock(String name, Long token, LocalDateTime acquiredAt, LocalDateTime lockedUntil) {
+            this.name = name;
+            this.token = token;
+            this.acquiredAt = acquiredAt;
+            this.lockedUntil = lockedUntil;
+        }
+    }
+}
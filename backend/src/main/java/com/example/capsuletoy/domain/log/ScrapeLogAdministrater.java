@@ -1,19 +1,47 @@
 package com.example.capsuletoy.domain.log;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
+import com.example.capsuletoy.model.ScrapeConfig;
 import com.example.capsuletoy.model.ScrapeLog;
+import com.example.capsuletoy.record.ScrapeLogSlice;
+import com.example.capsuletoy.repository.ScrapeConfigRepository;
 import com.example.capsuletoy.repository.ScrapeLogRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 public class ScrapeLogAdministrater {
+    // 手動スクレイピングで記録される対象サイト名
+    public static final List<String> MANUAL_SCRAPE_SITES = List.of("BANDAI_GASHAPON", "TAKARA_TOMY_ARTS");
+
+    // ログ一覧の並び順（カーソルと同じ (executedAt, id) の降順）
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("executedAt"), Sort.Order.desc("id"));
+
     private final ScrapeLogRepository scrapeLogRepository;
+    private final ScrapeConfigRepository scrapeConfigRepository;
+    private final long summaryCacheTtlMillis;
+
+    // サイト別最新ログのキャッシュ（ログ保存時に破棄、他ノードの保存分はTTLで反映）
+    private volatile LatestRunSummary latestRunSummary;
 
-    public ScrapeLogAdministrater(ScrapeLogRepository scrapeLogRepository) {
+    public ScrapeLogAdministrater(ScrapeLogRepository scrapeLogRepository,
+            ScrapeConfigRepository scrapeConfigRepository,
+            @Value("${scraping.log.summary-cache-ttl-seconds:30}") long summaryCacheTtlSeconds) {
         this.scrapeLogRepository = scrapeLogRepository;
+        this.scrapeConfigRepository = scrapeConfigRepository;
+        this.summaryCacheTtlMillis = summaryCacheTtlSeconds * 1000;
     }
 
 
@@ -42,21 +70,78 @@ public class ScrapeLogAdministrater {
      * 最新のスクレイピングログを取得
      */
     public List<ScrapeLog> getRecentScrapeLogs(int limit) {
-        return scrapeLogRepository.findAll()
-                .stream()
-                .sorted((a, b) -> b.getExecutedAt().compareTo(a.getExecutedAt()))
-                .limit(limit)
-                .toList();
+        return scrapeLogRepository.findAllByOrderByExecutedAtDescIdDesc(Limit.of(limit));
+    }
+
+    /**
+     * 特定サイトのスクレイピング履歴を新しい順に取得
+     */
+    public List<ScrapeLog> getScrapeLogsByTargetSite(String targetSite, int limit) {
+        return scrapeLogRepository.findByTargetSiteOrderByExecutedAtDescIdDesc(targetSite, Limit.of(limit));
+    }
+
+    /**
+     * サイト・ステータス・実行日時（from以上、to未満）で絞り込んだログをページ単位で取得
+     */
+    public Page<ScrapeLog> searchScrapeLogs(String targetSite, String status, LocalDateTime from, LocalDateTime to,
+            int page, int size) {
+        return scrapeLogRepository.findAll(ScrapeLogSpecifications.filter(targetSite, status, from, to),
+                PageRequest.of(page, size, NEWEST_FIRST));
+    }
+
+    /**
+     * カーソル方式でログを取得（件数を数えず、カーソル位置から size 件だけ読む）
+     * cursor が null の場合は先頭から取得する
+     */
+    public ScrapeLogSlice getScrapeLogsAfter(String targetSite, String status, LocalDateTime from, LocalDateTime to,
+            String cursor, int size) {
+        ScrapeLogCursor position = cursor == null ? null : ScrapeLogCursor.decode(cursor);
+        // 1件多く読んで次ページの有無を判定する
+        List<ScrapeLog> logs = scrapeLogRepository.findBy(
+                ScrapeLogSpecifications.filter(targetSite, status, from, to)
+                        .and(ScrapeLogSpecifications.olderThan(position)),
+                query -> query.sortBy(NEWEST_FIRST).limit(size + 1).all());
+
+        if (logs.size() <= size) {
+            return new ScrapeLogSlice(logs, null);
+        }
+        List<ScrapeLog> content = logs.subList(0, size);
+        return new ScrapeLogSlice(content, ScrapeLogCursor.of(content.get(size - 1)).encode());
+    }
+
+    /**
+     * サイト別の最新ログを取得（対象サイト名 → 最新ログ、実行履歴の無いサイトは含めない）
+     * 対象サイトは手動スクレイピングのサイトとスクレイピング設定のサイト
+     */
+    public Map<String, ScrapeLog> getLatestRunPerSite() {
+        LatestRunSummary cached = latestRunSummary;
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.latestRuns();
+        }
+
+        Set<String> sites = new LinkedHashSet<>(MANUAL_SCRAPE_SITES);
+        for (ScrapeConfig config : scrapeConfigRepository.findAll()) {
+            sites.add(config.getSiteName());
+        }
+
+        Map<String, ScrapeLog> latestRuns = new LinkedHashMap<>();
+        for (String site : sites) {
+            scrapeLogRepository.findFirstByTargetSiteOrderByExecutedAtDescIdDesc(site)
+                    .ifPresent(log -> latestRuns.put(site, log));
+        }
+
+        Map<String, ScrapeLog> summary = Collections.unmodifiableMap(latestRuns);
+        latestRunSummary = new LatestRunSummary(summary, now + summaryCacheTtlMillis);
+        return summary;
     }
 
     /**
-     * 特定サイトのスクレイピング履歴を取得
+     * サイト別最新ログのキャッシュを破棄（ログを保存したときに呼ぶ）
      */
-    public List<ScrapeLog> getScrapeLogsByTargetSite(String targetSite) {
-        return scrapeLogRepository.findAll()
-                .stream()
-                .filter(log -> log.getTargetSite().equals(targetSite))
-                .sorted((a, b) -> b.getExecutedAt().compareTo(a.getExecutedAt()))
-                .toList();
+    public void evictLatestRunSummary() {
+        latestRunSummary = null;
     }
+
+    private record LatestRunSummary(Map<String, ScrapeLog> latestRuns, long expiresAt) {}
 }
@@ -0,0 +1,35 @@
+package com.example.capsuletoy.domain.log;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.capsuletoy.model.ScrapeLog;
+
+/**
+ * スクレイピングログ一覧のカーソル（最後に返したログの実行日時とID）
+ * クライアントには不透明な文字列として渡す。
+ */
+public record ScrapeLogCursor(LocalDateTime executedAt, Long id) {
+
+    public static ScrapeLogCursor of(ScrapeLog log) {
+        return new ScrapeLogCursor(log.getExecutedAt(), log.getId());
+    }
+
+    public String encode() {
+        String raw = executedAt + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ScrapeLogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('_');
+            return new ScrapeLogCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("カーソルが不正です");
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.capsuletoy.domain.log;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.capsuletoy.model.ScrapeLog;
+
+/**
+ * スクレイピングログ検索の条件
+ * 指定されなかった条件（null）は絞り込みに使わない。
+ */
+public final class ScrapeLogSpecifications {
+
+    private ScrapeLogSpecifications() {
+    }
+
+    public static Specification<ScrapeLog> filter(String targetSite, String status, LocalDateTime from,
+            LocalDateTime to) {
+        return Specification.where(targetSiteEquals(targetSite))
+                .and(statusEquals(status))
+                .and(executedFrom(from))
+                .and(executedBefore(to));
+    }
+
+    public static Specification<ScrapeLog> targetSiteEquals(String targetSite) {
+        return targetSite == null ? null : (root, query, cb) -> cb.equal(root.get("targetSite"), targetSite);
+    }
+
+    public static Specification<ScrapeLog> statusEquals(String status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    // 実行日時が from 以降
+    public static Specification<ScrapeLog> executedFrom(LocalDateTime from) {
+        return from == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("executedAt"), from);
+    }
+
+    // 実行日時が to より前
+    public static Specification<ScrapeLog> executedBefore(LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("executedAt"), to);
+    }
+
+    /**
+     * (executedAt, id) の降順でカーソルより後ろにあるログ
+     * executed_at の索引で範囲検索できるよう、同時刻のログだけ id で比較する
+     */
+    public static Specification<ScrapeLog> olderThan(ScrapeLogCursor cursor) {
+        return cursor == null ? null : (root, query, cb) -> cb.or(
+                cb.lessThan(root.<LocalDateTime>get("executedAt"), cursor.executedAt()),
+                cb.and(cb.equal(root.get("executedAt"), cursor.executedAt()),
+                        cb.lessThan(root.<Long>get("id"), cursor.id())));
+    }
+}
@@ -1,12 +1,18 @@
 package com.example.capsuletoy.domain.product;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Stream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
+import com.example.capsuletoy.model.ArchivedProduct;
 import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.repository.ArchivedProductRepository;
 import com.example.capsuletoy.repository.ProductRepository;
 
 @Component
@@ -14,42 +20,111 @@ public class DuplicateChecker {
 
     private final ProductRepository productRepository;
 
-    public DuplicateChecker(ProductRepository productRepository) {
+    private final ArchivedProductRepository archivedProductRepository;
+
+    public DuplicateChecker(ProductRepository productRepository, ArchivedProductRepository archivedProductRepository) {
         this.productRepository = productRepository;
+        this.archivedProductRepository = archivedProductRepository;
     }
 
-    // 重複チェック（商品名とメーカーで判定）
-    public boolean isDuplicate(String productName, String manufacturer) {
-        List<Product> products = productRepository.findByProductNameContaining(productName);
-        Stream<Product> productsStream = products.stream();
-        return productsStream.anyMatch(p -> checkManufacture(p, manufacturer));
-    }
+    /**
+     * スクレイピングした商品に対応する既存商品を取得（メーカーごとに1回のIN検索）
+     * 商品キー・正規化名は事前に設定しておくこと
+     * 商品キーの無い商品は、同じく商品キーの無い既存商品と正規化名の一致で照合する
+     *
+     * @return lookupKey(メーカー, 商品キー) または nameLookupKey(メーカー, 正規化名) -> 既存商品
+     */
+    public Map<String, Product> findExistingProducts(List<Product> scrapedProducts) {
+        Map<String, Set<String>> keysByManufacturer = groupKeysByManufacturer(scrapedProducts);
 
-    // 商品が既に存在するかチェック（完全一致）
-    public Optional<Product> findExistingProduct(String productName, String manufacturer, String sourceUrl) {
-        List<Product> products = productRepository.findByProductNameContaining(productName);
-        Stream<Product> productsStream = products.stream();
-        Stream<Product> filteredProductsStream = productsStream.filter(p -> checkManufacture(p, manufacturer) && checkSourceUrlOrNull(p, sourceUrl));
-        return filteredProductsStream.findFirst();
+        Map<String, Product> existingProducts = new HashMap<>();
+        keysByManufacturer.forEach((manufacturer, productKeys) -> {
+            for (Product existing : productRepository.findByManufacturerAndProductKeyIn(manufacturer, productKeys)) {
+                existingProducts.put(lookupKey(existing.getManufacturer(), existing.getProductKey()), existing);
+            }
+        });
+
+        Map<String, Set<String>> namesByManufacturer = groupKeylessNamesByManufacturer(scrapedProducts);
+        namesByManufacturer.forEach((manufacturer, normalizedNames) -> {
+            for (Product existing : productRepository.findByManufacturerAndNormalizedNameIn(manufacturer, normalizedNames)) {
+                // 商品キーのある既存商品は商品キーで照合する（sourceUrlの無い商品で上書きしない）
+                if (existing.getProductKey() == null) {
+                    existingProducts.put(nameLookupKey(existing.getManufacturer(), existing.getNormalizedName()), existing);
+                }
+            }
+        });
+        return existingProducts;
     }
 
-    // 製造メーカー一致判定
-    public boolean checkManufacture(Product product, String manufacturer){
-        String targetManufacture = product.getManufacturer();
-        return targetManufacture.equals(manufacturer);
+    /**
+     * findExistingProducts() の結果から、スクレイピングした商品に対応する既存商品を引く（無ければnull）
+     */
+    public Product findExisting(Map<String, Product> existingProducts, Product scrapedProduct) {
+        return existingProducts.get(identityKey(scrapedProduct));
     }
 
-    // URL一致とNull判定
-    public boolean checkSourceUrlOrNull(Product product, String sourceUrl){
-        if (sourceUrl == null) {
-            return true;
+    /**
+     * 同じ商品かどうかを判定するキー（商品キー、無ければ正規化名。どちらも無ければnull）
+     */
+    public String identityKey(Product product) {
+        if (product.getProductKey() != null) {
+            return lookupKey(product.getManufacturer(), product.getProductKey());
         }
-
-        String targetSourceUrl = product.getSourceUrl();
-        if (sourceUrl.equals(targetSourceUrl)){
-            return true;
+        if (product.getNormalizedName() != null && !product.getNormalizedName().isEmpty()) {
+            return nameLookupKey(product.getManufacturer(), product.getNormalizedName());
         }
+        return null;
+    }
+
+    /**
+     * スクレイピングした商品のうち、アーカイブ済みの商品のキーを取得
+     * 商品キーの無い商品は、同じく商品キーの無いアーカイブ済み商品と正規化名の一致で照合する
+     *
+     * @return identityKey() の集合（lookupKey(メーカー, 商品キー) または nameLookupKey(メーカー, 正規化名)）
+     */
+    public Set<String> findArchivedKeys(List<Product> scrapedProducts) {
+        Map<String, Set<String>> keysByManufacturer = groupKeysByManufacturer(scrapedProducts);
+
+        Set<String> archivedKeys = new HashSet<>();
+        keysByManufacturer.forEach((manufacturer, productKeys) -> {
+            for (ArchivedProduct archived : archivedProductRepository.findByManufacturerAndProductKeyIn(manufacturer, productKeys)) {
+                archivedKeys.add(lookupKey(archived.getManufacturer(), archived.getProductKey()));
+            }
+        });
+
+        groupKeylessNamesByManufacturer(scrapedProducts).forEach((manufacturer, normalizedNames) -> {
+            for (ArchivedProduct archived : archivedProductRepository
+                    .findByManufacturerAndProductKeyIsNullAndNormalizedNameIn(manufacturer, normalizedNames)) {
+                archivedKeys.add(nameLookupKey(archived.getManufacturer(), archived.getNormalizedName()));
+            }
+        });
+        return archivedKeys;
+    }
+
+    private Map<String, Set<String>> groupKeysByManufacturer(List<Product> scrapedProducts) {
+        return scrapedProducts.stream()
+                .filter(product -> product.getProductKey() != null)
+                .collect(Collectors.groupingBy(Product::getManufacturer,
+                        Collectors.mapping(Product::getProductKey, Collectors.toSet())));
+    }
+
+    private Map<String, Set<String>> groupKeylessNamesByManufacturer(List<Product> scrapedProducts) {
+        return scrapedProducts.stream()
+                .filter(product -> product.getProductKey() == null && product.getNormalizedName() != null
+                        && !product.getNormalizedName().isEmpty())
+                .collect(Collectors.groupingBy(Product::getManufacturer,
+                        Collectors.mapping(Product::getNormalizedName, Collectors.toSet())));
+    }
+
+    /**
+     * findExistingProducts() の結果を引くためのキー
+     */
+    public String lookupKey(String manufacturer, String productKey) {
+        return manufacturer + ":" + Objects.toString(productKey, "");
+    }
 
-        return false;
+    // 商品キーと衝突しないよう区切りにNUL文字を使う
+    private String nameLookupKey(String manufacturer, String normalizedName) {
+        return manufacturer + "\u0000name\u0000" + normalizedName;
     }
 }
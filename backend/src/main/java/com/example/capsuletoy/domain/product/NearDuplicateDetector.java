@@ -0,0 +1,112 @@
+package com.example.capsuletoy.domain.product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.ProductNameSignature;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.repository.jdbc.ProductNameSignatureRepository;
+
+/**
+ * 近似重複商品の検出（PostgreSQLのみ）
+ * 取り込んだ商品の正規化名からLSHのバンド値を作り、バンドが一致する同メーカーの商品だけを候補として引く。
+ * 候補は正規化名の文字3-gramのJaccard係数で絞り込み、しきい値以上の組を管理者の確認キューに追加する。
+ * 索引（product_name_signatures）は取り込みのたびに差分だけ更新し、漏れた商品は StorageMaintenanceService が補完する。
+ */
+@Component
+public class NearDuplicateDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateDetector.class);
+
+    private final ProductNameMinHasher productNameMinHasher;
+
+    private final ProductNameSignatureRepository productNameSignatureRepository;
+
+    private final DatabasePlatform databasePlatform;
+
+    // 確認キューに追加する類似度（Jaccard係数）の下限
+    @Value("${product.near-duplicate.similarity-threshold:0.7}")
+    private double similarityThreshold = 0.7;
+
+    // 1商品あたりに比較する候補の最大数（よくある名前で候補が膨らみすぎないように）
+    @Value("${product.near-duplicate.max-candidates:50}")
+    private int maxCandidates = 50;
+
+    public NearDuplicateDetector(ProductNameMinHasher productNameMinHasher,
+            ProductNameSignatureRepository productNameSignatureRepository, DatabasePlatform databasePlatform) {
+        this.productNameMinHasher = productNameMinHasher;
+        this.productNameSignatureRepository = productNameSignatureRepository;
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * 取り込みで新規登録・更新された商品を索引に追加し、近似重複を検出する
+     * 正規化名は設定済みであること（新規登録した商品には保存時に生成されたIDが設定されている）
+     *
+     * @return 確認キューに追加した組の数
+     */
+    public int onProductsIngested(List<Product> products) {
+        if (products.isEmpty() || !databasePlatform.isPostgreSql()) {
+            return 0;
+        }
+
+        List<ProductNameSignature> targets = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getId() != null && product.getNormalizedName() != null && !product.getNormalizedName().isEmpty()) {
+                targets.add(new ProductNameSignature(product.getId(), product.getManufacturer(), product.getNormalizedName()));
+            }
+        }
+        return index(targets);
+    }
+
+    /**
+     * バンド値が未作成の商品を batchSize 件ずつ索引に追加する
+     *
+     * @return 索引に追加した商品の数
+     */
+    public int indexUnsignedProducts(int batchSize) {
+        if (!databasePlatform.isPostgreSql()) {
+            return 0;
+        }
+        int total = 0;
+        List<ProductNameSignature> batch;
+        do {
+            batch = productNameSignatureRepository.findUnsignedProducts(batchSize);
+            index(batch);
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    // 候補の検索 → 類似度の確認 → 自分のバンド値の保存の順に行う（同じバッチ内の商品同士も検出できる）
+    private int index(List<ProductNameSignature> products) {
+        LocalDateTime detectedAt = LocalDateTime.now();
+        int detected = 0;
+        for (ProductNameSignature product : products) {
+            Set<String> shingles = productNameMinHasher.shingles(product.normalizedName());
+            int[] bands = productNameMinHasher.bands(shingles);
+            for (ProductNameSignature candidate : productNameSignatureRepository.findCandidates(product, bands, maxCandidates)) {
+                double similarity = productNameMinHasher.jaccard(shingles,
+                        productNameMinHasher.shingles(candidate.normalizedName()));
+                if (similarity >= similarityThreshold && productNameSignatureRepository.addCandidate(
+                        product.productId(), candidate.productId(), similarity, detectedAt)) {
+                    detected++;
+                }
+            }
+            productNameSignatureRepository.saveSignature(product, bands);
+        }
+
+        if (detected > 0) {
+            logger.info("近似重複の候補を確認キューに追加しました: {}組（対象商品: {}件）", detected, products.size());
+        }
+        return detected;
+    }
+}
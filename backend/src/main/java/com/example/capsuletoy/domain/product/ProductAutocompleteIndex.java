@@ -0,0 +1,201 @@
+package com.example.capsuletoy.domain.product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.example.capsuletoy.record.ProductSuggestion;
+
+/**
+ * 商品名の入力補完用のメモリ上の前方一致索引
+ * 正規化名の順に並べた配列を二分探索し、前方一致する範囲から新しい順（初回検出日時の降順）に上位k件を返す。
+ * 範囲が広くなる短い入力（先頭1〜2文字）は、文字ごとの上位候補（バケット）を索引の更新時に求めておき走査しない。
+ * 配列とバケットは更新のたびに作り直して差し替える（コピーオンライト）ため、検索はロック無しで常に整合した状態を読む。
+ * 読み仮名は持たない。ひらがなをカタカナに正規化することで読みの代わりとし、ひらがなで入力してもカタカナの商品名に一致する
+ * （漢字の商品名は漢字で入力した場合だけ一致する）。
+ */
+@Component
+public class ProductAutocompleteIndex {
+
+    // 正規化名の順（同じ名前はID順）
+    private static final Comparator<ProductSuggestion> INDEX_ORDER = Comparator
+            .comparing(ProductSuggestion::normalizedName)
+            .thenComparing(ProductSuggestion::id);
+
+    // 候補の優先順（新しい順、同時刻はIDの大きい順）
+    private static final Comparator<ProductSuggestion> RANK_ORDER = Comparator
+            .comparing(ProductSuggestion::firstSeenAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ProductSuggestion::id, Comparator.reverseOrder());
+
+    // バケットを作る先頭の文字数（コードポイント数）
+    public static final int BUCKET_CODE_POINTS = 2;
+
+    // バケットごとに保持する候補数（入力補完APIの最大件数。これを超える件数は範囲を走査する）
+    public static final int BUCKET_TOP_K = 20;
+
+    private volatile Snapshot snapshot = new Snapshot(new ProductSuggestion[0], Map.of());
+
+    /**
+     * 正規化名が prefix で始まる商品を新しい順に最大 limit 件返す（manufacturerがnullの場合は全メーカー）
+     * prefix は ProductNameNormalizer で正規化しておくこと
+     */
+    public List<ProductSuggestion> suggest(String prefix, String manufacturer, int limit) {
+        Snapshot snapshot = this.snapshot;
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        if (limit <= BUCKET_TOP_K && prefix.codePointCount(0, prefix.length()) <= BUCKET_CODE_POINTS) {
+            ProductSuggestion[] bucket = snapshot.buckets().get(bucketKey(prefix, manufacturer));
+            return bucket == null ? List.of() : List.of(Arrays.copyOf(bucket, Math.min(limit, bucket.length)));
+        }
+        ProductSuggestion[] current = snapshot.entries();
+
+        // 上位k件だけを残す（先頭が最も優先度の低い候補）
+        PriorityQueue<ProductSuggestion> top = new PriorityQueue<>(limit + 1, RANK_ORDER.reversed());
+        for (int i = lowerBound(current, prefix); i < current.length; i++) {
+            ProductSuggestion entry = current[i];
+            if (!entry.normalizedName().startsWith(prefix)) {
+                break;
+            }
+            if (manufacturer != null && !manufacturer.equals(entry.manufacturer())) {
+                continue;
+            }
+            offer(top, entry, limit);
+        }
+
+        List<ProductSuggestion> suggestions = new ArrayList<>(top);
+        suggestions.sort(RANK_ORDER);
+        return suggestions;
+    }
+
+    /**
+     * 索引を全件で作り直す
+     */
+    public synchronized void replaceAll(Collection<ProductSuggestion> suggestions) {
+        ProductSuggestion[] rebuilt = suggestions.stream()
+                .filter(this::isIndexable)
+                .sorted(INDEX_ORDER)
+                .toArray(ProductSuggestion[]::new);
+        snapshot = Snapshot.of(rebuilt);
+    }
+
+    /**
+     * 新規登録・更新された商品を反映する（同じIDの既存の候補は置き換える）
+     * 変更分だけを並べ替えて既存の配列とマージし、バケットは配列を1回走査して作り直す（件数に比例した時間で終わる）
+     */
+    public synchronized void merge(Collection<ProductSuggestion> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        Set<Long> changedIds = new HashSet<>();
+        changed.forEach(suggestion -> changedIds.add(suggestion.id()));
+        ProductSuggestion[] additions = changed.stream()
+                .filter(this::isIndexable)
+                .sorted(INDEX_ORDER)
+                .toArray(ProductSuggestion[]::new);
+
+        ProductSuggestion[] current = snapshot.entries();
+        List<ProductSuggestion> merged = new ArrayList<>(current.length + additions.length);
+        int i = 0;
+        int j = 0;
+        while (i < current.length || j < additions.length) {
+            if (i < current.length && changedIds.contains(current[i].id())) {
+                i++;
+            } else if (j >= additions.length
+                    || (i < current.length && INDEX_ORDER.compare(current[i], additions[j]) <= 0)) {
+                merged.add(current[i++]);
+            } else {
+                merged.add(additions[j++]);
+            }
+        }
+        snapshot = Snapshot.of(merged.toArray(ProductSuggestion[]::new));
+    }
+
+    /**
+     * 削除された商品を索引から外す
+     */
+    public synchronized void remove(Long productId) {
+        ProductSuggestion[] current = snapshot.entries();
+        ProductSuggestion[] remaining = Arrays.stream(current)
+                .filter(entry -> !entry.id().equals(productId))
+                .toArray(ProductSuggestion[]::new);
+        if (remaining.length != current.length) {
+            snapshot = Snapshot.of(remaining);
+        }
+    }
+
+    public int size() {
+        return snapshot.entries().length;
+    }
+
+    private boolean isIndexable(ProductSuggestion suggestion) {
+        return suggestion.id() != null && suggestion.normalizedName() != null && !suggestion.normalizedName().isEmpty();
+    }
+
+    // 優先順の上位 limit 件だけを残す
+    private static void offer(PriorityQueue<ProductSuggestion> top, ProductSuggestion entry, int limit) {
+        top.offer(entry);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+
+    // バケットのキー（メーカー指定時はメーカー別。正規化名に含まれないNUL文字で区切る）
+    private static String bucketKey(String prefix, String manufacturer) {
+        return manufacturer == null ? prefix : prefix + "\u0000" + manufacturer;
+    }
+
+    // 先頭1〜BUCKET_CODE_POINTS文字ごとに、全メーカーとメーカー別の上位 BUCKET_TOP_K 件を優先順で求める
+    private static Map<String, ProductSuggestion[]> buildBuckets(ProductSuggestion[] entries) {
+        Map<String, PriorityQueue<ProductSuggestion>> tops = new HashMap<>();
+        Function<String, PriorityQueue<ProductSuggestion>> newTop =
+                key -> new PriorityQueue<>(BUCKET_TOP_K + 1, RANK_ORDER.reversed());
+        for (ProductSuggestion entry : entries) {
+            String name = entry.normalizedName();
+            int codePoints = Math.min(BUCKET_CODE_POINTS, name.codePointCount(0, name.length()));
+            for (int n = 1; n <= codePoints; n++) {
+                String prefix = name.substring(0, name.offsetByCodePoints(0, n));
+                offer(tops.computeIfAbsent(bucketKey(prefix, null), newTop), entry, BUCKET_TOP_K);
+                if (entry.manufacturer() != null) {
+                    offer(tops.computeIfAbsent(bucketKey(prefix, entry.manufacturer()), newTop), entry, BUCKET_TOP_K);
+                }
+            }
+        }
+        Map<String, ProductSuggestion[]> buckets = new HashMap<>(tops.size() * 2);
+        tops.forEach((key, top) -> buckets.put(key, top.stream().sorted(RANK_ORDER).toArray(ProductSuggestion[]::new)));
+        return buckets;
+    }
+
+    // 正規化名が prefix 以上になる最初の位置
+    private int lowerBound(ProductSuggestion[] current, String prefix) {
+        int low = 0;
+        int high = current.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (current[mid].normalizedName().compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // 検索が読む索引の状態（配列とバケットを同時に差し替える）
+    private record Snapshot(ProductSuggestion[] entries, Map<String, ProductSuggestion[]> buckets) {
+
+        static Snapshot of(ProductSuggestion[] entries) {
+            return new Snapshot(entries, buildBuckets(entries));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.capsuletoy.domain.product;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ProductChange;
+
+/**
+ * 商品の変更履歴に記録する項目の差分を検出する
+ * 値は文字列で保存する（価格は数値の文字列、発売日は yyyy-MM-dd）。
+ * COPY取り込み（ProductStagingLoader）のSQLも同じ項目名・形式で記録する。
+ */
+@Component
+public class ProductChangeDetector {
+
+    public static final String PRODUCT_NAME = "productName";
+
+    public static final String PRICE = "price";
+
+    public static final String RELEASE_DATE = "releaseDate";
+
+    public static final String IMAGE_URL = "imageUrl";
+
+    // 履歴を残す項目（説明文・ラインナップは容量が大きく変更も多いため対象外）
+    public static final List<String> TRACKED_FIELDS = List.of(PRODUCT_NAME, PRICE, RELEASE_DATE, IMAGE_URL);
+
+    /**
+     * 既存商品とスクレイピング結果を比較し、値が変わった項目の変更履歴を返す
+     */
+    public List<ProductChange> detectChanges(Product existing, Product scraped, LocalDateTime observedAt) {
+        Map<String, String> oldValues = trackedValues(existing);
+        Map<String, String> newValues = trackedValues(scraped);
+
+        List<ProductChange> changes = new ArrayList<>();
+        for (String field : TRACKED_FIELDS) {
+            String oldValue = oldValues.get(field);
+            String newValue = newValues.get(field);
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.add(new ProductChange(existing.getId(), field, oldValue, newValue, observedAt));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * 履歴対象の項目の現在値（項目名 -> 値）
+     */
+    public Map<String, String> trackedValues(Product product) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put(PRODUCT_NAME, product.getProductName());
+        values.put(PRICE, product.getPrice() != null ? product.getPrice().toString() : null);
+        LocalDate releaseDate = product.getReleaseDate();
+        values.put(RELEASE_DATE, releaseDate != null ? releaseDate.toString() : null);
+        values.put(IMAGE_URL, product.getImageUrl());
+        return values;
+    }
+}
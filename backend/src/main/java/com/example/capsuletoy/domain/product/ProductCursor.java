@@ -0,0 +1,87 @@
+package com.example.capsuletoy.domain.product;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.capsuletoy.model.Product;
+
+/**
+ * 商品一覧（カーソル方式）のカーソル（並び順と、最後に返した商品の並び替えキー・ID）
+ * クライアントには不透明な文字列として渡す。並び替えキーが未設定（null）の商品は末尾にID順で並ぶ。
+ */
+public record ProductCursor(String sort, String direction, String value, Long id) {
+
+    // カーソル方式で使える並び順
+    public static final Set<String> SORTS = Set.of("createdAt", "releaseDate", "price", "productName");
+
+    // 未設定（null）になりうる並び替えキー
+    public static final Set<String> NULLABLE_SORTS = Set.of("releaseDate", "price");
+
+    public static ProductCursor of(Product product, String sort, String direction) {
+        Object key = switch (sort) {
+            case "createdAt" -> product.getCreatedAt();
+            case "releaseDate" -> product.getReleaseDate();
+            case "price" -> product.getPrice();
+            case "productName" -> product.getProductName();
+            default -> throw new IllegalArgumentException("カーソル方式では使えない並び順です: " + sort);
+        };
+        return new ProductCursor(sort, direction, key == null ? null : key.toString(), product.getId());
+    }
+
+    // 項目を指定して読んだ商品（並び替えキーと id を含むこと）
+    public static ProductCursor of(Map<String, Object> row, String sort, String direction) {
+        Object key = row.get(sort);
+        return new ProductCursor(sort, direction, key == null ? null : key.toString(), (Long) row.get("id"));
+    }
+
+    public boolean ascending() {
+        return "asc".equals(direction);
+    }
+
+    public LocalDateTime createdAt() {
+        return LocalDateTime.parse(value);
+    }
+
+    public LocalDate releaseDate() {
+        return LocalDate.parse(value);
+    }
+
+    public Integer price() {
+        return Integer.valueOf(value);
+    }
+
+    public String encode() {
+        // 商品名は区切り文字を含みうるため末尾に置く（null と空文字を区別するため値には "v" を前置する）
+        String raw = sort + "_" + direction + "_" + id + "_" + (value == null ? "" : "v" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("_", 4);
+            String value = parts[3].isEmpty() ? null : parts[3].substring(1);
+            ProductCursor decoded = new ProductCursor(parts[0], parts[1], value, Long.parseLong(parts[2]));
+            if (!SORTS.contains(decoded.sort()) || !("asc".equals(decoded.direction()) || "desc".equals(decoded.direction()))
+                    || (value == null && !NULLABLE_SORTS.contains(decoded.sort()))) {
+                throw new IllegalArgumentException("カーソルが不正です");
+            }
+            if (value != null) {
+                // 並び替えキーの型どおりに読めることを確かめておく
+                switch (decoded.sort()) {
+                    case "createdAt" -> decoded.createdAt();
+                    case "releaseDate" -> decoded.releaseDate();
+                    case "price" -> decoded.price();
+                    default -> { }
+                }
+            }
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("カーソルが不正です");
+        }
+    }
+}
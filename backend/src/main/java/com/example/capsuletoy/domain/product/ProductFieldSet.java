@@ -0,0 +1,73 @@
+package com.example.capsuletoy.domain.product;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 商品一覧で返す項目（fields パラメータ）
+ * 指定された項目の列だけをDBから読み、レスポンスにもその項目だけを含める。
+ * "summary" は一覧カード向けの項目（商品名・画像・価格・メーカー・日付）にまとめて展開する。ID は常に含める。
+ */
+public record ProductFieldSet(Set<String> fields) {
+
+    public static final String SUMMARY = "summary";
+
+    // summary で返す項目
+    public static final List<String> SUMMARY_FIELDS = List.of("id", "productName", "manufacturer", "imageUrl",
+            "price", "releaseDate", "isNew", "createdAt");
+
+    // 指定できる項目（Product のJSONの項目名）
+    public static final Set<String> SELECTABLE_FIELDS = Set.of("id", "productName", "manufacturer", "imageUrl",
+            "releaseDate", "price", "description", "lineupInfo", "sourceUrl", "productKey", "normalizedName",
+            "isNew", "firstSeenAt", "createdAt", "updatedAt", "version");
+
+    /**
+     * カンマ区切りの項目名を読む（未指定・空の場合は null = 全項目）
+     */
+    public static ProductFieldSet parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (SUMMARY.equals(name)) {
+                selected.addAll(SUMMARY_FIELDS);
+            } else if (SELECTABLE_FIELDS.contains(name)) {
+                selected.add(name);
+            } else {
+                throw new IllegalArgumentException("指定できない項目です: " + name);
+            }
+        }
+        return new ProductFieldSet(Collections.unmodifiableSet(selected));
+    }
+
+    /**
+     * 項目を追加した項目セット（カーソルの作成に並び替えキーが必要な場合など）
+     */
+    public ProductFieldSet with(String field) {
+        if (fields.contains(field)) {
+            return this;
+        }
+        Set<String> selected = new LinkedHashSet<>(fields);
+        selected.add(field);
+        return new ProductFieldSet(Collections.unmodifiableSet(selected));
+    }
+
+    /**
+     * DBから読む列（Product のプロパティ名。isNew は初回検出日時から算出する）
+     */
+    public Set<String> columns() {
+        Set<String> columns = new LinkedHashSet<>();
+        for (String field : fields) {
+            columns.add("isNew".equals(field) ? "firstSeenAt" : field);
+        }
+        return columns;
+    }
+}
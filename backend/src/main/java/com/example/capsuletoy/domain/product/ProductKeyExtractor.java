@@ -0,0 +1,65 @@
+package com.example.capsuletoy.domain.product;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.capsuletoy.model.Product;
+
+/**
+ * sourceUrlから商品キーを導出
+ * メーカーごとの商品IDのクエリパラメータを使い、取得できない場合はURLのハッシュを使う
+ */
+@Component
+public class ProductKeyExtractor {
+
+    // メーカー -> 商品IDを表すクエリパラメータ
+    private static final Map<String, String> KEY_PARAMETERS = Map.of(
+            "BANDAI", "jan_code",
+            "TAKARA_TOMY", "n");
+
+    /**
+     * 商品キーを導出（sourceUrlがない場合はnull）
+     */
+    public String extractProductKey(String manufacturer, String sourceUrl) {
+        if (sourceUrl == null || sourceUrl.isBlank()) {
+            return null;
+        }
+
+        String parameter = KEY_PARAMETERS.get(manufacturer);
+        if (parameter != null) {
+            try {
+                String value = UriComponentsBuilder.fromUriString(sourceUrl).build()
+                        .getQueryParams().getFirst(parameter);
+                if (value != null && !value.isBlank()) {
+                    return value.trim();
+                }
+            } catch (IllegalArgumentException e) {
+                // 不正なURLはハッシュで扱う
+            }
+        }
+
+        return "url:" + sha256(sourceUrl.trim());
+    }
+
+    /**
+     * 商品に商品キーを設定
+     */
+    public void assignProductKey(Product product) {
+        product.setProductKey(extractProductKey(product.getManufacturer(), product.getSourceUrl()));
+    }
+
+    private String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256が利用できません", e);
+        }
+    }
+}
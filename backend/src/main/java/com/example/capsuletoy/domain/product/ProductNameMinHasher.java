@@ -0,0 +1,102 @@
+package com.example.capsuletoy.domain.product;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 正規化名のMinHash署名とLSHのバンド値を作る（近似重複の候補検索用）
+ * 正規化名を文字3-gramの集合（シングル）にし、NUM_HASHES個のハッシュ関数の最小値を署名とする。
+ * 署名を BANDS 個のバンド（各 ROWS 行）に分けてハッシュした値が1つでも一致する商品を候補とする。
+ * Jaccard係数0.7の組は約98%、0.6の組は約91%の確率で候補になり、0.3の組は約24%（候補は正確なJaccard係数で絞り込む）。
+ * バンド値はDBに保存するため、ハッシュ関数（シード）を変えてはいけない。
+ */
+@Component
+public class ProductNameMinHasher {
+
+    static final int SHINGLE_SIZE = 3;
+    static final int BANDS = 10;
+    static final int ROWS = 3;
+    static final int NUM_HASHES = BANDS * ROWS;
+
+    // 固定シードから作る（再起動しても同じ署名になるように）
+    private static final int[] SEEDS = new SplittableRandom(0x6761636861L).ints(NUM_HASHES).toArray();
+
+    /**
+     * 正規化名を文字3-gramの集合にする（3文字未満の名前はそのまま1要素）
+     */
+    public Set<String> shingles(String normalizedName) {
+        Set<String> shingles = new HashSet<>();
+        if (normalizedName == null || normalizedName.isEmpty()) {
+            return shingles;
+        }
+        int[] codePoints = normalizedName.codePoints().toArray();
+        if (codePoints.length <= SHINGLE_SIZE) {
+            shingles.add(normalizedName);
+            return shingles;
+        }
+        for (int i = 0; i + SHINGLE_SIZE <= codePoints.length; i++) {
+            shingles.add(new String(codePoints, i, SHINGLE_SIZE));
+        }
+        return shingles;
+    }
+
+    /**
+     * シングルの集合からLSHのバンド値（BANDS個）を作る
+     */
+    public int[] bands(Set<String> shingles) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            int base = shingle.hashCode();
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int hash = mix(base ^ SEEDS[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+
+        int[] bands = new int[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            // バンド番号も混ぜて、別のバンドの値と偶然一致しにくくする
+            int hash = band;
+            for (int row = 0; row < ROWS; row++) {
+                hash = mix(hash * 31 + signature[band * ROWS + row]);
+            }
+            bands[band] = hash;
+        }
+        return bands;
+    }
+
+    /**
+     * 2つのシングル集合のJaccard係数（候補を絞り込むための正確な類似度）
+     */
+    public double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() && b.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int intersection = 0;
+        for (String shingle : smaller) {
+            if (larger.contains(shingle)) {
+                intersection++;
+            }
+        }
+        return (double) intersection / (a.size() + b.size() - intersection);
+    }
+
+    // MurmurHash3 の最終化処理（ビットをよく混ぜる）
+    private int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.capsuletoy.domain.product;
+
+import com.example.capsuletoy.model.Product;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * JPA経由で商品を保存するときに正規化名を設定するエンティティリスナー
+ * （スクレイピングのJDBC保存では ManualScrapeExecuter が事前に設定する）
+ */
+public class ProductNameNormalizationListener {
+
+    private final ProductNameNormalizer productNameNormalizer;
+
+    public ProductNameNormalizationListener(ProductNameNormalizer productNameNormalizer) {
+        this.productNameNormalizer = productNameNormalizer;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void applyNormalizedName(Product product) {
+        productNameNormalizer.assignNormalizedName(product);
+    }
+}
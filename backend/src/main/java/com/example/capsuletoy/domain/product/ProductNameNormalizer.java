@@ -0,0 +1,97 @@
+package com.example.capsuletoy.domain.product;
+
+import java.text.Normalizer;
+import java.util.StringJoiner;
+
+import org.springframework.stereotype.Component;
+
+import com.example.capsuletoy.model.Product;
+
+/**
+ * 商品名の表記ゆれを吸収した正規化名と、キーワード検索用のテキストを作る（重複判定・キーワード検索用）
+ * 1. NFKC正規化（全角英数・記号を半角に、半角カナを全角に、濁点の合成など）
+ * 2. 英字を小文字に
+ * 3. ひらがなをカタカナに統一
+ * 4. 空白・記号を除去（文字・数字・長音記号だけを残す）
+ * 取り込み時と検索時で必ず同じ処理を通すこと。
+ */
+@Component
+public class ProductNameNormalizer {
+
+    // products.normalized_name の長さ（NFKCで「㈱」などが展開されて長くなる場合は切り詰める）
+    static final int MAX_LENGTH = 255;
+
+    private static final int HIRAGANA_START = 0x3041;
+    private static final int HIRAGANA_END = 0x3096;
+    // ゝ・ゞ（ひらがなの繰り返し記号）
+    private static final int HIRAGANA_ITERATION_START = 0x309D;
+    private static final int HIRAGANA_ITERATION_END = 0x309E;
+    // ひらがなと対応するカタカナのコードポイントの差
+    private static final int KATAKANA_OFFSET = 0x60;
+    private static final int PROLONGED_SOUND_MARK = 'ー';
+
+    /**
+     * 正規化名を返す（nullの場合はnull）
+     */
+    public String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        StringBuilder normalized = fold(value);
+        if (normalized.length() > MAX_LENGTH) {
+            int end = MAX_LENGTH;
+            // サロゲートペアの途中で切らない
+            if (Character.isHighSurrogate(normalized.charAt(end - 1))) {
+                end--;
+            }
+            return normalized.substring(0, end);
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * キーワード検索用のテキストを返す（商品名・ラインナップ・説明をそれぞれ正規化し、空白区切りでつなげる）
+     * 正規化後のキーワードは空白を含まないため、項目をまたいで一致することはない。長さは切り詰めない
+     */
+    public String buildSearchText(Product product) {
+        StringJoiner searchText = new StringJoiner(" ");
+        for (String value : new String[] {product.getProductName(), product.getLineupInfo(), product.getDescription()}) {
+            if (value != null) {
+                StringBuilder normalized = fold(value);
+                if (normalized.length() > 0) {
+                    searchText.add(normalized);
+                }
+            }
+        }
+        return searchText.toString();
+    }
+
+    /**
+     * 商品に正規化名と検索用テキストを設定
+     */
+    public void assignNormalizedName(Product product) {
+        product.setNormalizedName(normalize(product.getProductName()));
+        product.setSearchText(buildSearchText(product));
+    }
+
+    private StringBuilder fold(String value) {
+        String nfkc = Normalizer.normalize(value, Normalizer.Form.NFKC);
+        StringBuilder normalized = new StringBuilder(nfkc.length());
+        nfkc.codePoints().forEach(codePoint -> {
+            int folded = foldKana(codePoint);
+            if (Character.isLetterOrDigit(folded) || folded == PROLONGED_SOUND_MARK) {
+                normalized.appendCodePoint(Character.toLowerCase(folded));
+            }
+        });
+        return normalized;
+    }
+
+    private int foldKana(int codePoint) {
+        if ((codePoint >= HIRAGANA_START && codePoint <= HIRAGANA_END)
+                || (codePoint >= HIRAGANA_ITERATION_START && codePoint <= HIRAGANA_ITERATION_END)) {
+            return codePoint + KATAKANA_OFFSET;
+        }
+        return codePoint;
+    }
+}
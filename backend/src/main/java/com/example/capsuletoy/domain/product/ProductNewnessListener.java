@@ -0,0 +1,27 @@
+package com.example.capsuletoy.domain.product;
+
+import com.example.capsuletoy.model.Product;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * 商品の読み込み・保存時に新着かどうかを設定するエンティティリスナー
+ * （HibernateのBeanコンテナ経由でSpringが生成するため、コンストラクタインジェクションが使える）
+ */
+public class ProductNewnessListener {
+
+    private final ProductNewnessPolicy productNewnessPolicy;
+
+    public ProductNewnessListener(ProductNewnessPolicy productNewnessPolicy) {
+        this.productNewnessPolicy = productNewnessPolicy;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void applyNewness(Product product) {
+        product.setIsNew(productNewnessPolicy.isNew(product.getFirstSeenAt()));
+    }
+}
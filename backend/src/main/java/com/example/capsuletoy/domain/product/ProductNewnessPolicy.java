@@ -0,0 +1,29 @@
+package com.example.capsuletoy.domain.product;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 新着判定
+ * 初回検出日時（first_seen_at）が新着期間内の商品を新着とする。
+ * 期間の起点は日単位（N日前の0時）で、旧フラグリセットと同じ判定になる。
+ */
+@Component
+public class ProductNewnessPolicy {
+
+    // 新着として扱う日数
+    @Value("${product.new-window-days:30}")
+    private int windowDays = 30;
+
+    // この日時以降に初めて検出された商品が新着
+    public LocalDateTime newSince() {
+        return LocalDate.now().minusDays(windowDays).atStartOfDay();
+    }
+
+    public boolean isNew(LocalDateTime firstSeenAt) {
+        return firstSeenAt != null && !firstSeenAt.isBefore(newSince());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.capsuletoy.domain.product;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.capsuletoy.model.Product;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * 商品検索の条件
+ * 指定されなかった条件（null）は絞り込みに使わない。
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    // キーワードは ProductNameNormalizer で正規化しておくこと
+    public static Specification<Product> filter(String manufacturer, String normalizedKeyword) {
+        return Specification.where(manufacturerEquals(manufacturer))
+                .and(searchTextContains(normalizedKeyword));
+    }
+
+    public static Specification<Product> manufacturerEquals(String manufacturer) {
+        return manufacturer == null ? null : (root, query, cb) -> cb.equal(root.get("manufacturer"), manufacturer);
+    }
+
+    public static Specification<Product> searchTextContains(String normalizedKeyword) {
+        return normalizedKeyword == null ? null
+                : (root, query, cb) -> cb.like(root.get("searchText"), "%" + normalizedKeyword + "%");
+    }
+
+    // 初回検出日時が since 以降（新着商品。since: ProductNewnessPolicy#newSince）
+    public static Specification<Product> firstSeenSince(LocalDateTime since) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("firstSeenAt"), since);
+    }
+
+    /**
+     * (並び替えキー, id) の順でカーソルより後ろにある、並び替えキーが設定された商品
+     * 並び替えキーの索引で範囲検索できるよう、同じキーの商品だけ id で比較する
+     * cursor が null の場合は先頭から（未設定になりうるキーでは設定済みの商品だけ）
+     */
+    public static Specification<Product> after(String sort, ProductCursor cursor) {
+        if (cursor == null) {
+            return ProductCursor.NULLABLE_SORTS.contains(sort)
+                    ? (root, query, cb) -> cb.isNotNull(root.get(sort)) : null;
+        }
+        return (root, query, cb) -> cb.or(
+                beyond(root, cb, cursor),
+                cb.and(cb.equal(root.get(sort), sortKey(cursor)), compareId(root, cb, cursor)));
+    }
+
+    /**
+     * 並び替えキーが未設定で、ID順でカーソルより後ろにある商品（設定済みの商品を返し終えた後に続ける）
+     */
+    public static Specification<Product> afterWithoutKey(String sort, ProductCursor cursor) {
+        Specification<Product> keyIsNull = (root, query, cb) -> cb.isNull(root.get(sort));
+        if (cursor == null || cursor.value() != null) {
+            return keyIsNull;
+        }
+        return keyIsNull.and((root, query, cb) -> compareId(root, cb, cursor));
+    }
+
+    private static Object sortKey(ProductCursor cursor) {
+        return switch (cursor.sort()) {
+            case "createdAt" -> cursor.createdAt();
+            case "releaseDate" -> cursor.releaseDate();
+            case "price" -> cursor.price();
+            default -> cursor.value();
+        };
+    }
+
+    private static Predicate beyond(Root<Product> root, CriteriaBuilder cb, ProductCursor cursor) {
+        return switch (cursor.sort()) {
+            case "createdAt" -> compare(cb, root.<LocalDateTime>get("createdAt"), cursor.createdAt(), cursor.ascending());
+            case "releaseDate" -> compare(cb, root.<LocalDate>get("releaseDate"), cursor.releaseDate(), cursor.ascending());
+            case "price" -> compare(cb, root.<Integer>get("price"), cursor.price(), cursor.ascending());
+            default -> compare(cb, root.<String>get("productName"), cursor.value(), cursor.ascending());
+        };
+    }
+
+    private static Predicate compareId(Root<Product> root, CriteriaBuilder cb, ProductCursor cursor) {
+        return compare(cb, root.<Long>get("id"), cursor.id(), cursor.ascending());
+    }
+
+    private static <T extends Comparable<? super T>> Predicate compare(CriteriaBuilder cb, Expression<T> path,
+            T value, boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.capsuletoy.domain.queue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capsuletoy.model.ScrapeTask;
+import com.example.capsuletoy.model.ScrapeTaskStatus;
+import com.example.capsuletoy.repository.ScrapeTaskRepository;
+
+/**
+ * DBテーブルを使ったスクレイピングタスクキュー
+ * リースは条件付きUPDATEで取得するため、複数JVMから同じDBを参照しても同じタスクを二重に処理しない
+ */
+@Component
+public class ScrapeTaskQueue {
+    private static final Logger logger = LoggerFactory.getLogger(ScrapeTaskQueue.class);
+
+    private final ScrapeTaskRepository scrapeTaskRepository;
+
+    @Value("${scraping.queue.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${scraping.queue.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${scraping.queue.retry-backoff-seconds:60}")
+    private long retryBackoffSeconds;
+
+    public ScrapeTaskQueue(ScrapeTaskRepository scrapeTaskRepository) {
+        this.scrapeTaskRepository = scrapeTaskRepository;
+    }
+
+    /**
+     * 詳細ページURLをタスクとして投入
+     * 処理済み・デッドレターのタスクは再スクレイピングのため待機中に戻し、待機中・リース中のものはそのまま
+     */
+    @Transactional
+    public int enqueue(String siteName, List<String> detailUrls) {
+        Set<String> urls = new LinkedHashSet<>(detailUrls);
+        if (urls.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ScrapeTask> tasks = new ArrayList<>();
+
+        for (ScrapeTask existing : scrapeTaskRepository.findByDetailUrlIn(urls)) {
+            urls.remove(existing.getDetailUrl());
+            if (existing.getStatus() == ScrapeTaskStatus.DONE || existing.getStatus() == ScrapeTaskStatus.DEAD) {
+                existing.setStatus(ScrapeTaskStatus.PENDING);
+                existing.setAttempts(0);
+                existing.setLastError(null);
+                existing.setAvailableAt(now);
+                tasks.add(existing);
+            }
+        }
+
+        for (String url : urls) {
+            ScrapeTask task = new ScrapeTask();
+            task.setSiteName(siteName);
+            task.setDetailUrl(url);
+            task.setAvailableAt(now);
+            tasks.add(task);
+        }
+
+        scrapeTaskRepository.saveAll(tasks);
+        logger.info("スクレイピングタスクを投入: {} - {}件", siteName, tasks.size());
+        return tasks.size();
+    }
+
+    /**
+     * 処理可能なタスクを最大limit件リース
+     */
+    @Transactional
+    public List<ScrapeTask> lease(String owner, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // 期限切れのまま試行回数上限に達したタスクは再リースせずデッドレターへ
+        int deadLettered = scrapeTaskRepository.deadLetterExpired(
+                ScrapeTaskStatus.DEAD, ScrapeTaskStatus.LEASED, now, maxAttempts);
+        if (deadLettered > 0) {
+            logger.warn("リース期限切れのタスクをデッドレターに移動: {}件", deadLettered);
+        }
+
+        List<Long> candidateIds = scrapeTaskRepository.findLeasableIds(
+                ScrapeTaskStatus.PENDING, ScrapeTaskStatus.LEASED, now, PageRequest.of(0, limit));
+
+        if (candidateIds.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime expiresAt = now.plusSeconds(leaseSeconds);
+        scrapeTaskRepository.claimAll(candidateIds, owner, expiresAt, now,
+                ScrapeTaskStatus.PENDING, ScrapeTaskStatus.LEASED);
+
+        // 候補の取得後に他ワーカーが取得した行は更新されないため、実際に取得できた行だけを返す
+        return scrapeTaskRepository.findByIdInAndLeaseOwnerAndStatus(candidateIds, owner, ScrapeTaskStatus.LEASED);
+    }
+
+    /**
+     * 処理中のタスクのリース期限を延長（ハートビート）
+     *
+     * @return 延長できたタスク数（期限切れで他ワーカーに奪取されたタスクは含まない）
+     */
+    @Transactional
+    public int renewLeases(List<ScrapeTask> tasks, String owner) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = tasks.stream().map(ScrapeTask::getId).toList();
+        return scrapeTaskRepository.renewLeases(ids, owner, now.plusSeconds(leaseSeconds), now, ScrapeTaskStatus.LEASED);
+    }
+
+    /**
+     * リース期限の延長間隔（期限が切れる前に数回延長できるよう、リース時間の1/3）
+     */
+    public long getRenewIntervalSeconds() {
+        return Math.max(1, leaseSeconds / 3);
+    }
+
+    /**
+     * タスクを処理済みにする
+     */
+    @Transactional
+    public void complete(ScrapeTask task, String owner) {
+        scrapeTaskRepository.findById(task.getId())
+                .filter(current -> owner.equals(current.getLeaseOwner()))
+                .ifPresent(current -> {
+                    current.setStatus(ScrapeTaskStatus.DONE);
+                    current.setLeaseOwner(null);
+                    current.setLeaseExpiresAt(null);
+                    current.setLastError(null);
+                    scrapeTaskRepository.save(current);
+                });
+    }
+
+    /**
+     * タスクの失敗を記録（試行回数上限に達したらデッドレター、それ以外は待機時間を置いて再試行）
+     */
+    @Transactional
+    public void fail(ScrapeTask task, String owner, String errorMessage) {
+        scrapeTaskRepository.findById(task.getId())
+                .filter(current -> owner.equals(current.getLeaseOwner()))
+                .ifPresent(current -> {
+                    current.setLeaseOwner(null);
+                    current.setLeaseExpiresAt(null);
+                    current.setLastError(errorMessage);
+
+                    if (current.getAttempts() >= maxAttempts) {
+                        current.setStatus(ScrapeTaskStatus.DEAD);
+                        logger.warn("タスクをデッドレターに移動: {} ({})", current.getDetailUrl(), errorMessage);
+                    } else {
+                        current.setStatus(ScrapeTaskStatus.PENDING);
+                        current.setAvailableAt(LocalDateTime.now().plusSeconds(retryBackoffSeconds * current.getAttempts()));
+                    }
+                    scrapeTaskRepository.save(current);
+                });
+    }
+
+    /**
+     * デッドレターのタスクをすべて再投入
+     */
+    @Transactional
+    public int requeueDeadTasks() {
+        return scrapeTaskRepository.requeueDead(ScrapeTaskStatus.PENDING, ScrapeTaskStatus.DEAD, LocalDateTime.now());
+    }
+
+    /**
+     * リース期限内のタスクがあるか（いずれかのワーカーが処理中）
+     */
+    @Transactional(readOnly = true)
+    public boolean hasActiveLeases() {
+        return scrapeTaskRepository.existsByStatusAndLeaseExpiresAtAfter(ScrapeTaskStatus.LEASED, LocalDateTime.now());
+    }
+
+    /**
+     * ステータス別のタスク件数
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> getQueueStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        for (ScrapeTaskStatus status : ScrapeTaskStatus.values()) {
+            stats.put(status.name(), scrapeTaskRepository.countByStatus(status));
+        }
+        return stats;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.capsuletoy.domain.scraping;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -9,8 +10,15 @@ import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.example.capsuletoy.domain.product.NearDuplicateDetector;
+import com.example.capsuletoy.domain.product.ProductKeyExtractor;
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
 import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.UpsertOutcome;
+import com.example.capsuletoy.record.ProductUpsertResult;
 import com.example.capsuletoy.scraper.BaseScraper;
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+import com.example.capsuletoy.service.product.ProductAutocompleteService;
 import com.example.capsuletoy.service.product.ProductUpdateService;
 import com.example.capsuletoy.service.scraping.ScrapeService;
 
@@ -20,30 +28,65 @@ public class ManualScrapeExecuter {
 
     private final ProductUpdateService productUpdateService;
 
-    public ManualScrapeExecuter(ProductUpdateService productUpdateService) {
+    private final ProductKeyExtractor productKeyExtractor;
+
+    private final ProductNameNormalizer productNameNormalizer;
+
+    private final NearDuplicateDetector nearDuplicateDetector;
+
+    private final ProductAutocompleteService productAutocompleteService;
+
+    public ManualScrapeExecuter(ProductUpdateService productUpdateService,
+            ProductKeyExtractor productKeyExtractor, ProductNameNormalizer productNameNormalizer,
+            NearDuplicateDetector nearDuplicateDetector, ProductAutocompleteService productAutocompleteService) {
         this.productUpdateService = productUpdateService;
+        this.productKeyExtractor = productKeyExtractor;
+        this.productNameNormalizer = productNameNormalizer;
+        this.nearDuplicateDetector = nearDuplicateDetector;
+        this.productAutocompleteService = productAutocompleteService;
     }
 
-    public List<Product> scrapeProducts(BaseScraper scraper){
-        List<Product> scrapedProducts = scraper.scrape();
+    public List<Product> scrapeProducts(BaseScraper scraper, ScrapeRunHandle handle){
+        List<Product> scrapedProducts = scraper.scrape(handle);
         return scrapedProducts;
     }
 
-    private boolean trySaveProduct(Product product){
+    public List<Product> getNewProductList(List<Product> scrapedProducts){
+        // 商品キーと正規化名を設定して一括保存
+        scrapedProducts.forEach(productKeyExtractor::assignProductKey);
+        scrapedProducts.forEach(productNameNormalizer::assignNormalizedName);
+        List<ProductUpsertResult> results = productUpdateService.ingestScrapedProducts(scrapedProducts);
+
+        Map<UpsertOutcome, Long> counts = results.stream()
+                .collect(Collectors.groupingBy(ProductUpsertResult::outcome, Collectors.counting()));
+        logger.info("Saved scraped products: inserted={}, updated={}, unchanged={}",
+                counts.getOrDefault(UpsertOutcome.INSERTED, 0L),
+                counts.getOrDefault(UpsertOutcome.UPDATED, 0L),
+                counts.getOrDefault(UpsertOutcome.UNCHANGED, 0L));
+
+        // 新規登録・更新した商品を近似重複の索引に追加（失敗しても保存済みの結果には影響させない。漏れは定期保守で補完）
         try {
-            Product saved = productUpdateService.saveScrapedProduct(product);
-            boolean checkNewProduct = saved.getIsNew() != null && saved.getIsNew();
-            return checkNewProduct;
-        } catch (Exception e) {
-            logger.error("Error saving product: {}", product.getProductName(), e);
-            return false;
+            nearDuplicateDetector.onProductsIngested(results.stream()
+                    .filter(result -> result.outcome() != UpsertOutcome.UNCHANGED)
+                    .map(ProductUpsertResult::product)
+                    .toList());
+        } catch (RuntimeException e) {
+            logger.warn("Near-duplicate detection failed: {}", e.getMessage());
         }
-    }
 
-    public List<Product> getNewProductList(List<Product> scrapedProducts){
-        Stream<Product> scrapedProductStream = scrapedProducts.stream();
-        Stream<Product> scrapedProductStreamFiltered = scrapedProductStream.filter(this::trySaveProduct);
-        List<Product> newProducts = scrapedProductStreamFiltered.collect(Collectors.toList());
+        // 新規登録・更新した商品を入力補完の索引に反映（失敗しても定期実行で補完される）
+        if (counts.getOrDefault(UpsertOutcome.INSERTED, 0L) + counts.getOrDefault(UpsertOutcome.UPDATED, 0L) > 0) {
+            try {
+                productAutocompleteService.refresh();
+            } catch (RuntimeException e) {
+                logger.warn("Autocomplete index refresh failed: {}", e.getMessage());
+            }
+        }
+
+        // 新規登録された商品のみ新着として返す
+        Stream<ProductUpsertResult> insertedResults = results.stream()
+                .filter(result -> result.outcome() == UpsertOutcome.INSERTED);
+        List<Product> newProducts = insertedResults.map(ProductUpsertResult::product).collect(Collectors.toList());
         return newProducts;
     }
 }
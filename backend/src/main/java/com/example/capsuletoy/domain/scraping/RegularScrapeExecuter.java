@@ -7,14 +7,15 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.domain.queue.ScrapeTaskQueue;
 import com.example.capsuletoy.model.Product;
 import com.example.capsuletoy.model.ScrapeConfig;
 import com.example.capsuletoy.repository.ScrapeConfigRepository;
-import com.example.capsuletoy.scraper.BandaiScraper;
 import com.example.capsuletoy.scraper.BaseScraper;
-import com.example.capsuletoy.scraper.TakaraTomyScraper;
 import com.example.capsuletoy.service.scheduled.ScheduledScrapeService;
 import com.example.capsuletoy.service.scraping.ScrapeService;
 
@@ -24,31 +25,40 @@ public class RegularScrapeExecuter {
 
     private final ScrapeConfigRepository scrapeConfigRepository;
 
-    private final BandaiScraper bandaiScraper;
-
-    private final TakaraTomyScraper takaraTomyScraper;
+    private final ScraperSelector scraperSelector;
 
     private final ScrapeService scrapeService;
 
-    public RegularScrapeExecuter(ScrapeConfigRepository scrapeConfigRepository, BandaiScraper bandaiScraper,
-            TakaraTomyScraper takaraTomyScraper, ScrapeService scrapeService) {
+    private final ScrapeTaskQueue scrapeTaskQueue;
+
+    private final ClusterJobLock clusterJobLock;
+
+    // trueの場合は詳細ページURLをキューに投入するだけで、スクレイピングはワーカーが行う
+    @Value("${scraping.queue.enabled:false}")
+    private boolean queueEnabled;
+
+    public RegularScrapeExecuter(ScrapeConfigRepository scrapeConfigRepository, ScraperSelector scraperSelector,
+            ScrapeService scrapeService, ScrapeTaskQueue scrapeTaskQueue, ClusterJobLock clusterJobLock) {
         this.scrapeConfigRepository = scrapeConfigRepository;
-        this.bandaiScraper = bandaiScraper;
-        this.takaraTomyScraper = takaraTomyScraper;
+        this.scraperSelector = scraperSelector;
         this.scrapeService = scrapeService;
+        this.scrapeTaskQueue = scrapeTaskQueue;
+        this.clusterJobLock = clusterJobLock;
     }
 
     public List<Product> executeScraping(List<ScrapeConfig> enabledConfigs){
         List<Product> allNewProducts = new ArrayList<>();
 
         for (ScrapeConfig config : enabledConfigs) {
+            // ロックを奪取されていたら残りのサイトは新しい保持ノードに任せる
+            clusterJobLock.checkFencing();
 
-            List<Product> newProducts = scrapeNewProducts(config);
+            List<Product> newProducts = queueEnabled ? enqueueProductUrls(config) : scrapeNewProducts(config);
             allNewProducts.addAll(newProducts);
 
             // 最終実行日時を更新
             config.setLastScrapedAt(LocalDateTime.now());
-            scrapeConfigRepository.save(config);
+            scrapeConfigRepository.updateLastScrapedAt(config.getId(), config.getLastScrapedAt());
 
             logger.info("スクレイピング完了: {} - {}件の新着商品", config.getSiteName(), newProducts.size());
         }
@@ -57,7 +67,7 @@ public class RegularScrapeExecuter {
     }
 
     private List<Product> scrapeNewProducts(ScrapeConfig config){
-        BaseScraper scraper = getScraperForSite(config.getSiteName());
+        BaseScraper scraper = scraperSelector.getScraperForSite(config.getSiteName());
         if (scraper == null) {
             logger.warn("未対応のサイト: {}", config.getSiteName());
             return List.of();
@@ -76,13 +86,24 @@ public class RegularScrapeExecuter {
     }
 
     /**
-     * サイト名に対応するスクレイパーを取得
+     * 詳細ページURLの収集のみ行い、キューに投入する（新着商品はワーカー側で検出される）
      */
-    private BaseScraper getScraperForSite(String siteName) {
-        return switch (siteName) {
-            case "BANDAI" -> bandaiScraper;
-            case "TAKARA_TOMY" -> takaraTomyScraper;
-            default -> null;
-        };
+    private List<Product> enqueueProductUrls(ScrapeConfig config){
+        BaseScraper scraper = scraperSelector.getScraperForSite(config.getSiteName());
+        if (scraper == null) {
+            logger.warn("未対応のサイト: {}", config.getSiteName());
+            return List.of();
+        }
+
+        try {
+            logger.info("キュー投入用のURL収集: {} ({})", config.getSiteName(), config.getSiteUrl());
+
+            List<String> productUrls = scraper.discoverProductUrls();
+            scrapeTaskQueue.enqueue(config.getSiteName(), productUrls);
+
+        } catch (Exception e) {
+            logger.error("キュー投入失敗: {} - {}", config.getSiteName(), e.getMessage(), e);
+        }
+        return List.of();
     }
 }
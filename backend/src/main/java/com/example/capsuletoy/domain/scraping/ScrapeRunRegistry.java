@@ -0,0 +1,99 @@
+package com.example.capsuletoy.domain.scraping;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+
+/**
+ * 実行中のスクレイピングを管理（管理画面やシャットダウン時のキャンセル用）
+ */
+@Component
+public class ScrapeRunRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(ScrapeRunRegistry.class);
+
+    private final Map<Long, ScrapeRunHandle> activeRuns = new ConcurrentHashMap<>();
+
+    private final AtomicLong runIdSequence = new AtomicLong();
+
+    // シャットダウン時、キャンセルしたスクレイピングが取得済み分を保存し終えるまで待つ最大時間
+    @Value("${scraping.run.shutdown-wait-seconds:15}")
+    private long shutdownWaitSeconds;
+
+    /**
+     * 現在のスレッドで開始するスクレイピングを登録
+     */
+    public ScrapeRunHandle start(String siteName) {
+        ScrapeRunHandle handle = new ScrapeRunHandle(runIdSequence.incrementAndGet(), siteName, Thread.currentThread());
+        activeRuns.put(handle.getRunId(), handle);
+        return handle;
+    }
+
+    /**
+     * スクレイピング終了時に登録を解除（以降にキャンセルされても実行スレッドには割り込まない）
+     */
+    public void finish(ScrapeRunHandle handle) {
+        handle.detachBrowser();
+        activeRuns.remove(handle.getRunId());
+    }
+
+    /**
+     * 実行中のスクレイピングをキャンセル
+     *
+     * @return 該当する実行があった場合true
+     */
+    public boolean cancel(Long runId) {
+        ScrapeRunHandle handle = activeRuns.get(runId);
+        if (handle == null) {
+            return false;
+        }
+        logger.info("スクレイピングをキャンセル: ID={}, サイト={}", runId, handle.getSiteName());
+        handle.cancel();
+        return true;
+    }
+
+    /**
+     * 実行中のスクレイピング一覧（開始日時順）
+     */
+    public List<ScrapeRunHandle> getActiveRuns() {
+        return activeRuns.values().stream()
+                .sorted(Comparator.comparing(ScrapeRunHandle::getRunId))
+                .toList();
+    }
+
+    /**
+     * シャットダウン開始時に全実行をキャンセルし、DB接続プールが閉じられる前に保存が終わるのを待つ
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void cancelAllOnShutdown() {
+        if (activeRuns.isEmpty()) {
+            return;
+        }
+
+        logger.info("シャットダウンのため実行中のスクレイピングをキャンセル: {}件", activeRuns.size());
+        activeRuns.values().forEach(ScrapeRunHandle::cancel);
+
+        long deadline = System.currentTimeMillis() + shutdownWaitSeconds * 1000;
+        while (!activeRuns.isEmpty() && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (!activeRuns.isEmpty()) {
+            logger.warn("終了を待たずにシャットダウンします: {}件", activeRuns.size());
+        }
+    }
+}
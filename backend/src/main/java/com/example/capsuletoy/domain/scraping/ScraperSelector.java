@@ -0,0 +1,30 @@
+package com.example.capsuletoy.domain.scraping;
+
+import org.springframework.stereotype.Component;
+
+import com.example.capsuletoy.scraper.BandaiScraper;
+import com.example.capsuletoy.scraper.BaseScraper;
+import com.example.capsuletoy.scraper.TakaraTomyScraper;
+
+@Component
+public class ScraperSelector {
+    private final BandaiScraper bandaiScraper;
+
+    private final TakaraTomyScraper takaraTomyScraper;
+
+    public ScraperSelector(BandaiScraper bandaiScraper, TakaraTomyScraper takaraTomyScraper) {
+        this.bandaiScraper = bandaiScraper;
+        this.takaraTomyScraper = takaraTomyScraper;
+    }
+
+    /**
+     * サイト名に対応するスクレイパーを取得（未対応のサイトはnull）
+     */
+    public BaseScraper getScraperForSite(String siteName) {
+        return switch (siteName) {
+            case "BANDAI" -> bandaiScraper;
+            case "TAKARA_TOMY" -> takaraTomyScraper;
+            default -> null;
+        };
+    }
+}
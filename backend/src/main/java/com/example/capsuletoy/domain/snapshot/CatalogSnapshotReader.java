@@ -0,0 +1,167 @@
+package com.example.capsuletoy.domain.snapshot;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * カタログスナップショットの読み込み（形式は CatalogSnapshotWriter を参照）
+ * テーブルは先頭から順に nextTable() → tableData() を読み切る → finishTable() の順で読む。
+ */
+public class CatalogSnapshotReader implements Closeable {
+
+    private final DataInputStream in;
+
+    private final int formatVersion;
+
+    private final LocalDateTime createdAt;
+
+    private final String schemaVersion;
+
+    private String tableName;
+
+    private String columns;
+
+    private ChunkInputStream tableData;
+
+    public CatalogSnapshotReader(InputStream source) throws IOException {
+        this.in = new DataInputStream(new GZIPInputStream(source, CatalogSnapshotWriter.CHUNK_SIZE));
+        byte[] magic = in.readNBytes(CatalogSnapshotWriter.MAGIC.length);
+        if (!Arrays.equals(magic, CatalogSnapshotWriter.MAGIC)) {
+            throw new IllegalArgumentException("カタログスナップショットの形式ではありません");
+        }
+        this.formatVersion = in.readInt();
+        if (formatVersion != CatalogSnapshotWriter.FORMAT_VERSION) {
+            throw new IllegalArgumentException("対応していないスナップショットの形式バージョンです: " + formatVersion);
+        }
+        this.createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneId.systemDefault());
+        this.schemaVersion = in.readUTF();
+    }
+
+    /**
+     * 次のテーブルに進む（もう無ければfalse）
+     */
+    public boolean nextTable() throws IOException {
+        if (tableData != null) {
+            throw new IllegalStateException("前のテーブルを finishTable() で読み終えていません");
+        }
+        if (!in.readBoolean()) {
+            return false;
+        }
+        tableName = in.readUTF();
+        columns = in.readUTF();
+        tableData = new ChunkInputStream(in);
+        return true;
+    }
+
+    public String tableName() {
+        return tableName;
+    }
+
+    public String columns() {
+        return columns;
+    }
+
+    /**
+     * 現在のテーブルのデータ（COPY ... (FORMAT binary) の入力にそのまま渡せる）
+     */
+    public InputStream tableData() {
+        return tableData;
+    }
+
+    /**
+     * 現在のテーブルの残りのデータを読み飛ばし、書き込み時の行数を返す
+     */
+    public long finishTable() throws IOException {
+        tableData.skipToEnd();
+        tableData = null;
+        return in.readLong();
+    }
+
+    public int formatVersion() {
+        return formatVersion;
+    }
+
+    public LocalDateTime createdAt() {
+        return createdAt;
+    }
+
+    public String schemaVersion() {
+        return schemaVersion;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // 「長さ + バイト列」のチャンクを続けて読み、長さ0のチャンクで終わりとする
+    private static class ChunkInputStream extends InputStream {
+
+        private final DataInputStream in;
+
+        private int remaining;
+
+        private boolean finished;
+
+        ChunkInputStream(DataInputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextChunkIfNeeded()) {
+                return -1;
+            }
+            remaining--;
+            return in.readUnsignedByte();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunkIfNeeded()) {
+                return -1;
+            }
+            int read = in.read(b, off, Math.min(len, remaining));
+            if (read < 0) {
+                throw new IOException("スナップショットが途中で終わっています");
+            }
+            remaining -= read;
+            return read;
+        }
+
+        void skipToEnd() throws IOException {
+            while (nextChunkIfNeeded()) {
+                in.skipNBytes(remaining);
+                remaining = 0;
+            }
+        }
+
+        private boolean nextChunkIfNeeded() throws IOException {
+            while (remaining == 0) {
+                if (finished) {
+                    return false;
+                }
+                int length = in.readInt();
+                if (length < 0 || length > CatalogSnapshotWriter.CHUNK_SIZE) {
+                    throw new IOException("スナップショットのチャンク長が不正です: " + length);
+                }
+                if (length == 0) {
+                    finished = true;
+                    return false;
+                }
+                remaining = length;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.capsuletoy.domain.snapshot;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * カタログスナップショットの書き込み
+ * gzip圧縮した次の並びで書く（数値はビッグエンディアン、文字列は DataOutput#writeUTF）
+ *   ヘッダー: マジック "GHSNAP" / 形式バージョン(int) / 作成日時(long, epoch millis) / スキーマバージョン(UTF)
+ *   テーブルごと: 続きあり(boolean=true) / テーブル名(UTF) / 列リスト(UTF) / データのチャンク列 / 行数(long)
+ *   終わり: 続きあり(boolean=false)
+ * データはPostgreSQLの COPY ... (FORMAT binary) の出力をそのまま CHUNK_SIZE ごとに「長さ(int) + バイト列」で区切り、
+ * 長さ0のチャンクで終える。全体の行数が分からなくても先頭から順に書けるため、メモリ使用量は行数によらず一定。
+ */
+public class CatalogSnapshotWriter implements Closeable {
+
+    public static final int FORMAT_VERSION = 1;
+
+    static final byte[] MAGIC = "GHSNAP".getBytes(StandardCharsets.US_ASCII);
+
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private final GZIPOutputStream gzip;
+
+    private final DataOutputStream out;
+
+    public CatalogSnapshotWriter(OutputStream target, String schemaVersion, LocalDateTime createdAt) throws IOException {
+        this.gzip = new GZIPOutputStream(target, CHUNK_SIZE);
+        this.out = new DataOutputStream(gzip);
+        out.write(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeLong(createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        out.writeUTF(schemaVersion);
+    }
+
+    /**
+     * テーブルの書き込みを始め、データを書き込むストリームを返す（閉じるとデータの終わりを書く）
+     * ストリームを閉じた後に endTable() で行数を書くこと
+     */
+    public OutputStream beginTable(String tableName, String columns) throws IOException {
+        out.writeBoolean(true);
+        out.writeUTF(tableName);
+        out.writeUTF(columns);
+        return new ChunkOutputStream(out);
+    }
+
+    public void endTable(long rows) throws IOException {
+        out.writeLong(rows);
+    }
+
+    /**
+     * 終わりの印を書いてgzipを完了する（書き込み先のストリームは閉じない）
+     */
+    @Override
+    public void close() throws IOException {
+        out.writeBoolean(false);
+        out.flush();
+        gzip.finish();
+    }
+
+    // 書き込まれたバイト列を CHUNK_SIZE ごとに「長さ + バイト列」で書き出す
+    private static class ChunkOutputStream extends OutputStream {
+
+        private final DataOutputStream out;
+
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+
+        private int length;
+
+        private boolean closed;
+
+        ChunkOutputStream(DataOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (length == buffer.length) {
+                flushChunk();
+            }
+            buffer[length++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (length == buffer.length) {
+                    flushChunk();
+                }
+                int copied = Math.min(len, buffer.length - length);
+                System.arraycopy(b, off, buffer, length, copied);
+                length += copied;
+                off += copied;
+                len -= copied;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushChunk();
+            out.writeInt(0);
+        }
+
+        private void flushChunk() throws IOException {
+            if (length == 0) {
+                return;
+            }
+            out.writeInt(length);
+            out.write(buffer, 0, length);
+            length = 0;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.capsuletoy.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * アーカイブ済み商品（発売から一定期間が過ぎ、products から移した商品）
+ * idは元の商品IDをそのまま使う。参照専用で、アーカイブへの移動は ProductArchiver が行う。
+ */
+@Entity
+@Table(name = "products_archive",
+        uniqueConstraints = @UniqueConstraint(name = "uk_products_archive_manufacturer_product_key",
+                columnNames = {"manufacturer", "product_key"}))
+public class ArchivedProduct {
+
+    @Id
+    private Long id;
+
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+
+    @Column(name = "manufacturer", nullable = false)
+    private String manufacturer;
+
+    @Column(name = "image_url", columnDefinition = "TEXT")
+    private String imageUrl;
+
+    @Column(name = "release_date")
+    private LocalDate releaseDate;
+
+    @Column(name = "price")
+    private Integer price;
+
+    @Column(name = "description", columnDefinition = "TEXT")
+    private String description;
+
+    @Column(name = "lineup_info", columnDefinition = "TEXT")
+    private String lineupInfo;
+
+    @Column(name = "source_url", columnDefinition = "TEXT")
+    private String sourceUrl;
+
+    @Column(name = "product_key", length = 80)
+    private String productKey;
+
+    // 商品キーの無い商品の再登録判定に使う（products と同じ正規化名）
+    @Column(name = "normalized_name")
+    private String normalizedName;
+
+    @Column(name = "first_seen_at", nullable = false)
+    private LocalDateTime firstSeenAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // アーカイブに移した日時
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedProduct() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public String getManufacturer() {
+        return manufacturer;
+    }
+
+    public void setManufacturer(String manufacturer) {
+        this.manufacturer = manufacturer;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public LocalDate getReleaseDate() {
+        return releaseDate;
+    }
+
+    public void setReleaseDate(LocalDate releaseDate) {
+        this.releaseDate = releaseDate;
+    }
+
+    public Integer getPrice() {
+        return price;
+    }
+
+    public void setPrice(Integer price) {
+        this.price = price;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getLineupInfo() {
+        return lineupInfo;
+    }
+
+    public void setLineupInfo(String lineupInfo) {
+        this.lineupInfo = lineupInfo;
+    }
+
+    public String getSourceUrl() {
+        return sourceUrl;
+    }
+
+    public void setSourceUrl(String sourceUrl) {
+        this.sourceUrl = sourceUrl;
+    }
+
+    public String getProductKey() {
+        return productKey;
+    }
+
+    public void setProductKey(String productKey) {
+        this.productKey = productKey;
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public void setNormalizedName(String normalizedName) {
+        this.normalizedName = normalizedName;
+    }
+
+    public LocalDateTime getFirstSeenAt() {
+        return firstSeenAt;
+    }
+
+    public void setFirstSeenAt(LocalDateTime firstSeenAt) {
+        this.firstSeenAt = firstSeenAt;
+    }
+
+    // 商品一覧と同じ形式で返すため（アーカイブ済みの商品は新着にならない）
+    public Boolean getIsNew() {
+        return false;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.capsuletoy.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 近似重複の疑いがある商品の組（管理者の確認キュー）
+ * NearDuplicateDetector が正規化名の類似度から検出する。productId < candidateProductId。
+ */
+@Entity
+@Table(name = "product_duplicate_candidates",
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_duplicate_candidates_pair",
+                columnNames = {"product_id", "candidate_product_id"}),
+        indexes = @Index(name = "idx_product_duplicate_candidates_status_detected_at",
+                columnList = "status, detected_at"))
+public class DuplicateCandidate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "candidate_product_id", nullable = false)
+    private Long candidateProductId;
+
+    // 正規化名の文字3-gramのJaccard係数
+    @Column(name = "similarity", nullable = false)
+    private Double similarity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private DuplicateCandidateStatus status = DuplicateCandidateStatus.PENDING;
+
+    @Column(name = "detected_at", nullable = false)
+    private LocalDateTime detectedAt;
+
+    // 管理者が確認（重複と判断 / 別商品と判断）した日時
+    @Column(name = "reviewed_at")
+    private LocalDateTime reviewedAt;
+
+    // Constructors
+    public DuplicateCandidate() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Long getCandidateProductId() {
+        return candidateProductId;
+    }
+
+    public void setCandidateProductId(Long candidateProductId) {
+        this.candidateProductId = candidateProductId;
+    }
+
+    public Double getSimilarity() {
+        return similarity;
+    }
+
+    public void setSimilarity(Double similarity) {
+        this.similarity = similarity;
+    }
+
+    public DuplicateCandidateStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(DuplicateCandidateStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getDetectedAt() {
+        return detectedAt;
+    }
+
+    public void setDetectedAt(LocalDateTime detectedAt) {
+        this.detectedAt = detectedAt;
+    }
+
+    public LocalDateTime getReviewedAt() {
+        return reviewedAt;
+    }
+
+    public void setReviewedAt(LocalDateTime reviewedAt) {
+        this.reviewedAt = reviewedAt;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.capsuletoy.model;
+
+public enum DuplicateCandidateStatus {
+    PENDING,
+    CONFIRMED,
+    DISMISSED
+}
@@ -4,8 +4,16 @@ import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+import com.example.capsuletoy.domain.product.ProductNameNormalizationListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.capsuletoy.domain.product.ProductNewnessListener;
+
 @Entity
-@Table(name = "products")
+@EntityListeners({ProductNewnessListener.class, ProductNameNormalizationListener.class})
+@Table(name = "products",
+        uniqueConstraints = @UniqueConstraint(name = "uk_products_manufacturer_product_key",
+                columnNames = {"manufacturer", "product_key"}),
+        indexes = @Index(name = "idx_products_first_seen_at", columnList = "first_seen_at"))
 public class Product {
 
     @Id
@@ -36,8 +44,26 @@ public class Product {
     @Column(name = "source_url", columnDefinition = "TEXT")
     private String sourceUrl;
 
-    @Column(name = "is_new", nullable = false)
-    private Boolean isNew = true;
+    // sourceUrlから導出したメーカー内で一意な商品キー（バンダイ: jan_code、タカラトミー: n）
+    @Column(name = "product_key", length = 80)
+    private String productKey;
+
+    // 表記ゆれを吸収した商品名（ProductNameNormalizer で作る。重複判定・キーワード検索に使う）
+    @Column(name = "normalized_name")
+    private String normalizedName;
+
+    // 商品名・ラインナップ・説明を正規化してつなげたキーワード検索用のテキスト（ProductNameNormalizer で作る。APIでは返さない）
+    @JsonIgnore
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
+    // 初めてスクレイピングで検出された日時（新着判定に使う）
+    @Column(name = "first_seen_at", nullable = false)
+    private LocalDateTime firstSeenAt;
+
+    // 新着かどうか（first_seen_atと新着期間から読み込み時に算出する）
+    @Transient
+    private Boolean isNew;
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -45,10 +71,18 @@ public class Product {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // 楽観的排他制御のバージョン（更新のたびに1つ進む。スクレイピングのJDBC保存でも同じ列を使う）
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        if (firstSeenAt == null) {
+            firstSeenAt = createdAt;
+        }
     }
 
     @PreUpdate
@@ -133,6 +167,38 @@ public class Product {
         this.sourceUrl = sourceUrl;
     }
 
+    public String getProductKey() {
+        return productKey;
+    }
+
+    public void setProductKey(String productKey) {
+        this.productKey = productKey;
+    }
+
+    public String getNormalizedName() {
+        return normalizedName;
+    }
+
+    public void setNormalizedName(String normalizedName) {
+        this.normalizedName = normalizedName;
+    }
+
+    public String getSearchText() {
+        return searchText;
+    }
+
+    public void setSearchText(String searchText) {
+        this.searchText = searchText;
+    }
+
+    public LocalDateTime getFirstSeenAt() {
+        return firstSeenAt;
+    }
+
+    public void setFirstSeenAt(LocalDateTime firstSeenAt) {
+        this.firstSeenAt = firstSeenAt;
+    }
+
     public Boolean getIsNew() {
         return isNew;
     }
@@ -156,4 +222,12 @@ public class Product {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
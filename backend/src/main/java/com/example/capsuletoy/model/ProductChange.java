@@ -0,0 +1,96 @@
+package com.example.capsuletoy.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 商品項目の変更履歴（追記のみ）
+ * 再スクレイピングで値が変わった項目だけを1行ずつ記録する
+ */
+@Entity
+@Table(name = "product_changes",
+        indexes = @Index(name = "idx_product_changes_product_id_observed_at", columnList = "product_id, observed_at"))
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // 変更された項目（ProductChangeDetectorの項目名）
+    @Column(name = "field", nullable = false, length = 40)
+    private String field;
+
+    @Column(name = "old_value", columnDefinition = "TEXT")
+    private String oldValue;
+
+    @Column(name = "new_value", columnDefinition = "TEXT")
+    private String newValue;
+
+    // 変更を検出した日時
+    @Column(name = "observed_at", nullable = false)
+    private LocalDateTime observedAt;
+
+    // Constructors
+    public ProductChange() {
+    }
+
+    public ProductChange(Long productId, String field, String oldValue, String newValue, LocalDateTime observedAt) {
+        this.productId = productId;
+        this.field = field;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        this.observedAt = observedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public String getOldValue() {
+        return oldValue;
+    }
+
+    public void setOldValue(String oldValue) {
+        this.oldValue = oldValue;
+    }
+
+    public String getNewValue() {
+        return newValue;
+    }
+
+    public void setNewValue(String newValue) {
+        this.newValue = newValue;
+    }
+
+    public LocalDateTime getObservedAt() {
+        return observedAt;
+    }
+
+    public void setObservedAt(LocalDateTime observedAt) {
+        this.observedAt = observedAt;
+    }
+}
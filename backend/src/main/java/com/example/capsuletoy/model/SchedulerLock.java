@@ -0,0 +1,74 @@
+package com.example.capsuletoy.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * クラスタ内で定期ジョブを1ノードだけで実行するためのロック（リース）
+ * fencingTokenは取得のたびに増加し、ロックを失ったノードの書き込みを検出するのに使う
+ */
+@Entity
+@Table(name = "scheduler_locks")
+public class SchedulerLock {
+
+    @Id
+    @Column(name = "lock_name", length = 100)
+    private String lockName;
+
+    @Column(name = "owner")
+    private String owner;
+
+    @Column(name = "fencing_token", nullable = false)
+    private Long fencingToken = 0L;
+
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+
+    // Constructors
+    public SchedulerLock() {
+    }
+
+    // Getters and Setters
+    public String getLockName() {
+        return lockName;
+    }
+
+    public void setLockName(String lockName) {
+        this.lockName = lockName;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Long getFencingToken() {
+        return fencingToken;
+    }
+
+    public void setFencingToken(Long fencingToken) {
+        this.fencingToken = fencingToken;
+    }
+
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+
+    public void setLockedUntil(LocalDateTime lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    public void setLockedAt(LocalDateTime lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+}
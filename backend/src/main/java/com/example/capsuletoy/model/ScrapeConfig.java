@@ -1,9 +1,14 @@
 package com.example.capsuletoy.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "scrape_configs")
 public class ScrapeConfig {
 
@@ -26,6 +31,11 @@ public class ScrapeConfig {
     @Column(name = "last_scraped_at")
     private LocalDateTime lastScrapedAt;
 
+    // 楽観的排他制御のバージョン（管理画面からの更新で、読み込み後に他の更新があれば競合として扱う）
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // Constructors
     public ScrapeConfig() {
     }
@@ -78,4 +88,12 @@ public class ScrapeConfig {
     public void setLastScrapedAt(LocalDateTime lastScrapedAt) {
         this.lastScrapedAt = lastScrapedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -15,7 +15,7 @@ public class ScrapeLog {
     private String targetSite;
 
     @Column(name = "status", nullable = false)
-    private String status; // "SUCCESS" or "FAILURE"
+    private String status; // "SUCCESS", "FAILURE" or "CANCELLED"
 
     @Column(name = "products_found")
     private Integer productsFound;
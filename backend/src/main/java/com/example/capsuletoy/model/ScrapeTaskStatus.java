@@ -0,0 +1,8 @@
+package com.example.capsuletoy.model;
+
+public enum ScrapeTaskStatus {
+    PENDING,
+    LEASED,
+    DONE,
+    DEAD
+}
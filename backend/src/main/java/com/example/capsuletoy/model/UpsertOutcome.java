@@ -0,0 +1,10 @@
+package com.example.capsuletoy.model;
+
+/**
+ * スクレイピング結果の一括保存における各商品の結果
+ */
+public enum UpsertOutcome {
+    INSERTED,
+    UPDATED,
+    UNCHANGED
+}
@@ -0,0 +1,10 @@
+package com.example.capsuletoy.record;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * カタログスナップショットの概要（形式バージョン・スキーマバージョン・作成日時・テーブル別の行数）
+ */
+public record CatalogSnapshotSummary(int formatVersion, String schemaVersion, LocalDateTime createdAt,
+        Map<String, Long> rowCounts) {}
@@ -0,0 +1,28 @@
+package com.example.capsuletoy.record;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * 商品カタログのバージョン（商品一覧・詳細の ETag / Last-Modified の元）
+ * 商品の登録・更新で最終更新日時が進み、削除・アーカイブで件数が変わる。
+ * 日付が変わると同じデータでも isNew が変わるため、新着判定の起点日も含める。
+ */
+public record CatalogVersion(LocalDateTime lastModified, long productCount, long archivedCount,
+        LocalDate newSince) {
+
+    // 強いETag（同じURLで値が同じならレスポンスも同じ）
+    public String etag() {
+        long micros = lastModified == null ? 0
+                : lastModified.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + lastModified.getNano() / 1000;
+        return "\"" + Long.toHexString(micros) + "-" + Long.toHexString(productCount) + "-"
+                + Long.toHexString(archivedCount) + "-" + Long.toHexString(newSince.toEpochDay()) + "\"";
+    }
+
+    // Last-Modified のエポックミリ秒（商品が無い場合は -1 = 使わない）
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
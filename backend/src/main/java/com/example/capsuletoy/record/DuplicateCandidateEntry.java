@@ -0,0 +1,9 @@
+package com.example.capsuletoy.record;
+
+import com.example.capsuletoy.model.DuplicateCandidate;
+import com.example.capsuletoy.model.Product;
+
+/**
+ * 確認キューの1件（候補の組と、その両方の商品。削除済みの商品はnull）
+ */
+public record DuplicateCandidateEntry(DuplicateCandidate candidate, Product product, Product candidateProduct) {}
@@ -0,0 +1,6 @@
+package com.example.capsuletoy.record;
+
+/**
+ * 近似重複検出の対象になる商品（ID・メーカー・正規化名）
+ */
+public record ProductNameSignature(Long productId, String manufacturer, String normalizedName) {}
@@ -0,0 +1,12 @@
+package com.example.capsuletoy.record;
+
+import java.util.Set;
+
+/**
+ * 商品一覧キャッシュ（ProductQueryCache）のキー
+ * 結果が同じになる条件が同じキーになるよう、キーワードは正規化し、並び順は解決済みのものを使う。
+ * fields は項目を指定しなかった場合 null。
+ * 検索前に読んだカタログのバージョンを含め、結果が ETag のバージョンより古くならないようにする。
+ */
+public record ProductQueryKey(CatalogVersion version, String endpoint, String manufacturer, String keyword, String sort, int page, int size,
+        boolean archived, Set<String> fields) {}
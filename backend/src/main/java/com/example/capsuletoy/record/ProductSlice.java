@@ -0,0 +1,10 @@
+package com.example.capsuletoy.record;
+
+import java.util.List;
+
+/**
+ * カーソル方式で取得した商品一覧の1ページ
+ * content は Product、項目を指定した場合は項目名 → 値のMap。
+ * 次ページが無い場合 nextCursor は null、件数を要求しなかった場合 totalElements は null。
+ */
+public record ProductSlice(List<?> content, String nextCursor, Long totalElements) {}
@@ -0,0 +1,9 @@
+package com.example.capsuletoy.record;
+
+import java.time.LocalDateTime;
+
+/**
+ * 商品名の入力補完の候補（ProductAutocompleteIndex に載せる商品の最小限の項目）
+ */
+public record ProductSuggestion(Long id, String productName, String manufacturer, String normalizedName,
+        LocalDateTime firstSeenAt) {}
@@ -0,0 +1,12 @@
+package com.example.capsuletoy.record;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.example.capsuletoy.model.ProductChange;
+
+/**
+ * 商品タイムラインの1時点（その時点の履歴対象項目の値と、その時点で変わった項目）
+ */
+public record ProductTimelineEntry(LocalDateTime observedAt, Map<String, String> values, List<ProductChange> changes) {}
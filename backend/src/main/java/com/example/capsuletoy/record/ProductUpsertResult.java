@@ -0,0 +1,6 @@
+package com.example.capsuletoy.record;
+
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.UpsertOutcome;
+
+public record ProductUpsertResult(Product product, UpsertOutcome outcome) {}
@@ -0,0 +1,10 @@
+package com.example.capsuletoy.record;
+
+import java.util.List;
+
+import com.example.capsuletoy.model.ScrapeLog;
+
+/**
+ * カーソル方式で取得したスクレイピングログの1ページ（次ページが無い場合 nextCursor は null）
+ */
+public record ScrapeLogSlice(List<ScrapeLog> content, String nextCursor) {}
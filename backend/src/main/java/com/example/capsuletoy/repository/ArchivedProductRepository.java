@@ -0,0 +1,36 @@
+package com.example.capsuletoy.repository;
+
+import com.example.capsuletoy.model.ArchivedProduct;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedProductRepository extends JpaRepository<ArchivedProduct, Long> {
+
+    // メーカー別で検索（ページネーション対応）
+    Page<ArchivedProduct> findByManufacturer(String manufacturer, Pageable pageable);
+
+    // 商品名で検索（部分一致、ページネーション対応）
+    Page<ArchivedProduct> findByProductNameContaining(String productName, Pageable pageable);
+
+    // メーカー別 + キーワード検索（ページネーション対応）
+    @Query("SELECT p FROM ArchivedProduct p WHERE p.manufacturer = :manufacturer AND p.productName LIKE %:keyword%")
+    Page<ArchivedProduct> findByManufacturerAndKeyword(@Param("manufacturer") String manufacturer, @Param("keyword") String keyword, Pageable pageable);
+
+    // 商品キーでアーカイブ済みの商品を一括取得（スクレイピング時に再登録しないため）
+    List<ArchivedProduct> findByManufacturerAndProductKeyIn(String manufacturer, Collection<String> productKeys);
+
+    // 商品キーの無いアーカイブ済みの商品を正規化名で一括取得（スクレイピング時に再登録しないため）
+    List<ArchivedProduct> findByManufacturerAndProductKeyIsNullAndNormalizedNameIn(String manufacturer,
+            Collection<String> normalizedNames);
+
+    // 最後にアーカイブした日時（カタログのバージョン用）
+    @Query("SELECT MAX(p.archivedAt) FROM ArchivedProduct p")
+    LocalDateTime findLastArchivedAt();
+}
@@ -0,0 +1,13 @@
+package com.example.capsuletoy.repository;
+
+import com.example.capsuletoy.model.DuplicateCandidate;
+import com.example.capsuletoy.model.DuplicateCandidateStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DuplicateCandidateRepository extends JpaRepository<DuplicateCandidate, Long> {
+
+    // ステータス別の近似重複候補（検出日時の新しい順。status, detected_at のインデックスを使う）
+    Page<DuplicateCandidate> findByStatusOrderByDetectedAtDescIdDesc(DuplicateCandidateStatus status, Pageable pageable);
+}
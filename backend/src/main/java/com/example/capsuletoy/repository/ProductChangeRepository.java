@@ -0,0 +1,12 @@
+package com.example.capsuletoy.repository;
+
+import com.example.capsuletoy.model.ProductChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    // 商品の変更履歴を検出日時の昇順で取得（product_id, observed_at のインデックスを使う）
+    List<ProductChange> findByProductIdOrderByObservedAtAscIdAsc(Long productId);
+}
@@ -0,0 +1,26 @@
+package com.example.capsuletoy.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.capsuletoy.model.Product;
+
+/**
+ * 指定した列だけを読む商品検索（ProductRepository に組み込まれる。実装は ProductFieldRepositoryImpl）
+ * 結果はプロパティ名 → 値のMap（columns の順）で返す。
+ */
+public interface ProductFieldRepository {
+
+    // 条件に合う商品の指定列を sort の順に offset から limit 件読む
+    List<Map<String, Object>> findFields(Collection<String> columns, Specification<Product> spec, Sort sort,
+            long offset, int limit);
+
+    // 関連度順（商品名の前方一致 → 部分一致 → 類似度 → 新しい順）で読む。類似度はPostgreSQL（pg_trgm）のみ
+    // キーワードは正規化しておくこと
+    List<Map<String, Object>> findFieldsByRelevance(Collection<String> columns, Specification<Product> spec,
+            String keyword, boolean withSimilarity, long offset, int limit);
+}
@@ -0,0 +1,103 @@
+package com.example.capsuletoy.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.example.capsuletoy.model.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * ProductFieldRepository の実装
+ * エンティティではなく指定列だけのタプルを読むため、説明・ラインナップなどのTEXT列はDBから転送されない。
+ */
+public class ProductFieldRepositoryImpl implements ProductFieldRepository {
+
+    private final EntityManager entityManager;
+
+    public ProductFieldRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findFields(Collection<String> columns, Specification<Product> spec, Sort sort,
+            long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        select(query, root, cb, columns, spec);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return fetch(query, columns, offset, limit);
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByRelevance(Collection<String> columns, Specification<Product> spec,
+            String keyword, boolean withSimilarity, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        select(query, root, cb, columns, spec);
+
+        // ProductRepository#searchByRelevance と同じ並び順
+        Expression<String> normalizedName = root.get("normalizedName");
+        List<Order> orders = new ArrayList<>();
+        orders.add(cb.asc(cb.<Integer>selectCase()
+                .when(cb.like(normalizedName, keyword + "%"), 0)
+                .when(cb.like(normalizedName, "%" + keyword + "%"), 1)
+                .otherwise(2)));
+        if (withSimilarity) {
+            orders.add(cb.desc(cb.function("similarity", Double.class, normalizedName, cb.literal(keyword))));
+        }
+        orders.add(cb.desc(root.get("createdAt")));
+        orders.add(cb.desc(root.get("id")));
+        query.orderBy(orders);
+        return fetch(query, columns, offset, limit);
+    }
+
+    private void select(CriteriaQuery<Tuple> query, Root<Product> root, CriteriaBuilder cb,
+            Collection<String> columns, Specification<Product> spec) {
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            selections.add(root.get(column).alias(column));
+        }
+        query.multiselect(selections);
+
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    private List<Map<String, Object>> fetch(CriteriaQuery<Tuple> query, Collection<String> columns, long offset,
+            int limit) {
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String column : columns) {
+                row.put(column, tuple.get(column));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
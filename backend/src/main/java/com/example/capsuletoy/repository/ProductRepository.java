@@ -1,15 +1,20 @@
 package com.example.capsuletoy.repository;
 
 import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.ProductSuggestion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductFieldRepository {
 
     // メーカー別で検索
     List<Product> findByManufacturer(String manufacturer);
@@ -17,22 +22,70 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // メーカー別で検索（ページネーション対応）
     Page<Product> findByManufacturer(String manufacturer, Pageable pageable);
 
-    // 新着商品のみ取得
-    List<Product> findByIsNewTrue();
+    // 新着商品のみ取得（since: ProductNewnessPolicy#newSince）
+    List<Product> findByFirstSeenAtGreaterThanEqual(LocalDateTime since);
 
     // メーカー別の新着商品を取得
-    List<Product> findByIsNewTrueAndManufacturer(String manufacturer);
+    List<Product> findByManufacturerAndFirstSeenAtGreaterThanEqual(String manufacturer, LocalDateTime since);
 
     // 新着商品のみ取得（ページネーション対応）
-    Page<Product> findByIsNewTrue(Pageable pageable);
+    Page<Product> findByFirstSeenAtGreaterThanEqual(LocalDateTime since, Pageable pageable);
 
-    // 商品名で検索（部分一致）
-    List<Product> findByProductNameContaining(String productName);
+    // 商品キーで既存商品を一括取得（スクレイピング時の重複チェック用）
+    List<Product> findByManufacturerAndProductKeyIn(String manufacturer, Collection<String> productKeys);
 
-    // 商品名で検索（部分一致、ページネーション対応）
-    Page<Product> findByProductNameContaining(String productName, Pageable pageable);
+    // 正規化名で既存商品を一括取得（商品キーの無い商品の重複チェック用）
+    List<Product> findByManufacturerAndNormalizedNameIn(String manufacturer, Collection<String> normalizedNames);
 
-    // メーカー別 + キーワード検索（ページネーション対応）
-    @Query("SELECT p FROM Product p WHERE p.manufacturer = :manufacturer AND p.productName LIKE %:keyword%")
+    // 正規化名で検索（部分一致。キーワードは ProductNameNormalizer で正規化しておくこと）
+    List<Product> findByNormalizedNameContaining(String normalizedKeyword);
+
+    // 正規化名で検索（部分一致、ページネーション対応）
+    Page<Product> findByNormalizedNameContaining(String normalizedKeyword, Pageable pageable);
+
+    // キーワード検索（商品名・ラインナップ・説明の部分一致、ページネーション対応。キーワードは正規化しておくこと）
+    Page<Product> findBySearchTextContaining(String normalizedKeyword, Pageable pageable);
+
+    // メーカー別 + キーワード検索（ページネーション対応。キーワードは正規化しておくこと）
+    @Query("SELECT p FROM Product p WHERE p.manufacturer = :manufacturer AND p.searchText LIKE %:keyword%")
     Page<Product> findByManufacturerAndKeyword(@Param("manufacturer") String manufacturer, @Param("keyword") String keyword, Pageable pageable);
+
+    // 関連度順のキーワード検索（PostgreSQL用。manufacturerがnullの場合は全メーカー）
+    // 検索用テキストのトライグラム索引で候補を絞り、商品名の前方一致 → 商品名の部分一致 → 商品名との類似度 → 新しい順に並べる
+    @Query(value = "SELECT * FROM products p "
+            + "WHERE p.search_text LIKE '%' || :keyword || '%' "
+            + "AND (CAST(:manufacturer AS VARCHAR) IS NULL OR p.manufacturer = CAST(:manufacturer AS VARCHAR)) "
+            + "ORDER BY (p.normalized_name LIKE :keyword || '%') DESC, "
+            + "(p.normalized_name LIKE '%' || :keyword || '%') DESC, "
+            + "similarity(p.normalized_name, :keyword) DESC, p.created_at DESC, p.id DESC",
+            countQuery = "SELECT COUNT(*) FROM products p "
+            + "WHERE p.search_text LIKE '%' || :keyword || '%' "
+            + "AND (CAST(:manufacturer AS VARCHAR) IS NULL OR p.manufacturer = CAST(:manufacturer AS VARCHAR))",
+            nativeQuery = true)
+    Page<Product> searchByRelevance(@Param("manufacturer") String manufacturer, @Param("keyword") String keyword,
+            Pageable pageable);
+
+    // 関連度順のキーワード検索（H2などPostgreSQL以外用。類似度の代わりに一致位置だけで並べる）
+    @Query(value = "SELECT p FROM Product p WHERE p.searchText LIKE CONCAT('%', :keyword, '%') "
+            + "AND (:manufacturer IS NULL OR p.manufacturer = :manufacturer) "
+            + "ORDER BY CASE WHEN p.normalizedName LIKE CONCAT(:keyword, '%') THEN 0 "
+            + "WHEN p.normalizedName LIKE CONCAT('%', :keyword, '%') THEN 1 ELSE 2 END, p.createdAt DESC, p.id DESC",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.searchText LIKE CONCAT('%', :keyword, '%') "
+            + "AND (:manufacturer IS NULL OR p.manufacturer = :manufacturer)")
+    Page<Product> searchByRelevancePortable(@Param("manufacturer") String manufacturer,
+            @Param("keyword") String keyword, Pageable pageable);
+
+    // 入力補完の索引用（正規化名のある全商品）
+    @Query("SELECT new com.example.capsuletoy.record.ProductSuggestion(p.id, p.productName, p.manufacturer, "
+            + "p.normalizedName, p.firstSeenAt) FROM Product p WHERE p.normalizedName IS NOT NULL")
+    List<ProductSuggestion> findAllSuggestions();
+
+    // 入力補完の索引用（since以降に登録・更新された商品）
+    @Query("SELECT new com.example.capsuletoy.record.ProductSuggestion(p.id, p.productName, p.manufacturer, "
+            + "p.normalizedName, p.firstSeenAt) FROM Product p WHERE p.updatedAt >= :since")
+    List<ProductSuggestion> findSuggestionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // 最終更新日時（カタログのバージョン用。updated_at の索引で求める）
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    LocalDateTime findLastUpdatedAt();
 }
@@ -0,0 +1,48 @@
+package com.example.capsuletoy.repository;
+
+import com.example.capsuletoy.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // 期限切れのロックを取得（奪取）し、フェンシングトークンを進める。取得できなければ0件
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerLock l SET l.owner = :owner, l.fencingToken = l.fencingToken + 1, "
+            + "l.lockedUntil = :lockedUntil, l.lockedAt = :now "
+            + "WHERE l.lockName = :lockName AND l.lockedUntil < :now")
+    int acquireExpired(@Param("lockName") String lockName, @Param("owner") String owner,
+            @Param("lockedUntil") LocalDateTime lockedUntil, @Param("now") LocalDateTime now);
+
+    // 保持中のロックの期限を延長（トークンが変わっていれば0件）
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil "
+            + "WHERE l.lockName = :lockName AND l.owner = :owner AND l.fencingToken = :token "
+            + "AND l.lockedUntil >= :now")
+    int renew(@Param("lockName") String lockName, @Param("owner") String owner, @Param("token") Long token,
+            @Param("lockedUntil") LocalDateTime lockedUntil, @Param("now") LocalDateTime now);
+
+    // ロックを解放（次のノードが取得できる時刻を設定）
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil "
+            + "WHERE l.lockName = :lockName AND l.owner = :owner AND l.fencingToken = :token")
+    int release(@Param("lockName") String lockName, @Param("owner") String owner, @Param("token") Long token,
+            @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // 名前が指定の接頭辞で始まるロックのうち、期限内のものがあるか
+    boolean existsByLockNameStartingWithAndLockedUntilAfter(String lockNamePrefix, LocalDateTime now);
+
+    // 書き込み前のフェンシング：指定トークンのロックを保持している場合だけロック行を更新する（保持していなければ0件）
+    // 呼び出し元のトランザクション内で実行すると、コミットまでロック行の行ロックを保持するため
+    // その間は他ノードが acquireExpired で奪取できず、奪取後に古い保持ノードの書き込みがコミットされることはない
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedAt = l.lockedAt "
+            + "WHERE l.lockName = :lockName AND l.owner = :owner AND l.fencingToken = :token "
+            + "AND l.lockedUntil >= :now")
+    int fence(@Param("lockName") String lockName, @Param("owner") String owner, @Param("token") Long token,
+            @Param("now") LocalDateTime now);
+}
@@ -1,15 +1,41 @@
 package com.example.capsuletoy.repository;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.model.ScrapeConfig;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ScrapeConfigRepository extends JpaRepository<ScrapeConfig, Long> {
 
-    // 有効な設定のみ取得
+    // 全設定を取得（クエリキャッシュ対象）
+    @Override
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheInvalidator.SCRAPE_CONFIG_QUERY_REGION) })
+    List<ScrapeConfig> findAll();
+
+    // 有効な設定のみ取得（クエリキャッシュ対象）
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheInvalidator.SCRAPE_CONFIG_QUERY_REGION) })
     List<ScrapeConfig> findByIsEnabledTrue();
 
-    // サイト名で検索
+    // サイト名で検索（クエリキャッシュ対象）
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheInvalidator.SCRAPE_CONFIG_QUERY_REGION) })
     ScrapeConfig findBySiteName(String siteName);
+
+    // 最終実行日時だけを更新（実行中に管理画面で変更された設定を、実行開始時の内容で上書きしないため）
+    // 管理画面の更新と競合させないようversionは進めない
+    @Modifying
+    @Transactional
+    @Query("UPDATE ScrapeConfig c SET c.lastScrapedAt = :lastScrapedAt WHERE c.id = :id")
+    int updateLastScrapedAt(@Param("id") Long id, @Param("lastScrapedAt") LocalDateTime lastScrapedAt);
 }
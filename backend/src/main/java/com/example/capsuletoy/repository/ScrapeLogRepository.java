@@ -1,11 +1,14 @@
 package com.example.capsuletoy.repository;
 
 import com.example.capsuletoy.model.ScrapeLog;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface ScrapeLogRepository extends JpaRepository<ScrapeLog, Long> {
+public interface ScrapeLogRepository extends JpaRepository<ScrapeLog, Long>, JpaSpecificationExecutor<ScrapeLog> {
 
     // 対象サイト別でログを取得
     List<ScrapeLog> findByTargetSite(String targetSite);
@@ -15,4 +18,13 @@ public interface ScrapeLogRepository extends JpaRepository<ScrapeLog, Long> {
 
     // 実行日時の降順で全ログを取得
     List<ScrapeLog> findAllByOrderByExecutedAtDesc();
+
+    // 実行日時の降順で先頭から指定件数を取得（idx_scrape_logs_executed_at）
+    List<ScrapeLog> findAllByOrderByExecutedAtDescIdDesc(Limit limit);
+
+    // 対象サイトのログを実行日時の降順で指定件数取得（idx_scrape_logs_target_site_executed_at）
+    List<ScrapeLog> findByTargetSiteOrderByExecutedAtDescIdDesc(String targetSite, Limit limit);
+
+    // 対象サイトの最新のログを取得
+    Optional<ScrapeLog> findFirstByTargetSiteOrderByExecutedAtDescIdDesc(String targetSite);
 }
@@ -0,0 +1,66 @@
+package com.example.capsuletoy.repository;
+
+import com.example.capsuletoy.model.ScrapeTask;
+import com.example.capsuletoy.model.ScrapeTaskStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ScrapeTaskRepository extends JpaRepository<ScrapeTask, Long> {
+
+    // 詳細URLでタスクを一括取得（キュー投入時の重複チェック用）
+    List<ScrapeTask> findByDetailUrlIn(Collection<String> detailUrls);
+
+    // ステータス別の件数
+    long countByStatus(ScrapeTaskStatus status);
+
+    // リース期限内のタスクがあるか（処理中のワーカーの有無）
+    boolean existsByStatusAndLeaseExpiresAtAfter(ScrapeTaskStatus status, LocalDateTime now);
+
+    // リース可能なタスクのIDを取得（待機中、またはリース期限切れ）
+    @Query("SELECT t.id FROM ScrapeTask t WHERE (t.status = :pending AND t.availableAt <= :now) "
+            + "OR (t.status = :leased AND t.leaseExpiresAt < :now) ORDER BY t.id")
+    List<Long> findLeasableIds(@Param("pending") ScrapeTaskStatus pending, @Param("leased") ScrapeTaskStatus leased,
+            @Param("now") LocalDateTime now, Pageable pageable);
+
+    // 条件付き更新で候補のリースをまとめて取得（他ワーカーが先に取得した行は更新されない）
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ScrapeTask t SET t.status = :leased, t.leaseOwner = :owner, t.leaseExpiresAt = :expiresAt, "
+            + "t.attempts = t.attempts + 1, t.updatedAt = :now "
+            + "WHERE t.id IN :ids AND ((t.status = :pending AND t.availableAt <= :now) "
+            + "OR (t.status = :leased AND t.leaseExpiresAt < :now))")
+    int claimAll(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+            @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now,
+            @Param("pending") ScrapeTaskStatus pending, @Param("leased") ScrapeTaskStatus leased);
+
+    // 指定ワーカーがリース中のタスクを取得（claimAllで実際に取得できた行の確認用）
+    List<ScrapeTask> findByIdInAndLeaseOwnerAndStatus(Collection<Long> ids, String leaseOwner, ScrapeTaskStatus status);
+
+    // 処理中のタスクのリース期限を延長（他ワーカーに奪取された行は更新されない）
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ScrapeTask t SET t.leaseExpiresAt = :expiresAt, t.updatedAt = :now "
+            + "WHERE t.id IN :ids AND t.leaseOwner = :owner AND t.status = :leased")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+            @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now,
+            @Param("leased") ScrapeTaskStatus leased);
+
+    // リース期限切れかつ試行回数上限に達したタスクをデッドレターへ移動
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ScrapeTask t SET t.status = :dead, t.leaseOwner = NULL, t.lastError = 'lease expired', "
+            + "t.updatedAt = :now WHERE t.status = :leased AND t.leaseExpiresAt < :now AND t.attempts >= :maxAttempts")
+    int deadLetterExpired(@Param("dead") ScrapeTaskStatus dead, @Param("leased") ScrapeTaskStatus leased,
+            @Param("now") LocalDateTime now, @Param("maxAttempts") int maxAttempts);
+
+    // デッドレターのタスクを待機中に戻す
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ScrapeTask t SET t.status = :pending, t.attempts = 0, t.lastError = NULL, "
+            + "t.availableAt = :now, t.updatedAt = :now WHERE t.status = :dead")
+    int requeueDead(@Param("pending") ScrapeTaskStatus pending, @Param("dead") ScrapeTaskStatus dead,
+            @Param("now") LocalDateTime now);
+}
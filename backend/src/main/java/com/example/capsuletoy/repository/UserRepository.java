@@ -1,8 +1,12 @@
 package com.example.capsuletoy.repository;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.model.User;
 import com.example.capsuletoy.model.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,7 +16,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // ユーザー名で検索
     Optional<User> findByUsername(String username);
 
-    // メールアドレスで検索
+    // メールアドレスで検索（認証のたびに呼ばれるためクエリキャッシュ対象）
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheInvalidator.USER_QUERY_REGION) })
     Optional<User> findByEmail(String email);
 
     // ユーザー名の存在確認
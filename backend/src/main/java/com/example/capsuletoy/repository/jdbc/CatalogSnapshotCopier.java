@@ -0,0 +1,120 @@
+package com.example.capsuletoy.repository.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * カタログスナップショット用のテーブル単位の一括コピー（PostgreSQL専用）
+ * COPY ... (FORMAT binary) でテーブルの行をストリームとの間で直接やり取りする。
+ * 行をJavaのオブジェクトに変換しないため、行数が多くてもメモリ使用量は増えない。
+ * 呼び出し元のトランザクションに参加すること（エクスポートは同じスナップショットから読み、インポートはまとめてコミットする）。
+ */
+@Repository
+public class CatalogSnapshotCopier {
+
+    // スナップショットに含めるテーブルと列（この順に書き出し・取り込みを行う）
+    public static final Map<String, String> SNAPSHOT_TABLES;
+
+    static {
+        Map<String, String> tables = new LinkedHashMap<>();
+        tables.put("scrape_configs", "id, site_name, site_url, cron_expression, is_enabled, last_scraped_at, version");
+        tables.put("products", "id, product_name, manufacturer, image_url, release_date, price, description, "
+                + "lineup_info, source_url, product_key, normalized_name, search_text, first_seen_at, created_at, "
+                + "updated_at, version");
+        tables.put("scrape_logs", "id, target_site, status, products_found, error_message, executed_at");
+        SNAPSHOT_TABLES = Collections.unmodifiableMap(tables);
+    }
+
+    // スナップショットには含めず、取り込み時に空にするテーブル
+    public static final List<String> CLEARED_TABLES = List.of("product_changes", "products_archive");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogSnapshotCopier(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * テーブルの全行をid順に書き出す
+     * scrape_logs はパーティションテーブルのため COPY テーブル名 TO では読めず、SELECT を経由する
+     *
+     * @return 書き出した行数
+     */
+    public long copyOut(String tableName, OutputStream target) {
+        String columns = columnsOf(tableName);
+        String sql = "COPY (SELECT " + columns + " FROM " + tableName + " ORDER BY id) TO STDOUT (FORMAT binary)";
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return copyManager(connection).copyOut(sql, target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(tableName + " の書き出しに失敗しました", e);
+            }
+        });
+    }
+
+    /**
+     * copyOut() で書き出したデータを取り込む（パーティションテーブルは実行日時に応じたパーティションへ振り分けられる）
+     *
+     * @return 取り込んだ行数
+     */
+    public long copyIn(String tableName, InputStream source) {
+        String sql = "COPY " + tableName + " (" + columnsOf(tableName) + ") FROM STDIN (FORMAT binary)";
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return copyManager(connection).copyIn(sql, source);
+            } catch (IOException e) {
+                throw new UncheckedIOException(tableName + " の取り込みに失敗しました", e);
+            }
+        });
+    }
+
+    /**
+     * スナップショットの対象テーブルと、取り込み元の商品に対応しなくなるテーブルを空にする
+     * 変更履歴（product_changes）は V5 で products への外部キーを外したため CASCADE では消えず、明示的に空にする
+     * （商品のidは取り込み先で再利用されるため、残すと別の商品の履歴として表示される）。
+     * アーカイブ（products_archive）も取り込み元の商品と対応しないため空にする（残すと同じ商品キーの取り込みを妨げる）。
+     * 近似重複の索引と候補は products への外部キーがあるため CASCADE で空になる。
+     */
+    public void truncateAll() {
+        List<String> tables = new ArrayList<>(SNAPSHOT_TABLES.keySet());
+        tables.addAll(CLEARED_TABLES);
+        jdbcTemplate.execute("TRUNCATE TABLE " + String.join(", ", tables) + " CASCADE");
+    }
+
+    /**
+     * 取り込んだidの続きから採番されるよう、idのシーケンスを進める
+     */
+    public void resetIdSequence(String tableName) {
+        columnsOf(tableName);
+        jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + tableName + "', 'id'), "
+                + "COALESCE((SELECT MAX(id) FROM " + tableName + "), 0) + 1, false)", Long.class);
+    }
+
+    // テーブル名・列名はSQLに直接埋め込むため、決まったもの以外は受け付けない
+    private String columnsOf(String tableName) {
+        String columns = SNAPSHOT_TABLES.get(tableName);
+        if (columns == null) {
+            throw new IllegalArgumentException("スナップショットの対象外のテーブルです: " + tableName);
+        }
+        return columns;
+    }
+
+    private CopyManager copyManager(Connection connection) throws SQLException {
+        return connection.unwrap(PGConnection.class).getCopyAPI();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.capsuletoy.repository.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 商品の保存とカタログスナップショットの取り込みの排他（PostgreSQLのトランザクション単位のアドバイザリロック）
+ * 商品の保存は共有ロック、取り込みは排他ロックを取る。どちらも待たずに失敗させ、トランザクションの終了で解放される。
+ * - 取り込み中に始まった保存は失敗する（取り込み後のカタログに取り込み前のスクレイピング結果を混ぜない）
+ * - 保存中は取り込みを開始できない
+ * H2（テスト）ではスナップショットを使えないため何もしない。
+ * 呼び出し元のトランザクション内で呼ぶこと。
+ */
+@Repository
+public class CatalogWriteLock {
+
+    // アドバイザリロックのキー（アプリケーション内で他の用途と重ならない固定値）
+    private static final long LOCK_KEY = 0x6361_7461_6c6f_67L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabasePlatform databasePlatform;
+
+    public CatalogWriteLock(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * 商品の保存前に呼ぶ
+     *
+     * @throws IllegalStateException カタログスナップショットの取り込み中の場合
+     */
+    public void lockForWrite() {
+        if (databasePlatform.isPostgreSql() && !tryLock("SELECT pg_try_advisory_xact_lock_shared(?)")) {
+            throw new IllegalStateException("カタログスナップショットの取り込み中のため商品を保存できません");
+        }
+    }
+
+    /**
+     * 取り込みの開始時に呼ぶ
+     *
+     * @return 取得できた場合true、商品の保存中の場合false
+     */
+    public boolean tryLockForImport() {
+        return !databasePlatform.isPostgreSql() || tryLock("SELECT pg_try_advisory_xact_lock(?)");
+    }
+
+    private boolean tryLock(String sql) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(sql, Boolean.class, LOCK_KEY));
+    }
+}
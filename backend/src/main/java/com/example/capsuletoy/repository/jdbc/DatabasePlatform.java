@@ -0,0 +1,36 @@
+package com.example.capsuletoy.repository.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * 接続先DBの種類を判定（PostgreSQL専用のSQLを使う処理で、テスト用H2との切り替えに使う）
+ */
+@Component
+public class DatabasePlatform {
+
+    private final DataSource dataSource;
+
+    private volatile Boolean postgreSql;
+
+    public DatabasePlatform(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public boolean isPostgreSql() {
+        Boolean result = postgreSql;
+        if (result == null) {
+            try (Connection connection = dataSource.getConnection()) {
+                result = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            } catch (SQLException e) {
+                throw new IllegalStateException("DBの種類を判定できません", e);
+            }
+            postgreSql = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.capsuletoy.repository.jdbc;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 商品を products から products_archive へ移す（PostgreSQL専用）
+ * 削除と挿入を1文（DELETE ... RETURNING を使ったCTE）で行うため、途中で失敗しても商品が消えたり重複したりしない。
+ */
+@Repository
+public class ProductArchiver {
+
+    private static final String ARCHIVE_COLUMNS = "id, product_name, manufacturer, image_url, release_date, price, "
+            + "description, lineup_info, source_url, product_key, normalized_name, first_seen_at, created_at, updated_at";
+
+    private static final String ARCHIVE_RELEASED_BEFORE = "WITH moved AS ("
+            + "DELETE FROM products WHERE id IN ("
+            + "SELECT id FROM products WHERE release_date < ? ORDER BY release_date, id LIMIT ?) "
+            + "RETURNING " + ARCHIVE_COLUMNS + ") "
+            + "INSERT INTO products_archive (" + ARCHIVE_COLUMNS + ", archived_at) "
+            + "SELECT " + ARCHIVE_COLUMNS + ", ? FROM moved";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductArchiver(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 発売日が cutoff より前の商品を最大 limit 件アーカイブに移す
+     *
+     * @return 移した件数
+     */
+    public int archiveReleasedBefore(LocalDate cutoff, int limit) {
+        return jdbcTemplate.update(ARCHIVE_RELEASED_BEFORE, Date.valueOf(cutoff), limit,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
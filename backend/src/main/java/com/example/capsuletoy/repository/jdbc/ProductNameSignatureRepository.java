@@ -0,0 +1,86 @@
+package com.example.capsuletoy.repository.jdbc;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.example.capsuletoy.record.ProductNameSignature;
+
+/**
+ * 商品名のLSHバンド値（product_name_signatures）と近似重複候補の保存（PostgreSQL専用）
+ * 候補検索はバンド値のGINインデックスで、一致するバンドを持つ商品だけを引く（テーブル全体は走査しない）。
+ */
+@Repository
+public class ProductNameSignatureRepository {
+
+    private static final String FIND_CANDIDATES = "SELECT product_id, manufacturer, normalized_name "
+            + "FROM product_name_signatures WHERE bands && CAST(? AS INTEGER[]) AND manufacturer = ? AND product_id <> ? LIMIT ?";
+
+    private static final String UPSERT_SIGNATURE = "INSERT INTO product_name_signatures "
+            + "(product_id, manufacturer, normalized_name, bands) VALUES (?, ?, ?, CAST(? AS INTEGER[])) "
+            + "ON CONFLICT (product_id) DO UPDATE SET manufacturer = EXCLUDED.manufacturer, "
+            + "normalized_name = EXCLUDED.normalized_name, bands = EXCLUDED.bands";
+
+    // 同じ組が既に登録されている場合（確認済みを含む）は何もしない
+    private static final String INSERT_CANDIDATE = "INSERT INTO product_duplicate_candidates "
+            + "(product_id, candidate_product_id, similarity, status, detected_at) VALUES (?, ?, ?, 'PENDING', ?) "
+            + "ON CONFLICT (product_id, candidate_product_id) DO NOTHING";
+
+    private static final String FIND_UNSIGNED_PRODUCTS = "SELECT p.id AS product_id, p.manufacturer, p.normalized_name "
+            + "FROM products p WHERE p.normalized_name IS NOT NULL AND p.normalized_name <> '' "
+            + "AND NOT EXISTS (SELECT 1 FROM product_name_signatures s WHERE s.product_id = p.id) "
+            + "ORDER BY p.id LIMIT ?";
+
+    private static final RowMapper<ProductNameSignature> ROW_MAPPER = (rs, rowNum) -> new ProductNameSignature(
+            rs.getLong("product_id"), rs.getString("manufacturer"), rs.getString("normalized_name"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductNameSignatureRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * バンド値が1つ以上一致する同じメーカーの商品を最大 limit 件取得（自分自身は除く）
+     */
+    public List<ProductNameSignature> findCandidates(ProductNameSignature product, int[] bands, int limit) {
+        return jdbcTemplate.query(FIND_CANDIDATES, ROW_MAPPER, toArrayLiteral(bands), product.manufacturer(),
+                product.productId(), limit);
+    }
+
+    /**
+     * 商品のバンド値を保存（既にあれば置き換える）
+     */
+    public void saveSignature(ProductNameSignature product, int[] bands) {
+        jdbcTemplate.update(UPSERT_SIGNATURE, product.productId(), product.manufacturer(), product.normalizedName(),
+                toArrayLiteral(bands));
+    }
+
+    /**
+     * 近似重複の候補を確認キューに追加（IDの小さい方を product_id にする）
+     *
+     * @return 追加した場合true、既に登録済みの場合false
+     */
+    public boolean addCandidate(Long productId, Long otherProductId, double similarity, LocalDateTime detectedAt) {
+        return jdbcTemplate.update(INSERT_CANDIDATE, Math.min(productId, otherProductId),
+                Math.max(productId, otherProductId), similarity, Timestamp.valueOf(detectedAt)) > 0;
+    }
+
+    /**
+     * バンド値が未作成の商品を最大 limit 件取得（導入前の商品・取り込み時に失敗した商品の補完用）
+     */
+    public List<ProductNameSignature> findUnsignedProducts(int limit) {
+        return jdbcTemplate.query(FIND_UNSIGNED_PRODUCTS, ROW_MAPPER, limit);
+    }
+
+    // PostgreSQLの配列リテラル（{1,2,3}）にしてSQL側でINTEGER[]にキャストする
+    private String toArrayLiteral(int[] bands) {
+        return Arrays.stream(bands).mapToObj(Integer::toString).collect(Collectors.joining(",", "{", "}"));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.capsuletoy.repository.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.UpsertOutcome;
+import com.example.capsuletoy.record.ProductUpsertResult;
+
+/**
+ * PostgreSQL専用の一括取り込み
+ * スクレイピング結果をCOPYで一時テーブルへ流し込み、1本のINSERT ... SELECT ... ON CONFLICTでproductsへ反映する。
+ * 行ごとのJPA/JDBC往復が無いため、大量の商品を取り込むバッチ（scrapeプロファイル）向け。
+ * 反映前に既存商品との差分を変更履歴（product_changes）へ記録する（項目名・形式は ProductChangeDetector と同じ）。
+ * アーカイブ済み（products_archive）の商品は反映しない。
+ * 既存商品とは商品キーで照合するため、商品キーの無い商品は扱わない（正規化名で照合するバッチUPSERT側で保存すること）。
+ * 呼び出し元のトランザクションに参加すること（一時テーブルはコミット時に空になる）。
+ */
+@Repository
+public class ProductStagingLoader {
+
+    private static final String STAGING_COLUMNS = "seq, product_name, manufacturer, image_url, release_date, price, "
+            + "description, lineup_info, source_url, product_key, normalized_name, search_text";
+
+    private static final String CREATE_STAGING_TABLE = "CREATE TEMP TABLE IF NOT EXISTS products_staging ("
+            + "seq INTEGER NOT NULL, product_name TEXT, manufacturer TEXT, image_url TEXT, release_date DATE, "
+            + "price INTEGER, description TEXT, lineup_info TEXT, source_url TEXT, product_key TEXT, normalized_name TEXT, "
+            + "search_text TEXT) ON COMMIT DELETE ROWS";
+
+    private static final String COPY_STAGING = "COPY products_staging (" + STAGING_COLUMNS + ") "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    // 既存商品と値が異なる項目を変更履歴に記録する（productsへの反映より前に実行する）
+    private static final String RECORD_CHANGES = "INSERT INTO product_changes (product_id, field, old_value, new_value, "
+            + "observed_at) "
+            + "SELECT p.id, c.field, c.old_value, c.new_value, ? "
+            + "FROM (SELECT DISTINCT ON (manufacturer, product_key) * FROM products_staging "
+            + "WHERE product_key IS NOT NULL ORDER BY manufacturer, product_key, seq DESC) s "
+            + "JOIN products p ON p.manufacturer = s.manufacturer AND p.product_key = s.product_key "
+            + "CROSS JOIN LATERAL (VALUES "
+            + "('productName', p.product_name::text, s.product_name), "
+            + "('price', p.price::text, s.price::text), "
+            + "('releaseDate', p.release_date::text, s.release_date::text), "
+            + "('imageUrl', p.image_url, s.image_url)) AS c(field, old_value, new_value) "
+            + "WHERE c.old_value IS DISTINCT FROM c.new_value";
+
+    // 同じ商品キーが複数行ある場合は後の行（seqが大きい方）を使う。商品キーの無い行は反映しない
+    // 既存行の更新は1文の ON CONFLICT DO UPDATE で行うため行単位で原子的。versionを進めて他の書き込み側に競合を知らせる
+    private static final String MERGE_FROM_STAGING = "INSERT INTO products (product_name, manufacturer, image_url, "
+            + "release_date, price, description, lineup_info, source_url, product_key, normalized_name, "
+            + "search_text, first_seen_at, created_at, updated_at) "
+            + "SELECT product_name, manufacturer, image_url, release_date, price, description, lineup_info, "
+            + "source_url, product_key, normalized_name, search_text, ?, ?, ? "
+            + "FROM (SELECT DISTINCT ON (manufacturer, product_key) * FROM products_staging "
+            + "WHERE product_key IS NOT NULL ORDER BY manufacturer, product_key, seq DESC) s "
+            + "WHERE NOT EXISTS (SELECT 1 FROM products_archive a "
+            + "WHERE a.manufacturer = s.manufacturer AND a.product_key = s.product_key) "
+            + "ON CONFLICT (manufacturer, product_key) DO UPDATE SET "
+            + "product_name = EXCLUDED.product_name, image_url = EXCLUDED.image_url, "
+            + "release_date = EXCLUDED.release_date, price = EXCLUDED.price, description = EXCLUDED.description, "
+            + "lineup_info = EXCLUDED.lineup_info, source_url = EXCLUDED.source_url, "
+            + "normalized_name = EXCLUDED.normalized_name, search_text = EXCLUDED.search_text, "
+            + "updated_at = EXCLUDED.updated_at, version = products.version + 1 "
+            + "WHERE (products.product_name, products.image_url, products.release_date, products.price, "
+            + "products.description, products.lineup_info, products.source_url) IS DISTINCT FROM "
+            + "(EXCLUDED.product_name, EXCLUDED.image_url, EXCLUDED.release_date, EXCLUDED.price, "
+            + "EXCLUDED.description, EXCLUDED.lineup_info, EXCLUDED.source_url) "
+            + "RETURNING id, product_name, manufacturer, image_url, release_date, price, description, lineup_info, "
+            + "source_url, product_key, normalized_name, search_text, first_seen_at, created_at, updated_at, version, "
+            + "(xmax = 0) AS inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStagingLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 商品を一時テーブル経由で一括反映し、新規登録・更新された商品を返す
+     * 変更の無かった商品は UNCHANGED として入力のまま返す
+     *
+     * @throws IllegalArgumentException 商品キーの無い商品が含まれている場合
+     */
+    public List<ProductUpsertResult> loadAndMerge(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+        if (products.stream().anyMatch(product -> product.getProductKey() == null)) {
+            throw new IllegalArgumentException("商品キーの無い商品はCOPY経由で取り込めません");
+        }
+
+        jdbcTemplate.execute(CREATE_STAGING_TABLE);
+        jdbcTemplate.update("TRUNCATE products_staging");
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+            try {
+                int seq = 0;
+                for (Product product : products) {
+                    byte[] row = toCsvRow(seq++, product).getBytes(StandardCharsets.UTF_8);
+                    copyIn.writeToCopy(row, 0, row.length);
+                }
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(RECORD_CHANGES, Timestamp.valueOf(now));
+
+        List<ProductUpsertResult> results = new ArrayList<>(jdbcTemplate.query(MERGE_FROM_STAGING,
+                (rs, rowNum) -> new ProductUpsertResult(mapProduct(rs),
+                        rs.getBoolean("inserted") ? UpsertOutcome.INSERTED : UpsertOutcome.UPDATED),
+                Timestamp.valueOf(now), Timestamp.valueOf(now), Timestamp.valueOf(now)));
+
+        // RETURNINGに含まれない行は既存と同じ内容だった商品
+        Set<String> mergedKeys = new HashSet<>();
+        for (ProductUpsertResult result : results) {
+            mergedKeys.add(result.product().getManufacturer() + "\u0000" + result.product().getProductKey());
+        }
+        Set<String> unchangedKeys = new HashSet<>();
+        for (Product product : products) {
+            String key = product.getManufacturer() + "\u0000" + product.getProductKey();
+            if (!mergedKeys.contains(key) && unchangedKeys.add(key)) {
+                results.add(new ProductUpsertResult(product, UpsertOutcome.UNCHANGED));
+            }
+        }
+        return results;
+    }
+
+    private Product mapProduct(ResultSet rs) throws SQLException {
+        Product product = new Product();
+        product.setId(rs.getLong("id"));
+        product.setProductName(rs.getString("product_name"));
+        product.setManufacturer(rs.getString("manufacturer"));
+        product.setImageUrl(rs.getString("image_url"));
+        Date releaseDate = rs.getDate("release_date");
+        product.setReleaseDate(releaseDate != null ? releaseDate.toLocalDate() : null);
+        product.setPrice(rs.getObject("price", Integer.class));
+        product.setDescription(rs.getString("description"));
+        product.setLineupInfo(rs.getString("lineup_info"));
+        product.setSourceUrl(rs.getString("source_url"));
+        product.setProductKey(rs.getString("product_key"));
+        product.setNormalizedName(rs.getString("normalized_name"));
+        product.setSearchText(rs.getString("search_text"));
+        product.setFirstSeenAt(rs.getTimestamp("first_seen_at").toLocalDateTime());
+        product.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        product.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        product.setVersion(rs.getLong("version"));
+        return product;
+    }
+
+    // COPYのCSV形式では、クォートしない空欄がNULL、クォートした空文字が空文字列になる
+    private String toCsvRow(int seq, Product product) {
+        StringBuilder row = new StringBuilder();
+        row.append(seq).append(',');
+        appendText(row, product.getProductName()).append(',');
+        appendText(row, product.getManufacturer()).append(',');
+        appendText(row, product.getImageUrl()).append(',');
+        row.append(product.getReleaseDate() != null ? product.getReleaseDate().toString() : "").append(',');
+        row.append(product.getPrice() != null ? product.getPrice().toString() : "").append(',');
+        appendText(row, product.getDescription()).append(',');
+        appendText(row, product.getLineupInfo()).append(',');
+        appendText(row, product.getSourceUrl()).append(',');
+        appendText(row, product.getProductKey()).append(',');
+        appendText(row, product.getNormalizedName()).append(',');
+        appendText(row, product.getSearchText()).append('\n');
+        return row.toString();
+    }
+
+    private StringBuilder appendText(StringBuilder row, String value) {
+        if (value == null) {
+            return row;
+        }
+        return row.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.capsuletoy.repository.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import com.example.capsuletoy.model.Product;
+
+/**
+ * スクレイピング結果の一括保存（楽観的排他制御付き）
+ * 新規商品（idが無い商品）はINSERTし、同じ (manufacturer, product_key) の行が既にあれば何もしない。
+ * 既存商品は読み込んだときのversionと一致する場合だけ更新し、versionを1つ進める（id・created_at・first_seen_atは保つ）。
+ * どちらも0件だった商品は、読み込み後に他のスレッド・ノードが書き込んだ「競合」として呼び出し元に返す。
+ * PostgreSQLは INSERT ... ON CONFLICT DO NOTHING、H2（テスト）は MERGE ... WHEN NOT MATCHED を使う。
+ * 新規登録した商品には、生成されたid（PostgreSQLはドライバーが付ける RETURNING id）を設定する。
+ */
+@Repository
+public class ProductUpsertRepository {
+
+    private static final String INSERT_COLUMNS = "product_name, manufacturer, image_url, release_date, price, "
+            + "description, lineup_info, source_url, product_key, normalized_name, search_text, first_seen_at, "
+            + "created_at, updated_at, version";
+
+    private static final String POSTGRESQL_INSERT = "INSERT INTO products (" + INSERT_COLUMNS + ") "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0) "
+            + "ON CONFLICT (manufacturer, product_key) DO NOTHING";
+
+    private static final String H2_INSERT = "MERGE INTO products p USING (VALUES ("
+            + "CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS DATE), CAST(? AS INTEGER), "
+            + "CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS VARCHAR), "
+            + "CAST(? AS VARCHAR), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), 0)) "
+            + "AS s(" + INSERT_COLUMNS + ") "
+            + "ON p.manufacturer = s.manufacturer AND p.product_key = s.product_key "
+            + "WHEN NOT MATCHED THEN INSERT (" + INSERT_COLUMNS + ") VALUES (s.product_name, s.manufacturer, "
+            + "s.image_url, s.release_date, s.price, s.description, s.lineup_info, s.source_url, s.product_key, "
+            + "s.normalized_name, s.search_text, s.first_seen_at, s.created_at, s.updated_at, s.version)";
+
+    private static final String VERSIONED_UPDATE = "UPDATE products SET product_name = ?, image_url = ?, "
+            + "release_date = ?, price = ?, description = ?, lineup_info = ?, source_url = ?, normalized_name = ?, "
+            + "search_text = ?, updated_at = ?, version = version + 1 "
+            + "WHERE id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabasePlatform databasePlatform;
+
+    // 1回のJDBCバッチで送る行数
+    @Value("${scraping.persist.batch-size:50}")
+    private int batchSize;
+
+    public ProductUpsertRepository(JdbcTemplate jdbcTemplate, DatabasePlatform databasePlatform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.databasePlatform = databasePlatform;
+    }
+
+    /**
+     * 商品を一括保存し、競合して保存できなかった商品を返す（呼び出し元のトランザクションに参加する）
+     * 新規登録できた商品はidを設定し、新規登録・更新できた商品はversionを保存後の値にする
+     */
+    public List<Product> upsertAll(List<Product> products) {
+        if (products.isEmpty()) {
+            return List.of();
+        }
+
+        List<Product> inserts = new ArrayList<>();
+        List<Product> updates = new ArrayList<>();
+        for (Product product : products) {
+            if (product.getId() == null) {
+                inserts.add(product);
+            } else {
+                updates.add(product);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> conflicts = new ArrayList<>();
+        if (!inserts.isEmpty()) {
+            String sql = databasePlatform.isPostgreSql() ? POSTGRESQL_INSERT : H2_INSERT;
+            for (int from = 0; from < inserts.size(); from += batchSize) {
+                conflicts.addAll(insertBatch(sql, inserts.subList(from, Math.min(from + batchSize, inserts.size())), now));
+            }
+        }
+        if (!updates.isEmpty()) {
+            int[][] counts = jdbcTemplate.batchUpdate(VERSIONED_UPDATE, updates, batchSize,
+                    (ps, product) -> bindUpdate(ps, product, now));
+            List<Integer> rowCounts = flatten(counts);
+            for (int i = 0; i < updates.size(); i++) {
+                Product product = updates.get(i);
+                if (rowCounts.get(i) == 0) {
+                    conflicts.add(product);
+                } else {
+                    product.setVersion(product.getVersion() + 1);
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    // 1バッチ分を新規登録し、生成されたidを登録できた商品に順に設定する。登録できなかった（競合した）商品を返す
+    // ON CONFLICT DO NOTHING・MERGE で登録されなかった行はidを返さないため、件数が1の行とだけ対応させる
+    private List<Product> insertBatch(String sql, List<Product> batch, LocalDateTime now) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int[] rowCounts = jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindInsert(ps, batch.get(i), now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<Product> conflicts = new ArrayList<>();
+        int keyIndex = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Product product = batch.get(i);
+            if (rowCounts[i] == 0) {
+                conflicts.add(product);
+            } else if (keyIndex < keys.size()) {
+                product.setId(((Number) keys.get(keyIndex++).get("id")).longValue());
+                product.setVersion(0L);
+            }
+        }
+        return conflicts;
+    }
+
+    // バッチごとの更新件数を行順に並べる（ドライバーが件数を返さない場合の SUCCESS_NO_INFO は成功として扱う）
+    private List<Integer> flatten(int[][] counts) {
+        List<Integer> rowCounts = new ArrayList<>();
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                rowCounts.add(count);
+            }
+        }
+        return rowCounts;
+    }
+
+    private void bindInsert(PreparedStatement ps, Product product, LocalDateTime now) throws SQLException {
+        ps.setString(1, product.getProductName());
+        ps.setString(2, product.getManufacturer());
+        ps.setString(3, product.getImageUrl());
+        ps.setObject(4, product.getReleaseDate(), Types.DATE);
+        ps.setObject(5, product.getPrice(), Types.INTEGER);
+        ps.setString(6, product.getDescription());
+        ps.setString(7, product.getLineupInfo());
+        ps.setString(8, product.getSourceUrl());
+        ps.setString(9, product.getProductKey());
+        ps.setString(10, product.getNormalizedName());
+        ps.setString(11, product.getSearchText());
+        ps.setObject(12, now, Types.TIMESTAMP);
+        ps.setObject(13, now, Types.TIMESTAMP);
+        ps.setObject(14, now, Types.TIMESTAMP);
+    }
+
+    private void bindUpdate(PreparedStatement ps, Product product, LocalDateTime now) throws SQLException {
+        ps.setString(1, product.getProductName());
+        ps.setString(2, product.getImageUrl());
+        ps.setObject(3, product.getReleaseDate(), Types.DATE);
+        ps.setObject(4, product.getPrice(), Types.INTEGER);
+        ps.setString(5, product.getDescription());
+        ps.setString(6, product.getLineupInfo());
+        ps.setString(7, product.getSourceUrl());
+        ps.setString(8, product.getNormalizedName());
+        ps.setString(9, product.getSearchText());
+        ps.setObject(10, now, Types.TIMESTAMP);
+        ps.setLong(11, product.getId());
+        ps.setLong(12, product.getVersion());
+    }
+}
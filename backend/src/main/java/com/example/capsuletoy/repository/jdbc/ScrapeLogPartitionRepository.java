@@ -0,0 +1,78 @@
+package com.example.capsuletoy.repository.jdbc;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * scrape_logs の月別パーティション管理（PostgreSQL専用）
+ * パーティション名は scrape_logs_YYYY_MM（V4マイグレーションと同じ）
+ */
+@Repository
+public class ScrapeLogPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("scrape_logs_(\\d{4})_(\\d{2})");
+
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String LIST_PARTITIONS = "SELECT c.relname FROM pg_inherits i "
+            + "JOIN pg_class c ON c.oid = i.inhrelid "
+            + "JOIN pg_class p ON p.oid = i.inhparent "
+            + "WHERE p.relname = 'scrape_logs' AND p.relnamespace = to_regnamespace(current_schema())";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScrapeLogPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * 存在する月別パーティションの月（デフォルトパーティションは含まない）
+     */
+    public List<YearMonth> findPartitionMonths() {
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+        return months;
+    }
+
+    /**
+     * 指定月のパーティションを作成（既にあれば何もしない）
+     */
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF scrape_logs "
+                + "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    /**
+     * 指定月のパーティションをログごと削除
+     */
+    public void dropPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    /**
+     * デフォルトパーティションに入った、指定月より前のログを削除
+     *
+     * @return 削除件数
+     */
+    public int deleteDefaultPartitionRowsBefore(YearMonth month) {
+        return jdbcTemplate.update("DELETE FROM scrape_logs_default WHERE executed_at < ?",
+                Date.valueOf(month.atDay(1)));
+    }
+
+    private String partitionName(YearMonth month) {
+        return "scrape_logs_" + month.format(SUFFIX_FORMAT);
+    }
+}
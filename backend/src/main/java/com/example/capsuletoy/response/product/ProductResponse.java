@@ -1,17 +1,22 @@
 package com.example.capsuletoy.response.product;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.data.domain.Page;
 
 import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.DuplicateCandidateEntry;
+import com.example.capsuletoy.record.ProductSlice;
+import com.example.capsuletoy.record.ProductSuggestion;
+import com.example.capsuletoy.record.ProductTimelineEntry;
 
 public final class ProductResponse {
     /**
      * ページネーションレスポンスを構築
      */
-    public static Map<String, Object> buildPageResponse(Page<Product> productPage) {
+    public static Map<String, Object> buildPageResponse(Page<?> productPage) {
         Map<String, Object> response = new HashMap<>();
         response.put("content", productPage.getContent());
         response.put("totalElements", productPage.getTotalElements());
@@ -22,4 +27,100 @@ public final class ProductResponse {
         response.put("hasPrevious", productPage.hasPrevious());
         return response;
     }
+
+    /**
+     * カーソル方式のレスポンスを構築（件数は要求された場合だけ含める）
+     */
+    public static Map<String, Object> buildSliceResponse(ProductSlice slice) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", slice.content());
+        response.put("size", slice.content().size());
+        response.put("nextCursor", slice.nextCursor());
+        response.put("hasNext", slice.nextCursor() != null);
+        if (slice.totalElements() != null) {
+            response.put("totalElements", slice.totalElements());
+        }
+        return response;
+    }
+
+    /**
+     * 商品の変更履歴（タイムライン）レスポンスを構築
+     */
+    public static Map<String, Object> buildTimelineResponse(Long productId, List<ProductTimelineEntry> timeline) {
+        List<Map<String, Object>> entries = timeline.stream()
+                .map(entry -> {
+                    List<Map<String, Object>> changes = entry.changes().stream()
+                            .map(change -> {
+                                Map<String, Object> item = new HashMap<>();
+                                item.put("field", change.getField());
+                                item.put("oldValue", change.getOldValue());
+                                item.put("newValue", change.getNewValue());
+                                return item;
+                            })
+                            .toList();
+
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("observedAt", entry.observedAt());
+                    item.put("values", entry.values());
+                    item.put("changes", changes);
+                    return item;
+                })
+                .toList();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("productId", productId);
+        response.put("timeline", entries);
+        return response;
+    }
+
+    /**
+     * 近似重複の確認キューのページレスポンスを構築（両方の商品は確認に必要な項目だけ返す）
+     */
+    public static Map<String, Object> buildDuplicateCandidatePageResponse(Page<DuplicateCandidateEntry> candidatePage) {
+        return buildPageResponse(candidatePage.map(entry -> {
+            Map<String, Object> item = new HashMap<>();
+            item.put("id", entry.candidate().getId());
+            item.put("similarity", entry.candidate().getSimilarity());
+            item.put("status", entry.candidate().getStatus());
+            item.put("detectedAt", entry.candidate().getDetectedAt());
+            item.put("reviewedAt", entry.candidate().getReviewedAt());
+            item.put("product", toDuplicateProductMap(entry.candidate().getProductId(), entry.product()));
+            item.put("candidateProduct",
+                    toDuplicateProductMap(entry.candidate().getCandidateProductId(), entry.candidateProduct()));
+            return item;
+        }));
+    }
+
+    /**
+     * 入力補完の候補レスポンスを構築
+     */
+    public static Map<String, Object> buildSuggestionResponse(String query, List<ProductSuggestion> suggestions) {
+        List<Map<String, Object>> items = suggestions.stream()
+                .map(suggestion -> {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("id", suggestion.id());
+                    item.put("productName", suggestion.productName());
+                    item.put("manufacturer", suggestion.manufacturer());
+                    return item;
+                })
+                .toList();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("suggestions", items);
+        return response;
+    }
+
+    private static Map<String, Object> toDuplicateProductMap(Long productId, Product product) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("id", productId);
+        if (product != null) {
+            item.put("productName", product.getProductName());
+            item.put("manufacturer", product.getManufacturer());
+            item.put("sourceUrl", product.getSourceUrl());
+            item.put("releaseDate", product.getReleaseDate());
+            item.put("imageUrl", product.getImageUrl());
+        }
+        return item;
+    }
 }
@@ -1,11 +1,12 @@
 package com.example.capsuletoy.runner;
 
 import com.example.capsuletoy.domain.configAdmin.ScrapingConfigChecker;
-import com.example.capsuletoy.domain.product.NewFlagsAdmin;
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
 import com.example.capsuletoy.domain.scraping.RegularScrapeExecuter;
 import com.example.capsuletoy.model.Product;
 import com.example.capsuletoy.model.ScrapeConfig;
 import com.example.capsuletoy.service.notification.NotificationService;
+import com.example.capsuletoy.service.scheduled.ScheduledScrapeService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,29 +28,34 @@ public class ScrapeCommandRunner implements CommandLineRunner {
 
     private final ScrapingConfigChecker scrapingConfigChecker;
 
-    private final NewFlagsAdmin newFlagsAdmin;
-
     private final RegularScrapeExecuter scrapeExecuter;
 
     private final NotificationService notificationService;
 
-    public ScrapeCommandRunner(ScrapingConfigChecker scrapingConfigChecker, NewFlagsAdmin newFlagsAdmin,
-            RegularScrapeExecuter scrapeExecuter, NotificationService notificationService) {
+    private final ClusterJobLock clusterJobLock;
+
+    public ScrapeCommandRunner(ScrapingConfigChecker scrapingConfigChecker,
+            RegularScrapeExecuter scrapeExecuter, NotificationService notificationService,
+            ClusterJobLock clusterJobLock) {
         this.scrapingConfigChecker = scrapingConfigChecker;
-        this.newFlagsAdmin = newFlagsAdmin;
         this.scrapeExecuter = scrapeExecuter;
         this.notificationService = notificationService;
+        this.clusterJobLock = clusterJobLock;
     }
 
     @Override
     public void run(String... args) throws Exception {
+        // 前回のジョブや定期実行がまだ動いている場合は実行しない
+        boolean executed = clusterJobLock.runExclusive(ScheduledScrapeService.SCRAPING_LOCK_NAME, this::scrapeEnabledSites);
+        if (!executed) {
+            logger.warn("他のノードでスクレイピング実行中のため終了します");
+        }
+    }
+
+    private void scrapeEnabledSites() {
         logger.info("=== GitHub Actions スクレイピング開始 ===");
 
         try {
-            // 古い新着フラグをリセット（30日経過）
-            newFlagsAdmin.resetOldNewFlags(30);
-            logger.info("新着フラグリセット完了");
-
             // 有効な設定を取得
             List<ScrapeConfig> enabledConfigs = scrapingConfigChecker.checkEnabledConfig();
 
@@ -60,7 +66,7 @@ public class ScrapeCommandRunner implements CommandLineRunner {
             notificationService.sendFinishedEmail(allNewProducts);
 
             logger.info("=== GitHub Actions スクレイピング完了（新着: {}件） ===", allNewProducts.size());
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             logger.error("スクレイピング実行中にエラーが発生: {}", e.getMessage(), e);
             throw e;
         }
@@ -0,0 +1,66 @@
+package com.example.capsuletoy.runner;
+
+import com.example.capsuletoy.record.CatalogSnapshotSummary;
+import com.example.capsuletoy.service.snapshot.CatalogSnapshotService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * カタログスナップショットの書き出し・取り込みランナー
+ * snapshotプロファイル時のみ有効。起動時に --snapshot.mode と --snapshot.file に従って実行して終了する。
+ */
+@Component
+@Profile("snapshot")
+public class SnapshotCommandRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotCommandRunner.class);
+
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    // export: DBからファイルへ書き出す / import: ファイルからDBへ取り込む
+    @Value("${snapshot.mode:}")
+    private String mode;
+
+    @Value("${snapshot.file:}")
+    private String file;
+
+    public SnapshotCommandRunner(CatalogSnapshotService catalogSnapshotService) {
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (file.isBlank()) {
+            throw new IllegalArgumentException("--snapshot.file でスナップショットのファイルを指定してください");
+        }
+        Path path = Path.of(file);
+
+        CatalogSnapshotSummary summary;
+        if ("export".equalsIgnoreCase(mode)) {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+                summary = catalogSnapshotService.exportSnapshot(out);
+            }
+        } else if ("import".equalsIgnoreCase(mode)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+                summary = catalogSnapshotService.importSnapshot(in);
+            }
+        } else {
+            throw new IllegalArgumentException("--snapshot.mode には export または import を指定してください: " + mode);
+        }
+
+        logger.info("=== スナップショット{}完了（{}, 行数: {}） ===",
+                "export".equalsIgnoreCase(mode) ? "書き出し" : "取り込み", path, summary.rowCounts());
+    }
+}
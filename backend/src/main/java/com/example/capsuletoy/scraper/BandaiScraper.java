@@ -3,12 +3,10 @@ package com.example.capsuletoy.scraper;
 import com.example.capsuletoy.model.Product;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -55,41 +53,23 @@ public class BandaiScraper extends BaseScraper {
     @Override
     public List<Product> scrape() {
         List<Product> products = new ArrayList<>();
-        processedUrls = new HashSet<>();
 
         try {
             // WebDriver初期化
-            driver = scraperConfig.createChromeDriver();
-            wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+            createDriver();
 
             logger.info("Starting scraping for: {}", getManufacturerName());
 
-            // 一覧ページにアクセス
-            driver.get(getTargetUrl());
-            waitForPageLoad();
-
             // 商品URLを収集（詳細ページ遷移前に）
-            List<WebElement> linkElements = findElementsSafely(By.tagName("a"));
-            logger.info("Found {} link elements on page", linkElements.size());
-
-            List<String> productUrls = new ArrayList<>();
-            for (WebElement linkElement : linkElements) {
-                try {
-                    String href = getElementAttribute(linkElement, "href");
-                    if (href != null && href.contains("detail.php?jan_code=")) {
-                        if (!processedUrls.contains(href)) {
-                            productUrls.add(href);
-                            processedUrls.add(href);
-                        }
-                    }
-                } catch (Exception e) {
-                    // StaleElementReferenceExceptionを無視
-                }
-            }
-            logger.info("Found {} unique product links", productUrls.size());
+            List<String> productUrls = collectProductUrls();
 
             // 各詳細ページにアクセスして商品情報を取得
             for (String productUrl : productUrls) {
+                if (isCancelled()) {
+                    logger.info("Scraping cancelled, returning {} products", products.size());
+                    break;
+                }
+
                 if (products.size() >= MAX_PRODUCTS) {
                     logger.info("Reached max product limit ({}), stopping", MAX_PRODUCTS);
                     break;
@@ -125,6 +105,39 @@ public class BandaiScraper extends BaseScraper {
         return products;
     }
 
+    /**
+     * 一覧ページにアクセスして詳細ページのURLを収集
+     */
+    @Override
+    protected List<String> collectProductUrls() {
+        processedUrls = new HashSet<>();
+
+        // 一覧ページにアクセス
+        driver.get(getTargetUrl());
+        waitForPageLoad();
+
+        List<WebElement> linkElements = findElementsSafely(By.tagName("a"));
+        logger.info("Found {} link elements on page", linkElements.size());
+
+        List<String> productUrls = new ArrayList<>();
+        for (WebElement linkElement : linkElements) {
+            try {
+                String href = getElementAttribute(linkElement, "href");
+                if (href != null && href.contains("detail.php?jan_code=")) {
+                    if (!processedUrls.contains(href)) {
+                        productUrls.add(href);
+                        processedUrls.add(href);
+                    }
+                }
+            } catch (Exception e) {
+                // StaleElementReferenceExceptionを無視
+            }
+        }
+        logger.info("Found {} unique product links", productUrls.size());
+
+        return productUrls;
+    }
+
     @Override
     protected void waitForPageLoad() {
         try {
@@ -144,7 +157,8 @@ public class BandaiScraper extends BaseScraper {
     /**
      * 商品詳細ページから商品情報を取得
      */
-    private Product scrapeProductDetail(String detailUrl) {
+    @Override
+    protected Product scrapeProductDetail(String detailUrl) {
         try {
             driver.get(detailUrl);
             Thread.sleep(2000);
@@ -12,10 +12,14 @@ import org.slf4j.LoggerFactory;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 /**
  * スクレイピング処理の基底クラス
  * 各サイト固有のスクレイパーはこのクラスを継承して実装
+ * スクレイパーはサイトごとに1インスタンスでWebDriverをフィールドに持つため、
+ * scrape(handle)・scrapeProductUrls・discoverProductUrls は1件ずつ実行する（実行が重なった場合は先の実行の終了を待つ）
  */
 public abstract class BaseScraper {
 
@@ -26,10 +30,54 @@ public abstract class BaseScraper {
     protected WebDriver driver;
     protected WebDriverWait wait;
 
+    // 実行中のスクレイピングのハンドル（キャンセル確認用、ハンドルなしで呼ばれた場合はnull）
+    private volatile ScrapeRunHandle runHandle;
+
+    // driver・wait・runHandle を使う処理の排他（同じスクレイパーの実行が重なると互いのブラウザを終了してしまう）
+    private final ReentrantLock runLock = new ReentrantLock();
+
     protected BaseScraper(ScraperConfig scraperConfig) {
         this.scraperConfig = scraperConfig;
     }
 
+    /**
+     * キャンセル可能なスクレイピング実行
+     * キャンセルされた場合はそれまでに取得した商品を返す
+     */
+    public List<Product> scrape(ScrapeRunHandle handle) {
+        return runWithHandle(handle, this::scrape);
+    }
+
+    /**
+     * キャンセル可能な詳細ページの取得（スクレイピングキューのワーカー用）
+     */
+    public List<Product> scrapeProductUrls(List<String> productUrls, ScrapeRunHandle handle) {
+        return runWithHandle(handle, () -> scrapeProductUrls(productUrls));
+    }
+
+    private <T> T runWithHandle(ScrapeRunHandle handle, Supplier<T> action) {
+        return runExclusively(() -> {
+            runHandle = handle;
+            try {
+                return action.get();
+            } finally {
+                runHandle = null;
+                handle.detachBrowser();
+                // キャンセル時の割り込みフラグが後続のDB処理に影響しないようクリア
+                Thread.interrupted();
+            }
+        });
+    }
+
+    private <T> T runExclusively(Supplier<T> action) {
+        runLock.lock();
+        try {
+            return action.get();
+        } finally {
+            runLock.unlock();
+        }
+    }
+
     /**
      * スクレイピング実行
      */
@@ -38,8 +86,7 @@ public abstract class BaseScraper {
 
         try {
             // WebDriver初期化
-            driver = scraperConfig.createChromeDriver();
-            wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+            createDriver();
 
             logger.info("Starting scraping for: {}", getManufacturerName());
 
@@ -64,6 +111,126 @@ public abstract class BaseScraper {
         return products;
     }
 
+    /**
+     * 商品詳細ページのURLのみを収集（スクレイピングキュー投入用）
+     * 詳細ページには遷移しないため、一覧ページの読み込み時間だけで完了する
+     */
+    public List<String> discoverProductUrls() {
+        return runExclusively(this::discoverSiteProductUrls);
+    }
+
+    private List<String> discoverSiteProductUrls() {
+        List<String> productUrls = new ArrayList<>();
+
+        try {
+            // WebDriver初期化
+            createDriver();
+
+            logger.info("Discovering product URLs for: {}", getManufacturerName());
+
+            productUrls = collectProductUrls();
+
+            logger.info("Discovered {} product URLs from {}", productUrls.size(), getManufacturerName());
+
+        } catch (Exception e) {
+            logger.error("Error during URL discovery for {}: {}", getManufacturerName(), e.getMessage(), e);
+        } finally {
+            // WebDriver終了
+            scraperConfig.quitDriver(driver);
+        }
+
+        return productUrls;
+    }
+
+    /**
+     * 指定された詳細ページURLの商品情報を取得（スクレイピングキューのワーカー用）
+     * 取得に失敗したURLの商品は戻り値に含まれない。
+     * ブラウザの起動失敗などバッチ全体の失敗は例外のまま返し、ワーカー側でタスクを再試行・デッドレターにする
+     */
+    public List<Product> scrapeProductUrls(List<String> productUrls) {
+        return runExclusively(() -> scrapeDetailPages(productUrls));
+    }
+
+    private List<Product> scrapeDetailPages(List<String> productUrls) {
+        List<Product> products = new ArrayList<>();
+
+        try {
+            // WebDriver初期化
+            createDriver();
+
+            for (String productUrl : productUrls) {
+                if (isCancelled()) {
+                    logger.info("Scraping cancelled for {}", getManufacturerName());
+                    break;
+                }
+
+                Product product = scrapeProductDetail(productUrl);
+                if (product != null) {
+                    products.add(product);
+                } else {
+                    logger.warn("Failed to scrape product from: {}", productUrl);
+                }
+
+                // サイトへの負荷軽減
+                Thread.sleep(500);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // WebDriver終了
+            scraperConfig.quitDriver(driver);
+        }
+
+        return products;
+    }
+
+    /**
+     * WebDriverを作成し、キャンセル時に終了できるようハンドルに登録
+     */
+    protected void createDriver() {
+        if (isCancelled()) {
+            throw new IllegalStateException("スクレイピングはキャンセルされました");
+        }
+
+        driver = scraperConfig.createChromeDriver();
+        wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+
+        ScrapeRunHandle handle = runHandle;
+        if (handle != null) {
+            handle.attachDriver(driver);
+        }
+    }
+
+    /**
+     * キャンセルされたか（ループ処理の各反復で確認する）
+     */
+    protected boolean isCancelled() {
+        ScrapeRunHandle handle = runHandle;
+        return handle != null && handle.isCancelled();
+    }
+
+    /**
+     * 一覧ページから商品詳細ページのURLを収集（詳細ページを持つサブクラスでオーバーライド）
+     */
+    protected List<String> collectProductUrls() {
+        return new ArrayList<>();
+    }
+
+    /**
+     * 商品詳細ページから商品情報を取得（詳細ページを持つサブクラスでオーバーライド）
+     */
+    protected Product scrapeProductDetail(String detailUrl) {
+        return null;
+    }
+
+    /**
+     * スクレイピング設定のサイト名（設定別スケジュールと同じサイト単位のロック名に使う）
+     */
+    public String getSiteName() {
+        return getManufacturerName();
+    }
+
     /**
      * 対象サイトのURL取得（サブクラスで実装）
      */
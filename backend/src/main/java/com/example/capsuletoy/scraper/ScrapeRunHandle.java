@@ -0,0 +1,91 @@
+package com.example.capsuletoy.scraper;
+
+import org.openqa.selenium.WebDriver;
+
+import java.time.LocalDateTime;
+
+/**
+ * 実行中のスクレイピング1回分のハンドル
+ * cancel() でキャンセルフラグを立て、実行スレッドへの割り込みとWebDriverの終了を行う。
+ * スクレイパーはフラグを確認して処理を打ち切り、それまでに取得した商品を返す。
+ */
+public class ScrapeRunHandle {
+
+    private final Long runId;
+
+    private final String siteName;
+
+    private final LocalDateTime startedAt;
+
+    private volatile boolean cancelled;
+
+    // 割り込み対象のスレッドと終了対象のWebDriver（ブラウザ操作中のみ保持）
+    private Thread thread;
+
+    private WebDriver driver;
+
+    public ScrapeRunHandle(Long runId, String siteName, Thread thread) {
+        this.runId = runId;
+        this.siteName = siteName;
+        this.thread = thread;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    /**
+     * キャンセル（実行中のページ遷移を中断し、ブラウザを終了する）
+     * 割り込みは detachBrowser() と同じロック内で行うため、ブラウザ操作の終了後に届いて
+     * 後続の保存処理やプールされたスレッドの次のタスクに割り込みフラグが残ることはない
+     */
+    public void cancel() {
+        WebDriver driverToQuit;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+            driverToQuit = driver;
+        }
+
+        if (driverToQuit != null) {
+            try {
+                driverToQuit.quit();
+            } catch (Exception e) {
+                // 実行スレッド側で終了処理中の場合は無視
+            }
+        }
+    }
+
+    /**
+     * ブラウザ操作で使うWebDriverを登録
+     */
+    public synchronized void attachDriver(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * ブラウザ操作の終了（以降のキャンセルでは割り込み・ブラウザ終了を行わない）
+     */
+    public synchronized void detachBrowser() {
+        this.thread = null;
+        this.driver = null;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public Long getRunId() {
+        return runId;
+    }
+
+    public String getSiteName() {
+        return siteName;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+}
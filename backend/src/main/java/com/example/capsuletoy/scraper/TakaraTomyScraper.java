@@ -3,12 +3,10 @@ package com.example.capsuletoy.scraper;
 import com.example.capsuletoy.model.Product;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -61,8 +59,7 @@ public class TakaraTomyScraper extends BaseScraper {
 
         try {
             // WebDriver初期化
-            driver = scraperConfig.createChromeDriver();
-            wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+            createDriver();
 
             logger.info("Starting scraping for: {}", getManufacturerName());
 
@@ -76,7 +73,11 @@ public class TakaraTomyScraper extends BaseScraper {
             products.addAll(thisMonthProducts);
             logger.info("Found {} products from this month", thisMonthProducts.size());
 
-            // 翌月のカレンダーをスクレイピング
+            // 翌月のカレンダーをスクレイピング（キャンセルされていなければ）
+            if (isCancelled()) {
+                logger.info("Scraping cancelled, returning {} products", products.size());
+                return products;
+            }
             String nextMonthUrl = buildCalendarUrl(nextMonth);
             logger.info("Scraping next month's calendar: {}", nextMonthUrl);
             List<Product> nextMonthProducts = scrapeCalendarPage(nextMonthUrl);
@@ -111,35 +112,16 @@ public class TakaraTomyScraper extends BaseScraper {
         List<Product> products = new ArrayList<>();
 
         try {
-            // カレンダーページにアクセス
-            driver.get(calendarUrl);
-            waitForPageLoad();
-
-            // 商品リンクを取得してURLリストを作成（StaleElement対策）
-            List<WebElement> linkElements = findElementsSafely(By.tagName("a"));
-            logger.info("Found {} link elements on page: {}", linkElements.size(), calendarUrl);
-
             // 先にすべての商品リンクURLを収集（詳細ページ遷移前に）
-            List<String> itemUrls = new ArrayList<>();
-            for (WebElement linkElement : linkElements) {
-                try {
-                    String href = getElementAttribute(linkElement, "href");
-                    if (href != null && href.contains("item.html?n=")) {
-                        // 重複チェック（複数ページ間で共有）
-                        if (!processedUrls.contains(href)) {
-                            itemUrls.add(href);
-                            processedUrls.add(href);
-                        }
-                    }
-                } catch (Exception e) {
-                    // StaleElementReferenceExceptionを無視
-                    logger.debug("StaleElement while collecting URLs: {}", e.getMessage());
-                }
-            }
-            logger.info("Found {} unique item links on page", itemUrls.size());
+            List<String> itemUrls = collectItemUrls(calendarUrl);
 
             // 収集したURLを順に処理
             for (String itemUrl : itemUrls) {
+                if (isCancelled()) {
+                    logger.info("Scraping cancelled, returning {} products", products.size());
+                    break;
+                }
+
                 // 最大件数に達したら終了
                 if (products.size() >= MAX_PRODUCTS) {
                     logger.info("Reached max product limit ({}), stopping", MAX_PRODUCTS);
@@ -176,6 +158,53 @@ public class TakaraTomyScraper extends BaseScraper {
         return products;
     }
 
+    /**
+     * 今月と翌月のカレンダーページから詳細ページのURLを収集
+     */
+    @Override
+    protected List<String> collectProductUrls() {
+        processedUrls = new HashSet<>();
+
+        LocalDate now = LocalDate.now();
+        List<String> itemUrls = new ArrayList<>();
+        itemUrls.addAll(collectItemUrls(buildCalendarUrl(now)));
+        itemUrls.addAll(collectItemUrls(buildCalendarUrl(now.plusMonths(1))));
+
+        return itemUrls;
+    }
+
+    /**
+     * カレンダーページにアクセスして商品リンクのURLを収集（StaleElement対策）
+     */
+    private List<String> collectItemUrls(String calendarUrl) {
+        // カレンダーページにアクセス
+        driver.get(calendarUrl);
+        waitForPageLoad();
+
+        List<WebElement> linkElements = findElementsSafely(By.tagName("a"));
+        logger.info("Found {} link elements on page: {}", linkElements.size(), calendarUrl);
+
+        List<String> itemUrls = new ArrayList<>();
+        for (WebElement linkElement : linkElements) {
+            try {
+                String href = getElementAttribute(linkElement, "href");
+                if (href != null && href.contains("item.html?n=")) {
+                    // 重複チェック（複数ページ間で共有）
+                    if (!processedUrls.contains(href)) {
+                        itemUrls.add(href);
+                        processedUrls.add(href);
+                    }
+                }
+            } catch (Exception e) {
+                // StaleElementReferenceExceptionを無視
+                logger.debug("StaleElement while collecting URLs: {}", e.getMessage());
+            }
+        }
+        logger.info("Found {} unique item links on page", itemUrls.size());
+
+        return itemUrls;
+    }
+
     @Override
     protected void waitForPageLoad() {
         try {
@@ -221,7 +250,8 @@ public class TakaraTomyScraper extends BaseScraper {
     /**
      * 商品詳細ページから商品情報を取得
      */
-    private Product scrapeProductDetail(String fullUrl) {
+    @Override
+    protected Product scrapeProductDetail(String fullUrl) {
         try {
             // 詳細ページに遷移
             driver.get(fullUrl);
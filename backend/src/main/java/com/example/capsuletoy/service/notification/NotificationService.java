@@ -1,5 +1,6 @@
 package com.example.capsuletoy.service.notification;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.domain.notification.SendEmailDomain;
 import com.example.capsuletoy.model.Product;
 import com.example.capsuletoy.model.User;
@@ -23,11 +24,14 @@ public class NotificationService {
 
     private final UserRepository userRepository;
 
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
     public NotificationService(SendEmailDomain sendEmailDomain, UserService userService,
-            UserRepository userRepository) {
+            UserRepository userRepository, EntityCacheInvalidator entityCacheInvalidator) {
         this.sendEmailDomain = sendEmailDomain;
         this.userService = userService;
         this.userRepository = userRepository;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
     public void sendFinishedEmail(List<Product> allnewProducts){
@@ -49,6 +53,7 @@ public class NotificationService {
         user.setNotificationEnabled(!user.getNotificationEnabled());
         logger.info("通知設定変更: ユーザー={}, 有効={}", user.getUsername(), user.getNotificationEnabled());
         User returnUser = userRepository.save(user);
+        entityCacheInvalidator.evictUsers();
         return returnUser;
     }
 
@@ -0,0 +1,68 @@
+package com.example.capsuletoy.service.product;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capsuletoy.model.DuplicateCandidate;
+import com.example.capsuletoy.model.DuplicateCandidateStatus;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.DuplicateCandidateEntry;
+import com.example.capsuletoy.repository.DuplicateCandidateRepository;
+import com.example.capsuletoy.repository.ProductRepository;
+
+/**
+ * 近似重複の確認キュー（NearDuplicateDetector が検出した組を管理者が確認する）
+ */
+@Service
+public class DuplicateReviewService {
+
+    private final DuplicateCandidateRepository duplicateCandidateRepository;
+
+    private final ProductRepository productRepository;
+
+    public DuplicateReviewService(DuplicateCandidateRepository duplicateCandidateRepository,
+            ProductRepository productRepository) {
+        this.duplicateCandidateRepository = duplicateCandidateRepository;
+        this.productRepository = productRepository;
+    }
+
+    // ステータス別の候補一覧（新しい順）。両方の商品はページ単位でまとめて取得する
+    @Transactional(readOnly = true)
+    public Page<DuplicateCandidateEntry> getCandidates(DuplicateCandidateStatus status, Pageable pageable) {
+        Page<DuplicateCandidate> candidates = duplicateCandidateRepository
+                .findByStatusOrderByDetectedAtDescIdDesc(status, pageable);
+
+        Set<Long> productIds = new HashSet<>();
+        for (DuplicateCandidate candidate : candidates) {
+            productIds.add(candidate.getProductId());
+            productIds.add(candidate.getCandidateProductId());
+        }
+        Map<Long, Product> productsById = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        return candidates.map(candidate -> new DuplicateCandidateEntry(candidate,
+                productsById.get(candidate.getProductId()), productsById.get(candidate.getCandidateProductId())));
+    }
+
+    // 確認結果を記録（CONFIRMED: 重複している / DISMISSED: 別の商品）
+    @Transactional
+    public DuplicateCandidate review(Long id, DuplicateCandidateStatus status) {
+        if (status == DuplicateCandidateStatus.PENDING) {
+            throw new IllegalArgumentException("確認結果には CONFIRMED または DISMISSED を指定してください");
+        }
+        DuplicateCandidate candidate = duplicateCandidateRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("近似重複の候補が見つかりません: ID=" + id));
+        candidate.setStatus(status);
+        candidate.setReviewedAt(LocalDateTime.now());
+        return duplicateCandidateRepository.save(candidate);
+    }
+}
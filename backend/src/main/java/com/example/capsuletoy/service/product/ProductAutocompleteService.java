@@ -0,0 +1,115 @@
+package com.example.capsuletoy.service.product;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capsuletoy.domain.product.ProductAutocompleteIndex;
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
+import com.example.capsuletoy.record.ProductSuggestion;
+import com.example.capsuletoy.repository.ProductRepository;
+
+/**
+ * 商品名の入力補完（ProductAutocompleteIndex の構築・更新と検索）
+ * 起動時に全件で索引を作り、スクレイピング後と定期実行で updated_at が新しい商品だけを反映する。
+ * 削除・アーカイブされた商品や他ノードの変更の取りこぼしは、定期的な全件の作り直しで解消する。
+ * 検索はメモリ上の索引だけで行い、DBには問い合わせない。
+ * 索引の読み込みは参照のみのため、読み取りレプリカが設定されている場合はレプリカで実行される（遅延は差分反映の重なりで吸収する）
+ */
+@Service
+public class ProductAutocompleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductAutocompleteService.class);
+
+    private final ProductAutocompleteIndex productAutocompleteIndex;
+
+    private final ProductRepository productRepository;
+
+    private final ProductNameNormalizer productNameNormalizer;
+
+    // falseの場合は索引を作らない（Webサーバーを起動しないプロファイル用）
+    @Value("${product.autocomplete.enabled:true}")
+    private boolean enabled = true;
+
+    // 差分反映で読み直す期間（前回の反映開始からさかのぼる秒数。コミットの遅れやノード間の時刻ずれを吸収する）
+    @Value("${product.autocomplete.refresh-overlap-seconds:300}")
+    private long refreshOverlapSeconds = 300;
+
+    // 前回の反映（全件・差分）を開始した日時
+    private LocalDateTime refreshedAt;
+
+    public ProductAutocompleteService(ProductAutocompleteIndex productAutocompleteIndex,
+            ProductRepository productRepository, ProductNameNormalizer productNameNormalizer) {
+        this.productAutocompleteIndex = productAutocompleteIndex;
+        this.productRepository = productRepository;
+        this.productNameNormalizer = productNameNormalizer;
+    }
+
+    /**
+     * 入力中の文字列で始まる商品名を新しい順に返す（表記ゆれは取り込み時と同じ正規化で吸収する）
+     */
+    public List<ProductSuggestion> suggest(String query, String manufacturer, int limit) {
+        String prefix = productNameNormalizer.normalize(query);
+        return productAutocompleteIndex.suggest(prefix, manufacturer, limit);
+    }
+
+    /**
+     * 起動時に索引を作る
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 全件で索引を作り直す（削除・アーカイブされた商品を外す）
+     */
+    @Scheduled(fixedDelayString = "${product.autocomplete.rebuild-ms:3600000}",
+            initialDelayString = "${product.autocomplete.rebuild-ms:3600000}")
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        productAutocompleteIndex.replaceAll(productRepository.findAllSuggestions());
+        refreshedAt = startedAt;
+        logger.info("入力補完の索引を作成しました: {}件", productAutocompleteIndex.size());
+    }
+
+    /**
+     * 前回の反映以降に登録・更新された商品を索引に反映する（スクレイピング後と定期実行）
+     */
+    @Scheduled(fixedDelayString = "${product.autocomplete.refresh-ms:60000}",
+            initialDelayString = "${product.autocomplete.refresh-ms:60000}")
+    @Transactional(readOnly = true)
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        if (refreshedAt == null) {
+            rebuild();
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        List<ProductSuggestion> changed = productRepository
+                .findSuggestionsUpdatedSince(refreshedAt.minusSeconds(refreshOverlapSeconds));
+        productAutocompleteIndex.merge(changed);
+        refreshedAt = startedAt;
+    }
+
+    /**
+     * 削除した商品を索引から外す
+     */
+    public void remove(Long productId) {
+        productAutocompleteIndex.remove(productId);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.capsuletoy.service.product;
 
 import org.springframework.stereotype.Service;
 
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
 import com.example.capsuletoy.repository.ProductRepository;
 
 import jakarta.transaction.Transactional;
@@ -10,13 +11,22 @@ import jakarta.transaction.Transactional;
 public class ProductDeleteService {
     private final ProductRepository productRepository;
 
-    public ProductDeleteService(ProductRepository productRepository) {
+    private final ProductAutocompleteService productAutocompleteService;
+
+    private final ProductQueryCache productQueryCache;
+
+    public ProductDeleteService(ProductRepository productRepository,
+            ProductAutocompleteService productAutocompleteService, ProductQueryCache productQueryCache) {
         this.productRepository = productRepository;
+        this.productAutocompleteService = productAutocompleteService;
+        this.productQueryCache = productQueryCache;
     }
 
     // 商品削除
     @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        productAutocompleteService.remove(id);
+        productQueryCache.invalidateAfterCommit();
     }
 }
@@ -0,0 +1,69 @@
+package com.example.capsuletoy.service.product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.capsuletoy.domain.product.ProductChangeDetector;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ProductChange;
+import com.example.capsuletoy.record.ProductTimelineEntry;
+import com.example.capsuletoy.repository.ProductChangeRepository;
+import com.example.capsuletoy.repository.ProductRepository;
+
+// 参照のみのため、読み取りレプリカが設定されている場合はレプリカで実行される
+@Service
+@Transactional(readOnly = true)
+public class ProductHistoryService {
+
+    private final ProductRepository productRepository;
+
+    private final ProductChangeRepository productChangeRepository;
+
+    private final ProductChangeDetector productChangeDetector;
+
+    public ProductHistoryService(ProductRepository productRepository, ProductChangeRepository productChangeRepository,
+            ProductChangeDetector productChangeDetector) {
+        this.productRepository = productRepository;
+        this.productChangeRepository = productChangeRepository;
+        this.productChangeDetector = productChangeDetector;
+    }
+
+    // 商品のタイムラインを古い順に復元（商品が存在しない場合は空）
+    // 変更履歴には差分しか無いため、現在値から新しい変更順にさかのぼって各時点の値を求める
+    public Optional<List<ProductTimelineEntry>> getTimeline(Long productId) {
+        Optional<Product> productOpt = productRepository.findById(productId);
+        if (productOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        Product product = productOpt.get();
+
+        Map<LocalDateTime, List<ProductChange>> changesByObservedAt = productChangeRepository
+                .findByProductIdOrderByObservedAtAscIdAsc(productId).stream()
+                .collect(Collectors.groupingBy(ProductChange::getObservedAt, LinkedHashMap::new, Collectors.toList()));
+
+        Map<String, String> values = productChangeDetector.trackedValues(product);
+        Deque<ProductTimelineEntry> timeline = new ArrayDeque<>();
+        List<LocalDateTime> observedTimes = new ArrayList<>(changesByObservedAt.keySet());
+        for (int i = observedTimes.size() - 1; i >= 0; i--) {
+            List<ProductChange> changes = changesByObservedAt.get(observedTimes.get(i));
+            timeline.addFirst(new ProductTimelineEntry(observedTimes.get(i), new LinkedHashMap<>(values), changes));
+            for (ProductChange change : changes) {
+                values.put(change.getField(), change.getOldValue());
+            }
+        }
+
+        // 初回検出時点の値
+        timeline.addFirst(new ProductTimelineEntry(product.getFirstSeenAt(), values, List.of()));
+        return Optional.of(new ArrayList<>(timeline));
+    }
+}
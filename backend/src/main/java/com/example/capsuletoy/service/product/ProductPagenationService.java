@@ -1,20 +1,69 @@
 package com.example.capsuletoy.service.product;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.capsuletoy.domain.product.ProductCursor;
+import com.example.capsuletoy.domain.product.ProductFieldSet;
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
+import com.example.capsuletoy.domain.product.ProductNewnessPolicy;
+import com.example.capsuletoy.domain.product.ProductSpecifications;
+import com.example.capsuletoy.model.ArchivedProduct;
 import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.CatalogVersion;
+import com.example.capsuletoy.record.ProductSlice;
+import com.example.capsuletoy.repository.ArchivedProductRepository;
 import com.example.capsuletoy.repository.ProductRepository;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
 
+// 参照のみのため、読み取りレプリカが設定されている場合はレプリカで実行される
 @Service
+@Transactional(readOnly = true)
 public class ProductPagenationService {
+    // キーワード検索を関連度順に並べる場合の sort の値
+    public static final String RELEVANCE_SORT = "relevance";
+
+    // 件数キャッシュに保持する検索条件の上限（超えたら全て破棄する）
+    private static final int MAX_CACHED_COUNTS = 1000;
+
     private final ProductRepository productRepository;
 
-    public ProductPagenationService(ProductRepository productRepository) {
+    private final ProductNewnessPolicy productNewnessPolicy;
+
+    private final ArchivedProductRepository archivedProductRepository;
+
+    private final ProductNameNormalizer productNameNormalizer;
+
+    private final DatabasePlatform databasePlatform;
+
+    private final long countCacheTtlMillis;
+
+    // 検索条件ごとの件数のキャッシュ（カーソル方式で件数を要求されたときだけ使う。TTLで反映）
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
+
+    public ProductPagenationService(ProductRepository productRepository, ProductNewnessPolicy productNewnessPolicy,
+            ArchivedProductRepository archivedProductRepository, ProductNameNormalizer productNameNormalizer,
+            DatabasePlatform databasePlatform,
+            @Value("${product.cursor.count-cache-ttl-seconds:60}") long countCacheTtlSeconds) {
         this.productRepository = productRepository;
+        this.productNewnessPolicy = productNewnessPolicy;
+        this.archivedProductRepository = archivedProductRepository;
+        this.productNameNormalizer = productNameNormalizer;
+        this.databasePlatform = databasePlatform;
+        this.countCacheTtlMillis = countCacheTtlSeconds * 1000;
     }
 
     // ページネーション対応の商品取得
@@ -29,12 +78,20 @@ public class ProductPagenationService {
 
     // 新着商品取得（ページネーション対応）
     public Page<Product> getNewProducts(Pageable pageable) {
-        return productRepository.findByIsNewTrue(pageable);
+        return productRepository.findByFirstSeenAtGreaterThanEqual(productNewnessPolicy.newSince(), pageable);
     }
 
-    // 商品名検索（ページネーション対応）
-    private Page<Product> searchProductsByName(String productName, Pageable pageable) {
-        return productRepository.findByProductNameContaining(productName, pageable);
+    // キーワード検索（商品名・ラインナップ・説明、ページネーション対応）
+    private Page<Product> searchProductsByKeyword(String normalizedKeyword, Pageable pageable) {
+        return productRepository.findBySearchTextContaining(normalizedKeyword, pageable);
+    }
+
+    // 関連度順のキーワード検索（manufacturerがnullの場合は全メーカー）
+    private Page<Product> searchByRelevance(String manufacturer, String keyword, Pageable pageable) {
+        if (databasePlatform.isPostgreSql()) {
+            return productRepository.searchByRelevance(manufacturer, keyword, pageable);
+        }
+        return productRepository.searchByRelevancePortable(manufacturer, keyword, pageable);
     }
 
     // メーカー別 + キーワード検索（ページネーション対応）
@@ -43,6 +100,11 @@ public class ProductPagenationService {
     }
 
     public Pageable buildPageable(int page, int size, String sort, String direction){
+        // 関連度順は検索クエリ側で並べるため、並び順を指定しない
+        if (RELEVANCE_SORT.equalsIgnoreCase(sort)) {
+            return PageRequest.of(page, size);
+        }
+
         Sort sortOrder;
 
         if(direction.equalsIgnoreCase("asc")){
@@ -57,6 +119,17 @@ public class ProductPagenationService {
     public Page<Product> getProducts(String manufacturer, String keyword, Pageable pageable){
         Page<Product> productPage;
 
+        keyword = normalizeKeyword(keyword);
+
+        if (keyword != null && pageable.getSort().isUnsorted()) {
+            // キーワード検索（関連度順。メーカー指定があれば絞り込む）
+            return searchByRelevance(manufacturer, keyword, pageable);
+        }
+        if (pageable.getSort().isUnsorted()) {
+            // キーワードが無い場合の関連度順は新着順として扱う
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by("createdAt").descending());
+        }
+
         if (manufacturer != null && keyword != null) {
             // メーカー + キーワード検索
             productPage = searchByManufacturerAndKeyword(manufacturer, keyword, pageable);
@@ -65,7 +138,7 @@ public class ProductPagenationService {
             productPage = getProductsByManufacturer(manufacturer, pageable);
         } else if (keyword != null) {
             // キーワード検索
-            productPage = searchProductsByName(keyword, pageable);
+            productPage = searchProductsByKeyword(keyword, pageable);
         } else {
             // 全商品取得
             productPage = getAllProducts(pageable);
@@ -73,4 +146,166 @@ public class ProductPagenationService {
 
         return productPage;
     }
+
+    /**
+     * 条件に合う商品をカーソル方式で取得（(並び替えキー, id) の位置から続きを読むため、何ページ目でも先頭と同じコスト）
+     * cursor が null の場合は先頭から取得する。並び替えキーが未設定の商品は末尾にID順で並ぶ
+     * withTotal が true の場合だけ件数を返す（検索条件ごとにキャッシュした件数のため、最大でTTLの分だけ古い）
+     * fieldSet を指定した場合は指定項目（と並び替えキー）の列だけを読み、Mapで返す
+     */
+    public ProductSlice getProductsAfter(String manufacturer, String keyword, String sort, String direction,
+            String cursor, int size, boolean withTotal, ProductFieldSet fieldSet) {
+        if (!ProductCursor.SORTS.contains(sort)) {
+            throw new IllegalArgumentException("カーソル方式では使えない並び順です: " + sort);
+        }
+        direction = "asc".equalsIgnoreCase(direction) ? "asc" : "desc";
+        ProductCursor position = cursor == null ? null : ProductCursor.decode(cursor);
+        if (position != null && (!position.sort().equals(sort) || !position.direction().equals(direction))) {
+            throw new IllegalArgumentException("カーソルと並び順が一致しません");
+        }
+
+        keyword = normalizeKeyword(keyword);
+        Specification<Product> filter = ProductSpecifications.filter(manufacturer, keyword);
+        Sort.Direction order = "asc".equals(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+
+        // カーソルを作るため並び替えキーは常に読む
+        ProductFieldSet selection = fieldSet == null ? null : fieldSet.with(sort);
+
+        // 1件多く読んで次ページの有無を判定する
+        List<Object> products = new ArrayList<>();
+        if (position == null || position.value() != null) {
+            products.addAll(seek(filter.and(ProductSpecifications.after(sort, position)),
+                    Sort.by(order, sort, "id"), size + 1, selection));
+        }
+        if (products.size() <= size && ProductCursor.NULLABLE_SORTS.contains(sort)) {
+            // 並び替えキーが設定された商品を返し終えたら、未設定の商品を続ける
+            products.addAll(seek(filter.and(ProductSpecifications.afterWithoutKey(sort, position)),
+                    Sort.by(order, "id"), size + 1 - products.size(), selection));
+        }
+
+        Long totalElements = withTotal ? countProducts(manufacturer, keyword, filter) : null;
+        if (products.size() <= size) {
+            return new ProductSlice(products, null, totalElements);
+        }
+        List<Object> content = products.subList(0, size);
+        return new ProductSlice(content, toCursor(content.get(size - 1), sort, direction).encode(), totalElements);
+    }
+
+    private List<?> seek(Specification<Product> spec, Sort sort, int limit, ProductFieldSet fieldSet) {
+        if (fieldSet == null) {
+            return productRepository.findBy(spec, q -> q.sortBy(sort).limit(limit).all());
+        }
+        List<Map<String, Object>> rows = productRepository.findFields(fieldSet.columns(), spec, sort, 0, limit);
+        rows.forEach(row -> applyFieldSet(row, fieldSet));
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductCursor toCursor(Object last, String sort, String direction) {
+        if (last instanceof Product product) {
+            return ProductCursor.of(product, sort, direction);
+        }
+        return ProductCursor.of((Map<String, Object>) last, sort, direction);
+    }
+
+    // 検索条件ごとの件数（キャッシュが無いか期限切れの場合だけ数える）
+    private long countProducts(String manufacturer, String keyword, Specification<Product> filter) {
+        String key = manufacturer + "\u0000" + keyword;
+        long now = System.currentTimeMillis();
+        CachedCount cached = countCache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+
+        long count = productRepository.count(filter);
+        if (countCache.size() >= MAX_CACHED_COUNTS) {
+            countCache.clear();
+        }
+        countCache.put(key, new CachedCount(count, now + countCacheTtlMillis));
+        return count;
+    }
+
+    // キーワードは取り込み時と同じ正規化をしてから比較する（記号だけのキーワードは指定なしとして扱う）
+    private String normalizeKeyword(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        String normalized = productNameNormalizer.normalize(keyword);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /**
+     * 指定した項目だけの商品一覧（条件・並び順の組み合わせは getProducts と同じ）
+     * エンティティを読まず、指定項目の列だけをDBから読む
+     */
+    public Page<Map<String, Object>> getProductFields(String manufacturer, String keyword, Pageable pageable,
+            ProductFieldSet fieldSet) {
+        keyword = normalizeKeyword(keyword);
+        Specification<Product> filter = ProductSpecifications.filter(manufacturer, keyword);
+
+        List<Map<String, Object>> rows;
+        if (keyword != null && pageable.getSort().isUnsorted()) {
+            rows = productRepository.findFieldsByRelevance(fieldSet.columns(), filter, keyword,
+                    databasePlatform.isPostgreSql(), pageable.getOffset(), pageable.getPageSize());
+        } else {
+            // キーワードが無い場合の関連度順は新着順として扱う
+            Sort sort = pageable.getSort().isUnsorted() ? Sort.by("createdAt").descending() : pageable.getSort();
+            rows = productRepository.findFields(fieldSet.columns(), filter, sort, pageable.getOffset(),
+                    pageable.getPageSize());
+        }
+        return toFieldPage(rows, pageable, filter, fieldSet);
+    }
+
+    // 新着商品の指定した項目だけを取得（ページネーション対応）
+    public Page<Map<String, Object>> getNewProductFields(Pageable pageable, ProductFieldSet fieldSet) {
+        Specification<Product> filter = ProductSpecifications.firstSeenSince(productNewnessPolicy.newSince());
+        List<Map<String, Object>> rows = productRepository.findFields(fieldSet.columns(), filter,
+                pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        return toFieldPage(rows, pageable, filter, fieldSet);
+    }
+
+    // 件数は最終ページと分かっている場合は数えない
+    private Page<Map<String, Object>> toFieldPage(List<Map<String, Object>> rows, Pageable pageable,
+            Specification<Product> filter, ProductFieldSet fieldSet) {
+        rows.forEach(row -> applyFieldSet(row, fieldSet));
+        return PageableExecutionUtils.getPage(rows, pageable, () -> productRepository.count(filter));
+    }
+
+    // 読み込んだ列をレスポンスの項目にする（isNew は初回検出日時から算出する）
+    private void applyFieldSet(Map<String, Object> row, ProductFieldSet fieldSet) {
+        if (fieldSet.fields().contains("isNew")) {
+            Object firstSeenAt = fieldSet.fields().contains("firstSeenAt") ? row.get("firstSeenAt")
+                    : row.remove("firstSeenAt");
+            row.put("isNew", productNewnessPolicy.isNew((LocalDateTime) firstSeenAt));
+        }
+    }
+
+    // アーカイブ済み商品の検索（条件の組み合わせは getProducts と同じ）
+    public Page<ArchivedProduct> getArchivedProducts(String manufacturer, String keyword, Pageable pageable){
+        if (manufacturer != null && keyword != null) {
+            return archivedProductRepository.findByManufacturerAndKeyword(manufacturer, keyword, pageable);
+        } else if (manufacturer != null) {
+            return archivedProductRepository.findByManufacturer(manufacturer, pageable);
+        } else if (keyword != null) {
+            return archivedProductRepository.findByProductNameContaining(keyword, pageable);
+        }
+        return archivedProductRepository.findAll(pageable);
+    }
+
+    /**
+     * カタログのバージョン（条件付きGETの検証用。最終更新日時・最終アーカイブ日時・件数）
+     * 一覧・詳細より先に読むこと（先に読んでおけば、その後に読んだ内容はこのバージョン以降のものになる）
+     */
+    public CatalogVersion getCatalogVersion() {
+        LocalDateTime lastUpdatedAt = productRepository.findLastUpdatedAt();
+        LocalDateTime lastArchivedAt = archivedProductRepository.findLastArchivedAt();
+        LocalDateTime lastModified = lastUpdatedAt;
+        if (lastArchivedAt != null && (lastUpdatedAt == null || lastArchivedAt.isAfter(lastUpdatedAt))) {
+            lastModified = lastArchivedAt;
+        }
+        return new CatalogVersion(lastModified, productRepository.count(), archivedProductRepository.count(),
+                productNewnessPolicy.newSince().toLocalDate());
+    }
+
+    private record CachedCount(long count, long expiresAt) {}
 }
@@ -1,23 +1,35 @@
 package com.example.capsuletoy.service.product;
 
 import com.example.capsuletoy.domain.product.DuplicateChecker;
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
+import com.example.capsuletoy.domain.product.ProductNewnessPolicy;
 import com.example.capsuletoy.model.Product;
 import com.example.capsuletoy.repository.ProductRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+// 参照のみのため、読み取りレプリカが設定されている場合はレプリカで実行される
 @Service
+@Transactional(readOnly = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
 
     private final DuplicateChecker duplicateChecker;
 
-    public ProductService(ProductRepository productRepository, DuplicateChecker duplicateChecker) {
+    private final ProductNewnessPolicy productNewnessPolicy;
+
+    private final ProductNameNormalizer productNameNormalizer;
+
+    public ProductService(ProductRepository productRepository, DuplicateChecker duplicateChecker,
+            ProductNewnessPolicy productNewnessPolicy, ProductNameNormalizer productNameNormalizer) {
         this.productRepository = productRepository;
         this.duplicateChecker = duplicateChecker;
+        this.productNewnessPolicy = productNewnessPolicy;
+        this.productNameNormalizer = productNameNormalizer;
     }
 
     // 全商品取得
@@ -37,11 +49,11 @@ public class ProductService {
 
     // 新着商品取得
     public List<Product> getNewProducts() {
-        return productRepository.findByIsNewTrue();
+        return productRepository.findByFirstSeenAtGreaterThanEqual(productNewnessPolicy.newSince());
     }
 
-    // 商品名検索
+    // 商品名検索（表記ゆれを吸収するため正規化名で比較する）
     public List<Product> searchProductsByName(String productName) {
-        return productRepository.findByProductNameContaining(productName);
+        return productRepository.findByNormalizedNameContaining(productNameNormalizer.normalize(productName));
     }
 }
@@ -1,61 +1,237 @@
 package com.example.capsuletoy.service.product;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
 import com.example.capsuletoy.domain.product.DuplicateChecker;
+import com.example.capsuletoy.domain.product.ProductChangeDetector;
 import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ProductChange;
+import com.example.capsuletoy.model.UpsertOutcome;
+import com.example.capsuletoy.record.ProductUpsertResult;
+import com.example.capsuletoy.repository.ProductChangeRepository;
 import com.example.capsuletoy.repository.ProductRepository;
+import com.example.capsuletoy.repository.jdbc.CatalogWriteLock;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.repository.jdbc.ProductStagingLoader;
+import com.example.capsuletoy.repository.jdbc.ProductUpsertRepository;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 
 @Service
 public class ProductUpdateService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductUpdateService.class);
+
     private final ProductRepository productRepository;
 
     private final DuplicateChecker duplicateChecker;
 
-    private final ProductDeleteService productDeleteService;
+    private final ProductUpsertRepository productUpsertRepository;
+
+    private final ProductStagingLoader productStagingLoader;
+
+    private final DatabasePlatform databasePlatform;
+
+    private final ProductChangeDetector productChangeDetector;
+
+    private final ProductChangeRepository productChangeRepository;
+
+    private final EntityManager entityManager;
+
+    private final ProductQueryCache productQueryCache;
+
+    private final ClusterJobLock clusterJobLock;
+
+    private final CatalogWriteLock catalogWriteLock;
+
+    // 取り込み方式（upsert: バッチUPSERT, copy: PostgreSQLのCOPY＋一時テーブルからの一括反映）
+    @Value("${scraping.ingest.mode:upsert}")
+    private String ingestMode = "upsert";
+
+    // 他の書き込みと競合した商品を読み直して保存し直す最大回数
+    @Value("${scraping.persist.max-conflict-retries:3}")
+    private int maxConflictRetries = 3;
 
     public ProductUpdateService(ProductRepository productRepository, DuplicateChecker duplicateChecker,
-            ProductDeleteService productDeleteService) {
+            ProductUpsertRepository productUpsertRepository, ProductStagingLoader productStagingLoader,
+            DatabasePlatform databasePlatform, ProductChangeDetector productChangeDetector,
+            ProductChangeRepository productChangeRepository, EntityManager entityManager,
+            ProductQueryCache productQueryCache, ClusterJobLock clusterJobLock, CatalogWriteLock catalogWriteLock) {
         this.productRepository = productRepository;
         this.duplicateChecker = duplicateChecker;
-        this.productDeleteService = productDeleteService;
+        this.productUpsertRepository = productUpsertRepository;
+        this.productStagingLoader = productStagingLoader;
+        this.databasePlatform = databasePlatform;
+        this.productChangeDetector = productChangeDetector;
+        this.productChangeRepository = productChangeRepository;
+        this.entityManager = entityManager;
+        this.productQueryCache = productQueryCache;
+        this.clusterJobLock = clusterJobLock;
+        this.catalogWriteLock = catalogWriteLock;
+    }
+
+    // スクレイピング結果の取り込み（商品キー・正規化名は事前に設定しておくこと）
+    // copyモードかつPostgreSQLの場合はCOPY経由、それ以外（H2など）はバッチUPSERTで保存する
+    // COPY経由の一括反映は商品キーで既存商品と照合するため、商品キーの無い商品は正規化名で照合するバッチUPSERTで保存する
+    // 定期実行中は同じトランザクションでロックのフェンシングを行い、奪取された後の二重登録を防ぐ
+    // カタログスナップショットの取り込み中は保存せずに失敗させる
+    @Transactional
+    public List<ProductUpsertResult> ingestScrapedProducts(List<Product> scrapedProducts) {
+        clusterJobLock.checkFencing();
+        catalogWriteLock.lockForWrite();
+        if ("copy".equalsIgnoreCase(ingestMode) && databasePlatform.isPostgreSql()) {
+            List<Product> keyedProducts = new ArrayList<>();
+            List<Product> keylessProducts = new ArrayList<>();
+            for (Product product : scrapedProducts) {
+                (product.getProductKey() != null ? keyedProducts : keylessProducts).add(product);
+            }
+
+            List<ProductUpsertResult> results = new ArrayList<>(productStagingLoader.loadAndMerge(keyedProducts));
+            if (!keylessProducts.isEmpty()) {
+                results.addAll(upsertScrapedProducts(keylessProducts));
+            }
+            return invalidateQueryCacheIfChanged(results);
+        }
+        return upsertScrapedProducts(scrapedProducts);
     }
 
-    // スクレイピング結果の保存（重複チェック付き）
+    // スクレイピング結果の一括保存（商品キー・正規化名は事前に設定しておくこと）
+    // 既存商品はid・登録日時・初回検出日時を保ったまま、変更のあった商品だけ更新する
+    // 更新した商品は変わった項目を変更履歴に記録する
+    // 読み込み後に他のスレッド・ノードが同じ商品を書き込んでいた場合は、その商品だけ読み直して再試行する
     @Transactional
-    public Product saveScrapedProduct(Product scrapedProduct) {
-        Optional<Product> existing = duplicateChecker.findExistingProduct(
-            scrapedProduct.getProductName(),
-            scrapedProduct.getManufacturer(),
-            scrapedProduct.getSourceUrl()
-        );
+    public List<ProductUpsertResult> upsertScrapedProducts(List<Product> scrapedProducts) {
+        // 同じ商品（商品キー、無ければ正規化名が同じ）が複数回取得された場合は後のものを使う
+        Map<Object, Product> uniqueProducts = new LinkedHashMap<>();
+        for (Product product : scrapedProducts) {
+            String identityKey = duplicateChecker.identityKey(product);
+            uniqueProducts.put(identityKey != null ? identityKey : product, product);
+        }
+        List<Product> pending = new ArrayList<>(uniqueProducts.values());
+
+        List<ProductUpsertResult> results = new ArrayList<>();
+        for (int attempt = 0; ; attempt++) {
+            pending = upsertOnce(pending, results);
+            if (pending.isEmpty()) {
+                return invalidateQueryCacheIfChanged(results);
+            }
+            if (attempt >= maxConflictRetries) {
+                throw new OptimisticLockingFailureException(
+                        "商品の保存が他の更新と競合しました（再試行" + maxConflictRetries + "回）: " + pending.size() + "件");
+            }
+            logger.info("Retrying {} products after a concurrent update (attempt {})", pending.size(), attempt + 1);
+            // 読み込み済みの既存商品が永続化コンテキストに残っていると古いversionのまま返されるため破棄する
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
 
-        if (existing.isPresent()) {
-            // 既存商品の更新
-            Product existingProduct = existing.get();
-            productDeleteService.deleteProduct(existingProduct.getId());
+    // 既存商品を読み込んで比較・保存し、結果をresultsに追加する。競合して保存できなかった商品を返す
+    private List<Product> upsertOnce(List<Product> products, List<ProductUpsertResult> results) {
+        Map<String, Product> existingProducts = duplicateChecker.findExistingProducts(products);
+        // アーカイブ済みの商品は再登録しない（新着として通知されないように）
+        Set<String> archivedKeys = duplicateChecker.findArchivedKeys(products);
 
+        LocalDateTime observedAt = LocalDateTime.now();
+        List<ProductUpsertResult> attemptResults = new ArrayList<>();
+        List<Product> changedProducts = new ArrayList<>();
+        Map<Product, List<ProductChange>> changesByProduct = new IdentityHashMap<>();
+        for (Product product : products) {
+            String identityKey = duplicateChecker.identityKey(product);
+            if (identityKey != null && archivedKeys.contains(identityKey)) {
+                attemptResults.add(new ProductUpsertResult(product, UpsertOutcome.UNCHANGED));
+                continue;
+            }
+            Product existing = duplicateChecker.findExisting(existingProducts, product);
+            UpsertOutcome outcome = classify(product, existing);
+            if (outcome == UpsertOutcome.UPDATED) {
+                changesByProduct.put(product, productChangeDetector.detectChanges(existing, product, observedAt));
+            }
+            if (existing != null) {
+                product.setId(existing.getId());
+                product.setVersion(existing.getVersion());
+                product.setFirstSeenAt(existing.getFirstSeenAt());
+                product.setIsNew(existing.getIsNew());
+                product.setCreatedAt(existing.getCreatedAt());
+            } else {
+                product.setId(null);
+                product.setVersion(null);
+            }
+            if (outcome != UpsertOutcome.UNCHANGED) {
+                changedProducts.add(product);
+            }
+            attemptResults.add(new ProductUpsertResult(product, outcome));
         }
 
-        // 新規商品として保存（is_newはtrueで自動設定）
-        return saveProduct(scrapedProduct);
+        List<Product> conflicts = productUpsertRepository.upsertAll(changedProducts);
+        Set<Product> conflicted = Collections.newSetFromMap(new IdentityHashMap<>());
+        conflicted.addAll(conflicts);
+
+        List<ProductChange> productChanges = new ArrayList<>();
+        for (ProductUpsertResult result : attemptResults) {
+            if (conflicted.contains(result.product())) {
+                continue;
+            }
+            results.add(result);
+            productChanges.addAll(changesByProduct.getOrDefault(result.product(), List.of()));
+        }
+        if (!productChanges.isEmpty()) {
+            productChangeRepository.saveAll(productChanges);
+        }
+        return conflicts;
+    }
+
+    private UpsertOutcome classify(Product scraped, Product existing) {
+        if (existing == null) {
+            return UpsertOutcome.INSERTED;
+        }
+
+        boolean unchanged = Objects.equals(scraped.getProductName(), existing.getProductName())
+                && Objects.equals(scraped.getImageUrl(), existing.getImageUrl())
+                && Objects.equals(scraped.getReleaseDate(), existing.getReleaseDate())
+                && Objects.equals(scraped.getPrice(), existing.getPrice())
+                && Objects.equals(scraped.getDescription(), existing.getDescription())
+                && Objects.equals(scraped.getLineupInfo(), existing.getLineupInfo())
+                && Objects.equals(scraped.getSourceUrl(), existing.getSourceUrl());
+        return unchanged ? UpsertOutcome.UNCHANGED : UpsertOutcome.UPDATED;
     }
 
     // 商品保存（新規作成または更新）
     @Transactional
     public Product saveProduct(Product product) {
+        productQueryCache.invalidateAfterCommit();
         return productRepository.save(product);
     }
 
     // 商品の一括保存
     @Transactional
     public List<Product> saveAllProducts(List<Product> products) {
+        productQueryCache.invalidateAfterCommit();
         return productRepository.saveAll(products);
     }
+
+    // 登録・更新された商品があれば、コミット後に商品一覧のキャッシュを破棄する
+    private List<ProductUpsertResult> invalidateQueryCacheIfChanged(List<ProductUpsertResult> results) {
+        if (results.stream().anyMatch(result -> result.outcome() != UpsertOutcome.UNCHANGED)) {
+            productQueryCache.invalidateAfterCommit();
+        }
+        return results;
+    }
 }
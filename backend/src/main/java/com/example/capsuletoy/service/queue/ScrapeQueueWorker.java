@@ -0,0 +1,177 @@
+package com.example.capsuletoy.service.queue;
+
+import com.example.capsuletoy.domain.queue.ScrapeTaskQueue;
+import com.example.capsuletoy.domain.scraping.ManualScrapeExecuter;
+import com.example.capsuletoy.domain.scraping.ScrapeRunRegistry;
+import com.example.capsuletoy.domain.scraping.ScraperSelector;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ScrapeTask;
+import com.example.capsuletoy.scraper.BaseScraper;
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+import com.example.capsuletoy.service.notification.NotificationService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * スクレイピングキューのワーカー
+ * scraping.queue.worker-enabled=true のプロセスでのみ有効。
+ * キューからタスクをリースして詳細ページをスクレイピングし、通常の商品保存処理で登録する。
+ * スクレイパーはWebDriverを1つずつ保持するため、1プロセスにつき1ワーカーで動かし、台数はプロセス数で増やす。
+ * 処理中はリース期限を定期的に延長し、バッチがリース時間より長くかかっても他ワーカーに二重取得させない。
+ */
+@Service
+@ConditionalOnProperty(name = "scraping.queue.worker-enabled", havingValue = "true")
+public class ScrapeQueueWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScrapeQueueWorker.class);
+
+    private final ScrapeTaskQueue scrapeTaskQueue;
+
+    private final ScraperSelector scraperSelector;
+
+    private final ManualScrapeExecuter manualScrapeExecuter;
+
+    private final NotificationService notificationService;
+
+    private final ScrapeRunRegistry scrapeRunRegistry;
+
+    private final String workerId;
+
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    @Value("${scraping.queue.batch-size:5}")
+    private int batchSize;
+
+    public ScrapeQueueWorker(ScrapeTaskQueue scrapeTaskQueue, ScraperSelector scraperSelector,
+            ManualScrapeExecuter manualScrapeExecuter, NotificationService notificationService,
+            ScrapeRunRegistry scrapeRunRegistry, @Value("${scraping.queue.worker-id:}") String workerId) {
+        this.scrapeTaskQueue = scrapeTaskQueue;
+        this.scraperSelector = scraperSelector;
+        this.manualScrapeExecuter = manualScrapeExecuter;
+        this.notificationService = notificationService;
+        this.scrapeRunRegistry = scrapeRunRegistry;
+        // 未指定の場合は "pid@hostname" をワーカーIDにする
+        this.workerId = workerId.isEmpty() ? ManagementFactory.getRuntimeMXBean().getName() : workerId;
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scrape-queue-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * キューをポーリングしてタスクを処理
+     */
+    @Scheduled(fixedDelayString = "${scraping.queue.poll-interval-ms:10000}")
+    public void processQueue() {
+        List<ScrapeTask> tasks = scrapeTaskQueue.lease(workerId, batchSize);
+        if (tasks.isEmpty()) {
+            return;
+        }
+        logger.info("タスクをリース: ワーカー={}, {}件", workerId, tasks.size());
+
+        Map<String, List<ScrapeTask>> tasksBySite = tasks.stream()
+                .collect(Collectors.groupingBy(ScrapeTask::getSiteName, LinkedHashMap::new, Collectors.toList()));
+
+        long renewIntervalSeconds = scrapeTaskQueue.getRenewIntervalSeconds();
+        ScheduledFuture<?> heartbeat = heartbeatExecutor.scheduleAtFixedRate(
+                () -> renewLeases(tasks), renewIntervalSeconds, renewIntervalSeconds, TimeUnit.SECONDS);
+        List<Product> allNewProducts = new ArrayList<>();
+        try {
+            for (Map.Entry<String, List<ScrapeTask>> entry : tasksBySite.entrySet()) {
+                allNewProducts.addAll(processSiteTasks(entry.getKey(), entry.getValue()));
+            }
+        } finally {
+            heartbeat.cancel(false);
+        }
+
+        // キュー処理には実行単位の完了がないため、新着があったバッチのみ通知する
+        if (!allNewProducts.isEmpty()) {
+            notificationService.sendFinishedEmail(allNewProducts);
+        }
+    }
+
+    private void renewLeases(List<ScrapeTask> tasks) {
+        try {
+            int renewed = scrapeTaskQueue.renewLeases(tasks, workerId);
+            if (renewed < tasks.size()) {
+                // 期限切れ後に他ワーカーが取得したタスクは、complete/failでもリース保持者の確認により更新されない
+                logger.warn("リースの延長に失敗したタスクがあります: ワーカー={}, {}/{}件", workerId, renewed, tasks.size());
+            }
+        } catch (Exception e) {
+            logger.warn("リースの延長でエラー: ワーカー={} - {}", workerId, e.getMessage());
+        }
+    }
+
+    private List<Product> processSiteTasks(String siteName, List<ScrapeTask> tasks) {
+        BaseScraper scraper = scraperSelector.getScraperForSite(siteName);
+        if (scraper == null) {
+            tasks.forEach(task -> scrapeTaskQueue.fail(task, workerId, "未対応のサイト: " + siteName));
+            return List.of();
+        }
+
+        List<String> detailUrls = tasks.stream().map(ScrapeTask::getDetailUrl).toList();
+
+        ScrapeRunHandle handle = scrapeRunRegistry.start(siteName);
+        try {
+            List<Product> scrapedProducts;
+            try {
+                scrapedProducts = scraper.scrapeProductUrls(detailUrls, handle);
+            } catch (Exception e) {
+                logger.error("キュータスクのスクレイピング失敗: {} - {}", siteName, e.getMessage(), e);
+                tasks.forEach(task -> scrapeTaskQueue.fail(task, workerId, e.getMessage()));
+                return List.of();
+            }
+
+            List<Product> newProducts;
+            try {
+                newProducts = manualScrapeExecuter.getNewProductList(scrapedProducts);
+            } catch (Exception e) {
+                // 一括保存はまとめてロールバックされるため、全タスクを再試行対象にする
+                logger.error("キュータスクの保存失敗: {} - {}", siteName, e.getMessage(), e);
+                tasks.forEach(task -> scrapeTaskQueue.fail(task, workerId, e.getMessage()));
+                return List.of();
+            }
+
+            Map<String, Product> productsByUrl = scrapedProducts.stream()
+                    .collect(Collectors.toMap(Product::getSourceUrl, Function.identity(), (first, second) -> first));
+            String failureMessage = handle.isCancelled() ? "キャンセルされました" : "商品情報を取得できませんでした";
+            for (ScrapeTask task : tasks) {
+                if (productsByUrl.containsKey(task.getDetailUrl())) {
+                    scrapeTaskQueue.complete(task, workerId);
+                } else {
+                    scrapeTaskQueue.fail(task, workerId, failureMessage);
+                }
+            }
+
+            logger.info("キュータスク処理完了: {} - {}件取得、うち新着{}件", siteName, scrapedProducts.size(), newProducts.size());
+            return newProducts;
+        } finally {
+            scrapeRunRegistry.finish(handle);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.capsuletoy.service.scheduled;
+
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.domain.scraping.RegularScrapeExecuter;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ScrapeConfig;
+import com.example.capsuletoy.repository.ScrapeConfigRepository;
+import com.example.capsuletoy.service.notification.NotificationService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * 設定別の定期スクレイピングスケジューラー
+ * scraping.schedule.per-config-enabled=true の場合、ScrapeConfig.cronExpression ごとにトリガーを登録する。
+ * 設定の作成・更新・切り替え・削除時にトリガーを登録し直し、他ノードでの変更も定期的にDBから同期する。
+ */
+@Service
+public class DynamicScrapeScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamicScrapeScheduler.class);
+
+    // ロックはサイト（スクレイパー）単位。同じサイトの設定が複数あっても同時には実行しない
+    public static final String LOCK_NAME_PREFIX = "scrape-site-";
+
+    private final TaskScheduler taskScheduler;
+
+    private final ScrapeConfigRepository scrapeConfigRepository;
+
+    private final RegularScrapeExecuter scrapeExecuter;
+
+    private final NotificationService notificationService;
+
+    private final ClusterJobLock clusterJobLock;
+
+    // 設定ID -> 登録中のトリガー
+    private final Map<Long, RegisteredTrigger> registeredTriggers = new ConcurrentHashMap<>();
+
+    @Value("${scraping.schedule.per-config-enabled:false}")
+    private boolean enabled;
+
+    // cron式が未設定の設定に使うデフォルト（"-" の場合はスケジュールしない）
+    @Value("${scraping.schedule.cron:0 0 6 * * *}")
+    private String defaultCron;
+
+    public DynamicScrapeScheduler(TaskScheduler taskScheduler, ScrapeConfigRepository scrapeConfigRepository,
+            RegularScrapeExecuter scrapeExecuter, NotificationService notificationService,
+            ClusterJobLock clusterJobLock) {
+        this.taskScheduler = taskScheduler;
+        this.scrapeConfigRepository = scrapeConfigRepository;
+        this.scrapeExecuter = scrapeExecuter;
+        this.notificationService = notificationService;
+        this.clusterJobLock = clusterJobLock;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 起動時に全設定のトリガーを登録
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerAll() {
+        syncWithDatabase();
+    }
+
+    /**
+     * 他ノードで変更された設定を反映するため、定期的にDBと同期
+     */
+    @Scheduled(fixedDelayString = "${scraping.schedule.per-config-refresh-ms:60000}",
+            initialDelayString = "${scraping.schedule.per-config-refresh-ms:60000}")
+    public void syncWithDatabase() {
+        if (!enabled) {
+            return;
+        }
+
+        List<ScrapeConfig> configs = scrapeConfigRepository.findAll();
+        Set<Long> configIds = new HashSet<>();
+        for (ScrapeConfig config : configs) {
+            configIds.add(config.getId());
+            register(config);
+        }
+
+        // 削除された設定のトリガーを解除
+        for (Long registeredId : Set.copyOf(registeredTriggers.keySet())) {
+            if (!configIds.contains(registeredId)) {
+                unregister(registeredId);
+            }
+        }
+    }
+
+    /**
+     * 設定のトリガーを登録（cron式が変わっていなければ何もしない、無効な設定は解除）
+     */
+    public synchronized void register(ScrapeConfig config) {
+        if (!enabled || config.getId() == null) {
+            return;
+        }
+
+        String cron = resolveCron(config);
+        RegisteredTrigger current = registeredTriggers.get(config.getId());
+        if (current != null && current.cron().equals(cron)) {
+            return;
+        }
+
+        unregister(config.getId());
+        if (cron == null) {
+            return;
+        }
+
+        Long configId = config.getId();
+        ScheduledFuture<?> future = taskScheduler.schedule(() -> runConfig(configId), new CronTrigger(cron));
+        registeredTriggers.put(configId, new RegisteredTrigger(cron, future));
+        logger.info("設定別スケジュールを登録: ID={}, サイト={}, cron={}", configId, config.getSiteName(), cron);
+    }
+
+    /**
+     * 設定のトリガーを解除
+     */
+    public synchronized void unregister(Long configId) {
+        RegisteredTrigger removed = registeredTriggers.remove(configId);
+        if (removed != null) {
+            // 実行中のスクレイピングは中断しない
+            removed.future().cancel(false);
+            logger.info("設定別スケジュールを解除: ID={}", configId);
+        }
+    }
+
+    private String resolveCron(ScrapeConfig config) {
+        if (!Boolean.TRUE.equals(config.getIsEnabled())) {
+            return null;
+        }
+
+        String cron = config.getCronExpression();
+        if (cron == null || cron.isBlank()) {
+            cron = defaultCron;
+        }
+        if ("-".equals(cron) || !CronExpression.isValidExpression(cron)) {
+            return null;
+        }
+        return cron;
+    }
+
+    private void runConfig(Long configId) {
+        // 登録後に変更されている可能性があるため最新の設定を読み直す
+        Optional<ScrapeConfig> registered = findEnabledConfig(configId);
+        if (registered.isEmpty()) {
+            return;
+        }
+
+        String siteName = registered.get().getSiteName();
+        clusterJobLock.runExclusive(LOCK_NAME_PREFIX + siteName, () -> {
+            // ロック取得までの間にサイトが変わった場合は、次回のトリガーに任せる
+            Optional<ScrapeConfig> config = findEnabledConfig(configId)
+                    .filter(current -> siteName.equals(current.getSiteName()));
+            if (config.isEmpty()) {
+                return;
+            }
+
+            logger.info("=== 設定別スクレイピング開始: {} ===", config.get().getSiteName());
+            List<Product> newProducts = scrapeExecuter.executeScraping(List.of(config.get()));
+            notificationService.sendFinishedEmail(newProducts);
+            logger.info("=== 設定別スクレイピング終了: {} ===", config.get().getSiteName());
+        });
+    }
+
+    private Optional<ScrapeConfig> findEnabledConfig(Long configId) {
+        return scrapeConfigRepository.findById(configId)
+                .filter(current -> Boolean.TRUE.equals(current.getIsEnabled()));
+    }
+
+    private record RegisteredTrigger(String cron, ScheduledFuture<?> future) {
+    }
+}
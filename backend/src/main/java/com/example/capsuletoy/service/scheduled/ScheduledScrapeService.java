@@ -1,7 +1,7 @@
 package com.example.capsuletoy.service.scheduled;
 
 import com.example.capsuletoy.domain.configAdmin.ScrapingConfigChecker;
-import com.example.capsuletoy.domain.product.NewFlagsAdmin;
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
 import com.example.capsuletoy.domain.scraping.RegularScrapeExecuter;
 import com.example.capsuletoy.model.Product;
 import com.example.capsuletoy.model.ScrapeConfig;
@@ -9,6 +9,7 @@ import com.example.capsuletoy.service.notification.NotificationService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
@@ -17,26 +18,35 @@ import java.util.List;
 /**
  * 定期スクレイピング実行サービス
  * ScrapeConfigテーブルの有効な設定に基づき、定期的にスクレイピングを実行する
+ * 複数ノードで起動していても、各ジョブはクラスタロックを取得した1ノードだけが実行する
  */
 @Service
 public class ScheduledScrapeService {
 
     private static final Logger logger = LoggerFactory.getLogger(ScheduledScrapeService.class);
 
-    private final ScrapingConfigChecker scrapingConfigChecker;
+    // scrapeプロファイルのScrapeCommandRunnerと同じロック名を使い、同時実行を防ぐ
+    public static final String SCRAPING_LOCK_NAME = "scheduled-scraping";
 
-    private final NewFlagsAdmin newFlagsAdmin;
+    private final ScrapingConfigChecker scrapingConfigChecker;
 
     private final RegularScrapeExecuter scrapeExecuter;
 
     private final NotificationService notificationService;
 
-    public ScheduledScrapeService(ScrapingConfigChecker scrapingConfigChecker, NewFlagsAdmin newFlagsAdmin,
-            RegularScrapeExecuter scrapeExecuter, NotificationService notificationService) {
+    private final ClusterJobLock clusterJobLock;
+
+    // trueの場合はDynamicScrapeSchedulerが設定ごとのcron式で実行するため、一括実行は行わない
+    @Value("${scraping.schedule.per-config-enabled:false}")
+    private boolean perConfigEnabled;
+
+    public ScheduledScrapeService(ScrapingConfigChecker scrapingConfigChecker,
+            RegularScrapeExecuter scrapeExecuter, NotificationService notificationService,
+            ClusterJobLock clusterJobLock) {
         this.scrapingConfigChecker = scrapingConfigChecker;
-        this.newFlagsAdmin = newFlagsAdmin;
         this.scrapeExecuter = scrapeExecuter;
         this.notificationService = notificationService;
+        this.clusterJobLock = clusterJobLock;
     }
 
     /**
@@ -46,6 +56,13 @@ public class ScheduledScrapeService {
      */
     @Scheduled(cron = "${scraping.schedule.cron:0 0 6 * * *}")
     public void executeScheduledScraping() {
+        if (perConfigEnabled) {
+            return;
+        }
+        clusterJobLock.runExclusive(SCRAPING_LOCK_NAME, this::scrapeEnabledSites);
+    }
+
+    private void scrapeEnabledSites() {
         logger.info("=== 定期スクレイピング開始 ===");
 
         //有効な設定を取得
@@ -59,19 +76,4 @@ public class ScheduledScrapeService {
 
         logger.info("=== 定期スクレイピング終了 ===");
     }
-
-    /**
-     * 古い新着フラグをリセット（デフォルト: 毎日午前0時に実行）
-     * 30日以上経過した商品のis_newフラグをfalseにする
-     */
-    @Scheduled(cron = "${scraping.reset-new-flag.cron:0 0 0 * * *}")
-    public void resetOldNewFlags() {
-        logger.info("=== 新着フラグリセット開始 ===");
-        try {
-            newFlagsAdmin.resetOldNewFlags(30);
-            logger.info("新着フラグリセット完了");
-        } catch (Exception e) {
-            logger.error("新着フラグリセット失敗: {}", e.getMessage(), e);
-        }
-    }
 }
@@ -0,0 +1,152 @@
+package com.example.capsuletoy.service.scheduled;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.domain.product.NearDuplicateDetector;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.repository.jdbc.ProductArchiver;
+import com.example.capsuletoy.repository.jdbc.ScrapeLogPartitionRepository;
+
+/**
+ * ストレージ保守サービス（PostgreSQLのみ）
+ * - scrape_logs の月別パーティションを先の月まで作成し、保持期間を過ぎたパーティションを削除する
+ * - 発売から一定期間が過ぎた商品を products_archive へ移す
+ * - 近似重複の索引（product_name_signatures）に無い商品を追加する
+ * 頻繁に参照するテーブル（products, scrape_logs）が運用期間に比例して大きくならないようにする
+ */
+@Service
+public class StorageMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageMaintenanceService.class);
+
+    private static final String LOCK_NAME = "storage-maintenance";
+
+    private final ScrapeLogPartitionRepository scrapeLogPartitionRepository;
+
+    private final ProductArchiver productArchiver;
+
+    private final DatabasePlatform databasePlatform;
+
+    private final ClusterJobLock clusterJobLock;
+
+    private final NearDuplicateDetector nearDuplicateDetector;
+
+    private final ProductQueryCache productQueryCache;
+
+    // 何か月先までパーティションを作成しておくか
+    @Value("${scraping.log.partition-months-ahead:2}")
+    private int partitionMonthsAhead;
+
+    // スクレイピングログを保持する月数（当月を含まない）
+    @Value("${scraping.log.retention-months:12}")
+    private int logRetentionMonths;
+
+    // 発売から何か月過ぎた商品をアーカイブするか
+    @Value("${product.archive.release-months:12}")
+    private int archiveReleaseMonths;
+
+    // 1文でアーカイブに移す最大件数
+    @Value("${product.archive.batch-size:500}")
+    private int archiveBatchSize;
+
+    // 近似重複の索引に一度に追加する商品数
+    @Value("${product.near-duplicate.backfill-batch-size:500}")
+    private int nearDuplicateBackfillBatchSize;
+
+    public StorageMaintenanceService(ScrapeLogPartitionRepository scrapeLogPartitionRepository,
+            ProductArchiver productArchiver, DatabasePlatform databasePlatform, ClusterJobLock clusterJobLock,
+            NearDuplicateDetector nearDuplicateDetector, ProductQueryCache productQueryCache) {
+        this.scrapeLogPartitionRepository = scrapeLogPartitionRepository;
+        this.productArchiver = productArchiver;
+        this.databasePlatform = databasePlatform;
+        this.clusterJobLock = clusterJobLock;
+        this.nearDuplicateDetector = nearDuplicateDetector;
+        this.productQueryCache = productQueryCache;
+    }
+
+    /**
+     * 起動時にも実行し、当月のパーティションが無い状態でログが書き込まれないようにする
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        executeMaintenance();
+    }
+
+    /**
+     * 定期実行（デフォルト: 毎日午前0時30分）
+     */
+    @Scheduled(cron = "${storage.maintenance.cron:0 30 0 * * *}")
+    public void executeMaintenance() {
+        if (!databasePlatform.isPostgreSql()) {
+            return;
+        }
+        clusterJobLock.runExclusive(LOCK_NAME, () -> {
+            try {
+                maintainScrapeLogPartitions();
+            } catch (RuntimeException e) {
+                logger.error("スクレイピングログのパーティション保守に失敗: {}", e.getMessage(), e);
+            }
+            try {
+                archiveReleasedProducts();
+            } catch (RuntimeException e) {
+                logger.error("商品のアーカイブに失敗: {}", e.getMessage(), e);
+            }
+            try {
+                int indexed = nearDuplicateDetector.indexUnsignedProducts(nearDuplicateBackfillBatchSize);
+                if (indexed > 0) {
+                    logger.info("近似重複の索引に商品を追加しました: {}件", indexed);
+                }
+            } catch (RuntimeException e) {
+                logger.error("近似重複の索引の補完に失敗: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    private void maintainScrapeLogPartitions() {
+        YearMonth currentMonth = YearMonth.now();
+        for (int i = 0; i <= partitionMonthsAhead; i++) {
+            scrapeLogPartitionRepository.createPartition(currentMonth.plusMonths(i));
+        }
+
+        YearMonth oldestKept = currentMonth.minusMonths(logRetentionMonths);
+        int dropped = 0;
+        for (YearMonth month : scrapeLogPartitionRepository.findPartitionMonths()) {
+            if (month.isBefore(oldestKept)) {
+                scrapeLogPartitionRepository.dropPartition(month);
+                dropped++;
+            }
+        }
+        int deleted = scrapeLogPartitionRepository.deleteDefaultPartitionRowsBefore(oldestKept);
+        if (dropped > 0 || deleted > 0) {
+            logger.info("保持期間を過ぎたスクレイピングログを削除しました: パーティション{}件、デフォルトパーティション{}行（{}より前）",
+                    dropped, deleted, oldestKept);
+        }
+    }
+
+    private void archiveReleasedProducts() {
+        LocalDate cutoff = LocalDate.now().minusMonths(archiveReleaseMonths);
+        int total = 0;
+        int moved;
+        do {
+            moved = productArchiver.archiveReleasedBefore(cutoff, archiveBatchSize);
+            total += moved;
+        } while (moved == archiveBatchSize);
+
+        if (total > 0) {
+            // アーカイブに移した商品が一覧に残らないようにする
+            productQueryCache.invalidateAfterCommit();
+            logger.info("発売日が{}より前の商品をアーカイブしました: {}件", cutoff, total);
+        }
+    }
+}
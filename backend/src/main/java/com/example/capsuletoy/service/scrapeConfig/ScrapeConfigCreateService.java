@@ -4,9 +4,11 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.domain.crone.CroneValidater;
 import com.example.capsuletoy.model.ScrapeConfig;
 import com.example.capsuletoy.repository.ScrapeConfigRepository;
+import com.example.capsuletoy.service.scheduled.DynamicScrapeScheduler;
 
 @Service
 public class ScrapeConfigCreateService {
@@ -16,9 +18,16 @@ public class ScrapeConfigCreateService {
 
     private final CroneValidater croneValidater;
 
-    public ScrapeConfigCreateService(ScrapeConfigRepository scrapeConfigRepository, CroneValidater croneValidater) {
+    private final DynamicScrapeScheduler dynamicScrapeScheduler;
+
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
+    public ScrapeConfigCreateService(ScrapeConfigRepository scrapeConfigRepository, CroneValidater croneValidater,
+            DynamicScrapeScheduler dynamicScrapeScheduler, EntityCacheInvalidator entityCacheInvalidator) {
         this.scrapeConfigRepository = scrapeConfigRepository;
         this.croneValidater = croneValidater;
+        this.dynamicScrapeScheduler = dynamicScrapeScheduler;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
     /**
@@ -36,7 +45,13 @@ public class ScrapeConfigCreateService {
             throw new RuntimeException("同じサイト名の設定が既に存在します: " + config.getSiteName());
         }
 
+        // versionはDB側で採番する（値があると既存行の更新として扱われる）
+        config.setVersion(null);
+
         logger.info("スクレイピング設定を作成: {}", config.getSiteName());
-        return scrapeConfigRepository.save(config);
+        ScrapeConfig saved = scrapeConfigRepository.save(config);
+        entityCacheInvalidator.evictScrapeConfigs();
+        dynamicScrapeScheduler.register(saved);
+        return saved;
     }
 }
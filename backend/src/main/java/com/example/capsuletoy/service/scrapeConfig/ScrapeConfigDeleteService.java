@@ -4,8 +4,10 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.model.ScrapeConfig;
 import com.example.capsuletoy.repository.ScrapeConfigRepository;
+import com.example.capsuletoy.service.scheduled.DynamicScrapeScheduler;
 
 @Service
 public class ScrapeConfigDeleteService {
@@ -15,10 +17,17 @@ public class ScrapeConfigDeleteService {
 
     private final ScrapeConfigRepository scrapeConfigRepository;
 
+    private final DynamicScrapeScheduler dynamicScrapeScheduler;
+
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
     public ScrapeConfigDeleteService(ScrapeConfigService scrapeConfigService,
-            ScrapeConfigRepository scrapeConfigRepository) {
+            ScrapeConfigRepository scrapeConfigRepository, DynamicScrapeScheduler dynamicScrapeScheduler,
+            EntityCacheInvalidator entityCacheInvalidator) {
         this.scrapeConfigService = scrapeConfigService;
         this.scrapeConfigRepository = scrapeConfigRepository;
+        this.dynamicScrapeScheduler = dynamicScrapeScheduler;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
     /**
@@ -28,5 +37,7 @@ public class ScrapeConfigDeleteService {
         ScrapeConfig config = scrapeConfigService.getConfigById(id);
         logger.info("スクレイピング設定を削除: ID={}, サイト={}", id, config.getSiteName());
         scrapeConfigRepository.deleteById(id);
+        entityCacheInvalidator.evictScrapeConfigs();
+        dynamicScrapeScheduler.unregister(id);
     }
 }
@@ -5,9 +5,11 @@ import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.domain.crone.CroneValidater;
 import com.example.capsuletoy.model.ScrapeConfig;
 import com.example.capsuletoy.repository.ScrapeConfigRepository;
+import com.example.capsuletoy.service.scheduled.DynamicScrapeScheduler;
 
 @Component
 public class ScrapeConfigUpdateService {
@@ -19,11 +21,18 @@ public class ScrapeConfigUpdateService {
 
     private final ScrapeConfigRepository scrapeConfigRepository;
 
+    private final DynamicScrapeScheduler dynamicScrapeScheduler;
+
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
     public ScrapeConfigUpdateService(ScrapeConfigService scrapeConfigService, CroneValidater croneValidater,
-            ScrapeConfigRepository scrapeConfigRepository) {
+            ScrapeConfigRepository scrapeConfigRepository, DynamicScrapeScheduler dynamicScrapeScheduler,
+            EntityCacheInvalidator entityCacheInvalidator) {
         this.scrapeConfigService = scrapeConfigService;
         this.croneValidater = croneValidater;
         this.scrapeConfigRepository = scrapeConfigRepository;
+        this.dynamicScrapeScheduler = dynamicScrapeScheduler;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
     /**
@@ -41,9 +50,16 @@ public class ScrapeConfigUpdateService {
         existing.setSiteUrl(updatedConfig.getSiteUrl());
         existing.setCronExpression(updatedConfig.getCronExpression());
         existing.setIsEnabled(updatedConfig.getIsEnabled());
+        // 画面で読み込んだ時点のversionで保存し、その後に他の管理者が更新していれば競合として扱う
+        if (updatedConfig.getVersion() != null) {
+            existing.setVersion(updatedConfig.getVersion());
+        }
 
         logger.info("スクレイピング設定を更新: ID={}, サイト={}", id, existing.getSiteName());
-        return scrapeConfigRepository.save(existing);
+        ScrapeConfig saved = scrapeConfigRepository.save(existing);
+        entityCacheInvalidator.evictScrapeConfigs();
+        dynamicScrapeScheduler.register(saved);
+        return saved;
     }
 
     /**
@@ -54,6 +70,9 @@ public class ScrapeConfigUpdateService {
         config.setIsEnabled(!config.getIsEnabled());
         logger.info("スクレイピング設定の有効/無効を切り替え: ID={}, サイト={}, 有効={}",
                 id, config.getSiteName(), config.getIsEnabled());
-        return scrapeConfigRepository.save(config);
+        ScrapeConfig saved = scrapeConfigRepository.save(config);
+        entityCacheInvalidator.evictScrapeConfigs();
+        dynamicScrapeScheduler.register(saved);
+        return saved;
     }
 }
@@ -1,22 +1,30 @@
 package com.example.capsuletoy.service.scraping;
 
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
 import com.example.capsuletoy.domain.log.ScrapeLogAdministrater;
 import com.example.capsuletoy.domain.scraping.ManualScrapeExecuter;
+import com.example.capsuletoy.domain.scraping.ScrapeRunRegistry;
 import com.example.capsuletoy.model.Product;
 import com.example.capsuletoy.model.ScrapeLog;
 import com.example.capsuletoy.record.ScrapeCore;
 import com.example.capsuletoy.record.ScrapeResult;
 import com.example.capsuletoy.repository.ScrapeLogRepository;
 import com.example.capsuletoy.scraper.BaseScraper;
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+import com.example.capsuletoy.service.scheduled.DynamicScrapeScheduler;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * スクレイピング実行サービス
+ * ブラウザ操作中はDBトランザクション・接続を保持せず、保存時だけ短いトランザクションを使う
+ */
 @Service
 public class ScrapeService {
 
@@ -28,23 +36,37 @@ public class ScrapeService {
 
     private final ScrapeLogAdministrater logAdministrater;
 
+    private final ScrapeRunRegistry scrapeRunRegistry;
+
+    private final ClusterJobLock clusterJobLock;
+
     public ScrapeService(ManualScrapeExecuter manualScrapeExecuter, ScrapeLogRepository scrapeLogRepository,
-            ScrapeLogAdministrater logAdministrater) {
+            ScrapeLogAdministrater logAdministrater, ScrapeRunRegistry scrapeRunRegistry,
+            ClusterJobLock clusterJobLock) {
         this.manualScrapeExecuter = manualScrapeExecuter;
         this.scrapeLogRepository = scrapeLogRepository;
         this.logAdministrater = logAdministrater;
+        this.scrapeRunRegistry = scrapeRunRegistry;
+        this.clusterJobLock = clusterJobLock;
     }
 
     /**
-     * スクレイピングを実行してデータベースに保存
+     * スクレイピングを実行してデータベースに保存（手動実行用）
+     * 設定別スケジュールと同じサイト単位のロックを取り、他ノードの実行やスナップショットの取り込みから見えるようにする
      *
      * @param scraper スクレイパーインスタンス
      * @param targetSite 対象サイト名
      * @return 全取得商品数と新着商品数
+     * @throws IllegalStateException 同じサイトのスクレイピングが実行中の場合
      */
-    @Transactional
     public ScrapeResult executeScraping(BaseScraper scraper, String targetSite) {
-        ScrapeCore result = executeScrapeCore(scraper, targetSite);
+        AtomicReference<ScrapeCore> core = new AtomicReference<>();
+        boolean executed = clusterJobLock.runExclusive(DynamicScrapeScheduler.LOCK_NAME_PREFIX + scraper.getSiteName(),
+                () -> core.set(executeScrapeCore(scraper, targetSite)));
+        if (!executed) {
+            throw new IllegalStateException("同じサイトのスクレイピングが実行中です");
+        }
+        ScrapeCore result = core.get();
 
         int totalCount = result.totalCount();
         List<Product> newProducts = result.newProducts();
@@ -61,7 +83,6 @@ public class ScrapeService {
      * @param targetSite 対象サイト名
      * @return 新規保存された商品リスト
      */
-    @Transactional
     public List<Product> executeScrapingWithNewProducts(BaseScraper scraper, String targetSite) {
         ScrapeCore result = executeScrapeCore(scraper, targetSite);
 
@@ -75,29 +96,51 @@ public class ScrapeService {
         logger.info("Starting scraping for: {}", targetSite);
 
         ScrapeLog scrapeLog = logAdministrater.getDefaultScrapeLog(targetSite);
+        ScrapeRunHandle handle = scrapeRunRegistry.start(targetSite);
 
         int totalCount = 0;
         List<Product> newProducts = new ArrayList<>();
 
         try {
-            List<Product> scrapedProducts = manualScrapeExecuter.scrapeProducts(scraper);
+            // ブラウズフェーズ（トランザクションなし）
+            List<Product> scrapedProducts = manualScrapeExecuter.scrapeProducts(scraper, handle);
             totalCount = scrapedProducts.size();
 
+            // 保存フェーズ（一括保存のトランザクションのみ）
+            // キャンセルされた場合も取得済みの商品は保存する
             newProducts = manualScrapeExecuter.getNewProductList(scrapedProducts);
             int newCount = newProducts.size();
 
-            logAdministrater.setScrapeLog(scrapeLog, "SUCCESS", totalCount, null);
-
-            logger.info("Scraping completed for {}: {} products found, {} new", targetSite, totalCount, newCount);
+            if (handle.isCancelled()) {
+                logAdministrater.setScrapeLog(scrapeLog, "CANCELLED", totalCount,
+                        "スクレイピングがキャンセルされました（取得済み" + totalCount + "件を保存）");
+                logger.info("Scraping cancelled for {}: {} products saved, {} new", targetSite, totalCount, newCount);
+            } else {
+                logAdministrater.setScrapeLog(scrapeLog, "SUCCESS", totalCount, null);
+                logger.info("Scraping completed for {}: {} products found, {} new", targetSite, totalCount, newCount);
+            }
 
         } catch (Exception e) {
             logAdministrater.setScrapeLog(scrapeLog, "FAILURE", 0, e.getMessage());
 
             logger.error("Scraping failed for {}: {}", targetSite, e.getMessage(), e);
         } finally {
-            scrapeLogRepository.save(scrapeLog);
+            saveScrapeLog(scrapeLog);
+            scrapeRunRegistry.finish(handle);
         }
 
         return new ScrapeCore(totalCount, newProducts);
     }
+
+    /**
+     * スクレイピングログを商品の保存とは別のトランザクションで記録（保存に失敗した実行も残す）
+     */
+    private void saveScrapeLog(ScrapeLog scrapeLog) {
+        try {
+            scrapeLogRepository.save(scrapeLog);
+            logAdministrater.evictLatestRunSummary();
+        } catch (Exception e) {
+            logger.error("Failed to save scrape log for {}: {}", scrapeLog.getTargetSite(), e.getMessage(), e);
+        }
+    }
 }
@@ -0,0 +1,232 @@
+package com.example.capsuletoy.service.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.domain.queue.ScrapeTaskQueue;
+import com.example.capsuletoy.domain.scraping.ScrapeRunRegistry;
+import com.example.capsuletoy.domain.snapshot.CatalogSnapshotReader;
+import com.example.capsuletoy.domain.snapshot.CatalogSnapshotWriter;
+import com.example.capsuletoy.record.CatalogSnapshotSummary;
+import com.example.capsuletoy.repository.jdbc.CatalogSnapshotCopier;
+import com.example.capsuletoy.repository.jdbc.CatalogWriteLock;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.service.product.ProductAutocompleteService;
+import com.example.capsuletoy.service.scheduled.DynamicScrapeScheduler;
+import com.example.capsuletoy.service.scheduled.ScheduledScrapeService;
+
+/**
+ * カタログスナップショットの書き出し・取り込み（PostgreSQLのみ）
+ * products・scrape_configs・scrape_logs をバイナリ形式のスナップショットとして書き出し、別の環境へ一括で取り込む。
+ * ステージング・開発環境の初期データや負荷試験用のデータを、実サイトのスクレイピングや本番DBの複製なしで用意する。
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final CatalogSnapshotCopier catalogSnapshotCopier;
+
+    private final DatabasePlatform databasePlatform;
+
+    private final ObjectProvider<Flyway> flywayProvider;
+
+    private final ClusterJobLock clusterJobLock;
+
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
+    private final DynamicScrapeScheduler dynamicScrapeScheduler;
+
+    private final ProductAutocompleteService productAutocompleteService;
+
+    private final ProductQueryCache productQueryCache;
+
+    private final ScrapeRunRegistry scrapeRunRegistry;
+
+    private final ScrapeTaskQueue scrapeTaskQueue;
+
+    private final CatalogWriteLock catalogWriteLock;
+
+    // 書き出しは全テーブルを同じ時点のデータから読む
+    private final TransactionTemplate exportTransaction;
+
+    // 取り込みは全テーブルをまとめてコミットし、途中で失敗したら元のデータに戻す
+    private final TransactionTemplate importTransaction;
+
+    public CatalogSnapshotService(CatalogSnapshotCopier catalogSnapshotCopier, DatabasePlatform databasePlatform,
+            ObjectProvider<Flyway> flywayProvider, ClusterJobLock clusterJobLock,
+            EntityCacheInvalidator entityCacheInvalidator, DynamicScrapeScheduler dynamicScrapeScheduler,
+            ProductAutocompleteService productAutocompleteService, ProductQueryCache productQueryCache,
+            ScrapeRunRegistry scrapeRunRegistry, ScrapeTaskQueue scrapeTaskQueue, CatalogWriteLock catalogWriteLock,
+            PlatformTransactionManager transactionManager) {
+        this.catalogSnapshotCopier = catalogSnapshotCopier;
+        this.databasePlatform = databasePlatform;
+        this.flywayProvider = flywayProvider;
+        this.clusterJobLock = clusterJobLock;
+        this.entityCacheInvalidator = entityCacheInvalidator;
+        this.dynamicScrapeScheduler = dynamicScrapeScheduler;
+        this.productAutocompleteService = productAutocompleteService;
+        this.productQueryCache = productQueryCache;
+        this.scrapeRunRegistry = scrapeRunRegistry;
+        this.scrapeTaskQueue = scrapeTaskQueue;
+        this.catalogWriteLock = catalogWriteLock;
+        this.exportTransaction = new TransactionTemplate(transactionManager);
+        this.exportTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.exportTransaction.setReadOnly(true);
+        this.importTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * スナップショットを利用できるか（PostgreSQLの場合のみ）
+     */
+    public boolean isAvailable() {
+        return databasePlatform.isPostgreSql();
+    }
+
+    /**
+     * スナップショットを書き出す（target は閉じない）
+     */
+    public CatalogSnapshotSummary exportSnapshot(OutputStream target) {
+        requirePostgreSql();
+        LocalDateTime createdAt = LocalDateTime.now();
+        String schemaVersion = currentSchemaVersion();
+
+        Map<String, Long> rowCounts = exportTransaction.execute(status -> {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(target, schemaVersion, createdAt)) {
+                for (String tableName : CatalogSnapshotCopier.SNAPSHOT_TABLES.keySet()) {
+                    long rows;
+                    try (OutputStream tableData = writer.beginTable(tableName,
+                            CatalogSnapshotCopier.SNAPSHOT_TABLES.get(tableName))) {
+                        rows = catalogSnapshotCopier.copyOut(tableName, tableData);
+                    }
+                    writer.endTable(rows);
+                    counts.put(tableName, rows);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("スナップショットの書き出しに失敗しました", e);
+            }
+            return counts;
+        });
+
+        logger.info("カタログスナップショットを書き出しました（スキーマ: {}, 行数: {}）", schemaVersion, rowCounts);
+        return new CatalogSnapshotSummary(CatalogSnapshotWriter.FORMAT_VERSION, schemaVersion, createdAt, rowCounts);
+    }
+
+    /**
+     * スナップショットを取り込む（既存のカタログは置き換える）
+     * 取り込み中にスクレイピング結果が混ざらないよう、次のいずれかがあれば取り込まない
+     * - 定期スクレイピング、設定別スケジュール・手動実行のサイト単位のロック（解放後の min-hold-seconds の間を含む）
+     * - このノードで実行中のスクレイピング、リース期限内のキューのタスク
+     * 確認の後に始まった保存は、取り込みのトランザクションが持つ排他ロック（CatalogWriteLock）で失敗する
+     *
+     * @throws IllegalStateException スクレイピング中の場合、またはスナップショットの内容が不正な場合
+     */
+    public CatalogSnapshotSummary importSnapshot(InputStream source) {
+        requirePostgreSql();
+        AtomicReference<CatalogSnapshotSummary> summary = new AtomicReference<>();
+        boolean executed = clusterJobLock.runExclusive(ScheduledScrapeService.SCRAPING_LOCK_NAME, () -> {
+            requireNoActiveScraping();
+            summary.set(importTransaction.execute(status -> importWithinTransaction(source)));
+        });
+        if (!executed) {
+            throw new IllegalStateException("他のノードでスクレイピング実行中のため取り込めません");
+        }
+
+        // JDBCで直接書き換えたため、キャッシュ済みの設定とスケジュール、入力補完の索引、商品一覧を読み直す
+        entityCacheInvalidator.evictScrapeConfigs();
+        dynamicScrapeScheduler.syncWithDatabase();
+        productAutocompleteService.rebuild();
+        productQueryCache.invalidateAll();
+
+        logger.info("カタログスナップショットを取り込みました（スキーマ: {}, 作成日時: {}, 行数: {}）",
+                summary.get().schemaVersion(), summary.get().createdAt(), summary.get().rowCounts());
+        return summary.get();
+    }
+
+    private void requireNoActiveScraping() {
+        if (!scrapeRunRegistry.getActiveRuns().isEmpty()
+                || clusterJobLock.isAnyHeld(DynamicScrapeScheduler.LOCK_NAME_PREFIX)) {
+            throw new IllegalStateException("スクレイピング実行中のため取り込めません");
+        }
+        if (scrapeTaskQueue.hasActiveLeases()) {
+            throw new IllegalStateException("キューのタスクを処理中のため取り込めません");
+        }
+    }
+
+    private CatalogSnapshotSummary importWithinTransaction(InputStream source) {
+        // 商品の保存中なら待たずに失敗し、取り込み中に始まった保存はコミットまで失敗させる
+        if (!catalogWriteLock.tryLockForImport()) {
+            throw new IllegalStateException("商品の保存中のため取り込めません");
+        }
+        try (CatalogSnapshotReader reader = new CatalogSnapshotReader(source)) {
+            String schemaVersion = currentSchemaVersion();
+            if (!Objects.equals(reader.schemaVersion(), schemaVersion)) {
+                // 列の構成が同じなら取り込める（下の列チェックで判定する）
+                logger.warn("スナップショットのスキーマバージョン（{}）が現在のDB（{}）と異なります",
+                        reader.schemaVersion(), schemaVersion);
+            }
+
+            catalogSnapshotCopier.truncateAll();
+            Map<String, Long> rowCounts = new LinkedHashMap<>();
+            while (reader.nextTable()) {
+                String tableName = reader.tableName();
+                String columns = CatalogSnapshotCopier.SNAPSHOT_TABLES.get(tableName);
+                if (columns == null || rowCounts.containsKey(tableName)) {
+                    throw new IllegalStateException("スナップショットのテーブルが不正です: " + tableName);
+                }
+                if (!columns.equals(reader.columns())) {
+                    throw new IllegalStateException(tableName + " の列がスナップショットと一致しません: " + reader.columns());
+                }
+
+                long imported = catalogSnapshotCopier.copyIn(tableName, reader.tableData());
+                long expected = reader.finishTable();
+                if (imported != expected) {
+                    throw new IllegalStateException(tableName + " の行数が一致しません（期待: " + expected
+                            + ", 取り込み: " + imported + "）");
+                }
+                catalogSnapshotCopier.resetIdSequence(tableName);
+                rowCounts.put(tableName, imported);
+            }
+            if (!rowCounts.keySet().equals(CatalogSnapshotCopier.SNAPSHOT_TABLES.keySet())) {
+                throw new IllegalStateException("スナップショットに含まれないテーブルがあります: " + rowCounts.keySet());
+            }
+            return new CatalogSnapshotSummary(reader.formatVersion(), reader.schemaVersion(), reader.createdAt(),
+                    rowCounts);
+        } catch (IOException e) {
+            throw new UncheckedIOException("スナップショットの読み込みに失敗しました", e);
+        }
+    }
+
+    private void requirePostgreSql() {
+        if (!isAvailable()) {
+            throw new IllegalStateException("カタログスナップショットはPostgreSQLでのみ利用できます");
+        }
+    }
+
+    private String currentSchemaVersion() {
+        Flyway flyway = flywayProvider.getIfAvailable();
+        MigrationInfo current = flyway != null ? flyway.info().current() : null;
+        return current != null && current.getVersion() != null ? current.getVersion().getVersion() : "unknown";
+    }
+}
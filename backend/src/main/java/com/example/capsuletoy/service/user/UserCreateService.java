@@ -2,6 +2,7 @@ package com.example.capsuletoy.service.user;
 
 import org.springframework.stereotype.Service;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.domain.passwordEncode.PasswordEncodeHelper;
 import com.example.capsuletoy.model.User;
 import com.example.capsuletoy.model.UserRole;
@@ -13,9 +14,13 @@ public class UserCreateService {
 
     private final PasswordEncodeHelper passwordEncoder;
 
-    public UserCreateService(UserRepository userRepository, PasswordEncodeHelper passwordEncoder) {
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
+    public UserCreateService(UserRepository userRepository, PasswordEncodeHelper passwordEncoder,
+            EntityCacheInvalidator entityCacheInvalidator) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
     // ユーザー作成（管理者用）
@@ -34,6 +39,8 @@ public class UserCreateService {
         user.setRole(role);
         user.setNotificationEnabled(false);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        entityCacheInvalidator.evictUsers();
+        return saved;
     }
 }
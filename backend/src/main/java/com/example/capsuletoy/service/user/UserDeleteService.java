@@ -2,14 +2,18 @@ package com.example.capsuletoy.service.user;
 
 import org.springframework.stereotype.Service;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.repository.UserRepository;
 
 @Service
 public class UserDeleteService {
     private final UserRepository userRepository;
 
-    public UserDeleteService(UserRepository userRepository) {
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
+    public UserDeleteService(UserRepository userRepository, EntityCacheInvalidator entityCacheInvalidator) {
         this.userRepository = userRepository;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
     // ユーザー削除
@@ -18,5 +22,6 @@ public class UserDeleteService {
             throw new RuntimeException("User not found");
         }
         userRepository.deleteById(id);
+        entityCacheInvalidator.evictUsers();
     }
 }
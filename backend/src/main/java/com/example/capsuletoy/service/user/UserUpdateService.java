@@ -2,6 +2,7 @@ package com.example.capsuletoy.service.user;
 
 import org.springframework.stereotype.Service;
 
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
 import com.example.capsuletoy.domain.passwordEncode.PasswordEncodeHelper;
 import com.example.capsuletoy.model.User;
 import com.example.capsuletoy.repository.UserRepository;
@@ -14,11 +15,14 @@ public class UserUpdateService {
 
     private final PasswordEncodeHelper passwordEncoder;
 
+    private final EntityCacheInvalidator entityCacheInvalidator;
+
     public UserUpdateService(UserService userService, UserRepository userRepository,
-            PasswordEncodeHelper passwordEncoder) {
+            PasswordEncodeHelper passwordEncoder, EntityCacheInvalidator entityCacheInvalidator) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.entityCacheInvalidator = entityCacheInvalidator;
     }
 
     // ユーザー更新
@@ -51,6 +55,8 @@ public class UserUpdateService {
             user.setNotificationEnabled(notificationEnabled);
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        entityCacheInvalidator.evictUsers();
+        return saved;
     }
 }
@@ -0,0 +1,71 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.example.capsuletoy.domain.product.ProductKeyExtractor;
+
+/**
+ * 商品キー未設定の既存商品に商品キーを設定する（取り込み時と同じ ProductKeyExtractor で導出）
+ * 同じキーになる商品が複数ある場合は最新の1件だけに設定し、残りは未設定のまま残す（一意制約のため）
+ */
+public class V11__Backfill_product_keys extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        ProductKeyExtractor productKeyExtractor = new ProductKeyExtractor();
+
+        // 既に使われているキー（メーカー + 商品キー）
+        Set<String> assignedKeys = new HashSet<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT manufacturer, product_key FROM products WHERE product_key IS NOT NULL")) {
+            while (rs.next()) {
+                assignedKeys.add(rs.getString(1) + "\u0000" + rs.getString(2));
+            }
+        }
+
+        // メーカー + 商品キー -> 最新の商品
+        Map<String, Candidate> latestByKey = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT id, manufacturer, source_url, updated_at FROM products "
+                        + "WHERE product_key IS NULL AND source_url IS NOT NULL")) {
+            while (rs.next()) {
+                String manufacturer = rs.getString(2);
+                String productKey = productKeyExtractor.extractProductKey(manufacturer, rs.getString(3));
+                String lookupKey = manufacturer + "\u0000" + productKey;
+                if (productKey == null || assignedKeys.contains(lookupKey)) {
+                    continue;
+                }
+
+                Candidate candidate = new Candidate(rs.getLong(1), productKey, rs.getTimestamp(4));
+                latestByKey.merge(lookupKey, candidate,
+                        (current, other) -> other.updatedAt().after(current.updatedAt()) ? other : current);
+            }
+        }
+
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE products SET product_key = ? WHERE id = ?")) {
+            for (Candidate candidate : latestByKey.values()) {
+                update.setString(1, candidate.productKey());
+                update.setLong(2, candidate.id());
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+    }
+
+    private record Candidate(long id, String productKey, Timestamp updatedAt) {
+    }
+}
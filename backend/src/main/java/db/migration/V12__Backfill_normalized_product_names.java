@@ -0,0 +1,53 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
+import com.example.capsuletoy.model.Product;
+
+/**
+ * 正規化名・検索用テキスト未設定の既存商品に設定する（V7・V9以前に登録された商品用。取り込み時と同じ ProductNameNormalizer で作る）
+ */
+public class V12__Backfill_normalized_product_names extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        ProductNameNormalizer productNameNormalizer = new ProductNameNormalizer();
+
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT id, product_name, lineup_info, description FROM products "
+                        + "WHERE normalized_name IS NULL OR search_text IS NULL");
+                PreparedStatement update = connection.prepareStatement(
+                        "UPDATE products SET normalized_name = ?, search_text = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rs.next()) {
+                Product product = new Product();
+                product.setProductName(rs.getString(2));
+                product.setLineupInfo(rs.getString(3));
+                product.setDescription(rs.getString(4));
+                productNameNormalizer.assignNormalizedName(product);
+
+                update.setString(1, product.getNormalizedName());
+                update.setString(2, product.getSearchText());
+                update.setLong(3, rs.getLong(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+}
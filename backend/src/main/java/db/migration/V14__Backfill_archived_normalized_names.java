@@ -0,0 +1,45 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
+
+/**
+ * 正規化名未設定のアーカイブ済み商品に設定する（V13以前にアーカイブした商品用。取り込み時と同じ ProductNameNormalizer で作る）
+ */
+public class V14__Backfill_archived_normalized_names extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        ProductNameNormalizer productNameNormalizer = new ProductNameNormalizer();
+
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT id, product_name FROM products_archive "
+                        + "WHERE normalized_name IS NULL");
+                PreparedStatement update = connection.prepareStatement(
+                        "UPDATE products_archive SET normalized_name = ? WHERE id = ?")) {
+            int pending = 0;
+            while (rs.next()) {
+                update.setString(1, productNameNormalizer.normalize(rs.getString(2)));
+                update.setLong(2, rs.getLong(1));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- ============================================
+-- 最近登録・更新された商品の取得（入力補完の索引の差分反映: updated_at >= 前回の反映日時）
+-- ============================================
+
+CREATE INDEX IF NOT EXISTS idx_products_updated_at ON products (updated_at);
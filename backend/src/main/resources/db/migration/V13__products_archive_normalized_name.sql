@@ -0,0 +1,10 @@
+-- ============================================
+-- アーカイブにも正規化名を持たせる（商品キーの無い商品をアーカイブ後に新着として再登録しないため）
+-- 既存行は V14 が埋める
+-- ============================================
+
+ALTER TABLE products_archive ADD COLUMN IF NOT EXISTS normalized_name VARCHAR(255);
+
+-- 商品キーの無い商品の再登録判定（メーカー + 正規化名の一致）
+CREATE INDEX IF NOT EXISTS idx_products_archive_manufacturer_normalized_name
+    ON products_archive (manufacturer, normalized_name);
@@ -0,0 +1,86 @@
+-- ============================================
+-- ベースラインスキーマ
+-- これまで ddl-auto=update で作成されていたテーブル定義。
+-- 既存DBでは baseline-on-migrate（version 0）の後にこのスクリプトが実行されるため、すべて存在チェック付きで書く。
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS products (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_name  VARCHAR(255) NOT NULL,
+    manufacturer  VARCHAR(255) NOT NULL,
+    image_url     TEXT,
+    release_date  DATE,
+    price         INTEGER,
+    description   TEXT,
+    lineup_info   TEXT,
+    source_url    TEXT,
+    product_key   VARCHAR(80),
+    first_seen_at TIMESTAMP(6),
+    is_new        BOOLEAN NOT NULL DEFAULT TRUE,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL
+);
+
+-- 商品キー・初回検出日時は後から追加された列
+ALTER TABLE products ADD COLUMN IF NOT EXISTS product_key VARCHAR(80);
+ALTER TABLE products ADD COLUMN IF NOT EXISTS first_seen_at TIMESTAMP(6);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_products_manufacturer_product_key') THEN
+        ALTER TABLE products ADD CONSTRAINT uk_products_manufacturer_product_key UNIQUE (manufacturer, product_key);
+    END IF;
+END $$;
+
+CREATE TABLE IF NOT EXISTS scrape_logs (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    target_site    VARCHAR(255) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    products_found INTEGER,
+    error_message  TEXT,
+    executed_at    TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS scrape_configs (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    site_name       VARCHAR(255) NOT NULL,
+    site_url        TEXT NOT NULL,
+    cron_expression VARCHAR(255),
+    is_enabled      BOOLEAN NOT NULL,
+    last_scraped_at TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS users (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username             VARCHAR(255) NOT NULL UNIQUE,
+    email                VARCHAR(255) NOT NULL UNIQUE,
+    password_hash        VARCHAR(255) NOT NULL,
+    role                 VARCHAR(255) NOT NULL CHECK (role IN ('ADMIN', 'USER')),
+    notification_enabled BOOLEAN NOT NULL,
+    created_at           TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS scrape_tasks (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    site_name        VARCHAR(255) NOT NULL,
+    detail_url       VARCHAR(2048) NOT NULL,
+    status           VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'LEASED', 'DONE', 'DEAD')),
+    attempts         INTEGER NOT NULL,
+    lease_owner      VARCHAR(255),
+    lease_expires_at TIMESTAMP(6),
+    available_at     TIMESTAMP(6) NOT NULL,
+    last_error       TEXT,
+    created_at       TIMESTAMP(6) NOT NULL,
+    updated_at       TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_scrape_tasks_detail_url UNIQUE (detail_url)
+);
+
+CREATE INDEX IF NOT EXISTS idx_scrape_tasks_status_available_at ON scrape_tasks (status, available_at);
+
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+    lock_name     VARCHAR(100) PRIMARY KEY,
+    owner         VARCHAR(255),
+    fencing_token BIGINT NOT NULL,
+    locked_until  TIMESTAMP(6) NOT NULL,
+    locked_at     TIMESTAMP(6)
+);
@@ -0,0 +1,28 @@
+-- ============================================
+-- 検索パターンに合わせたインデックス
+-- ============================================
+
+-- 新着判定は first_seen_at で行うため、旧新着フラグ列を削除する
+UPDATE products SET first_seen_at = created_at WHERE first_seen_at IS NULL;
+ALTER TABLE products ALTER COLUMN first_seen_at SET NOT NULL;
+ALTER TABLE products DROP COLUMN IF EXISTS is_new;
+
+-- 商品一覧のデフォルト並び順（createdAt desc）と発売日順
+CREATE INDEX IF NOT EXISTS idx_products_created_at ON products (created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_products_release_date ON products (release_date DESC);
+
+-- メーカー絞り込み＋並び替え（findByManufacturer, findByManufacturerAndKeyword）
+CREATE INDEX IF NOT EXISTS idx_products_manufacturer_created_at ON products (manufacturer, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_products_manufacturer_release_date ON products (manufacturer, release_date DESC);
+
+-- 新着商品（first_seen_at >= 新着期間の開始日時）
+CREATE INDEX IF NOT EXISTS idx_products_first_seen_at ON products (first_seen_at);
+CREATE INDEX IF NOT EXISTS idx_products_manufacturer_first_seen_at ON products (manufacturer, first_seen_at);
+
+-- 商品名の部分一致検索（LIKE '%keyword%'）
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_products_product_name_trgm ON products USING gin (product_name gin_trgm_ops);
+
+-- スクレイピングログ（実行日時の降順、サイト別の最新ログ）
+CREATE INDEX IF NOT EXISTS idx_scrape_logs_executed_at ON scrape_logs (executed_at DESC);
+CREATE INDEX IF NOT EXISTS idx_scrape_logs_target_site_executed_at ON scrape_logs (target_site, executed_at DESC);
@@ -0,0 +1,15 @@
+-- ============================================
+-- 商品項目の変更履歴（追記のみ、変わった項目だけを記録）
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS product_changes (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id  BIGINT NOT NULL REFERENCES products (id) ON DELETE CASCADE,
+    field       VARCHAR(40) NOT NULL,
+    old_value   TEXT,
+    new_value   TEXT,
+    observed_at TIMESTAMP(6) NOT NULL
+);
+
+-- 商品ごとのタイムライン取得（product_id で絞り込み、observed_at 順に読む）
+CREATE INDEX IF NOT EXISTS idx_product_changes_product_id_observed_at ON product_changes (product_id, observed_at);
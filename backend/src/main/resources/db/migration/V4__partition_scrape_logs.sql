@@ -0,0 +1,53 @@
+-- ============================================
+-- scrape_logs を実行日時（executed_at）の月単位レンジパーティションに変更
+-- 新しい月のパーティション作成と保持期間を過ぎたパーティションの削除は StorageMaintenanceService が行う
+-- ============================================
+
+-- パーティションテーブルではIDENTITYを使わずシーケンスで採番する
+CREATE SEQUENCE scrape_logs_partitioned_id_seq;
+
+CREATE TABLE scrape_logs_partitioned (
+    id             BIGINT NOT NULL DEFAULT nextval('scrape_logs_partitioned_id_seq'),
+    target_site    VARCHAR(255) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    products_found INTEGER,
+    error_message  TEXT,
+    executed_at    TIMESTAMP(6) NOT NULL,
+    -- パーティションキーを主キーに含める必要がある
+    CONSTRAINT pk_scrape_logs PRIMARY KEY (id, executed_at)
+) PARTITION BY RANGE (executed_at);
+
+-- 月別パーティションの範囲外の行の受け皿（通常は空）
+CREATE TABLE scrape_logs_default PARTITION OF scrape_logs_partitioned DEFAULT;
+
+-- 既存ログの最古の月から2か月先までの月別パーティションを作成
+DO $$
+DECLARE
+    month_start DATE;
+    last_month  DATE;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(executed_at)), date_trunc('month', CURRENT_DATE))::date
+    INTO month_start FROM scrape_logs;
+    last_month := (date_trunc('month', CURRENT_DATE) + INTERVAL '2 months')::date;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF scrape_logs_partitioned FOR VALUES FROM (%L) TO (%L)',
+                'scrape_logs_' || to_char(month_start, 'YYYY_MM'), month_start,
+                (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO scrape_logs_partitioned (id, target_site, status, products_found, error_message, executed_at)
+SELECT id, target_site, status, products_found, error_message, executed_at FROM scrape_logs;
+
+SELECT setval('scrape_logs_partitioned_id_seq', COALESCE((SELECT MAX(id) FROM scrape_logs), 0) + 1, false);
+
+DROP TABLE scrape_logs;
+ALTER TABLE scrape_logs_partitioned RENAME TO scrape_logs;
+ALTER SEQUENCE scrape_logs_partitioned_id_seq RENAME TO scrape_logs_id_seq;
+ALTER SEQUENCE scrape_logs_id_seq OWNED BY scrape_logs.id;
+
+-- 親テーブルに作成したインデックスは各パーティションにも作成される
+CREATE INDEX idx_scrape_logs_executed_at ON scrape_logs (executed_at DESC);
+CREATE INDEX idx_scrape_logs_target_site_executed_at ON scrape_logs (target_site, executed_at DESC);
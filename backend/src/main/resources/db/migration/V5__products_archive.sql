@@ -0,0 +1,30 @@
+-- ============================================
+-- 発売から一定期間が過ぎた商品のアーカイブ
+-- 通常の商品一覧は products だけを検索し、アーカイブは明示的に指定された場合だけ検索する
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS products_archive (
+    id            BIGINT PRIMARY KEY,
+    product_name  VARCHAR(255) NOT NULL,
+    manufacturer  VARCHAR(255) NOT NULL,
+    image_url     TEXT,
+    release_date  DATE,
+    price         INTEGER,
+    description   TEXT,
+    lineup_info   TEXT,
+    source_url    TEXT,
+    product_key   VARCHAR(80),
+    first_seen_at TIMESTAMP(6) NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    updated_at    TIMESTAMP(6) NOT NULL,
+    archived_at   TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_products_archive_manufacturer_product_key UNIQUE (manufacturer, product_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_products_archive_manufacturer_release_date
+    ON products_archive (manufacturer, release_date DESC);
+CREATE INDEX IF NOT EXISTS idx_products_archive_product_name_trgm
+    ON products_archive USING gin (product_name gin_trgm_ops);
+
+-- アーカイブした商品の変更履歴も残すため、products への外部キーを外す
+ALTER TABLE product_changes DROP CONSTRAINT IF EXISTS product_changes_product_id_fkey;
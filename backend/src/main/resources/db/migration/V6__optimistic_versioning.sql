@@ -0,0 +1,9 @@
+-- ============================================
+-- 楽観的排他制御のバージョン列
+-- products: スクレイピングの保存（JDBC）とJPAの更新の両方で、読み込み時のversionと一致する場合だけ更新する
+-- scrape_configs: 管理画面からの更新・切り替え・削除で競合を検出する
+-- ============================================
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE scrape_configs ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,14 @@
+-- ============================================
+-- 表記ゆれを吸収した商品名（全角/半角、ひらがな/カタカナ、記号・空白の違いを無視する）
+-- 値はアプリケーション（ProductNameNormalizer）で作る。既存行は起動時に ProductNameNormalizationInitializer が埋める
+-- ============================================
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS normalized_name VARCHAR(255);
+
+-- 重複判定（メーカー + 正規化名の一致）と前方一致
+CREATE INDEX IF NOT EXISTS idx_products_manufacturer_normalized_name
+    ON products (manufacturer, normalized_name varchar_pattern_ops);
+
+-- キーワード検索（正規化名の部分一致）
+CREATE INDEX IF NOT EXISTS idx_products_normalized_name_trgm
+    ON products USING gin (normalized_name gin_trgm_ops);
@@ -0,0 +1,32 @@
+-- ============================================
+-- 近似重複商品の検出（正規化名のMinHash + LSH）
+-- product_name_signatures: 商品ごとのLSHバンド値（ProductNameMinHasher）。バンド値が1つでも一致する同メーカーの商品を候補にする
+-- product_duplicate_candidates: 管理者が確認する近似重複の組（product_id < candidate_product_id）
+-- 商品の削除・アーカイブ時は一緒に削除する
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS product_name_signatures (
+    product_id      BIGINT PRIMARY KEY REFERENCES products (id) ON DELETE CASCADE,
+    manufacturer    VARCHAR(255) NOT NULL,
+    normalized_name VARCHAR(255) NOT NULL,
+    bands           INTEGER[] NOT NULL
+);
+
+-- バンド値の重なり（bands && ARRAY[...]）で候補を引く
+CREATE INDEX IF NOT EXISTS idx_product_name_signatures_bands
+    ON product_name_signatures USING gin (bands);
+
+CREATE TABLE IF NOT EXISTS product_duplicate_candidates (
+    id                   BIGSERIAL PRIMARY KEY,
+    product_id           BIGINT NOT NULL REFERENCES products (id) ON DELETE CASCADE,
+    candidate_product_id BIGINT NOT NULL REFERENCES products (id) ON DELETE CASCADE,
+    similarity           DOUBLE PRECISION NOT NULL,
+    status               VARCHAR(20) NOT NULL,
+    detected_at          TIMESTAMP(6) NOT NULL,
+    reviewed_at          TIMESTAMP(6),
+    CONSTRAINT uk_product_duplicate_candidates_pair UNIQUE (product_id, candidate_product_id)
+);
+
+-- 確認待ちの一覧（新しい順）
+CREATE INDEX IF NOT EXISTS idx_product_duplicate_candidates_status_detected_at
+    ON product_duplicate_candidates (status, detected_at DESC);
@@ -0,0 +1,11 @@
+-- ============================================
+-- キーワード検索用のテキスト（商品名・ラインナップ・説明を正規化してつなげたもの）
+-- 値はアプリケーション（ProductNameNormalizer）で作る。既存行は起動時に ProductNameNormalizationInitializer が埋める
+-- ============================================
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS search_text TEXT;
+
+-- キーワード検索（検索用テキストの部分一致。LIKE '%keyword%' をトライグラムの索引で絞り込む）
+-- 日本語のトライグラムを作るには、DBのロケールがUTF-8であること（C/POSIXロケールでは英数字以外が無視される）
+CREATE INDEX IF NOT EXISTS idx_products_search_text_trgm
+    ON products USING gin (search_text gin_trgm_ops);
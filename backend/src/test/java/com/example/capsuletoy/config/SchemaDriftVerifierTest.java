@@ -0,0 +1,76 @@
+package com.example.capsuletoy.config;
+
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.flywaydb.core.api.MigrationVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * SchemaDriftVerifierの単体テスト（pg_indexes はPostgreSQL専用のため、Flyway・JdbcTemplateをモックにする）
+ */
+@ExtendWith(MockitoExtension.class)
+class SchemaDriftVerifierTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private ObjectProvider<Flyway> flywayProvider;
+
+    @Mock
+    private Flyway flyway;
+
+    @Mock
+    private MigrationInfoService migrationInfoService;
+
+    private SchemaDriftVerifier schemaDriftVerifier;
+
+    @BeforeEach
+    void setUp() {
+        schemaDriftVerifier = new SchemaDriftVerifier(jdbcTemplate, databasePlatform, flywayProvider);
+        when(flywayProvider.getIfAvailable()).thenReturn(flyway);
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        when(flyway.info()).thenReturn(migrationInfoService);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_未適用のマイグレーションがあれば起動を中止する() {
+        MigrationInfo pending = mock(MigrationInfo.class);
+        when(pending.getVersion()).thenReturn(MigrationVersion.fromVersion("14"));
+        when(migrationInfoService.pending()).thenReturn(new MigrationInfo[] {pending});
+
+        assertThrows(IllegalStateException.class, () -> schemaDriftVerifier.afterSingletonsInstantiated());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_インデックスが欠けていれば起動を中止する() {
+        when(migrationInfoService.pending()).thenReturn(new MigrationInfo[0]);
+        List<String> indexes = new ArrayList<>(SchemaDriftVerifier.REQUIRED_INDEXES);
+        indexes.remove("idx_products_updated_at");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(indexes);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> schemaDriftVerifier.afterSingletonsInstantiated());
+        assertTrue(e.getMessage().contains("idx_products_updated_at"));
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.capsuletoy.controller;
 
+import com.example.capsuletoy.domain.product.ProductFieldSet;
 import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.CatalogVersion;
 import com.example.capsuletoy.service.product.ProductPagenationService;
 import com.example.capsuletoy.service.product.ProductService;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -12,15 +15,22 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +51,14 @@ class ProductControllerTest {
     @MockitoBean
     private ProductPagenationService productPagenationService;
 
+    private static final CatalogVersion VERSION = new CatalogVersion(LocalDateTime.of(2026, 1, 15, 10, 0), 10, 2,
+            LocalDate.of(2025, 12, 16));
+
+    @BeforeEach
+    void setUp() {
+        when(productPagenationService.getCatalogVersion()).thenReturn(VERSION);
+    }
+
     private Product createTestProduct(Long id, String name, String manufacturer) {
         Product product = new Product();
         product.setId(id);
@@ -87,8 +105,69 @@ class ProductControllerTest {
 
         mockMvc.perform(get("/api/products/new"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", VERSION.etag()))
+                .andExpect(header().string("Cache-Control", "no-cache"))
                 .andExpect(jsonPath("$.content", hasSize(1)))
                 .andExpect(jsonPath("$.content[0].productName").value("新着商品"))
                 .andExpect(jsonPath("$.content[0].isNew").value(true));
     }
+
+    @Test
+    void getNewProducts_項目を指定した場合は指定項目だけを返す() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("productName", "新着商品");
+        row.put("isNew", true);
+        Page<Map<String, Object>> page = new PageImpl<>(List.of(row));
+
+        when(productPagenationService.getNewProductFields(any(Pageable.class),
+                eq(ProductFieldSet.parse("productName,isNew")))).thenReturn(page);
+
+        mockMvc.perform(get("/api/products/new").param("fields", "productName,isNew"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].productName").value("新着商品"))
+                .andExpect(jsonPath("$.content[0].isNew").value(true))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+    }
+
+    @Test
+    void getNewProducts_ETagが一致すれば検索せずに304() throws Exception {
+        mockMvc.perform(get("/api/products/new").header("If-None-Match", VERSION.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(productPagenationService, never()).getNewProducts(any(Pageable.class));
+    }
+
+    @Test
+    void getProducts_ETagが変わっていれば一覧を返す() throws Exception {
+        when(productPagenationService.buildPageable(0, 20, "createdAt", "desc")).thenReturn(Pageable.ofSize(20));
+        when(productPagenationService.getProducts(any(), any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(createTestProduct(1L, "テスト商品", "BANDAI"))));
+
+        mockMvc.perform(get("/api/products").header("If-None-Match", "\"old\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", VERSION.etag()))
+                .andExpect(jsonPath("$.content[0].productName").value("テスト商品"));
+    }
+
+    @Test
+    void getProduct_最終更新日時から変わっていなければ304() throws Exception {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfModifiedSince(VERSION.lastModifiedMillis());
+
+        mockMvc.perform(get("/api/products/1").headers(headers))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void getProducts_指定できない項目は400() throws Exception {
+        mockMvc.perform(get("/api/products").param("fields", "summary,searchText"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("error"));
+
+        verifyNoInteractions(productPagenationService);
+    }
 }
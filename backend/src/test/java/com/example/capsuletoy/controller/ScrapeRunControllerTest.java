@@ -0,0 +1,73 @@
+package com.example.capsuletoy.controller;
+
+import com.example.capsuletoy.domain.scraping.ScrapeRunRegistry;
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * ScrapeRunControllerのエンドポイントテスト
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class ScrapeRunControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ScrapeRunRegistry scrapeRunRegistry;
+
+    @Test
+    void getActiveRuns_実行中のスクレイピングを返す() throws Exception {
+        when(scrapeRunRegistry.getActiveRuns()).thenReturn(List.of(new ScrapeRunHandle(1L, "BANDAI", null)));
+
+        mockMvc.perform(get("/api/scrape/runs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].runId").value(1))
+                .andExpect(jsonPath("$[0].siteName").value("BANDAI"))
+                .andExpect(jsonPath("$[0].cancelled").value(false));
+    }
+
+    @Test
+    void cancelRun_実行中ならキャンセルする() throws Exception {
+        when(scrapeRunRegistry.cancel(1L)).thenReturn(true);
+
+        mockMvc.perform(post("/api/scrape/runs/1/cancel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("success"))
+                .andExpect(jsonPath("$.runId").value(1));
+        verify(scrapeRunRegistry).cancel(1L);
+    }
+
+    @Test
+    void cancelRun_実行中でなければ404() throws Exception {
+        when(scrapeRunRegistry.cancel(99L)).thenReturn(false);
+
+        mockMvc.perform(post("/api/scrape/runs/99/cancel"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value("error"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void cancelRun_管理者以外は403() throws Exception {
+        mockMvc.perform(post("/api/scrape/runs/1/cancel"))
+                .andExpect(status().isForbidden());
+    }
+}
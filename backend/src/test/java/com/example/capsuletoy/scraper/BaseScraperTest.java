@@ -0,0 +1,109 @@
+package com.example.capsuletoy.scraper;
+
+import com.example.capsuletoy.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * BaseScraperの単体テスト（同じスクレイパーの実行が重なった場合の排他）
+ */
+@ExtendWith(MockitoExtension.class)
+class BaseScraperTest {
+
+    @Mock
+    private ScraperConfig scraperConfig;
+
+    @Mock
+    private WebDriver firstDriver;
+
+    @Mock
+    private WebDriver secondDriver;
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private StubScraper scraper;
+
+    @BeforeEach
+    void setUp() {
+        scraper = new StubScraper(scraperConfig);
+    }
+
+    @Test
+    void scrapeProductUrls_同時に呼ばれても1件ずつ実行し互いのブラウザを終了しない() throws Exception {
+        when(scraperConfig.createChromeDriver()).thenReturn(firstDriver, secondDriver);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Product> results = new CopyOnWriteArrayList<>();
+        List<Thread> threads = List.of(1L, 2L).stream().map(runId -> new Thread(() -> {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+            results.addAll(scraper.scrapeProductUrls(List.of("https://example.com/" + runId),
+                    new ScrapeRunHandle(runId, "TEST", Thread.currentThread())));
+        })).toList();
+        threads.forEach(Thread::start);
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(10_000);
+        }
+
+        assertEquals(2, results.size());
+        assertEquals(1, maxRunning.get());
+        // 各実行は自分で起動したブラウザだけを終了する
+        verify(scraperConfig).quitDriver(firstDriver);
+        verify(scraperConfig).quitDriver(secondDriver);
+    }
+
+    private class StubScraper extends BaseScraper {
+
+        StubScraper(ScraperConfig scraperConfig) {
+            super(scraperConfig);
+        }
+
+        @Override
+        protected Product scrapeProductDetail(String detailUrl) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+
+            Product product = new Product();
+            product.setSourceUrl(detailUrl);
+            return product;
+        }
+
+        @Override
+        protected String getTargetUrl() {
+            return "https://example.com/";
+        }
+
+        @Override
+        protected String getManufacturerName() {
+            return "TEST";
+        }
+
+        @Override
+        protected List<Product> scrapeProducts() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.repository.jdbc.CatalogSnapshotCopier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CatalogSnapshotCopierの単体テスト（COPY・TRUNCATE ... CASCADE はPostgreSQL専用のため、発行するSQLを確認する）
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotCopierTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private CatalogSnapshotCopier catalogSnapshotCopier;
+
+    @Test
+    void truncateAll_取り込み後に変更履歴とアーカイブが残らないよう一緒に空にする() {
+        catalogSnapshotCopier.truncateAll();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).execute(sql.capture());
+        assertTrue(sql.getValue().startsWith("TRUNCATE TABLE "));
+        assertTrue(sql.getValue().endsWith(" CASCADE"));
+        List<String> tables = Arrays.asList(sql.getValue()
+                .substring("TRUNCATE TABLE ".length(), sql.getValue().length() - " CASCADE".length()).split(", "));
+        assertTrue(tables.containsAll(CatalogSnapshotCopier.SNAPSHOT_TABLES.keySet()));
+        assertTrue(tables.contains("product_changes"));
+        assertTrue(tables.contains("products_archive"));
+    }
+
+    @Test
+    void resetIdSequence_スナップショットの対象外のテーブルは受け付けない() {
+        assertThrows(IllegalArgumentException.class, () -> catalogSnapshotCopier.resetIdSequence("users"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
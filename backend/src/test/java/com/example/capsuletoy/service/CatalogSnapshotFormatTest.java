@@ -0,0 +1,96 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.snapshot.CatalogSnapshotReader;
+import com.example.capsuletoy.domain.snapshot.CatalogSnapshotWriter;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CatalogSnapshotWriter・CatalogSnapshotReaderの単体テスト
+ */
+class CatalogSnapshotFormatTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 9, 0, 0);
+
+    @Test
+    void 書き出したテーブルのデータと行数をそのまま読める() throws IOException {
+        // チャンク（64KB）をまたぐデータと空のデータ
+        byte[] products = new byte[200_000];
+        new Random(1).nextBytes(products);
+        byte[] logs = new byte[0];
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(snapshot, "8", CREATED_AT)) {
+            writeTable(writer, "products", "id, product_name", products, 1520);
+            writeTable(writer, "scrape_logs", "id, status", logs, 0);
+        }
+
+        try (CatalogSnapshotReader reader = new CatalogSnapshotReader(new ByteArrayInputStream(snapshot.toByteArray()))) {
+            assertEquals(CatalogSnapshotWriter.FORMAT_VERSION, reader.formatVersion());
+            assertEquals("8", reader.schemaVersion());
+            assertEquals(CREATED_AT, reader.createdAt());
+
+            assertTrue(reader.nextTable());
+            assertEquals("products", reader.tableName());
+            assertEquals("id, product_name", reader.columns());
+            assertArrayEquals(products, reader.tableData().readAllBytes());
+            assertEquals(1520, reader.finishTable());
+
+            assertTrue(reader.nextTable());
+            assertEquals("scrape_logs", reader.tableName());
+            assertArrayEquals(logs, reader.tableData().readAllBytes());
+            assertEquals(0, reader.finishTable());
+
+            assertFalse(reader.nextTable());
+        }
+    }
+
+    @Test
+    void 読み残したデータは読み飛ばして次のテーブルへ進む() throws IOException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try (CatalogSnapshotWriter writer = new CatalogSnapshotWriter(snapshot, "8", CREATED_AT)) {
+            writeTable(writer, "scrape_configs", "id", new byte[100_000], 3);
+            writeTable(writer, "products", "id", new byte[] {1, 2, 3}, 1);
+        }
+
+        try (CatalogSnapshotReader reader = new CatalogSnapshotReader(new ByteArrayInputStream(snapshot.toByteArray()))) {
+            assertTrue(reader.nextTable());
+            reader.tableData().read(new byte[10]);
+            assertEquals(3, reader.finishTable());
+
+            assertTrue(reader.nextTable());
+            assertEquals("products", reader.tableName());
+            assertArrayEquals(new byte[] {1, 2, 3}, reader.tableData().readAllBytes());
+            assertEquals(1, reader.finishTable());
+        }
+    }
+
+    @Test
+    void スナップショット以外のデータは読み込まない() throws IOException {
+        ByteArrayOutputStream gzip = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(gzip)) {
+            out.write("not a snapshot".getBytes());
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new CatalogSnapshotReader(new ByteArrayInputStream(gzip.toByteArray())));
+    }
+
+    private void writeTable(CatalogSnapshotWriter writer, String tableName, String columns, byte[] data, long rows)
+            throws IOException {
+        try (OutputStream tableData = writer.beginTable(tableName, columns)) {
+            tableData.write(data);
+        }
+        writer.endTable(rows);
+    }
+}
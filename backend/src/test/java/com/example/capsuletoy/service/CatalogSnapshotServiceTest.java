@@ -0,0 +1,135 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.domain.queue.ScrapeTaskQueue;
+import com.example.capsuletoy.domain.scraping.ScrapeRunRegistry;
+import com.example.capsuletoy.repository.jdbc.CatalogSnapshotCopier;
+import com.example.capsuletoy.repository.jdbc.CatalogWriteLock;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+import com.example.capsuletoy.service.product.ProductAutocompleteService;
+import com.example.capsuletoy.service.scheduled.DynamicScrapeScheduler;
+import com.example.capsuletoy.service.scheduled.ScheduledScrapeService;
+import com.example.capsuletoy.service.snapshot.CatalogSnapshotService;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CatalogSnapshotServiceの単体テスト（スクレイピング中・商品の保存中に取り込まないことを確認する）
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotServiceTest {
+
+    @Mock
+    private CatalogSnapshotCopier catalogSnapshotCopier;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private ObjectProvider<Flyway> flywayProvider;
+
+    @Mock
+    private ClusterJobLock clusterJobLock;
+
+    @Mock
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    @Mock
+    private DynamicScrapeScheduler dynamicScrapeScheduler;
+
+    @Mock
+    private ProductAutocompleteService productAutocompleteService;
+
+    @Mock
+    private ProductQueryCache productQueryCache;
+
+    @Mock
+    private ScrapeRunRegistry scrapeRunRegistry;
+
+    @Mock
+    private ScrapeTaskQueue scrapeTaskQueue;
+
+    @Mock
+    private CatalogWriteLock catalogWriteLock;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        catalogSnapshotService = new CatalogSnapshotService(catalogSnapshotCopier, databasePlatform, flywayProvider,
+                clusterJobLock, entityCacheInvalidator, dynamicScrapeScheduler, productAutocompleteService,
+                productQueryCache, scrapeRunRegistry, scrapeTaskQueue, catalogWriteLock, transactionManager);
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        when(clusterJobLock.runExclusive(eq(ScheduledScrapeService.SCRAPING_LOCK_NAME), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+    }
+
+    private void assertNotImported() {
+        assertThrows(IllegalStateException.class,
+                () -> catalogSnapshotService.importSnapshot(new ByteArrayInputStream(new byte[0])));
+
+        verifyNoInteractions(catalogSnapshotCopier, dynamicScrapeScheduler, productAutocompleteService,
+                productQueryCache);
+    }
+
+    @Test
+    void importSnapshot_このノードでスクレイピング中は取り込まない() {
+        when(scrapeRunRegistry.getActiveRuns())
+                .thenReturn(List.of(new ScrapeRunHandle(1L, "BANDAI", Thread.currentThread())));
+
+        assertNotImported();
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void importSnapshot_サイト単位のロックが残っていれば取り込まない() {
+        when(scrapeRunRegistry.getActiveRuns()).thenReturn(List.of());
+        when(clusterJobLock.isAnyHeld(DynamicScrapeScheduler.LOCK_NAME_PREFIX)).thenReturn(true);
+
+        assertNotImported();
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void importSnapshot_キューのタスクを処理中は取り込まない() {
+        when(scrapeRunRegistry.getActiveRuns()).thenReturn(List.of());
+        when(clusterJobLock.isAnyHeld(DynamicScrapeScheduler.LOCK_NAME_PREFIX)).thenReturn(false);
+        when(scrapeTaskQueue.hasActiveLeases()).thenReturn(true);
+
+        assertNotImported();
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void importSnapshot_商品の保存中は取り込まない() {
+        when(scrapeRunRegistry.getActiveRuns()).thenReturn(List.of());
+        when(clusterJobLock.isAnyHeld(DynamicScrapeScheduler.LOCK_NAME_PREFIX)).thenReturn(false);
+        when(scrapeTaskQueue.hasActiveLeases()).thenReturn(false);
+        when(catalogWriteLock.tryLockForImport()).thenReturn(false);
+
+        assertNotImported();
+        verify(transactionManager).rollback(any());
+    }
+}
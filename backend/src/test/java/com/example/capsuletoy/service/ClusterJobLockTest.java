@@ -0,0 +1,131 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.model.SchedulerLock;
+import com.example.capsuletoy.repository.SchedulerLockRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ClusterJobLockの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ClusterJobLockTest {
+
+    @Mock
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ClusterJobLock clusterJobLock;
+
+    @BeforeEach
+    void setUp() {
+        clusterJobLock = new ClusterJobLock(schedulerLockRepository, transactionManager, "node-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        clusterJobLock.shutdown();
+    }
+
+    private SchedulerLock createLock(long token) {
+        SchedulerLock lock = new SchedulerLock();
+        lock.setLockName("job");
+        lock.setOwner("node-1");
+        lock.setFencingToken(token);
+        return lock;
+    }
+
+    @Test
+    void runExclusive_期限切れのロックを取得できればジョブを実行する() {
+        when(schedulerLockRepository.acquireExpired(eq("job"), eq("node-1"), any(), any())).thenReturn(1);
+        when(schedulerLockRepository.findById("job")).thenReturn(Optional.of(createLock(5L)));
+        AtomicBoolean executed = new AtomicBoolean(false);
+
+        boolean result = clusterJobLock.runExclusive("job", () -> executed.set(true));
+
+        assertTrue(result);
+        assertTrue(executed.get());
+        verify(schedulerLockRepository).release(eq("job"), eq("node-1"), eq(5L), any());
+    }
+
+    @Test
+    void runExclusive_他ノードが保持中ならジョブを実行しない() {
+        when(schedulerLockRepository.acquireExpired(eq("job"), eq("node-1"), any(), any())).thenReturn(0);
+        when(schedulerLockRepository.existsById("job")).thenReturn(true);
+        AtomicBoolean executed = new AtomicBoolean(false);
+
+        boolean result = clusterJobLock.runExclusive("job", () -> executed.set(true));
+
+        assertFalse(result);
+        assertFalse(executed.get());
+        verify(schedulerLockRepository, never()).release(any(), any(), any(), any());
+    }
+
+    @Test
+    void runExclusive_ロック行がなければ作成して実行する() {
+        when(schedulerLockRepository.acquireExpired(eq("job"), eq("node-1"), any(), any())).thenReturn(0);
+        when(schedulerLockRepository.existsById("job")).thenReturn(false);
+        when(schedulerLockRepository.findById("job")).thenReturn(Optional.of(createLock(1L)));
+        AtomicBoolean executed = new AtomicBoolean(false);
+
+        boolean result = clusterJobLock.runExclusive("job", () -> executed.set(true));
+
+        assertTrue(result);
+        assertTrue(executed.get());
+        verify(schedulerLockRepository).saveAndFlush(any(SchedulerLock.class));
+    }
+
+    @Test
+    void checkFencing_ロックを奪取されていれば例外() {
+        when(schedulerLockRepository.acquireExpired(eq("job"), eq("node-1"), any(), any())).thenReturn(1);
+        when(schedulerLockRepository.findById("job")).thenReturn(Optional.of(createLock(5L)));
+        when(schedulerLockRepository.fence(eq("job"), eq("node-1"), eq(5L), any())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class,
+                () -> clusterJobLock.runExclusive("job", clusterJobLock::checkFencing));
+    }
+
+    @Test
+    void checkFencing_トランザクション内では同じトランザクションでロック行を更新する() {
+        when(schedulerLockRepository.acquireExpired(eq("job"), eq("node-1"), any(), any())).thenReturn(1);
+        when(schedulerLockRepository.findById("job")).thenReturn(Optional.of(createLock(5L)));
+        when(schedulerLockRepository.fence(eq("job"), eq("node-1"), eq(5L), any())).thenReturn(1);
+
+        boolean result = clusterJobLock.runExclusive("job", () -> {
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            try {
+                clusterJobLock.checkFencing();
+            } finally {
+                TransactionSynchronizationManager.setActualTransactionActive(false);
+            }
+        });
+
+        assertTrue(result);
+        verify(schedulerLockRepository).fence(eq("job"), eq("node-1"), eq(5L), any());
+        // 取得・解放の2回だけ独立したトランザクションを開始し、フェンシングでは開始しない
+        verify(transactionManager, times(2)).getTransaction(any());
+    }
+
+    @Test
+    void checkFencing_ロック外では何もしない() {
+        assertDoesNotThrow(() -> clusterJobLock.checkFencing());
+        verifyNoInteractions(schedulerLockRepository);
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.domain.scraping.RegularScrapeExecuter;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ScrapeConfig;
+import com.example.capsuletoy.repository.ScrapeConfigRepository;
+import com.example.capsuletoy.service.notification.NotificationService;
+import com.example.capsuletoy.service.scheduled.DynamicScrapeScheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * DynamicScrapeSchedulerの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class DynamicScrapeSchedulerTest {
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ScrapeConfigRepository scrapeConfigRepository;
+
+    @Mock
+    private RegularScrapeExecuter scrapeExecuter;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ClusterJobLock clusterJobLock;
+
+    @Mock
+    private ScheduledFuture<?> firstFuture;
+
+    @Mock
+    private ScheduledFuture<?> secondFuture;
+
+    private DynamicScrapeScheduler dynamicScrapeScheduler;
+
+    @BeforeEach
+    void setUp() {
+        dynamicScrapeScheduler = new DynamicScrapeScheduler(taskScheduler, scrapeConfigRepository, scrapeExecuter,
+                notificationService, clusterJobLock);
+        ReflectionTestUtils.setField(dynamicScrapeScheduler, "enabled", true);
+        ReflectionTestUtils.setField(dynamicScrapeScheduler, "defaultCron", "0 0 6 * * *");
+    }
+
+    private ScrapeConfig createConfig(Long id, String cron, boolean enabled) {
+        ScrapeConfig config = new ScrapeConfig();
+        config.setId(id);
+        config.setSiteName("BANDAI");
+        config.setSiteUrl("https://gashapon.jp/");
+        config.setCronExpression(cron);
+        config.setIsEnabled(enabled);
+        return config;
+    }
+
+    private String scheduledCron() {
+        ArgumentCaptor<Trigger> trigger = ArgumentCaptor.forClass(Trigger.class);
+        verify(taskScheduler, atLeastOnce()).schedule(any(Runnable.class), trigger.capture());
+        return ((CronTrigger) trigger.getValue()).getExpression();
+    }
+
+    @Test
+    void register_設定のcron式でトリガーを登録する() {
+        doReturn(firstFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+
+        assertEquals("0 30 7 * * *", scheduledCron());
+    }
+
+    @Test
+    void register_cron式が未設定ならデフォルトを使う() {
+        doReturn(firstFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+
+        dynamicScrapeScheduler.register(createConfig(1L, null, true));
+
+        assertEquals("0 0 6 * * *", scheduledCron());
+    }
+
+    @Test
+    void register_cron式が変わらなければ登録し直さない() {
+        doReturn(firstFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Trigger.class));
+        verify(firstFuture, never()).cancel(anyBoolean());
+    }
+
+    @Test
+    void register_cron式が変わったら古いトリガーを解除して登録し直す() {
+        doReturn(firstFuture, secondFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+        dynamicScrapeScheduler.register(createConfig(1L, "0 0 12 * * *", true));
+
+        verify(firstFuture).cancel(false);
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Trigger.class));
+        assertEquals("0 0 12 * * *", scheduledCron());
+    }
+
+    @Test
+    void register_無効化された設定はトリガーを解除する() {
+        doReturn(firstFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", false));
+
+        verify(firstFuture).cancel(false);
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Trigger.class));
+    }
+
+    @Test
+    void register_不正なcron式はスケジュールしない() {
+        dynamicScrapeScheduler.register(createConfig(1L, "invalid", true));
+
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    void register_無効なスケジューラーでは何もしない() {
+        ReflectionTestUtils.setField(dynamicScrapeScheduler, "enabled", false);
+
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    void syncWithDatabase_削除された設定のトリガーを解除する() {
+        doReturn(firstFuture, secondFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+        ScrapeConfig kept = createConfig(1L, "0 30 7 * * *", true);
+        ScrapeConfig deleted = createConfig(2L, "0 0 12 * * *", true);
+        when(scrapeConfigRepository.findAll()).thenReturn(List.of(kept, deleted), List.of(kept));
+
+        dynamicScrapeScheduler.syncWithDatabase();
+        dynamicScrapeScheduler.syncWithDatabase();
+
+        verify(secondFuture).cancel(false);
+        verify(firstFuture, never()).cancel(anyBoolean());
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Trigger.class));
+    }
+
+    @Test
+    void トリガー実行時はサイトごとのロックを取得して最新の設定でスクレイピングする() {
+        doReturn(firstFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+        ScrapeConfig current = createConfig(1L, "0 30 7 * * *", true);
+        List<Product> newProducts = List.of(new Product());
+        when(scrapeConfigRepository.findById(1L)).thenReturn(Optional.of(current));
+        when(scrapeExecuter.executeScraping(List.of(current))).thenReturn(newProducts);
+        when(clusterJobLock.runExclusive(eq("scrape-site-BANDAI"), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Trigger.class));
+        task.getValue().run();
+
+        verify(clusterJobLock).runExclusive(eq("scrape-site-BANDAI"), any());
+        verify(scrapeExecuter).executeScraping(List.of(current));
+        verify(notificationService).sendFinishedEmail(newProducts);
+    }
+
+    @Test
+    void トリガー実行時に無効化されていればスクレイピングしない() {
+        doReturn(firstFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+        when(scrapeConfigRepository.findById(1L)).thenReturn(Optional.of(createConfig(1L, "0 30 7 * * *", false)));
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Trigger.class));
+        task.getValue().run();
+
+        verifyNoInteractions(clusterJobLock, scrapeExecuter, notificationService);
+    }
+
+    @Test
+    void 同じサイトの設定は同じロックで実行し同時には実行しない() {
+        doReturn(firstFuture, secondFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+        ScrapeConfig morning = createConfig(1L, "0 30 7 * * *", true);
+        ScrapeConfig noon = createConfig(2L, "0 0 12 * * *", true);
+        when(scrapeConfigRepository.findById(1L)).thenReturn(Optional.of(morning));
+        when(scrapeConfigRepository.findById(2L)).thenReturn(Optional.of(noon));
+        // 1件目の実行中に2件目のトリガーが発火した場合、2件目はロックを取得できずスキップされる
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        when(clusterJobLock.runExclusive(eq("scrape-site-BANDAI"), any())).thenAnswer(invocation -> {
+            task.getAllValues().get(1).run();
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        }).thenReturn(false);
+        dynamicScrapeScheduler.register(morning);
+        dynamicScrapeScheduler.register(noon);
+        verify(taskScheduler, times(2)).schedule(task.capture(), any(Trigger.class));
+
+        task.getAllValues().get(0).run();
+
+        verify(clusterJobLock, times(2)).runExclusive(eq("scrape-site-BANDAI"), any());
+        verify(scrapeExecuter, times(1)).executeScraping(any());
+        verify(scrapeExecuter).executeScraping(List.of(morning));
+    }
+
+    @Test
+    void トリガー実行までにサイトが変わった設定は実行しない() {
+        doReturn(firstFuture).when(taskScheduler).schedule(any(Runnable.class), any(Trigger.class));
+        ScrapeConfig changed = createConfig(1L, "0 30 7 * * *", true);
+        changed.setSiteName("TAKARA_TOMY");
+        when(scrapeConfigRepository.findById(1L)).thenReturn(Optional.of(createConfig(1L, "0 30 7 * * *", true)),
+                Optional.of(changed));
+        when(clusterJobLock.runExclusive(eq("scrape-site-BANDAI"), any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return true;
+        });
+        dynamicScrapeScheduler.register(createConfig(1L, "0 30 7 * * *", true));
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler).schedule(task.capture(), any(Trigger.class));
+        task.getValue().run();
+
+        verifyNoInteractions(scrapeExecuter, notificationService);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.cache.EntityCacheInvalidator;
+import com.example.capsuletoy.model.ScrapeConfig;
+import com.example.capsuletoy.model.User;
+import com.example.capsuletoy.model.UserRole;
+import com.example.capsuletoy.repository.ScrapeConfigRepository;
+import com.example.capsuletoy.repository.UserRepository;
+import com.example.capsuletoy.service.scheduled.DynamicScrapeScheduler;
+import com.example.capsuletoy.service.scrapeConfig.ScrapeConfigCreateService;
+import com.example.capsuletoy.service.scrapeConfig.ScrapeConfigUpdateService;
+import com.example.capsuletoy.service.user.UserCreateService;
+import com.example.capsuletoy.service.user.UserUpdateService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 二次キャッシュのテスト（テスト用設定では無効のため、本番と同じキャッシュ設定で起動して確認する）
+ * 各リポジトリ呼び出しは別セッションになるため、2回目以降の参照はキャッシュから返る
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=org.ehcache.jsr107.EhcacheCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.uri=ehcache.xml",
+        "spring.jpa.properties.jakarta.persistence.sharedCache.mode=ENABLE_SELECTIVE",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class EntityCacheInvalidatorTest {
+
+    @Autowired
+    private ScrapeConfigRepository scrapeConfigRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ScrapeConfigCreateService scrapeConfigCreateService;
+
+    @Autowired
+    private ScrapeConfigUpdateService scrapeConfigUpdateService;
+
+    @Autowired
+    private UserCreateService userCreateService;
+
+    @Autowired
+    private UserUpdateService userUpdateService;
+
+    @Autowired
+    private EntityCacheInvalidator entityCacheInvalidator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private DynamicScrapeScheduler dynamicScrapeScheduler;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        scrapeConfigRepository.deleteAll();
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scrapeConfigRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private ScrapeConfig createConfig(String siteName, boolean enabled) {
+        ScrapeConfig config = new ScrapeConfig();
+        config.setSiteName(siteName);
+        config.setSiteUrl("https://example.com/" + siteName);
+        config.setCronExpression("0 0 6 * * *");
+        config.setIsEnabled(enabled);
+        return scrapeConfigCreateService.createConfig(config);
+    }
+
+    private CacheRegionStatistics queryRegion(String regionName) {
+        return statistics.getQueryRegionStatistics(regionName);
+    }
+
+    @Test
+    void findByIsEnabledTrue_2回目はDBを参照せずキャッシュから返す() {
+        createConfig("BANDAI", true);
+
+        scrapeConfigRepository.findByIsEnabledTrue();
+        long queryExecutions = statistics.getQueryExecutionCount();
+        long entityLoads = statistics.getEntityLoadCount();
+        assertEquals(1, scrapeConfigRepository.findByIsEnabledTrue().size());
+
+        assertEquals(1, queryRegion(EntityCacheInvalidator.SCRAPE_CONFIG_QUERY_REGION).getHitCount());
+        assertEquals(queryExecutions, statistics.getQueryExecutionCount());
+        assertEquals(entityLoads, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findByIsEnabledTrue_作成更新切り替えの後はDBから読み直す() {
+        ScrapeConfig bandai = createConfig("BANDAI", true);
+        scrapeConfigRepository.findByIsEnabledTrue();
+
+        createConfig("TAKARA_TOMY", true);
+        assertEquals(2, scrapeConfigRepository.findByIsEnabledTrue().size());
+
+        ScrapeConfig changes = new ScrapeConfig();
+        changes.setSiteName("BANDAI_NEW");
+        changes.setSiteUrl(bandai.getSiteUrl());
+        changes.setCronExpression(bandai.getCronExpression());
+        changes.setIsEnabled(true);
+        scrapeConfigUpdateService.updateConfig(bandai.getId(), changes);
+        assertTrue(scrapeConfigRepository.findByIsEnabledTrue().stream()
+                .anyMatch(config -> "BANDAI_NEW".equals(config.getSiteName())));
+
+        scrapeConfigUpdateService.toggleEnabled(bandai.getId());
+        assertEquals(1, scrapeConfigRepository.findByIsEnabledTrue().size());
+
+        assertEquals(0, queryRegion(EntityCacheInvalidator.SCRAPE_CONFIG_QUERY_REGION).getHitCount());
+    }
+
+    @Test
+    void findByEmail_2回目はクエリキャッシュから返し作成更新の後はDBから読み直す() {
+        User user = userCreateService.createUser("alice", "alice@example.com", "password", UserRole.USER);
+
+        userRepository.findByEmail("alice@example.com");
+        assertTrue(userRepository.findByEmail("alice@example.com").isPresent());
+        assertEquals(1, queryRegion(EntityCacheInvalidator.USER_QUERY_REGION).getHitCount());
+
+        userUpdateService.updateUser(user.getId(), null, "alice2@example.com", null, null);
+        assertTrue(userRepository.findByEmail("alice@example.com").isEmpty());
+        assertTrue(userRepository.findByEmail("alice2@example.com").isPresent());
+
+        userCreateService.createUser("bob", "bob@example.com", "password", UserRole.USER);
+        assertTrue(userRepository.findByEmail("alice2@example.com").isPresent());
+
+        assertEquals(1, queryRegion(EntityCacheInvalidator.USER_QUERY_REGION).getHitCount());
+    }
+
+    @Test
+    void evictScrapeConfigs_Userのクエリキャッシュは破棄しない() {
+        userCreateService.createUser("alice", "alice@example.com", "password", UserRole.USER);
+        userRepository.findByEmail("alice@example.com");
+        createConfig("BANDAI", true);
+        scrapeConfigRepository.findByIsEnabledTrue();
+
+        entityCacheInvalidator.evictScrapeConfigs();
+        userRepository.findByEmail("alice@example.com");
+        scrapeConfigRepository.findByIsEnabledTrue();
+
+        assertEquals(1, queryRegion(EntityCacheInvalidator.USER_QUERY_REGION).getHitCount());
+        assertEquals(0, queryRegion(EntityCacheInvalidator.SCRAPE_CONFIG_QUERY_REGION).getHitCount());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.product.NearDuplicateDetector;
+import com.example.capsuletoy.domain.product.ProductNameMinHasher;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.ProductNameSignature;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.repository.jdbc.ProductNameSignatureRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * NearDuplicateDetector・ProductNameMinHasherの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class NearDuplicateDetectorTest {
+
+    @Mock
+    private ProductNameSignatureRepository productNameSignatureRepository;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    private final ProductNameMinHasher productNameMinHasher = new ProductNameMinHasher();
+
+    private NearDuplicateDetector nearDuplicateDetector;
+
+    @BeforeEach
+    void setUp() {
+        nearDuplicateDetector = new NearDuplicateDetector(productNameMinHasher, productNameSignatureRepository,
+                databasePlatform);
+    }
+
+    private Product createProduct(Long id, String normalizedName) {
+        Product product = new Product();
+        product.setId(id);
+        product.setManufacturer("BANDAI");
+        product.setNormalizedName(normalizedName);
+        return product;
+    }
+
+    @Test
+    void bands_似た名前はバンドが一致し別の名前は一致しない() {
+        int[] original = productNameMinHasher.bands(productNameMinHasher.shingles("ポケモンミニフィギュアコレクション2"));
+        int[] similar = productNameMinHasher.bands(productNameMinHasher.shingles("ポケモンミニフィギュアコレクション3"));
+        int[] different = productNameMinHasher.bands(productNameMinHasher.shingles("ちいかわマスコットキーホルダー"));
+
+        assertTrue(sharesBand(original, similar));
+        assertFalse(sharesBand(original, different));
+        // 再起動しても同じ値になる（DBに保存するため）
+        assertArrayEquals(original,
+                new ProductNameMinHasher().bands(productNameMinHasher.shingles("ポケモンミニフィギュアコレクション2")));
+    }
+
+    @Test
+    void onProductsIngested_類似度がしきい値以上の候補だけ確認キューに追加する() {
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        when(productNameSignatureRepository.findCandidates(any(), any(), anyInt())).thenReturn(List.of(
+                new ProductNameSignature(10L, "BANDAI", "ポケモンミニフィギュアコレクション2"),
+                new ProductNameSignature(11L, "BANDAI", "ポケモンミニ")));
+        when(productNameSignatureRepository.addCandidate(eq(1L), eq(10L), anyDouble(), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        int detected = nearDuplicateDetector.onProductsIngested(
+                List.of(createProduct(1L, "ポケモンミニフィギュアコレクション3")));
+
+        assertEquals(1, detected);
+        verify(productNameSignatureRepository, never()).addCandidate(eq(1L), eq(11L), anyDouble(), any());
+        verify(productNameSignatureRepository).saveSignature(
+                eq(new ProductNameSignature(1L, "BANDAI", "ポケモンミニフィギュアコレクション3")), any());
+    }
+
+    @Test
+    void onProductsIngested_PostgreSQL以外は何もしない() {
+        when(databasePlatform.isPostgreSql()).thenReturn(false);
+
+        assertEquals(0, nearDuplicateDetector.onProductsIngested(List.of(createProduct(1L, "ガチャ"))));
+        verifyNoInteractions(productNameSignatureRepository);
+    }
+
+    @Test
+    void jaccard_文字3gramの重なりで類似度を求める() {
+        Set<String> a = productNameMinHasher.shingles("アイウエオ");
+        Set<String> b = productNameMinHasher.shingles("アイウエカ");
+
+        // {アイウ, イウエ, ウエオ} と {アイウ, イウエ, ウエカ} → 2 / 4
+        assertEquals(0.5, productNameMinHasher.jaccard(a, b), 1e-9);
+    }
+
+    private boolean sharesBand(int[] a, int[] b) {
+        return Arrays.stream(a).anyMatch(band -> Arrays.stream(b).anyMatch(other -> other == band));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.product.ProductAutocompleteIndex;
+import com.example.capsuletoy.record.ProductSuggestion;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProductAutocompleteIndexの単体テスト
+ */
+class ProductAutocompleteIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private ProductAutocompleteIndex productAutocompleteIndex;
+
+    private ProductSuggestion suggestion(long id, String normalizedName, String manufacturer, int day) {
+        return new ProductSuggestion(id, normalizedName, manufacturer, normalizedName, BASE.plusDays(day));
+    }
+
+    private List<Long> ids(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::id).toList();
+    }
+
+    @BeforeEach
+    void setUp() {
+        productAutocompleteIndex = new ProductAutocompleteIndex();
+        productAutocompleteIndex.replaceAll(List.of(
+                suggestion(1L, "ガチャミニ", "BANDAI", 1),
+                suggestion(2L, "ガチャポンフィギュア", "TAKARA_TOMY", 3),
+                suggestion(3L, "ガシャポン", "BANDAI", 2),
+                suggestion(4L, "ミニガチャ", "BANDAI", 5),
+                suggestion(5L, "ガチャキーホルダー", "BANDAI", 4)));
+    }
+
+    @Test
+    void suggest_前方一致する商品を新しい順に返す() {
+        assertEquals(List.of(5L, 2L, 1L), ids(productAutocompleteIndex.suggest("ガチャ", null, 10)));
+    }
+
+    @Test
+    void suggest_上位limit件とメーカーで絞り込む() {
+        assertEquals(List.of(5L), ids(productAutocompleteIndex.suggest("ガチャ", null, 1)));
+        assertEquals(List.of(5L, 1L), ids(productAutocompleteIndex.suggest("ガチャ", "BANDAI", 10)));
+    }
+
+    @Test
+    void suggest_空のprefixは候補なし() {
+        assertTrue(productAutocompleteIndex.suggest("", null, 10).isEmpty());
+        assertTrue(productAutocompleteIndex.suggest("ゼロ", null, 10).isEmpty());
+    }
+
+    @Test
+    void suggest_先頭2文字までの入力は求めておいた上位候補から返す() {
+        assertEquals(List.of(5L, 2L, 3L, 1L), ids(productAutocompleteIndex.suggest("ガ", null, 10)));
+        assertEquals(List.of(5L, 2L), ids(productAutocompleteIndex.suggest("ガチ", null, 2)));
+        assertEquals(List.of(5L, 1L), ids(productAutocompleteIndex.suggest("ガチ", "BANDAI", 10)));
+        assertEquals(List.of(2L), ids(productAutocompleteIndex.suggest("ガ", "TAKARA_TOMY", 10)));
+        assertTrue(productAutocompleteIndex.suggest("ガ", "UNKNOWN", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_候補の多い短い入力でも走査と同じ上位limit件を返す() {
+        List<ProductSuggestion> many = new ArrayList<>();
+        for (int i = 0; i < ProductAutocompleteIndex.BUCKET_TOP_K * 3; i++) {
+            // 名前の順と新しさの順が一致しないように並べる
+            many.add(suggestion(100L + i, "ガチャ" + String.format("%03d", i), i % 2 == 0 ? "BANDAI" : "TAKARA_TOMY",
+                    (i * 7) % 50));
+        }
+        productAutocompleteIndex.replaceAll(many);
+
+        List<Long> fromBucket = ids(productAutocompleteIndex.suggest("ガ", null, ProductAutocompleteIndex.BUCKET_TOP_K));
+        List<Long> fromScan = ids(productAutocompleteIndex.suggest("ガチャ", null, ProductAutocompleteIndex.BUCKET_TOP_K));
+        assertEquals(ProductAutocompleteIndex.BUCKET_TOP_K, fromBucket.size());
+        assertEquals(fromScan, fromBucket);
+        assertEquals(ids(productAutocompleteIndex.suggest("ガチャ", "BANDAI", 5)),
+                ids(productAutocompleteIndex.suggest("ガチ", "BANDAI", 5)));
+        // バケットの件数を超える limit は範囲を走査する
+        assertEquals(ProductAutocompleteIndex.BUCKET_TOP_K * 3,
+                productAutocompleteIndex.suggest("ガ", null, ProductAutocompleteIndex.BUCKET_TOP_K * 3).size());
+    }
+
+    @Test
+    void merge_追加した商品と名前が変わった商品を反映する() {
+        productAutocompleteIndex.merge(List.of(
+                suggestion(6L, "ガチャガチャ", "BANDAI", 6),
+                suggestion(1L, "カプセルミニ", "BANDAI", 1)));
+
+        assertEquals(List.of(6L, 5L, 2L), ids(productAutocompleteIndex.suggest("ガチャ", null, 10)));
+        assertEquals(List.of(1L), ids(productAutocompleteIndex.suggest("カプセル", null, 10)));
+        assertEquals(List.of(6L, 5L, 2L, 3L), ids(productAutocompleteIndex.suggest("ガ", null, 10)));
+        assertEquals(List.of(1L), ids(productAutocompleteIndex.suggest("カプ", null, 10)));
+        assertEquals(6, productAutocompleteIndex.size());
+    }
+
+    @Test
+    void remove_削除した商品は候補に出ない() {
+        productAutocompleteIndex.remove(5L);
+
+        assertEquals(List.of(2L, 1L), ids(productAutocompleteIndex.suggest("ガチャ", null, 10)));
+        assertEquals(List.of(2L, 3L, 1L), ids(productAutocompleteIndex.suggest("ガ", null, 10)));
+    }
+}
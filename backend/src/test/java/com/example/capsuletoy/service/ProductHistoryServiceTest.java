@@ -0,0 +1,81 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.product.ProductChangeDetector;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ProductChange;
+import com.example.capsuletoy.record.ProductTimelineEntry;
+import com.example.capsuletoy.repository.ProductChangeRepository;
+import com.example.capsuletoy.repository.ProductRepository;
+import com.example.capsuletoy.service.product.ProductHistoryService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProductHistoryServiceの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductHistoryServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    private ProductHistoryService productHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        productHistoryService = new ProductHistoryService(productRepository, productChangeRepository,
+                new ProductChangeDetector());
+    }
+
+    @Test
+    void getTimeline_現在値から各時点の値を復元する() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setProductName("商品A");
+        product.setPrice(500);
+        product.setReleaseDate(LocalDate.of(2026, 3, 1));
+        product.setFirstSeenAt(LocalDateTime.of(2026, 1, 1, 6, 0));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        LocalDateTime firstChange = LocalDateTime.of(2026, 1, 10, 6, 0);
+        LocalDateTime secondChange = LocalDateTime.of(2026, 2, 10, 6, 0);
+        when(productChangeRepository.findByProductIdOrderByObservedAtAscIdAsc(1L)).thenReturn(List.of(
+                new ProductChange(1L, ProductChangeDetector.PRICE, "300", "400", firstChange),
+                new ProductChange(1L, ProductChangeDetector.RELEASE_DATE, null, "2026-03-01", firstChange),
+                new ProductChange(1L, ProductChangeDetector.PRICE, "400", "500", secondChange)));
+
+        List<ProductTimelineEntry> timeline = productHistoryService.getTimeline(1L).orElseThrow();
+
+        assertEquals(3, timeline.size());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 6, 0), timeline.get(0).observedAt());
+        assertEquals("300", timeline.get(0).values().get(ProductChangeDetector.PRICE));
+        assertNull(timeline.get(0).values().get(ProductChangeDetector.RELEASE_DATE));
+        assertEquals("400", timeline.get(1).values().get(ProductChangeDetector.PRICE));
+        assertEquals("2026-03-01", timeline.get(1).values().get(ProductChangeDetector.RELEASE_DATE));
+        assertEquals(2, timeline.get(1).changes().size());
+        assertEquals("500", timeline.get(2).values().get(ProductChangeDetector.PRICE));
+    }
+
+    @Test
+    void getTimeline_商品が存在しない場合は空() {
+        when(productRepository.findById(999L)).thenReturn(Optional.empty());
+
+        assertTrue(productHistoryService.getTimeline(999L).isEmpty());
+        verifyNoInteractions(productChangeRepository);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.product.DuplicateChecker;
+import com.example.capsuletoy.domain.product.ProductChangeDetector;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.repository.ProductChangeRepository;
+import com.example.capsuletoy.repository.ProductRepository;
+import com.example.capsuletoy.repository.jdbc.CatalogWriteLock;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.repository.jdbc.ProductStagingLoader;
+import com.example.capsuletoy.repository.jdbc.ProductUpsertRepository;
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.service.product.ProductUpdateService;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * copyモードの取り込みテスト
+ * COPYはPostgreSQL専用のため、copyモードの判定と一時テーブル経由の反映だけモックにし、商品キーの無い商品の保存をH2で確認する
+ */
+@SpringBootTest
+class ProductIngestionTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DuplicateChecker duplicateChecker;
+
+    @Autowired
+    private ProductUpsertRepository productUpsertRepository;
+
+    @Autowired
+    private ProductChangeDetector productChangeDetector;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductQueryCache productQueryCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogWriteLock catalogWriteLock;
+
+    private DatabasePlatform databasePlatform = mock(DatabasePlatform.class);
+
+    private ProductStagingLoader productStagingLoader = mock(ProductStagingLoader.class);
+
+    private ProductUpdateService productUpdateService;
+
+    // バッチUPSERTのSQLはH2のまま選ばせるため、copyモードの判定だけモックにしたインスタンスを使う
+    @BeforeEach
+    void setUp() {
+        productUpdateService = new ProductUpdateService(productRepository, duplicateChecker, productUpsertRepository,
+                productStagingLoader, databasePlatform, productChangeDetector, productChangeRepository,
+                entityManager, productQueryCache, mock(ClusterJobLock.class),
+                catalogWriteLock);
+        ReflectionTestUtils.setField(productUpdateService, "ingestMode", "copy");
+    }
+
+    private void ingest(List<Product> products) {
+        transactionTemplate.executeWithoutResult(status -> productUpdateService.ingestScrapedProducts(products));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    private Product createKeylessProduct(String productName, String normalizedName, Integer price) {
+        Product product = new Product();
+        product.setProductName(productName);
+        product.setManufacturer("TAKARA_TOMY");
+        product.setPrice(price);
+        product.setNormalizedName(normalizedName);
+        product.setSearchText(normalizedName);
+        return product;
+    }
+
+    @Test
+    void ingestScrapedProducts_商品キーの無い商品を2回取り込んでも行は増えない() {
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        when(productStagingLoader.loadAndMerge(anyList())).thenReturn(List.of());
+
+        ingest(List.of(createKeylessProduct("商品A", "商品a", 300), createKeylessProduct("商品B", "商品b", 400)));
+        long countAfterFirstLoad = productRepository.count();
+        ingest(List.of(
+                createKeylessProduct("商品A", "商品a", 350), createKeylessProduct("商品B", "商品b", 400)));
+
+        assertEquals(2, countAfterFirstLoad);
+        assertEquals(countAfterFirstLoad, productRepository.count());
+        Product updated = productRepository.findByManufacturerAndNormalizedNameIn("TAKARA_TOMY", List.of("商品a")).get(0);
+        assertEquals(350, updated.getPrice());
+        verify(productStagingLoader, times(2)).loadAndMerge(List.of());
+    }
+}
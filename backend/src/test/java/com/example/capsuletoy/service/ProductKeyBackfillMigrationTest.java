@@ -0,0 +1,95 @@
+package com.example.capsuletoy.service;
+
+import db.migration.V11__Backfill_product_keys;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * V11（既存商品への商品キー設定）のマイグレーションテスト
+ */
+class ProductKeyBackfillMigrationTest {
+
+    private Connection connection;
+
+    private Context context;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:product_key_backfill;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, manufacturer VARCHAR(255) NOT NULL, "
+                    + "source_url TEXT, product_key VARCHAR(80), updated_at TIMESTAMP NOT NULL, "
+                    + "CONSTRAINT uk_products_manufacturer_product_key UNIQUE (manufacturer, product_key))");
+        }
+        context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE products");
+        }
+        connection.close();
+    }
+
+    private void insert(long id, String sourceUrl, String productKey, String updatedAt) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO products (id, manufacturer, source_url, product_key, updated_at) VALUES ("
+                    + id + ", 'BANDAI', " + (sourceUrl == null ? "NULL" : "'" + sourceUrl + "'") + ", "
+                    + (productKey == null ? "NULL" : "'" + productKey + "'") + ", TIMESTAMP '" + updatedAt + "')");
+        }
+    }
+
+    private Map<Long, String> productKeys() throws Exception {
+        Map<Long, String> keys = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery("SELECT id, product_key FROM products")) {
+            while (rs.next()) {
+                keys.put(rs.getLong(1), rs.getString(2));
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    void migrate_同じキーの商品は最新の1件だけに設定する() throws Exception {
+        insert(1, "https://gashapon.jp/products/detail.php?jan_code=111", null, "2024-01-01 00:00:00");
+        insert(2, "https://gashapon.jp/products/detail.php?jan_code=111&from=top", null, "2024-02-01 00:00:00");
+        insert(3, "https://gashapon.jp/products/detail.php?jan_code=222", null, "2024-01-01 00:00:00");
+
+        new V11__Backfill_product_keys().migrate(context);
+
+        Map<Long, String> keys = productKeys();
+        assertNull(keys.get(1L));
+        assertEquals("111", keys.get(2L));
+        assertEquals("222", keys.get(3L));
+    }
+
+    @Test
+    void migrate_既に使われているキーやURLの無い商品には設定しない() throws Exception {
+        insert(1, "https://gashapon.jp/products/detail.php?jan_code=111", "111", "2024-01-01 00:00:00");
+        insert(2, "https://gashapon.jp/products/detail.php?jan_code=111", null, "2024-02-01 00:00:00");
+        insert(3, null, null, "2024-01-01 00:00:00");
+
+        new V11__Backfill_product_keys().migrate(context);
+
+        Map<Long, String> keys = productKeys();
+        assertEquals("111", keys.get(1L));
+        assertNull(keys.get(2L));
+        assertNull(keys.get(3L));
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.product.ProductKeyExtractor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProductKeyExtractorの単体テスト
+ */
+class ProductKeyExtractorTest {
+
+    private final ProductKeyExtractor productKeyExtractor = new ProductKeyExtractor();
+
+    @Test
+    void extractProductKey_バンダイはjan_codeを使う() {
+        String key = productKeyExtractor.extractProductKey("BANDAI",
+                "https://gashapon.jp/products/detail.php?jan_code=4582769123456&utm=top");
+
+        assertEquals("4582769123456", key);
+    }
+
+    @Test
+    void extractProductKey_タカラトミーはnを使う() {
+        String key = productKeyExtractor.extractProductKey("TAKARA_TOMY",
+                "https://www.takaratomy-arts.co.jp/items/item.html?n=Y123456");
+
+        assertEquals("Y123456", key);
+    }
+
+    @Test
+    void extractProductKey_パラメータがない場合はURLのハッシュ() {
+        String key = productKeyExtractor.extractProductKey("BANDAI", "https://gashapon.jp/products/");
+
+        assertTrue(key.startsWith("url:"));
+        assertEquals(key, productKeyExtractor.extractProductKey("BANDAI", "https://gashapon.jp/products/"));
+    }
+
+    @Test
+    void extractProductKey_URLがない場合はnull() {
+        assertNull(productKeyExtractor.extractProductKey("BANDAI", null));
+    }
+}
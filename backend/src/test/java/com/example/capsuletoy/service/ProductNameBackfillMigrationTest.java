@@ -0,0 +1,88 @@
+package com.example.capsuletoy.service;
+
+import db.migration.V12__Backfill_normalized_product_names;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * V12（既存商品への正規化名・検索用テキスト設定）のマイグレーションテスト
+ */
+class ProductNameBackfillMigrationTest {
+
+    private Connection connection;
+
+    private Context context;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:product_name_backfill;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE products (id BIGINT PRIMARY KEY, product_name VARCHAR(255) NOT NULL, "
+                    + "lineup_info TEXT, description TEXT, normalized_name VARCHAR(255), search_text TEXT)");
+        }
+        context = mock(Context.class);
+        when(context.getConnection()).thenReturn(connection);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE products");
+        }
+        connection.close();
+    }
+
+    private void insert(long id, String productName, String lineupInfo, String normalizedName, String searchText)
+            throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO products "
+                + "(id, product_name, lineup_info, normalized_name, search_text) VALUES (?, ?, ?, ?, ?)")) {
+            statement.setLong(1, id);
+            statement.setString(2, productName);
+            statement.setString(3, lineupInfo);
+            statement.setString(4, normalizedName);
+            statement.setString(5, searchText);
+            statement.executeUpdate();
+        }
+    }
+
+    private String[] row(long id) throws Exception {
+        try (Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(
+                        "SELECT normalized_name, search_text FROM products WHERE id = " + id)) {
+            assertTrue(rs.next());
+            return new String[] {rs.getString(1), rs.getString(2)};
+        }
+    }
+
+    @Test
+    void migrate_未設定の商品に正規化名と検索用テキストを設定する() throws Exception {
+        insert(1, "ガシャポン！ Ｆｉｇｕｒｅ", "全５種", null, null);
+        insert(2, "ちいかわ マスコット", null, "チイカワマスコット", null);
+
+        new V12__Backfill_normalized_product_names().migrate(context);
+
+        assertArrayEquals(new String[] {"ガシャポンfigure", "ガシャポンfigure 全5種"}, row(1));
+        assertArrayEquals(new String[] {"チイカワマスコット", "チイカワマスコット"}, row(2));
+    }
+
+    @Test
+    void migrate_設定済みの商品は変更しない() throws Exception {
+        insert(1, "商品A", null, "設定済み", "設定済み");
+
+        new V12__Backfill_normalized_product_names().migrate(context);
+
+        assertArrayEquals(new String[] {"設定済み", "設定済み"}, row(1));
+    }
+}
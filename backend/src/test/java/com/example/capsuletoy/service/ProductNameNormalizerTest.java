@@ -0,0 +1,53 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
+import com.example.capsuletoy.model.Product;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProductNameNormalizerの単体テスト
+ */
+class ProductNameNormalizerTest {
+
+    private final ProductNameNormalizer productNameNormalizer = new ProductNameNormalizer();
+
+    @Test
+    void normalize_全角英数と半角英数を同じにする() {
+        assertEquals(productNameNormalizer.normalize("Pokemon 01"), productNameNormalizer.normalize("Ｐｏｋｅｍｏｎ　０１"));
+        assertEquals("pokemon01", productNameNormalizer.normalize("Ｐｏｋｅｍｏｎ　０１"));
+    }
+
+    @Test
+    void normalize_半角カナを全角カナにする() {
+        assertEquals("ガチャポン", productNameNormalizer.normalize("ｶﾞﾁｬﾎﾟﾝ"));
+    }
+
+    @Test
+    void normalize_ひらがなをカタカナに統一する() {
+        assertEquals(productNameNormalizer.normalize("ガチャ"), productNameNormalizer.normalize("がちゃ"));
+    }
+
+    @Test
+    void normalize_記号と空白を除去し長音記号は残す() {
+        assertEquals("新作ミニチュアコレクションvol2", productNameNormalizer.normalize("【新作】ミニチュア・コレクション Vol.2！"));
+        assertEquals("スーパー", productNameNormalizer.normalize("スｰパｰ"));
+    }
+
+    @Test
+    void normalize_nullはnull() {
+        assertNull(productNameNormalizer.normalize(null));
+    }
+
+    @Test
+    void buildSearchText_商品名とラインナップと説明を正規化して空白でつなげる() {
+        Product product = new Product();
+        product.setProductName("ミニ・フィギュア");
+        product.setLineupInfo(null);
+        product.setDescription("全５種　ＢＯＸ");
+
+        assertEquals("ミニフィギュア 全5種box", productNameNormalizer.buildSearchText(product));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.product.ProductNewnessPolicy;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProductNewnessPolicyの単体テスト
+ */
+class ProductNewnessPolicyTest {
+
+    private final ProductNewnessPolicy productNewnessPolicy = new ProductNewnessPolicy();
+
+    @Test
+    void isNew_新着期間内に初めて検出された商品は新着() {
+        assertTrue(productNewnessPolicy.isNew(LocalDate.now().minusDays(30).atStartOfDay()));
+        assertTrue(productNewnessPolicy.isNew(LocalDate.now().atTime(12, 0)));
+    }
+
+    @Test
+    void isNew_新着期間より前に検出された商品は新着ではない() {
+        assertFalse(productNewnessPolicy.isNew(LocalDate.now().minusDays(31).atTime(23, 59)));
+    }
+
+    @Test
+    void isNew_初回検出日時が未設定なら新着ではない() {
+        assertFalse(productNewnessPolicy.isNew(null));
+    }
+}
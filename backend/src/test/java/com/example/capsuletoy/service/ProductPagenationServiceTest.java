@@ -0,0 +1,251 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.product.ProductCursor;
+import com.example.capsuletoy.domain.product.ProductFieldSet;
+import com.example.capsuletoy.domain.product.ProductNameNormalizer;
+import com.example.capsuletoy.domain.product.ProductNewnessPolicy;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.record.CatalogVersion;
+import com.example.capsuletoy.record.ProductSlice;
+import com.example.capsuletoy.repository.ArchivedProductRepository;
+import com.example.capsuletoy.repository.ProductRepository;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.service.product.ProductPagenationService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProductPagenationServiceのキーワード検索・カーソル方式・項目指定の単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductPagenationServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductNewnessPolicy productNewnessPolicy;
+
+    @Mock
+    private ArchivedProductRepository archivedProductRepository;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    private ProductPagenationService productPagenationService;
+
+    private final Page<Product> emptyPage = new PageImpl<>(List.of());
+
+    @BeforeEach
+    void setUp() {
+        productPagenationService = new ProductPagenationService(productRepository, productNewnessPolicy,
+                archivedProductRepository, new ProductNameNormalizer(), databasePlatform, 60);
+    }
+
+    @Test
+    void getProducts_関連度順はPostgreSQLでは類似度付きの検索を使う() {
+        Pageable pageable = productPagenationService.buildPageable(0, 20, ProductPagenationService.RELEVANCE_SORT, "desc");
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        when(productRepository.searchByRelevance("BANDAI", "ガチャ", pageable)).thenReturn(emptyPage);
+
+        productPagenationService.getProducts("BANDAI", "がちゃ", pageable);
+
+        verify(productRepository).searchByRelevance("BANDAI", "ガチャ", pageable);
+        verify(productRepository, never()).searchByRelevancePortable(any(), any(), any());
+    }
+
+    @Test
+    void getProducts_関連度順はPostgreSQL以外では移植可能な検索を使う() {
+        Pageable pageable = productPagenationService.buildPageable(0, 20, ProductPagenationService.RELEVANCE_SORT, "desc");
+        when(databasePlatform.isPostgreSql()).thenReturn(false);
+        when(productRepository.searchByRelevancePortable(null, "ガチャ", pageable)).thenReturn(emptyPage);
+
+        productPagenationService.getProducts(null, "ガチャ", pageable);
+
+        verify(productRepository).searchByRelevancePortable(null, "ガチャ", pageable);
+    }
+
+    @Test
+    void getProducts_並び順を指定したキーワード検索は検索用テキストの部分一致() {
+        Pageable pageable = productPagenationService.buildPageable(0, 20, "releaseDate", "desc");
+        when(productRepository.findBySearchTextContaining("ガチャ", pageable)).thenReturn(emptyPage);
+
+        productPagenationService.getProducts(null, "ガチャ", pageable);
+
+        verify(productRepository).findBySearchTextContaining("ガチャ", pageable);
+        verifyNoInteractions(databasePlatform);
+    }
+
+    @Test
+    void getProducts_キーワードが無い関連度順は新着順() {
+        Pageable pageable = productPagenationService.buildPageable(0, 20, ProductPagenationService.RELEVANCE_SORT, "desc");
+        when(productRepository.findAll(any(Pageable.class))).thenReturn(emptyPage);
+
+        productPagenationService.getProducts(null, null, pageable);
+
+        verify(productRepository).findAll(eq(productPagenationService.buildPageable(0, 20, "createdAt", "desc")));
+    }
+
+    @Test
+    void getProductsAfter_1件多く読めた場合は最後の商品の位置をカーソルにする() {
+        Product newer = createProduct(3L, "ガチャA", LocalDateTime.of(2024, 1, 2, 0, 0));
+        Product older = createProduct(2L, "ガチャB", LocalDateTime.of(2024, 1, 1, 0, 0));
+        Product oldest = createProduct(1L, "ガチャC", LocalDateTime.of(2023, 12, 31, 0, 0));
+        when(productRepository.findBy(anySpecification(), any())).thenReturn(List.of(newer, older, oldest));
+
+        ProductSlice slice = productPagenationService.getProductsAfter(null, null, "createdAt", "desc", null, 2, false, null);
+
+        assertEquals(List.of(newer, older), slice.content());
+        assertNull(slice.totalElements());
+        ProductCursor cursor = ProductCursor.decode(slice.nextCursor());
+        assertEquals("createdAt", cursor.sort());
+        assertEquals(older.getCreatedAt(), cursor.createdAt());
+        assertEquals(2L, cursor.id());
+        verify(productRepository, never()).count(anySpecification());
+    }
+
+    @Test
+    void getProductsAfter_未設定になりうるキーでは設定済みの商品の後に未設定の商品を続ける() {
+        Product dated = createProduct(2L, "ガチャA", LocalDateTime.of(2024, 1, 1, 0, 0));
+        dated.setReleaseDate(LocalDate.of(2024, 4, 1));
+        Product undated = createProduct(1L, "ガチャB", LocalDateTime.of(2024, 1, 1, 0, 0));
+        when(productRepository.findBy(anySpecification(), any()))
+                .thenReturn(List.of(dated))
+                .thenReturn(List.of(undated));
+
+        ProductSlice slice = productPagenationService.getProductsAfter(null, null, "releaseDate", "asc", null, 20, false, null);
+
+        assertEquals(List.of(dated, undated), slice.content());
+        assertNull(slice.nextCursor());
+        verify(productRepository, times(2)).findBy(anySpecification(), any());
+    }
+
+    @Test
+    void getProductsAfter_未設定のキーまで進んだカーソルでは未設定の商品だけを読む() {
+        String cursor = new ProductCursor("price", "desc", null, 5L).encode();
+        when(productRepository.findBy(anySpecification(), any())).thenReturn(List.of());
+
+        productPagenationService.getProductsAfter(null, null, "price", "desc", cursor, 20, false, null);
+
+        verify(productRepository, times(1)).findBy(anySpecification(), any());
+    }
+
+    @Test
+    void getProductsAfter_件数は要求された場合だけキャッシュから返す() {
+        when(productRepository.findBy(anySpecification(), any())).thenReturn(List.of());
+        when(productRepository.count(anySpecification())).thenReturn(42L);
+
+        ProductSlice first = productPagenationService.getProductsAfter("BANDAI", "がちゃ", "createdAt", "desc", null, 20, true, null);
+        ProductSlice second = productPagenationService.getProductsAfter("BANDAI", "ガチャ", "createdAt", "desc", null, 20, true, null);
+
+        assertEquals(42L, first.totalElements());
+        assertEquals(42L, second.totalElements());
+        verify(productRepository, times(1)).count(anySpecification());
+    }
+
+    @Test
+    void getProductsAfter_並び順が違うカーソルや対応しない並び順は例外() {
+        String cursor = new ProductCursor("createdAt", "desc", "2024-01-01T00:00", 1L).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productPagenationService.getProductsAfter(null, null, "price", "desc", cursor, 20, false, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> productPagenationService.getProductsAfter(null, null, "createdAt", "desc", "invalid", 20, false, null));
+        assertThrows(IllegalArgumentException.class, () -> productPagenationService.getProductsAfter(null, "ガチャ",
+                ProductPagenationService.RELEVANCE_SORT, "desc", null, 20, false, null));
+    }
+
+    @Test
+    void productCursor_区切り文字を含む商品名もそのまま復元できる() {
+        ProductCursor cursor = new ProductCursor("productName", "asc", "ガチャ_Vol_1", 7L);
+
+        assertEquals(cursor, ProductCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void getProductFields_関連度順は指定項目の列だけを類似度付きで読みisNewを算出する() {
+        ProductFieldSet fieldSet = ProductFieldSet.parse("productName,isNew");
+        Pageable pageable = productPagenationService.buildPageable(0, 20, ProductPagenationService.RELEVANCE_SORT, "desc");
+        LocalDateTime firstSeenAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("productName", "ガチャA");
+        row.put("firstSeenAt", firstSeenAt);
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        when(productNewnessPolicy.isNew(firstSeenAt)).thenReturn(true);
+        when(productRepository.findFieldsByRelevance(eq(fieldSet.columns()), anySpecification(), eq("ガチャ"), eq(true),
+                eq(0L), eq(20))).thenReturn(new ArrayList<>(List.of(row)));
+
+        Page<Map<String, Object>> page = productPagenationService.getProductFields(null, "がちゃ", pageable, fieldSet);
+
+        assertEquals(List.of("id", "productName", "firstSeenAt"), List.copyOf(fieldSet.columns()));
+        Map<String, Object> result = page.getContent().get(0);
+        assertEquals(Boolean.TRUE, result.get("isNew"));
+        assertFalse(result.containsKey("firstSeenAt"));
+        assertEquals(1, page.getTotalElements());
+        verify(productRepository, never()).count(anySpecification());
+        verify(productRepository, never()).searchByRelevance(any(), any(), any());
+    }
+
+    @Test
+    void productFieldSet_summaryはカード向けの項目に展開し不明な項目は例外() {
+        ProductFieldSet fieldSet = ProductFieldSet.parse("summary, sourceUrl");
+
+        assertTrue(fieldSet.fields().containsAll(ProductFieldSet.SUMMARY_FIELDS));
+        assertTrue(fieldSet.fields().contains("sourceUrl"));
+        assertFalse(fieldSet.fields().contains("description"));
+        assertNull(ProductFieldSet.parse(" "));
+        assertThrows(IllegalArgumentException.class, () -> ProductFieldSet.parse("searchText"));
+    }
+
+    private static Specification<Product> anySpecification() {
+        return any();
+    }
+
+    private Product createProduct(Long id, String productName, LocalDateTime createdAt) {
+        Product product = new Product();
+        product.setId(id);
+        product.setProductName(productName);
+        product.setManufacturer("BANDAI");
+        product.setCreatedAt(createdAt);
+        return product;
+    }
+
+    @Test
+    void getCatalogVersion_アーカイブや削除でもETagが変わる() {
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 1, 15, 10, 0);
+        when(productRepository.findLastUpdatedAt()).thenReturn(updatedAt);
+        when(archivedProductRepository.findLastArchivedAt()).thenReturn(updatedAt.plusHours(1));
+        when(productRepository.count()).thenReturn(10L, 9L);
+        when(archivedProductRepository.count()).thenReturn(2L);
+        when(productNewnessPolicy.newSince()).thenReturn(LocalDate.of(2025, 12, 16).atStartOfDay());
+
+        CatalogVersion version = productPagenationService.getCatalogVersion();
+        CatalogVersion afterDelete = productPagenationService.getCatalogVersion();
+
+        // 最終更新日時はアーカイブ日時の方が新しければそちら
+        assertEquals(updatedAt.plusHours(1), version.lastModified());
+        assertNotEquals(version.etag(), afterDelete.etag());
+        assertTrue(version.etag().startsWith("\"") && version.etag().endsWith("\""));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProductQueryCacheの単体テスト
+ */
+class ProductQueryCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void getOrLoad_2回目はキャッシュから返す() {
+        ProductQueryCache cache = new ProductQueryCache(meterRegistry, true, 10, 60, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("result", cache.getOrLoad("key", () -> {
+            loads.incrementAndGet();
+            return "result";
+        }));
+        assertEquals("result", cache.getOrLoad("key", () -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("product.query.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(0.5, meterRegistry.get("product.query.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void getOrLoad_上限を超えたら最も古く使われた結果を破棄する() {
+        ProductQueryCache cache = new ProductQueryCache(meterRegistry, true, 2, 60, 0);
+        cache.getOrLoad("a", () -> "A");
+        cache.getOrLoad("b", () -> "B");
+        cache.getOrLoad("a", () -> "A2");
+        cache.getOrLoad("c", () -> "C");
+
+        assertEquals(2, cache.size());
+        assertEquals("A", cache.getOrLoad("a", () -> "A3"));
+        assertEquals("B2", cache.getOrLoad("b", () -> "B2"));
+        // c の追加で b、b の読み直しで c を破棄した
+        assertEquals(2.0, meterRegistry.get("product.query.cache.evictions").tag("cause", "size").counter().count());
+    }
+
+    @Test
+    void getOrLoad_有効期限が切れた結果は検索し直す() {
+        ProductQueryCache cache = new ProductQueryCache(meterRegistry, true, 10, 0, 0);
+        cache.getOrLoad("key", () -> "old");
+
+        assertEquals("new", cache.getOrLoad("key", () -> "new"));
+        assertEquals(1.0, meterRegistry.get("product.query.cache.evictions").tag("cause", "expired").counter().count());
+    }
+
+    @Test
+    void invalidateAll_検索中に破棄された結果は保存しない() {
+        ProductQueryCache cache = new ProductQueryCache(meterRegistry, true, 10, 60, 0);
+
+        cache.getOrLoad("key", () -> {
+            cache.invalidateAll();
+            return "stale";
+        });
+
+        assertEquals(0, cache.size());
+        assertEquals("fresh", cache.getOrLoad("key", () -> "fresh"));
+    }
+
+    @Test
+    void invalidateAll_破棄の直後はレプリカの反映を待つため保存しない() {
+        ProductQueryCache cache = new ProductQueryCache(meterRegistry, true, 10, 60, 60_000);
+        cache.invalidateAll();
+
+        cache.getOrLoad("key", () -> "maybe-stale");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidateAfterCommit_コミットされるまで破棄しない() {
+        ProductQueryCache cache = new ProductQueryCache(meterRegistry, true, 10, 60, 0);
+        cache.getOrLoad("key", () -> "result");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateAfterCommit();
+            assertEquals(1, cache.size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(0, cache.size());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getOrLoad_同じ条件の同時の検索は1回にまとめる() throws Exception {
+        ProductQueryCache cache = new ProductQueryCache(meterRegistry, true, 10, 60, 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> cache.getOrLoad("key", () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "result";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> cache.getOrLoad("key", () -> {
+                loads.incrementAndGet();
+                return "duplicate";
+            }));
+            // 2件目が先行の検索を待ち始めるまで待つ
+            while (meterRegistry.get("product.query.cache.requests").tag("result", "coalesced").counter().count() < 1) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            assertEquals("result", first.get(5, TimeUnit.SECONDS));
+            assertEquals("result", second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
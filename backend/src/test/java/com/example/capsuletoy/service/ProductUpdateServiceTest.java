@@ -0,0 +1,350 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.cache.ProductQueryCache;
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.domain.product.DuplicateChecker;
+import com.example.capsuletoy.domain.product.ProductChangeDetector;
+import com.example.capsuletoy.model.ArchivedProduct;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ProductChange;
+import com.example.capsuletoy.model.UpsertOutcome;
+import com.example.capsuletoy.record.ProductUpsertResult;
+import com.example.capsuletoy.repository.ArchivedProductRepository;
+import com.example.capsuletoy.repository.ProductChangeRepository;
+import com.example.capsuletoy.repository.ProductRepository;
+import com.example.capsuletoy.repository.jdbc.CatalogWriteLock;
+import com.example.capsuletoy.repository.jdbc.DatabasePlatform;
+import com.example.capsuletoy.repository.jdbc.ProductStagingLoader;
+import com.example.capsuletoy.repository.jdbc.ProductUpsertRepository;
+import com.example.capsuletoy.service.product.ProductUpdateService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProductUpdateServiceの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductUpdateServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ArchivedProductRepository archivedProductRepository;
+
+    @Mock
+    private ProductUpsertRepository productUpsertRepository;
+
+    @Mock
+    private ProductStagingLoader productStagingLoader;
+
+    @Mock
+    private DatabasePlatform databasePlatform;
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ProductQueryCache productQueryCache;
+
+    @Mock
+    private ClusterJobLock clusterJobLock;
+
+    @Mock
+    private CatalogWriteLock catalogWriteLock;
+
+    private ProductUpdateService productUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        // 既存商品の取得はProductRepositoryのモックで差し替える
+        DuplicateChecker duplicateChecker = new DuplicateChecker(productRepository, archivedProductRepository);
+        productUpdateService = new ProductUpdateService(productRepository, duplicateChecker, productUpsertRepository,
+                productStagingLoader, databasePlatform, new ProductChangeDetector(), productChangeRepository,
+                entityManager, productQueryCache, clusterJobLock, catalogWriteLock);
+    }
+
+    private Product createProduct(String productKey, String productName, Integer price) {
+        Product product = new Product();
+        product.setProductName(productName);
+        product.setManufacturer("BANDAI");
+        product.setPrice(price);
+        product.setSourceUrl("https://gashapon.jp/products/detail.php?jan_code=" + productKey);
+        product.setProductKey(productKey);
+        return product;
+    }
+
+    @Test
+    void upsertScrapedProducts_新規_更新_変更なしを判定する() {
+        Product existingUnchanged = createProduct("111", "商品A", 300);
+        existingUnchanged.setId(1L);
+        Product existingChanged = createProduct("222", "商品B", 300);
+        existingChanged.setId(2L);
+        existingChanged.setIsNew(false);
+        existingChanged.setFirstSeenAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        existingChanged.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        when(productRepository.findByManufacturerAndProductKeyIn(eq("BANDAI"), anyCollection()))
+                .thenReturn(List.of(existingUnchanged, existingChanged));
+
+        List<ProductUpsertResult> results = productUpdateService.upsertScrapedProducts(List.of(
+                createProduct("111", "商品A", 300),
+                createProduct("222", "商品B", 400),
+                createProduct("333", "商品C", 500)));
+
+        Map<String, UpsertOutcome> outcomes = results.stream()
+                .collect(Collectors.toMap(r -> r.product().getProductKey(), ProductUpsertResult::outcome));
+        assertEquals(UpsertOutcome.UNCHANGED, outcomes.get("111"));
+        assertEquals(UpsertOutcome.UPDATED, outcomes.get("222"));
+        assertEquals(UpsertOutcome.INSERTED, outcomes.get("333"));
+
+        // 更新対象は既存のid・登録日時・初回検出日時を引き継ぐ
+        Product updated = results.get(1).product();
+        assertEquals(2L, updated.getId());
+        assertFalse(updated.getIsNew());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), updated.getFirstSeenAt());
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), updated.getCreatedAt());
+
+        // 変更のない商品はSQLを発行しない
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productUpsertRepository).upsertAll(captor.capture());
+        assertEquals(List.of("222", "333"), captor.getValue().stream().map(Product::getProductKey).toList());
+
+        // 更新された商品の変わった項目だけを変更履歴に記録する
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductChange>> changeCaptor = ArgumentCaptor.forClass(List.class);
+        verify(productChangeRepository).saveAll(changeCaptor.capture());
+        assertEquals(1, changeCaptor.getValue().size());
+        ProductChange change = changeCaptor.getValue().get(0);
+        assertEquals(2L, change.getProductId());
+        assertEquals(ProductChangeDetector.PRICE, change.getField());
+        assertEquals("300", change.getOldValue());
+        assertEquals("400", change.getNewValue());
+    }
+
+    @Test
+    void upsertScrapedProducts_同じ商品キーは1件にまとめる() {
+        when(productRepository.findByManufacturerAndProductKeyIn(eq("BANDAI"), anyCollection())).thenReturn(List.of());
+
+        List<ProductUpsertResult> results = productUpdateService.upsertScrapedProducts(List.of(
+                createProduct("111", "商品A", 300),
+                createProduct("111", "商品A（再販）", 300)));
+
+        assertEquals(1, results.size());
+        assertEquals("商品A（再販）", results.get(0).product().getProductName());
+        verify(productUpsertRepository).upsertAll(anyList());
+    }
+
+    @Test
+    void upsertScrapedProducts_登録_更新が無ければ商品一覧のキャッシュを破棄しない() {
+        Product existing = createProduct("111", "商品A", 300);
+        existing.setId(1L);
+        when(productRepository.findByManufacturerAndProductKeyIn(eq("BANDAI"), anyCollection()))
+                .thenReturn(List.of(existing));
+
+        productUpdateService.upsertScrapedProducts(List.of(createProduct("111", "商品A", 300)));
+        verify(productQueryCache, never()).invalidateAfterCommit();
+
+        productUpdateService.upsertScrapedProducts(List.of(createProduct("111", "商品A", 400)));
+        verify(productQueryCache).invalidateAfterCommit();
+    }
+
+    @Test
+    void upsertScrapedProducts_商品キーの無い商品は正規化名で既存商品と照合する() {
+        Product existing = new Product();
+        existing.setId(5L);
+        existing.setVersion(1L);
+        existing.setManufacturer("BANDAI");
+        existing.setProductName("ガチャ ミニ");
+        existing.setNormalizedName("ガチャミニ");
+        existing.setPrice(300);
+        when(productRepository.findByManufacturerAndNormalizedNameIn(eq("BANDAI"), anyCollection()))
+                .thenReturn(List.of(existing));
+
+        Product scraped = new Product();
+        scraped.setManufacturer("BANDAI");
+        scraped.setProductName("がちゃ・ミニ");
+        scraped.setNormalizedName("ガチャミニ");
+        scraped.setPrice(400);
+        List<ProductUpsertResult> results = productUpdateService.upsertScrapedProducts(List.of(scraped));
+
+        assertEquals(1, results.size());
+        assertEquals(UpsertOutcome.UPDATED, results.get(0).outcome());
+        assertEquals(5L, results.get(0).product().getId());
+    }
+
+    @Test
+    void upsertScrapedProducts_アーカイブ済みの商品は再登録しない() {
+        ArchivedProduct archived = new ArchivedProduct();
+        archived.setManufacturer("BANDAI");
+        archived.setProductKey("111");
+        when(productRepository.findByManufacturerAndProductKeyIn(eq("BANDAI"), anyCollection())).thenReturn(List.of());
+        when(archivedProductRepository.findByManufacturerAndProductKeyIn(eq("BANDAI"), anyCollection()))
+                .thenReturn(List.of(archived));
+
+        List<ProductUpsertResult> results = productUpdateService.upsertScrapedProducts(List.of(
+                createProduct("111", "商品A", 300),
+                createProduct("222", "商品B", 300)));
+
+        Map<String, UpsertOutcome> outcomes = results.stream()
+                .collect(Collectors.toMap(r -> r.product().getProductKey(), ProductUpsertResult::outcome));
+        assertEquals(UpsertOutcome.UNCHANGED, outcomes.get("111"));
+        assertEquals(UpsertOutcome.INSERTED, outcomes.get("222"));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productUpsertRepository).upsertAll(captor.capture());
+        assertEquals(List.of("222"), captor.getValue().stream().map(Product::getProductKey).toList());
+    }
+
+    @Test
+    void upsertScrapedProducts_商品キーの無いアーカイブ済みの商品は正規化名で照合して再登録しない() {
+        ArchivedProduct archived = new ArchivedProduct();
+        archived.setManufacturer("BANDAI");
+        archived.setNormalizedName("しょうひんa");
+        when(productRepository.findByManufacturerAndNormalizedNameIn(eq("BANDAI"), anyCollection()))
+                .thenReturn(List.of());
+        when(archivedProductRepository.findByManufacturerAndProductKeyIsNullAndNormalizedNameIn(eq("BANDAI"),
+                anyCollection())).thenReturn(List.of(archived));
+        Product archivedAgain = createProduct(null, "商品A", 300);
+        archivedAgain.setNormalizedName("しょうひんa");
+        Product fresh = createProduct(null, "商品B", 300);
+        fresh.setNormalizedName("しょうひんb");
+
+        List<ProductUpsertResult> results = productUpdateService.upsertScrapedProducts(List.of(archivedAgain, fresh));
+
+        assertEquals(UpsertOutcome.UNCHANGED, results.get(0).outcome());
+        assertEquals(UpsertOutcome.INSERTED, results.get(1).outcome());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Product>> captor = ArgumentCaptor.forClass(List.class);
+        verify(productUpsertRepository).upsertAll(captor.capture());
+        assertEquals(List.of("しょうひんb"), captor.getValue().stream().map(Product::getNormalizedName).toList());
+    }
+
+    @Test
+    void upsertScrapedProducts_競合した商品は読み直して再試行する() {
+        Product stale = createProduct("111", "商品A", 300);
+        stale.setId(1L);
+        stale.setVersion(3L);
+        Product latest = createProduct("111", "商品A", 350);
+        latest.setId(1L);
+        latest.setVersion(4L);
+        when(productRepository.findByManufacturerAndProductKeyIn(eq("BANDAI"), anyCollection()))
+                .thenReturn(List.of(stale), List.of(latest));
+        when(productUpsertRepository.upsertAll(anyList()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<List<Product>>getArgument(0)))
+                .thenReturn(List.of());
+
+        List<ProductUpsertResult> results = productUpdateService.upsertScrapedProducts(
+                List.of(createProduct("111", "商品A", 400)));
+
+        assertEquals(1, results.size());
+        assertEquals(UpsertOutcome.UPDATED, results.get(0).outcome());
+        // 再試行では読み直した最新のversionで更新する
+        assertEquals(4L, results.get(0).product().getVersion());
+        verify(entityManager).clear();
+
+        // 変更履歴は保存できた更新の差分（最新値との比較）だけを記録する
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductChange>> changeCaptor = ArgumentCaptor.forClass(List.class);
+        verify(productChangeRepository).saveAll(changeCaptor.capture());
+        assertEquals(1, changeCaptor.getValue().size());
+        assertEquals("350", changeCaptor.getValue().get(0).getOldValue());
+    }
+
+    @Test
+    void upsertScrapedProducts_再試行回数を超えて競合した場合は例外() {
+        ReflectionTestUtils.setField(productUpdateService, "maxConflictRetries", 2);
+        when(productRepository.findByManufacturerAndProductKeyIn(eq("BANDAI"), anyCollection())).thenReturn(List.of());
+        when(productUpsertRepository.upsertAll(anyList()))
+                .thenAnswer(invocation -> List.copyOf(invocation.<List<Product>>getArgument(0)));
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> productUpdateService.upsertScrapedProducts(List.of(createProduct("111", "商品A", 300))));
+        verify(productUpsertRepository, times(3)).upsertAll(anyList());
+        verify(productChangeRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void ingestScrapedProducts_copyモードでPostgreSQLならCOPY経由で取り込む() {
+        ReflectionTestUtils.setField(productUpdateService, "ingestMode", "copy");
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        List<Product> products = List.of(createProduct("111", "商品A", 300));
+
+        productUpdateService.ingestScrapedProducts(products);
+
+        verify(productStagingLoader).loadAndMerge(products);
+        verifyNoInteractions(productUpsertRepository);
+    }
+
+    @Test
+    void ingestScrapedProducts_copyモードでも商品キーの無い商品はバッチUPSERTで取り込む() {
+        ReflectionTestUtils.setField(productUpdateService, "ingestMode", "copy");
+        when(databasePlatform.isPostgreSql()).thenReturn(true);
+        Product keyed = createProduct("111", "商品A", 300);
+        Product keyless = createProduct(null, "商品B", 300);
+        keyless.setNormalizedName("商品b");
+        when(productRepository.findByManufacturerAndNormalizedNameIn(eq("BANDAI"), anyCollection())).thenReturn(List.of());
+
+        List<ProductUpsertResult> results = productUpdateService.ingestScrapedProducts(List.of(keyed, keyless));
+
+        verify(productStagingLoader).loadAndMerge(List.of(keyed));
+        verify(productUpsertRepository).upsertAll(List.of(keyless));
+        assertEquals(UpsertOutcome.INSERTED, results.get(0).outcome());
+    }
+
+    @Test
+    void ingestScrapedProducts_PostgreSQL以外はバッチUPSERTで取り込む() {
+        ReflectionTestUtils.setField(productUpdateService, "ingestMode", "copy");
+        when(databasePlatform.isPostgreSql()).thenReturn(false);
+        when(productRepository.findByManufacturerAndProductKeyIn(eq("BANDAI"), anyCollection())).thenReturn(List.of());
+
+        List<ProductUpsertResult> results = productUpdateService.ingestScrapedProducts(
+                List.of(createProduct("111", "商品A", 300)));
+
+        assertEquals(UpsertOutcome.INSERTED, results.get(0).outcome());
+        verify(productUpsertRepository).upsertAll(anyList());
+        verifyNoInteractions(productStagingLoader);
+    }
+
+    @Test
+    void ingestScrapedProducts_ロックを奪取されていれば保存しない() {
+        doThrow(new IllegalStateException("ロックを失ったため処理を中止")).when(clusterJobLock).checkFencing();
+
+        assertThrows(IllegalStateException.class,
+                () -> productUpdateService.ingestScrapedProducts(List.of(createProduct("111", "商品A", 300))));
+
+        verifyNoInteractions(productUpsertRepository, productStagingLoader);
+    }
+
+    @Test
+    void ingestScrapedProducts_カタログの取り込み中は保存しない() {
+        doThrow(new IllegalStateException("カタログスナップショットの取り込み中のため商品を保存できません"))
+                .when(catalogWriteLock).lockForWrite();
+
+        assertThrows(IllegalStateException.class,
+                () -> productUpdateService.ingestScrapedProducts(List.of(createProduct("111", "商品A", 300))));
+
+        verifyNoInteractions(productUpsertRepository, productStagingLoader);
+    }
+}
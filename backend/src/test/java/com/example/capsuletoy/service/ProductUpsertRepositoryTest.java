@@ -0,0 +1,68 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.repository.ProductRepository;
+import com.example.capsuletoy.repository.jdbc.ProductUpsertRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ProductUpsertRepositoryのテスト（新規登録した商品に生成されたidが設定されることをH2で確認）
+ */
+@SpringBootTest
+class ProductUpsertRepositoryTest {
+
+    @Autowired
+    private ProductUpsertRepository productUpsertRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(productUpsertRepository, "batchSize", 50);
+        productRepository.deleteAll();
+    }
+
+    private Product createProduct(String productKey, String productName) {
+        Product product = new Product();
+        product.setProductName(productName);
+        product.setManufacturer("BANDAI");
+        product.setSourceUrl("https://gashapon.jp/products/detail.php?jan_code=" + productKey);
+        product.setProductKey(productKey);
+        return product;
+    }
+
+    private Long savedId(String productKey) {
+        return productRepository.findByManufacturerAndProductKeyIn("BANDAI", List.of(productKey)).get(0).getId();
+    }
+
+    @Test
+    void upsertAll_新規登録した商品に生成されたidを設定し競合した商品には設定しない() {
+        productUpsertRepository.upsertAll(List.of(createProduct("111", "商品A")));
+        // バッチの区切りをまたいでもidの対応がずれないこと
+        ReflectionTestUtils.setField(productUpsertRepository, "batchSize", 2);
+
+        Product inserted1 = createProduct("222", "商品B");
+        Product conflicted = createProduct("111", "商品A");
+        Product inserted2 = createProduct("333", "商品C");
+        Product inserted3 = createProduct("444", "商品D");
+        List<Product> conflicts = productUpsertRepository.upsertAll(
+                List.of(inserted1, conflicted, inserted2, inserted3));
+
+        assertEquals(List.of(conflicted), conflicts);
+        assertNull(conflicted.getId());
+        assertEquals(savedId("222"), inserted1.getId());
+        assertEquals(savedId("333"), inserted2.getId());
+        assertEquals(savedId("444"), inserted3.getId());
+        assertEquals(0L, inserted1.getVersion());
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.config.datasource.PrimaryReadPin;
+import com.example.capsuletoy.config.datasource.ReplicaFallbackDataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReplicaFallbackDataSourceの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ReplicaFallbackDataSourceTest {
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Connection primaryConnection;
+
+    private ReplicaFallbackDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaFallbackDataSource(replica, primary, 30_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        PrimaryReadPin.clear();
+    }
+
+    @Test
+    void getConnection_通常はレプリカの接続を返す() throws SQLException {
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_レプリカに接続できない場合はプライマリで代替し一定時間レプリカを使わない() throws SQLException {
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(replica, times(1)).getConnection();
+    }
+
+    @Test
+    void getConnection_プライマリにピン留め中はプライマリの接続を返す() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        PrimaryReadPin.pinFor(60_000);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void onPrimary_処理中だけプライマリから読む() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        Connection pinned = PrimaryReadPin.onPrimary(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertSame(primaryConnection, pinned);
+        assertSame(replicaConnection, dataSource.getConnection());
+    }
+}
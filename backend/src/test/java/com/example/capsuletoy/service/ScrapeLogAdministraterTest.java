@@ -0,0 +1,119 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.log.ScrapeLogAdministrater;
+import com.example.capsuletoy.domain.log.ScrapeLogCursor;
+import com.example.capsuletoy.model.ScrapeConfig;
+import com.example.capsuletoy.model.ScrapeLog;
+import com.example.capsuletoy.record.ScrapeLogSlice;
+import com.example.capsuletoy.repository.ScrapeConfigRepository;
+import com.example.capsuletoy.repository.ScrapeLogRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ScrapeLogAdministraterの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ScrapeLogAdministraterTest {
+
+    @Mock
+    private ScrapeLogRepository scrapeLogRepository;
+
+    @Mock
+    private ScrapeConfigRepository scrapeConfigRepository;
+
+    private ScrapeLogAdministrater scrapeLogAdministrater;
+
+    @BeforeEach
+    void setUp() {
+        scrapeLogAdministrater = new ScrapeLogAdministrater(scrapeLogRepository, scrapeConfigRepository, 30);
+    }
+
+    @Test
+    void getLatestRunPerSite_キャッシュ期間内はDBを再検索しない() {
+        ScrapeConfig config = new ScrapeConfig();
+        config.setSiteName("BANDAI");
+        when(scrapeConfigRepository.findAll()).thenReturn(List.of(config));
+        ScrapeLog bandai = createLog(1L, "BANDAI", LocalDateTime.of(2024, 1, 1, 6, 0));
+        when(scrapeLogRepository.findFirstByTargetSiteOrderByExecutedAtDescIdDesc(anyString()))
+                .thenReturn(Optional.empty());
+        when(scrapeLogRepository.findFirstByTargetSiteOrderByExecutedAtDescIdDesc("BANDAI"))
+                .thenReturn(Optional.of(bandai));
+
+        Map<String, ScrapeLog> first = scrapeLogAdministrater.getLatestRunPerSite();
+        Map<String, ScrapeLog> second = scrapeLogAdministrater.getLatestRunPerSite();
+
+        assertEquals(Map.of("BANDAI", bandai), first);
+        assertSame(first, second);
+        verify(scrapeConfigRepository, times(1)).findAll();
+        // 手動スクレイピングの2サイトと設定の1サイト
+        verify(scrapeLogRepository, times(3)).findFirstByTargetSiteOrderByExecutedAtDescIdDesc(anyString());
+    }
+
+    @Test
+    void getLatestRunPerSite_破棄後は再検索する() {
+        when(scrapeConfigRepository.findAll()).thenReturn(List.of());
+        when(scrapeLogRepository.findFirstByTargetSiteOrderByExecutedAtDescIdDesc(anyString()))
+                .thenReturn(Optional.empty());
+
+        scrapeLogAdministrater.getLatestRunPerSite();
+        scrapeLogAdministrater.evictLatestRunSummary();
+        scrapeLogAdministrater.getLatestRunPerSite();
+
+        verify(scrapeConfigRepository, times(2)).findAll();
+    }
+
+    @Test
+    void getScrapeLogsAfter_次ページがある場合は最後のログのカーソルを返す() {
+        ScrapeLog newer = createLog(3L, "BANDAI", LocalDateTime.of(2024, 1, 3, 6, 0));
+        ScrapeLog older = createLog(2L, "BANDAI", LocalDateTime.of(2024, 1, 2, 6, 0));
+        ScrapeLog oldest = createLog(1L, "BANDAI", LocalDateTime.of(2024, 1, 1, 6, 0));
+        when(scrapeLogRepository.findBy(any(Specification.class), any())).thenReturn(List.of(newer, older, oldest));
+
+        ScrapeLogSlice slice = scrapeLogAdministrater.getScrapeLogsAfter(null, null, null, null, null, 2);
+
+        assertEquals(List.of(newer, older), slice.content());
+        ScrapeLogCursor cursor = ScrapeLogCursor.decode(slice.nextCursor());
+        assertEquals(older.getExecutedAt(), cursor.executedAt());
+        assertEquals(2L, cursor.id());
+    }
+
+    @Test
+    void getScrapeLogsAfter_最終ページではカーソルを返さない() {
+        ScrapeLog log = createLog(1L, "BANDAI", LocalDateTime.of(2024, 1, 1, 6, 0));
+        when(scrapeLogRepository.findBy(any(Specification.class), any())).thenReturn(List.of(log));
+
+        ScrapeLogSlice slice = scrapeLogAdministrater.getScrapeLogsAfter(null, null, null, null, null, 2);
+
+        assertEquals(List.of(log), slice.content());
+        assertNull(slice.nextCursor());
+    }
+
+    @Test
+    void getScrapeLogsAfter_不正なカーソルは例外() {
+        assertThrows(IllegalArgumentException.class,
+                () -> scrapeLogAdministrater.getScrapeLogsAfter(null, null, null, null, "invalid", 20));
+    }
+
+    private ScrapeLog createLog(Long id, String site, LocalDateTime executedAt) {
+        ScrapeLog log = new ScrapeLog();
+        log.setId(id);
+        log.setTargetSite(site);
+        log.setStatus("SUCCESS");
+        log.setExecutedAt(executedAt);
+        return log;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.queue.ScrapeTaskQueue;
+import com.example.capsuletoy.domain.scraping.ManualScrapeExecuter;
+import com.example.capsuletoy.domain.scraping.ScrapeRunRegistry;
+import com.example.capsuletoy.domain.scraping.ScraperSelector;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ScrapeTask;
+import com.example.capsuletoy.scraper.BaseScraper;
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+import com.example.capsuletoy.service.notification.NotificationService;
+import com.example.capsuletoy.service.queue.ScrapeQueueWorker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ScrapeQueueWorkerの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ScrapeQueueWorkerTest {
+
+    @Mock
+    private ScrapeTaskQueue scrapeTaskQueue;
+
+    @Mock
+    private ScraperSelector scraperSelector;
+
+    @Mock
+    private ManualScrapeExecuter manualScrapeExecuter;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private BaseScraper scraper;
+
+    private ScrapeRunRegistry scrapeRunRegistry;
+
+    private ScrapeQueueWorker scrapeQueueWorker;
+
+    @BeforeEach
+    void setUp() {
+        scrapeRunRegistry = new ScrapeRunRegistry();
+        scrapeQueueWorker = new ScrapeQueueWorker(scrapeTaskQueue, scraperSelector, manualScrapeExecuter,
+                notificationService, scrapeRunRegistry, "worker-1");
+        ReflectionTestUtils.setField(scrapeQueueWorker, "batchSize", 5);
+        lenient().when(scrapeTaskQueue.getRenewIntervalSeconds()).thenReturn(60L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scrapeQueueWorker.shutdown();
+    }
+
+    private ScrapeTask createTask(Long id, String detailUrl) {
+        ScrapeTask task = new ScrapeTask();
+        task.setId(id);
+        task.setSiteName("BANDAI");
+        task.setDetailUrl(detailUrl);
+        return task;
+    }
+
+    private Product createProduct(String sourceUrl) {
+        Product product = new Product();
+        product.setProductName("商品");
+        product.setManufacturer("BANDAI");
+        product.setSourceUrl(sourceUrl);
+        return product;
+    }
+
+    @Test
+    void processQueue_タスクがなければスクレイピングしない() {
+        when(scrapeTaskQueue.lease("worker-1", 5)).thenReturn(List.of());
+
+        scrapeQueueWorker.processQueue();
+
+        verifyNoInteractions(scraperSelector, manualScrapeExecuter, notificationService);
+    }
+
+    @Test
+    void processQueue_取得できたタスクは完了し取得できなかったタスクは失敗にする() {
+        ScrapeTask found = createTask(1L, "https://example.com/1");
+        ScrapeTask missing = createTask(2L, "https://example.com/2");
+        Product product = createProduct("https://example.com/1");
+        when(scrapeTaskQueue.lease("worker-1", 5)).thenReturn(List.of(found, missing));
+        when(scraperSelector.getScraperForSite("BANDAI")).thenReturn(scraper);
+        when(scraper.scrapeProductUrls(anyList(), any(ScrapeRunHandle.class))).thenReturn(List.of(product));
+        when(manualScrapeExecuter.getNewProductList(List.of(product))).thenReturn(List.of(product));
+
+        scrapeQueueWorker.processQueue();
+
+        verify(scrapeTaskQueue).complete(found, "worker-1");
+        verify(scrapeTaskQueue).fail(eq(missing), eq("worker-1"), anyString());
+        verify(notificationService).sendFinishedEmail(List.of(product));
+        assertTrue(scrapeRunRegistry.getActiveRuns().isEmpty());
+    }
+
+    @Test
+    void processQueue_スクレイピングが例外で失敗したら全タスクを失敗にする() {
+        ScrapeTask first = createTask(1L, "https://example.com/1");
+        ScrapeTask second = createTask(2L, "https://example.com/2");
+        when(scrapeTaskQueue.lease("worker-1", 5)).thenReturn(List.of(first, second));
+        when(scraperSelector.getScraperForSite("BANDAI")).thenReturn(scraper);
+        when(scraper.scrapeProductUrls(anyList(), any(ScrapeRunHandle.class)))
+                .thenThrow(new IllegalStateException("ブラウザを起動できません"));
+
+        scrapeQueueWorker.processQueue();
+
+        verify(scrapeTaskQueue).fail(first, "worker-1", "ブラウザを起動できません");
+        verify(scrapeTaskQueue).fail(second, "worker-1", "ブラウザを起動できません");
+        verify(scrapeTaskQueue, never()).complete(any(), any());
+        verifyNoInteractions(manualScrapeExecuter, notificationService);
+    }
+
+    @Test
+    void processQueue_保存に失敗したら全タスクを失敗にする() {
+        ScrapeTask task = createTask(1L, "https://example.com/1");
+        Product product = createProduct("https://example.com/1");
+        when(scrapeTaskQueue.lease("worker-1", 5)).thenReturn(List.of(task));
+        when(scraperSelector.getScraperForSite("BANDAI")).thenReturn(scraper);
+        when(scraper.scrapeProductUrls(anyList(), any(ScrapeRunHandle.class))).thenReturn(List.of(product));
+        when(manualScrapeExecuter.getNewProductList(anyList())).thenThrow(new RuntimeException("DB error"));
+
+        scrapeQueueWorker.processQueue();
+
+        verify(scrapeTaskQueue).fail(task, "worker-1", "DB error");
+        verify(scrapeTaskQueue, never()).complete(any(), any());
+    }
+
+    @Test
+    void processQueue_処理中はリース期限を延長する() {
+        ScrapeTask task = createTask(1L, "https://example.com/1");
+        Product product = createProduct("https://example.com/1");
+        when(scrapeTaskQueue.getRenewIntervalSeconds()).thenReturn(1L);
+        when(scrapeTaskQueue.lease("worker-1", 5)).thenReturn(List.of(task));
+        when(scraperSelector.getScraperForSite("BANDAI")).thenReturn(scraper);
+        when(scraper.scrapeProductUrls(anyList(), any(ScrapeRunHandle.class))).thenAnswer(invocation -> {
+            // リースの延長間隔より長くかかるバッチ
+            Thread.sleep(1500);
+            return List.of(product);
+        });
+        when(manualScrapeExecuter.getNewProductList(anyList())).thenReturn(List.of());
+
+        scrapeQueueWorker.processQueue();
+
+        verify(scrapeTaskQueue, atLeastOnce()).renewLeases(List.of(task), "worker-1");
+        verify(scrapeTaskQueue).complete(task, "worker-1");
+    }
+}
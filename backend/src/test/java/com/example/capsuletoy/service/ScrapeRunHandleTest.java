@@ -0,0 +1,93 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ScrapeRunHandleの単体テスト
+ */
+@ExtendWith(MockitoExtension.class)
+class ScrapeRunHandleTest {
+
+    @Mock
+    private WebDriver driver;
+
+    @AfterEach
+    void tearDown() {
+        // 現在のスレッドを対象にしたテストの割り込みフラグを後続のテストに残さない
+        Thread.interrupted();
+    }
+
+    @Test
+    void cancel_実行中のスレッドに割り込みブラウザを終了する() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Thread runner = new Thread(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        runner.start();
+        started.await();
+        ScrapeRunHandle handle = new ScrapeRunHandle(1L, "BANDAI", runner);
+        handle.attachDriver(driver);
+
+        handle.cancel();
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(handle.isCancelled());
+        verify(driver).quit();
+        runner.join();
+    }
+
+    @Test
+    void cancel_ブラウザ操作の終了後は割り込まずブラウザも終了しない() {
+        ScrapeRunHandle handle = new ScrapeRunHandle(1L, "BANDAI", Thread.currentThread());
+        handle.attachDriver(driver);
+        handle.detachBrowser();
+
+        handle.cancel();
+
+        assertTrue(handle.isCancelled());
+        assertFalse(Thread.currentThread().isInterrupted());
+        verifyNoInteractions(driver);
+    }
+
+    @Test
+    void cancel_2回目以降は何もしない() {
+        ScrapeRunHandle handle = new ScrapeRunHandle(1L, "BANDAI", Thread.currentThread());
+        handle.attachDriver(driver);
+
+        handle.cancel();
+        Thread.interrupted();
+        handle.cancel();
+
+        assertFalse(Thread.currentThread().isInterrupted());
+        verify(driver, times(1)).quit();
+    }
+
+    @Test
+    void cancel_ブラウザ終了の例外は無視する() {
+        ScrapeRunHandle handle = new ScrapeRunHandle(1L, "BANDAI", null);
+        handle.attachDriver(driver);
+        doThrow(new RuntimeException("already closed")).when(driver).quit();
+
+        assertDoesNotThrow(handle::cancel);
+        assertTrue(handle.isCancelled());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.scraping.ScrapeRunRegistry;
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ScrapeRunRegistryの単体テスト
+ */
+class ScrapeRunRegistryTest {
+
+    private ScrapeRunRegistry scrapeRunRegistry;
+
+    @BeforeEach
+    void setUp() {
+        scrapeRunRegistry = new ScrapeRunRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // キャンセル対象は現在のスレッドのため、割り込みフラグを後続のテストに残さない
+        Thread.interrupted();
+    }
+
+    @Test
+    void start_開始した実行を一覧に登録し終了で解除する() {
+        ScrapeRunHandle first = scrapeRunRegistry.start("BANDAI");
+        ScrapeRunHandle second = scrapeRunRegistry.start("TAKARA_TOMY");
+
+        assertEquals(List.of(first, second), scrapeRunRegistry.getActiveRuns());
+
+        scrapeRunRegistry.finish(first);
+
+        assertEquals(List.of(second), scrapeRunRegistry.getActiveRuns());
+    }
+
+    @Test
+    void cancel_実行中の実行をキャンセルする() {
+        ScrapeRunHandle handle = scrapeRunRegistry.start("BANDAI");
+
+        assertTrue(scrapeRunRegistry.cancel(handle.getRunId()));
+
+        assertTrue(handle.isCancelled());
+        assertTrue(Thread.interrupted());
+    }
+
+    @Test
+    void cancel_存在しない実行はfalse() {
+        assertFalse(scrapeRunRegistry.cancel(99L));
+    }
+
+    @Test
+    void cancel_終了した実行はキャンセルせず割り込まない() {
+        ScrapeRunHandle handle = scrapeRunRegistry.start("BANDAI");
+        scrapeRunRegistry.finish(handle);
+
+        assertFalse(scrapeRunRegistry.cancel(handle.getRunId()));
+        // 一覧から取得した後に終了した場合も割り込まない
+        handle.cancel();
+
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void cancelAllOnShutdown_実行中の全実行をキャンセルする() {
+        ReflectionTestUtils.setField(scrapeRunRegistry, "shutdownWaitSeconds", 0L);
+        ScrapeRunHandle first = scrapeRunRegistry.start("BANDAI");
+        ScrapeRunHandle second = scrapeRunRegistry.start("TAKARA_TOMY");
+
+        scrapeRunRegistry.cancelAllOnShutdown();
+
+        assertTrue(first.isCancelled());
+        assertTrue(second.isCancelled());
+    }
+}
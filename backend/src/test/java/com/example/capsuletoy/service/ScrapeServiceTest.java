@@ -0,0 +1,125 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.lock.ClusterJobLock;
+import com.example.capsuletoy.model.Product;
+import com.example.capsuletoy.model.ScrapeLog;
+import com.example.capsuletoy.record.ScrapeResult;
+import com.example.capsuletoy.repository.SchedulerLockRepository;
+import com.example.capsuletoy.repository.ScrapeLogRepository;
+import com.example.capsuletoy.repository.jdbc.ProductUpsertRepository;
+import com.example.capsuletoy.scraper.BaseScraper;
+import com.example.capsuletoy.scraper.ScrapeRunHandle;
+import com.example.capsuletoy.service.scraping.ScrapeService;
+import com.zaxxer.hikari.HikariDataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ScrapeServiceのテスト（ブラウズ中にDB接続を保持しないこと、保存失敗時もログが残ることをH2で確認）
+ */
+@SpringBootTest
+class ScrapeServiceTest {
+
+    @Autowired
+    private ScrapeService scrapeService;
+
+    @Autowired
+    private ScrapeLogRepository scrapeLogRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ClusterJobLock clusterJobLock;
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    // 商品の一括保存（ProductUpdateServiceのトランザクション内）の最後のSQLだけ差し替える
+    @MockitoBean
+    private ProductUpsertRepository productUpsertRepository;
+
+    @AfterEach
+    void tearDown() {
+        scrapeLogRepository.deleteAll();
+        // 解放後もしばらく残るサイト単位のロックを次のテストに持ち越さない
+        schedulerLockRepository.deleteAll();
+    }
+
+    private Product createProduct() {
+        Product product = new Product();
+        product.setProductName("商品A");
+        product.setManufacturer("BANDAI");
+        product.setSourceUrl("https://gashapon.jp/products/detail.php?jan_code=111");
+        return product;
+    }
+
+    @Test
+    void executeScraping_ブラウズ中はトランザクションもDB接続も保持しない() {
+        AtomicReference<Boolean> transactionActive = new AtomicReference<>();
+        AtomicReference<Boolean> resourcesBound = new AtomicReference<>();
+        AtomicInteger activeConnections = new AtomicInteger(-1);
+        BaseScraper scraper = mock(BaseScraper.class);
+        when(scraper.getSiteName()).thenReturn("BANDAI");
+        when(scraper.scrape(any(ScrapeRunHandle.class))).thenAnswer(invocation -> {
+            transactionActive.set(TransactionSynchronizationManager.isActualTransactionActive());
+            resourcesBound.set(!TransactionSynchronizationManager.getResourceMap().isEmpty());
+            activeConnections.set(dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean().getActiveConnections());
+            return List.of(createProduct());
+        });
+        when(productUpsertRepository.upsertAll(anyList())).thenReturn(List.of());
+
+        ScrapeResult result = scrapeService.executeScraping(scraper, "BANDAI");
+
+        assertEquals(1, result.totalProducts());
+        assertFalse(transactionActive.get());
+        assertFalse(resourcesBound.get());
+        assertEquals(0, activeConnections.get());
+        assertEquals(List.of("SUCCESS"), scrapeLogRepository.findAll().stream().map(ScrapeLog::getStatus).toList());
+    }
+
+    @Test
+    void executeScraping_商品の保存に失敗してもFAILUREのログを記録する() {
+        BaseScraper scraper = mock(BaseScraper.class);
+        when(scraper.getSiteName()).thenReturn("BANDAI");
+        when(scraper.scrape(any(ScrapeRunHandle.class))).thenReturn(List.of(createProduct()));
+        when(productUpsertRepository.upsertAll(anyList())).thenThrow(new IllegalStateException("DB error"));
+
+        ScrapeResult result = scrapeService.executeScraping(scraper, "BANDAI");
+
+        assertEquals(0, result.newProducts());
+        List<ScrapeLog> logs = scrapeLogRepository.findAll();
+        assertEquals(1, logs.size());
+        assertEquals("BANDAI", logs.get(0).getTargetSite());
+        assertEquals("FAILURE", logs.get(0).getStatus());
+        assertEquals("DB error", logs.get(0).getErrorMessage());
+    }
+
+    @Test
+    void executeScraping_同じサイトのスクレイピング中は実行しない() {
+        BaseScraper scraper = mock(BaseScraper.class);
+        when(scraper.getSiteName()).thenReturn("BANDAI");
+
+        boolean executed = clusterJobLock.runExclusive("scrape-site-BANDAI",
+                () -> assertThrows(IllegalStateException.class,
+                        () -> scrapeService.executeScraping(scraper, "BANDAI_GASHAPON")));
+
+        assertTrue(executed);
+        verify(scraper, never()).scrape(any(ScrapeRunHandle.class));
+        assertTrue(scrapeLogRepository.findAll().isEmpty());
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.capsuletoy.service;
+
+import com.example.capsuletoy.domain.queue.ScrapeTaskQueue;
+import com.example.capsuletoy.model.ScrapeTask;
+import com.example.capsuletoy.model.ScrapeTaskStatus;
+import com.example.capsuletoy.repository.ScrapeTaskRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ScrapeTaskQueueのテスト（リース取得の条件付きUPDATEを確認するためH2で実行）
+ */
+@SpringBootTest
+@Transactional
+class ScrapeTaskQueueTest {
+
+    @Autowired
+    private ScrapeTaskQueue scrapeTaskQueue;
+
+    @Autowired
+    private ScrapeTaskRepository scrapeTaskRepository;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scrapeTaskQueue, "leaseSeconds", 300L);
+        ReflectionTestUtils.setField(scrapeTaskQueue, "maxAttempts", 3);
+        ReflectionTestUtils.setField(scrapeTaskQueue, "retryBackoffSeconds", 60L);
+    }
+
+    @Test
+    void lease_待機中のタスクをリースする() {
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1", "https://example.com/2"));
+
+        List<ScrapeTask> leased = scrapeTaskQueue.lease("worker-1", 5);
+
+        assertEquals(2, leased.size());
+        for (ScrapeTask task : leased) {
+            assertEquals(ScrapeTaskStatus.LEASED, task.getStatus());
+            assertEquals("worker-1", task.getLeaseOwner());
+            assertEquals(1, task.getAttempts());
+            assertTrue(task.getLeaseExpiresAt().isAfter(LocalDateTime.now()));
+        }
+    }
+
+    @Test
+    void lease_件数の上限を超えてリースしない() {
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1", "https://example.com/2", "https://example.com/3"));
+
+        List<ScrapeTask> first = scrapeTaskQueue.lease("worker-1", 2);
+        List<ScrapeTask> second = scrapeTaskQueue.lease("worker-2", 2);
+
+        assertEquals(2, first.size());
+        assertEquals(1, second.size());
+        assertEquals("https://example.com/3", second.get(0).getDetailUrl());
+    }
+
+    @Test
+    void lease_リース中のタスクは他ワーカーに渡さない() {
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1"));
+        scrapeTaskQueue.lease("worker-1", 5);
+
+        List<ScrapeTask> leased = scrapeTaskQueue.lease("worker-2", 5);
+
+        assertTrue(leased.isEmpty());
+    }
+
+    @Test
+    void lease_期限切れのリースは他ワーカーが再取得できる() {
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1"));
+        ScrapeTask task = scrapeTaskQueue.lease("worker-1", 5).get(0);
+        expireLease(task.getId());
+
+        List<ScrapeTask> leased = scrapeTaskQueue.lease("worker-2", 5);
+
+        assertEquals(1, leased.size());
+        assertEquals("worker-2", leased.get(0).getLeaseOwner());
+        assertEquals(2, leased.get(0).getAttempts());
+    }
+
+    @Test
+    void lease_期限切れで試行回数上限に達したタスクはデッドレターにする() {
+        ReflectionTestUtils.setField(scrapeTaskQueue, "maxAttempts", 1);
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1"));
+        ScrapeTask task = scrapeTaskQueue.lease("worker-1", 5).get(0);
+        expireLease(task.getId());
+
+        List<ScrapeTask> leased = scrapeTaskQueue.lease("worker-2", 5);
+
+        assertTrue(leased.isEmpty());
+        assertEquals(ScrapeTaskStatus.DEAD, scrapeTaskRepository.findById(task.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void fail_試行回数上限未満なら待機時間を置いて再試行する() {
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1"));
+        ScrapeTask task = scrapeTaskQueue.lease("worker-1", 5).get(0);
+
+        scrapeTaskQueue.fail(task, "worker-1", "timeout");
+
+        ScrapeTask current = scrapeTaskRepository.findById(task.getId()).orElseThrow();
+        assertEquals(ScrapeTaskStatus.PENDING, current.getStatus());
+        assertNull(current.getLeaseOwner());
+        assertEquals("timeout", current.getLastError());
+        assertTrue(current.getAvailableAt().isAfter(LocalDateTime.now()));
+        // 待機時間が経過するまではリースされない
+        assertTrue(scrapeTaskQueue.lease("worker-1", 5).isEmpty());
+    }
+
+    @Test
+    void fail_試行回数上限に達したらデッドレターにする() {
+        ReflectionTestUtils.setField(scrapeTaskQueue, "maxAttempts", 2);
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1"));
+        ScrapeTask task = scrapeTaskQueue.lease("worker-1", 5).get(0);
+        scrapeTaskQueue.fail(task, "worker-1", "timeout");
+        makeAvailable(task.getId());
+        task = scrapeTaskQueue.lease("worker-1", 5).get(0);
+
+        scrapeTaskQueue.fail(task, "worker-1", "timeout");
+
+        ScrapeTask current = scrapeTaskRepository.findById(task.getId()).orElseThrow();
+        assertEquals(ScrapeTaskStatus.DEAD, current.getStatus());
+        assertEquals(2, current.getAttempts());
+        assertEquals(1, scrapeTaskQueue.requeueDeadTasks());
+        assertEquals(ScrapeTaskStatus.PENDING, scrapeTaskRepository.findById(task.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void complete_リースを失ったワーカーからの完了は無視する() {
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1"));
+        ScrapeTask task = scrapeTaskQueue.lease("worker-1", 5).get(0);
+        expireLease(task.getId());
+        scrapeTaskQueue.lease("worker-2", 5);
+
+        scrapeTaskQueue.complete(task, "worker-1");
+
+        ScrapeTask current = scrapeTaskRepository.findById(task.getId()).orElseThrow();
+        assertEquals(ScrapeTaskStatus.LEASED, current.getStatus());
+        assertEquals("worker-2", current.getLeaseOwner());
+    }
+
+    @Test
+    void renewLeases_自分のリースだけ期限を延長する() {
+        scrapeTaskQueue.enqueue("BANDAI", List.of("https://example.com/1", "https://example.com/2"));
+        List<ScrapeTask> leased = scrapeTaskQueue.lease("worker-1", 5);
+        expireLease(leased.get(1).getId());
+        scrapeTaskQueue.lease("worker-2", 5);
+
+        int renewed = scrapeTaskQueue.renewLeases(leased, "worker-1");
+
+        assertEquals(1, renewed);
+        ScrapeTask own = scrapeTaskRepository.findById(leased.get(0).getId()).orElseThrow();
+        assertTrue(own.getLeaseExpiresAt().isAfter(LocalDateTime.now().plusSeconds(200)));
+        assertEquals("worker-2", scrapeTaskRepository.findById(leased.get(1).getId()).orElseThrow().getLeaseOwner());
+    }
+
+    private void expireLease(Long taskId) {
+        ScrapeTask task = scrapeTaskRepository.findById(taskId).orElseThrow();
+        task.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+        scrapeTaskRepository.saveAndFlush(task);
+    }
+
+    private void makeAvailable(Long taskId) {
+        ScrapeTask task = scrapeTaskRepository.findById(taskId).orElseThrow();
+        task.setAvailableAt(LocalDateTime.now().minusSeconds(1));
+        scrapeTaskRepository.saveAndFlush(task);
+    }
+}
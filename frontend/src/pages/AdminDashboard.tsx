@@ -205,8 +205,8 @@ function AdminDashboard() {
                       <td className="muted">{new Date(log.executedAt).toLocaleString('ja-JP')}</td>
                       <td>{log.targetSite}</td>
                       <td>
-                        <span className={`badge ${log.status === 'SUCCESS' ? 'badge-success' : 'badge-error'}`}>
-                          {log.status === 'SUCCESS' ? '成功' : '失敗'}
+                        <span className={`badge ${log.status === 'SUCCESS' ? 'badge-success' : log.status === 'CANCELLED' ? 'badge-accent' : 'badge-error'}`}>
+                          {log.status === 'SUCCESS' ? '成功' : log.status === 'CANCELLED' ? 'キャンセル' : '失敗'}
                         </span>
                       </td>
                       <td style={{ color: 'var(--color-accent)', fontWeight: 600 }}>{log.productsFound}</td>
@@ -13,6 +13,7 @@ interface ScrapeConfig {
   cronExpression: string;
   isEnabled: boolean;
   lastScrapedAt?: string;
+  version?: number;
 }
 
 interface ConfigForm {
@@ -20,6 +21,8 @@ interface ConfigForm {
   siteUrl: string;
   cronExpression: string;
   isEnabled: boolean;
+  // 編集開始時のversion（他の管理者と同時に編集した場合の競合検出に使う）
+  version?: number;
 }
 
 const emptyForm: ConfigForm = {
@@ -68,9 +71,14 @@ function AdminSites() {
       setEditingId(null);
       setForm(emptyForm);
       await fetchConfigs();
-    } catch (err: unknown) {
-      const message = err instanceof Error ? err.message : '設定の更新に失敗しました。';
-      setFormError(message);
+    } catch (err: any) {
+      if (err.response?.status === 409) {
+        // 他の管理者が先に更新していた場合は最新の設定を読み直す
+        setFormError(err.response.data?.message || '他の管理者が先に更新しました。');
+        await fetchConfigs();
+      } else {
+        setFormError(err.response?.data?.message || '設定の更新に失敗しました。');
+      }
     } finally {
       setSubmitting(false);
     }
@@ -92,6 +100,7 @@ function AdminSites() {
       siteUrl: config.siteUrl,
       cronExpression: config.cronExpression || '0 0 6 * * *',
       isEnabled: config.isEnabled,
+      version: config.version,
     });
     setFormError(null);
   };
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
-import type { Product, PageResponse } from '../types';
-import { getProducts } from '../services/productApi';
+import type { Product, PageResponse, ProductSuggestion } from '../types';
+import { CARD_FIELDS, getProducts, getProductSuggestions } from '../services/productApi';
 import ProductCard from '../components/ProductCard';
 
 function Products() {
@@ -13,12 +13,14 @@ function Products() {
   const [manufacturer, setManufacturer] = useState<string>('');
   const [keyword, setKeyword] = useState<string>('');
   const [searchInput, setSearchInput] = useState<string>('');
+  const [suggestions, setSuggestions] = useState<ProductSuggestion[]>([]);
   const [sortField, setSortField] = useState<string>('createdAt');
   const [sortDirection, setSortDirection] = useState<'asc' | 'desc'>('desc');
 
   const PAGE_SIZE = 12;
 
   const sortOptions = [
+    { label: '関連度順', field: 'relevance', direction: 'desc' as const },
     { label: '新着順', field: 'createdAt', direction: 'desc' as const },
     { label: '古い順', field: 'createdAt', direction: 'asc' as const },
     { label: '発売日（新しい順）', field: 'releaseDate', direction: 'desc' as const },
@@ -38,6 +40,7 @@ function Products() {
         size: PAGE_SIZE,
         sort: sortField,
         direction: sortDirection,
+        fields: CARD_FIELDS,
       };
       if (manufacturer) params.manufacturer = manufacturer;
       if (keyword) params.keyword = keyword;
@@ -57,10 +60,34 @@ function Products() {
     fetchProducts();
   }, [currentPage, manufacturer, keyword, sortField, sortDirection]);
 
+  // 入力中の商品名の候補（サーバーのメモリ上の索引から取得するため、入力ごとに問い合わせても軽い）
+  useEffect(() => {
+    if (!searchInput.trim()) {
+      setSuggestions([]);
+      return;
+    }
+    let cancelled = false;
+    getProductSuggestions(searchInput, 8)
+      .then((items) => {
+        if (!cancelled) setSuggestions(items);
+      })
+      .catch(() => {
+        if (!cancelled) setSuggestions([]);
+      });
+    return () => {
+      cancelled = true;
+    };
+  }, [searchInput]);
+
   const handleSearch = (e: React.FormEvent) => {
     e.preventDefault();
     setCurrentPage(0);
     setKeyword(searchInput);
+    // キーワード検索は関連度順で表示する（並び替えで変更可能）
+    if (searchInput) {
+      setSortField('relevance');
+      setSortDirection('desc');
+    }
   };
 
   const handleManufacturerChange = (value: string) => {
@@ -141,7 +168,14 @@ function Products() {
                 placeholder="商品名で検索..."
                 className="input-field"
                 style={{ flex: 1 }}
+                list="product-suggestions"
+                autoComplete="off"
               />
+              <datalist id="product-suggestions">
+                {suggestions.map((suggestion) => (
+                  <option key={suggestion.id} value={suggestion.productName} />
+                ))}
+              </datalist>
               <button type="submit" className="btn-primary" style={{ whiteSpace: 'nowrap' }}>
                 検索
               </button>
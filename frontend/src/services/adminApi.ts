@@ -53,6 +53,7 @@ export const updateScrapeConfig = async (id: number, config: {
   siteUrl: string;
   cronExpression: string;
   isEnabled: boolean;
+  version?: number;
 }) => {
   const response = await api.put(`/scrape/configs/${id}`, config);
   return response.data;
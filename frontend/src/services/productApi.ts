@@ -1,5 +1,5 @@
 import api from './api';
-import type { Product, PageResponse } from '../types';
+import type { Product, PageResponse, ProductSuggestion } from '../types';
 
 export interface ProductSearchParams {
   page?: number;
@@ -8,14 +8,24 @@ export interface ProductSearchParams {
   direction?: 'asc' | 'desc';
   manufacturer?: string;
   keyword?: string;
+  fields?: string;
 }
 
+// 一覧カードで使う項目（一覧APIの fields に指定する）
+export const CARD_FIELDS = 'summary,sourceUrl';
+
 // 商品一覧取得（ページネーション・フィルタ対応）
 export const getProducts = async (params: ProductSearchParams = {}): Promise<PageResponse<Product>> => {
   const response = await api.get('/products', { params });
   return response.data;
 };
 
+// 商品名の入力補完
+export const getProductSuggestions = async (q: string, limit = 10): Promise<ProductSuggestion[]> => {
+  const response = await api.get('/products/suggest', { params: { q, limit } });
+  return response.data.suggestions;
+};
+
 // 商品詳細取得
 export const getProductById = async (id: number): Promise<Product> => {
   const response = await api.get(`/products/${id}`);
@@ -23,7 +33,7 @@ export const getProductById = async (id: number): Promise<Product> => {
 };
 
 // 新着商品一覧取得
-export const getNewProducts = async (page = 0, size = 20): Promise<PageResponse<Product>> => {
-  const response = await api.get('/products/new', { params: { page, size } });
+export const getNewProducts = async (page = 0, size = 20, fields = CARD_FIELDS): Promise<PageResponse<Product>> => {
+  const response = await api.get('/products/new', { params: { page, size, fields } });
   return response.data;
 };
@@ -46,3 +46,10 @@ export interface PageResponse<T> {
   hasNext: boolean;
   hasPrevious: boolean;
 }
+
+// 商品名の入力補完の候補の型定義
+export interface ProductSuggestion {
+  id: number;
+  productName: string;
+  manufacturer: string;
+}